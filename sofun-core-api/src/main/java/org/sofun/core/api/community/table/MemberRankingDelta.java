@@ -0,0 +1,91 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.api.community.table;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Member Ranking Delta.
+ * 
+ * <p>
+ * 
+ * The entries of a {@link MemberRankingTable} whose value or position changed
+ * since a given version of the table, along with their current positions.
+ * 
+ * <p>
+ * 
+ * A delta is incomplete when the table change log does not go back to the
+ * requested version anymore (or when too many entries changed since). The
+ * table has to be fetched again in that case.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public interface MemberRankingDelta extends Serializable {
+
+    /**
+     * Returns the identifier of the underlying {@link MemberRankingTable}.
+     * 
+     * @return a long
+     */
+    long getTableId();
+
+    /**
+     * Returns the version the delta has been requested since.
+     * 
+     * @return a long
+     */
+    long getSinceVersion();
+
+    /**
+     * Returns the current version of the table.
+     * 
+     * @return a long
+     */
+    long getVersion();
+
+    /**
+     * Does the delta hold all the changes since the requested version?
+     * 
+     * @return false if the table needs to be fetched again.
+     */
+    boolean isComplete();
+
+    /**
+     * Returns the changed entries ordered by position.
+     * 
+     * @return a {@link List} of {@link MemberRankingTableEntry}. Empty if the
+     *         delta is incomplete.
+     */
+    List<MemberRankingTableEntry> getEntries();
+
+    /**
+     * Returns the current position of a changed entry.
+     * 
+     * @param memberId: a member identifier.
+     * @return an int (starting at 0) or -1 if the member's entry did not
+     *         change.
+     */
+    int getPositionFor(long memberId);
+
+    long getTotalEntries();
+
+    Date getLastModified();
+
+    long getEntriesTotalPoints();
+
+}
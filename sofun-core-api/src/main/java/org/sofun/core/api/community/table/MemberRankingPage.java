@@ -0,0 +1,93 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.api.community.table;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Member Ranking Page.
+ * 
+ * <p>
+ * 
+ * A slice of a {@link MemberRankingTable} computed by the database along with
+ * the table metadata and, optionally, the entry and position of a given
+ * member.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public interface MemberRankingPage extends Serializable {
+
+    /**
+     * Returns the identifier of the underlying {@link MemberRankingTable}.
+     * 
+     * @return a long
+     */
+    long getTableId();
+
+    /**
+     * Returns the position of the first entry of the page (starting at 0).
+     * 
+     * @return an int
+     */
+    int getOffset();
+
+    int getBatchSize();
+
+    /**
+     * Returns the total amount of entries in the table.
+     * 
+     * @return a long
+     */
+    long getTotalEntries();
+
+    /**
+     * Returns the entries of the page ordered by position.
+     * 
+     * @return a {@link List} of {@link MemberRankingTableEntry}
+     */
+    List<MemberRankingTableEntry> getEntries();
+
+    Date getLastModified();
+
+    long getEntriesTotalPoints();
+
+    /**
+     * Returns the version of the table the page has been computed from.
+     * 
+     * @return a long
+     */
+    long getVersion();
+
+    /**
+     * Returns the entry of the member the page has been requested for.
+     * 
+     * @return a {@link MemberRankingTableEntry} or null if no member was
+     *         given or if the member is not ranked.
+     */
+    MemberRankingTableEntry getMemberEntry();
+
+    /**
+     * Returns the position of the member the page has been requested for
+     * (starting at 0).
+     * 
+     * @return an int or -1 if no member was given or if the member is not
+     *         ranked.
+     */
+    int getMemberPosition();
+
+}
@@ -16,6 +16,7 @@ package org.sofun.core.api.community.table;
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 
 import org.sofun.core.api.kup.KupRankingTable;
@@ -39,9 +40,22 @@ import org.sofun.core.api.team.table.TeamRankingTable;
  */
 public interface MemberRankingTable extends Serializable {
 
+    /**
+     * Returns the unique identifier of the table.
+     * 
+     * @return a long
+     */
+    long getId();
+
     /**
      * Returns a {@link Set} of {@link MemberRankingTableEntry} instances.
      * 
+     * <p/>
+     * 
+     * Entries are lazily loaded: the first access pulls the whole table in
+     * memory. Use the {@link MemberRankingTableService} to fetch a single
+     * entry, a page or to walk the entries of large tables.
+     * 
      * @return a {@link Set} of {@link MemberRankingTableEntry} instances.
      */
     Set<MemberRankingTableEntry> getEntries();
@@ -81,6 +95,11 @@ public interface MemberRankingTable extends Serializable {
      * The entry will be inserted at the end of the set. If an entry already
      * exists for the given member then this entry will <b>not</b> be inserted.
      * 
+     * <p/>
+     * 
+     * Loads all the entries first. Entries of persisted tables are rather
+     * persisted on their own by the core services.
+     * 
      * @param member : a {@link Member} instance.
      */
     void addEntryForMember(Member member);
@@ -89,11 +108,52 @@ public interface MemberRankingTable extends Serializable {
      * Returns the corresponding {@link MemberRankingTableEntry} for a given
      * {@link Member} if it exists.
      * 
+     * <p/>
+     * 
+     * Like the other lookups below, builds an in-memory ranking index over all
+     * the entries, loading them if needed. Use the
+     * {@link MemberRankingTableService} unless the entries are loaded already.
+     * 
      * @param member: a {@link Member} instance.
      * @return a {@link MemberRankingTableEntry} or null if it does not exist.
      */
     MemberRankingTableEntry getEntryForMember(Member member);
 
+    /**
+     * Returns a slice of the ranking.
+     * 
+     * @param offset: position of the first entry (starting at 0)
+     * @param batchSize: maximum amount of entries.
+     * @return a {@link List} of {@link MemberRankingTableEntry} ordered by
+     *         position.
+     */
+    List<MemberRankingTableEntry> getEntries(int offset, int batchSize);
+
+    /**
+     * Returns the entries of a set of members ordered by position.
+     * 
+     * <p/>
+     * 
+     * Members without entry are skipped. This is meant for friends rankings:
+     * cost depends on the amount of members asked for, not on the table size
+     * (once entries are loaded).
+     * 
+     * @param memberIds: distinct member identifiers such as
+     *        {@link Member#getFriendIds()}.
+     * @return a {@link List} of {@link MemberRankingTableEntry} ordered by
+     *         position.
+     */
+    List<MemberRankingTableEntry> getEntriesFor(long[] memberIds);
+
+    /**
+     * Notifies the table that the ranking fields of one of its entries
+     * (value, correct predictions, tiebreaker offset or first predictions)
+     * have been modified so that its position gets updated.
+     * 
+     * @param entry: a {@link MemberRankingTableEntry} instance.
+     */
+    void updateEntry(MemberRankingTableEntry entry);
+
     /**
      * Returns the position of a given {@link Member} in the
      * {@link TeamRankingTable} if it exists.
@@ -178,4 +238,42 @@ public interface MemberRankingTable extends Serializable {
      */
     void setEntriesTotalPoints(long entriesTotalPoints);
 
+    /**
+     * Returns the version of the table.
+     * 
+     * <p>
+     * 
+     * The version is incremented each time entries get added or updated.
+     * 
+     * @return a long
+     */
+    long getVersion();
+
+    /**
+     * Sets the version of the table.
+     * 
+     * @param version: a long
+     */
+    void setVersion(long version);
+
+    /**
+     * Returns the version from which the change log of the table is complete.
+     * 
+     * <p>
+     * 
+     * Changes since any version greater or equal can be replayed from the log.
+     * Older versions require to fetch the table again. The log is rolled over
+     * when entries are added or reordered as a whole.
+     * 
+     * @return a long
+     */
+    long getChangeLogVersion();
+
+    /**
+     * Sets the version from which the change log of the table is complete.
+     * 
+     * @param version: a long
+     */
+    void setChangeLogVersion(long version);
+
 }
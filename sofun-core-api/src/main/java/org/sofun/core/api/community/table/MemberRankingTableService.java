@@ -0,0 +1,228 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.api.community.table;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.member.Member;
+
+/**
+ * Member Ranking Table Service.
+ * 
+ * <p>
+ * 
+ * Database side access to {@link MemberRankingTable} entries. Ordering and
+ * paging are pushed down to the database so that only the requested slice
+ * gets loaded, which is what ranking endpoints should use rather than
+ * walking {@link MemberRankingTable#getEntries()}.
+ * 
+ * <p>
+ * 
+ * Entries are ordered by value DESC, correct predictions DESC, tiebreaker
+ * offset ASC, first predictions ASC and then member id ASC so that the order
+ * is total and stable across pages.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public interface MemberRankingTableService extends Serializable {
+
+    /**
+     * Returns the ranking table identifier of a Kup without loading the table.
+     * 
+     * @param kupId: a Kup identifier.
+     * @return a long or -1 if the Kup or its table does not exist.
+     * @throws CoreException
+     */
+    long getKupRankingTableId(long kupId) throws CoreException;
+
+    /**
+     * Returns the ranking table identifier of a team without loading the
+     * table.
+     * 
+     * @param teamId: a team identifier.
+     * @return a long or -1 if the team or its table does not exist.
+     * @throws CoreException
+     */
+    long getTeamRankingTableId(long teamId) throws CoreException;
+
+    /**
+     * Returns the amount of entries in a table.
+     * 
+     * @param tableId: a table identifier.
+     * @return a long
+     * @throws CoreException
+     */
+    long countEntries(long tableId) throws CoreException;
+
+    /**
+     * Returns a slice of a table.
+     * 
+     * @param tableId: a table identifier.
+     * @param offset: position of the first entry (starting at 0)
+     * @param batchSize: maximum amount of entries. 0 means all.
+     * @return a {@link List} of {@link MemberRankingTableEntry} ordered by
+     *         position.
+     * @throws CoreException
+     */
+    List<MemberRankingTableEntry> getEntries(long tableId, int offset,
+            int batchSize) throws CoreException;
+
+    /**
+     * Returns the entries ranked right after a given entry (keyset paging).
+     * 
+     * @param tableId: a table identifier.
+     * @param after: a {@link MemberRankingTableEntry} of this table.
+     * @param batchSize: maximum amount of entries. 0 means all.
+     * @return a {@link List} of {@link MemberRankingTableEntry} ordered by
+     *         position.
+     * @throws CoreException
+     */
+    List<MemberRankingTableEntry> getEntriesAfter(long tableId,
+            MemberRankingTableEntry after, int batchSize) throws CoreException;
+
+    /**
+     * Returns the entries of a set of members.
+     * 
+     * @param tableId: a table identifier.
+     * @param memberIds: member identifiers (typically a page worth of).
+     * @return a {@link List} of {@link MemberRankingTableEntry} ordered by
+     *         position. Members without entry are skipped.
+     * @throws CoreException
+     */
+    List<MemberRankingTableEntry> getEntriesFor(long tableId, long[] memberIds)
+            throws CoreException;
+
+    /**
+     * Returns an iterator over all the entries of a table in ranking order.
+     * 
+     * <p>
+     * 
+     * Entries are fetched one page at a time. This is what should be used to
+     * walk large tables rather than {@link MemberRankingTable#getEntries()}.
+     * Local use only.
+     * 
+     * @param tableId: a table identifier.
+     * @param batchSize: amount of entries fetched at once.
+     * @return an {@link Iterator} of {@link MemberRankingTableEntry}
+     * @throws CoreException
+     */
+    Iterator<MemberRankingTableEntry> iterateEntries(long tableId,
+            int batchSize) throws CoreException;
+
+    /**
+     * Returns the entry of a given member.
+     * 
+     * @param tableId: a table identifier.
+     * @param memberId: a member identifier.
+     * @return a {@link MemberRankingTableEntry} or null if it does not exist.
+     * @throws CoreException
+     */
+    MemberRankingTableEntry getEntryFor(long tableId, long memberId)
+            throws CoreException;
+
+    /**
+     * Returns the position of an entry, i.e. the amount of entries ranked
+     * before it.
+     * 
+     * @param tableId: a table identifier.
+     * @param entry: a {@link MemberRankingTableEntry} of this table.
+     * @return an int (starting at 0)
+     * @throws CoreException
+     */
+    int getPositionFor(long tableId, MemberRankingTableEntry entry)
+            throws CoreException;
+
+    /**
+     * Stores the current position of every entry of a table (see
+     * {@link MemberRankingTableEntry#getPosition()}).
+     * 
+     * <p>
+     * 
+     * Entries are not loaded: only their identifiers are, in ranking order.
+     * Meant for tables that became final.
+     * 
+     * @param tableId: a table identifier.
+     * @return the amount of entries updated.
+     * @throws CoreException
+     */
+    int updatePositions(long tableId) throws CoreException;
+
+    /**
+     * Returns a page of a table.
+     * 
+     * @param tableId: a table identifier.
+     * @param offset: position of the first entry (starting at 0)
+     * @param batchSize: maximum amount of entries. 0 means all.
+     * @param member: a {@link Member} whose entry and position should be
+     *        resolved as well or null.
+     * @return a {@link MemberRankingPage} instance.
+     * @throws CoreException
+     */
+    MemberRankingPage getPage(long tableId, int offset, int batchSize,
+            Member member) throws CoreException;
+
+    /**
+     * Returns the page following the entry of a given member (keyset paging).
+     * 
+     * @param tableId: a table identifier.
+     * @param afterMemberId: identifier of the member ranked right before the
+     *        page.
+     * @param batchSize: maximum amount of entries. 0 means all.
+     * @param member: a {@link Member} whose entry and position should be
+     *        resolved as well or null.
+     * @return a {@link MemberRankingPage} instance.
+     * @throws CoreException if the given member is not ranked in this table.
+     */
+    MemberRankingPage getPageAfter(long tableId, long afterMemberId,
+            int batchSize, Member member) throws CoreException;
+
+    /**
+     * Logs the entries of a table whose value or position changed and bumps
+     * the table version.
+     * 
+     * <p>
+     * 
+     * The log is bounded (see <code>ranking.changes.max</code>): the oldest
+     * versions are dropped first.
+     * 
+     * @param table: a {@link MemberRankingTable} instance.
+     * @param positions: previous and current positions ({from, to}, starting
+     *        at 0) of the changed entries indexed by member id.
+     * @return the new version of the table.
+     * @throws CoreException
+     */
+    long logChanges(MemberRankingTable table, Map<Long, int[]> positions)
+            throws CoreException;
+
+    /**
+     * Returns the entries of a table whose value or position changed since a
+     * given version.
+     * 
+     * @param tableId: a table identifier.
+     * @param version: a version of the table as previously returned to the
+     *        client.
+     * @return a {@link MemberRankingDelta} instance. Incomplete if the table
+     *         has to be fetched again.
+     * @throws CoreException if the table cannot be found.
+     */
+    MemberRankingDelta getChangesSince(long tableId, long version)
+            throws CoreException;
+
+}
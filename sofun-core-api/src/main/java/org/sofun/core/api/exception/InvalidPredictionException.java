@@ -0,0 +1,32 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.api.exception;
+
+/**
+ * Invalid prediction exception: the prediction is malformed or the event is
+ * closed to predictions.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ *
+ */
+public class InvalidPredictionException extends CoreException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidPredictionException(String message) {
+        super(message);
+    }
+
+}
@@ -17,14 +17,12 @@ package org.sofun.core.api.kup;
 import java.io.Serializable;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.sofun.core.api.community.Community;
 import org.sofun.core.api.feed.Feed;
 import org.sofun.core.api.kup.bet.KupWinningsRepartitionRuleType;
 import org.sofun.core.api.member.Member;
-import org.sofun.core.api.prediction.Prediction;
 import org.sofun.core.api.question.Question;
 import org.sofun.core.api.question.QuestionKupTiebreaker;
 import org.sofun.core.api.sport.Sport;
@@ -149,6 +147,26 @@ public interface Kup extends Serializable {
      */
     Date getCloseDate();
 
+    /**
+     * Returns the date at which the next status transition of this Kup is
+     * due.
+     * 
+     * <p>
+     * Maintained by the life cycle scheduler. The actual transition is still
+     * verified against the effective dates once due.
+     * </p>
+     * 
+     * @return a {@link Date} instance in UTC or null if none is expected.
+     */
+    Date getNextTransition();
+
+    /**
+     * Sets the date at which the next status transition of this Kup is due.
+     * 
+     * @param date: a {@link Date} instance in UTC or null.
+     */
+    void setNextTransition(Date date);
+
     /**
      * Sets the date at which the {@link Kup} will be end.
      * 
@@ -216,10 +234,26 @@ public interface Kup extends Serializable {
 
     String getAvatar();
 
+    /**
+     * Returns the jackpot: sum of the stakes of the bets placed.
+     * 
+     * <p>
+     * 
+     * Incremented in database as bets are placed (see
+     * {@link KupService#placeKupBet(Member, Kup)}): exact on instances
+     * returned by {@link KupService#getKupById(long)}.
+     * 
+     * @return a float.
+     */
     float getJackpot();
 
     float getEffectiveJackpot();
 
+    /**
+     * Sets the jackpot. Only written when the Kup gets created.
+     * 
+     * @param jackpot: a float.
+     */
     void setJackpot(float jackpot);
 
     float getStake();
@@ -230,6 +264,18 @@ public interface Kup extends Serializable {
 
     void setStakeCurrency(String currency);
 
+    /**
+     * Returns the friends of a participant taking part in this Kup in ranking
+     * order.
+     * 
+     * @deprecated loads the ranking table of the Kup: use
+     *             {@link KupService#getParticipantsFriendsFor(Kup, Member)}
+     *             which only loads the entries of the friends.
+     * 
+     * @param member: a {@link Member} instance.
+     * @return a {@link Set} of {@link Member}.
+     */
+    @Deprecated
     Set<Member> getParticipantsFriendsFor(Member member);
 
     Sport getSport();
@@ -356,6 +402,12 @@ public interface Kup extends Serializable {
     /**
      * Adds an actual participant. (i.e.: member w/ predictions AND a bet.
      * 
+     * <p>
+     * 
+     * Loads all the participants and leaves the participants count as is:
+     * use {@link KupService#addParticipant(Member, Kup)} which maintains
+     * it.
+     * 
      * @param member: a {@link Member} instances.
      */
     void addParticipant(Member member);
@@ -467,33 +519,6 @@ public interface Kup extends Serializable {
      */
     void addBettableQuestion(Question question);
 
-    /**
-     * Returns the points distribution rules for this Kup.
-     * 
-     * <p/>
-     * 
-     * This is configurable by the Kup admin.
-     * 
-     * @see {@link Prediction} for the actual prediction type.
-     * 
-     * @return: Map from prediction type to number of points.
-     */
-    Map<String, Integer> getPredictionPointsDistributionRule();
-
-    /**
-     * Sets the points distribution rules for this Kup.
-     * 
-     * <p/>
-     * 
-     * This is configurable by the Kup admin.
-     * 
-     * @see {@link Prediction} for the actual prediction type.
-     * 
-     * @param rule: Map from prediction type to number of points.
-     * 
-     */
-    void setPredictionPointsDistributionRule(Map<String, Integer> rules);
-
     /**
      * Returns the Kup meta type.
      * 
@@ -587,7 +612,9 @@ public interface Kup extends Serializable {
      * 
      * <p>
      * 
-     * Used as a search sorting index.
+     * Used as a search sorting index. Maintained as participants join (see
+     * {@link KupService#addParticipant(Member, Kup)}): use it rather than the
+     * size of {@link #getParticipants()} which loads all the participants.
      * 
      */
     int getNbParticipants();
@@ -597,7 +624,8 @@ public interface Kup extends Serializable {
      * 
      * <p>
      * 
-     * Used as a search sorting index.
+     * Used as a search sorting index. Only written when the Kup gets
+     * created: the count is then incremented in database.
      * 
      * @param nbParticipants: positive integer
      */
@@ -625,6 +653,17 @@ public interface Kup extends Serializable {
      */
     int computeDuration();
 
+    /**
+     * Recomputes the stored start dates of the first and last bettable events.
+     * 
+     * <p>
+     * 
+     * Effective start, end and close dates are derived from these stored
+     * values. They are invalidated whenever the bettable events change but
+     * must be refreshed explicitly when an event start date is modified.
+     */
+    void updateEventDates();
+
     /**
      * Returns the list of questions used to part winners in case of Ex aequo.
      * 
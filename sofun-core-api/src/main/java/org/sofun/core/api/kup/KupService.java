@@ -15,12 +15,14 @@
 package org.sofun.core.api.kup;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.exception.InvalidPredictionException;
 import org.sofun.core.api.kup.bet.KupWinningsRepartitionRuleType;
 import org.sofun.core.api.member.Member;
 import org.sofun.core.api.prediction.Prediction;
@@ -123,6 +125,32 @@ public interface KupService extends Serializable {
     void addPredictionScore(String type, Member member, Kup kup,
             TournamentGame game, List<Integer> score) throws CoreException;
 
+    /**
+     * Records a batch of game predictions.
+     * 
+     * <p>
+     * 
+     * All the games are checked against their prediction deadline before
+     * anything gets recorded: the batch is rejected as a whole if one of them
+     * is closed.
+     * 
+     * @param member: a {@link Member} instance
+     * @param kup: a {@link Kup} instance
+     * @param type: the type of the ordered contestants predictions.
+     * @param winners: a {@link Map} from game to ordered contestants. Can be
+     *        null.
+     * @param scoreType: the type of the score predictions.
+     * @param scores: a {@link Map} from game to (team1, team2) scores. Can be
+     *        null.
+     * @throws InvalidPredictionException if a game is closed to predictions
+     *         or a score is malformed.
+     * @throws CoreException
+     */
+    void addGamePredictions(Member member, Kup kup, String type,
+            Map<TournamentGame, List<SportContestant>> winners,
+            String scoreType, Map<TournamentGame, List<Integer>> scores)
+            throws CoreException;
+
     /**
      * Records a prediction.
      * 
@@ -212,6 +240,96 @@ public interface KupService extends Serializable {
      */
     boolean hasPrediction(Member member, Kup kup);
 
+    /**
+     * Returns the status of a {@link Member} in a {@link Kup}. A participant
+     * is {@link KupMemberStatus#VALIDATED}, whatever the Kup type.
+     * 
+     * @param member: a {@link Member} instance.
+     * @param kup: a {@link Kup} instance.
+     * @return a {@link KupMemberStatus} value.
+     * @throws CoreException
+     */
+    byte getMemberStatus(Member member, Kup kup) throws CoreException;
+
+    /**
+     * Is a {@link Member} a member of a {@link Kup}? Does not load the
+     * members of the Kup.
+     * 
+     * @param member: a {@link Member} instance.
+     * @param kup: a {@link Kup} instance.
+     * @return true or false.
+     */
+    boolean isMember(Member member, Kup kup);
+
+    /**
+     * Is a {@link Member} a participant of a {@link Kup}? Does not load the
+     * participants of the Kup.
+     * 
+     * @param member: a {@link Member} instance.
+     * @param kup: a {@link Kup} instance.
+     * @return true or false.
+     */
+    boolean isParticipant(Member member, Kup kup);
+
+    /**
+     * Returns the friends of a participant taking part in a {@link Kup} in
+     * ranking order. Only the entries of the friends are loaded.
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @param member: a {@link Member} instance.
+     * @return a {@link Set} of {@link Member}: empty if the member is not
+     *         ranked in the Kup.
+     * @throws CoreException
+     */
+    Set<Member> getParticipantsFriendsFor(Kup kup, Member member)
+            throws CoreException;
+
+    /**
+     * Adds a {@link Member} to the members of a {@link Kup} without loading
+     * the other members.
+     * 
+     * @param member: a {@link Member} instance.
+     * @param kup: a {@link Kup} instance.
+     * @return true if added, false if already a member.
+     */
+    boolean addMember(Member member, Kup kup);
+
+    /**
+     * Adds a {@link Member} to the participants of a {@link Kup}, along with
+     * its ranking table entry, without loading the other participants. The
+     * participants count of the Kup is incremented in database.
+     * 
+     * @param member: a {@link Member} instance.
+     * @param kup: a {@link Kup} instance.
+     * @return true if added, false if already a participant.
+     */
+    boolean addParticipant(Member member, Kup kup);
+
+    /**
+     * Splits the jackpot and participants counters of a {@link Kup} about to
+     * be opened to bets so that concurrent bets do not all update the Kup.
+     * Must be called before any bet gets placed.
+     * 
+     * @param kup: a {@link Kup} instance.
+     */
+    void openCounters(Kup kup);
+
+    /**
+     * Sums up the split counters of a {@link Kup} into the instance so that
+     * its jackpot and participants count are exact.
+     * 
+     * @param kup: a {@link Kup} instance.
+     */
+    void loadCounters(Kup kup);
+
+    /**
+     * Folds the split counters of a {@link Kup} closed to bets back into the
+     * Kup.
+     * 
+     * @param kup: a {@link Kup} instance.
+     */
+    void foldCounters(Kup kup);
+
     /**
      * Returns all {@link Kup}s given a list of types.
      * 
@@ -227,6 +345,53 @@ public interface KupService extends Serializable {
     List<Kup> getKupsByStatus(byte[] status, String[] types)
             throws CoreException;
 
+    /**
+     * Returns the {@link Kup}s whose next status transition is due at a given
+     * date, ordered by due date.
+     * 
+     * @see {@link Kup#getNextTransition()}
+     * 
+     * @param status: Kup's status
+     * @param types: Kup's type or null for all.
+     * @param date: a {@link Date} instance.
+     * @return: a {@link List} of {@link Kup} instance.
+     * @throws CoreException
+     */
+    List<Kup> getDueKups(byte[] status, String[] types, Date date)
+            throws CoreException;
+
+    /**
+     * Refreshes the stored first and last event start dates of the Kups that
+     * are not settled yet and whose bettable events changed since these were
+     * last stored, in one statement. Start and end dates and duration (search
+     * indexes) are refreshed along.
+     * 
+     * <p>
+     * 
+     * Refreshed Kups get their next transition cleared so that they are
+     * rescheduled.
+     * 
+     * @see {@link Kup#updateEventDates()}
+     * @see {@link #refreshEventDatesFor(Collection)}
+     * 
+     * @return the number of {@link Kup} updated.
+     * @throws CoreException
+     */
+    int refreshEventDates() throws CoreException;
+
+    /**
+     * Refreshes the stored event dates of the Kups that are not settled yet
+     * and have any of the given sport events bettable. To be called where the
+     * start date of sport events gets written.
+     * 
+     * @param events: a {@link Collection} of {@link TournamentGame},
+     *        {@link TournamentRound}, {@link TournamentStage} or
+     *        {@link TournamentSeason} instances.
+     * @return the number of {@link Kup} updated.
+     * @throws CoreException if an element is not a sport event.
+     */
+    int refreshEventDatesFor(Collection<?> events) throws CoreException;
+
     /**
      * Returns all {@link Kup}s that are active.
      * 
@@ -256,7 +421,15 @@ public interface KupService extends Serializable {
     /**
      * Kup administrator can request to cancel a Kup for various reasons.
      * 
+     * <p>
      * 
+     * Participants refunds are journaled within the current transaction and
+     * credited asynchronously: the settled Kups policy picks up the pending
+     * refunds and the settlement engine applies them, each within its own
+     * transaction, shortly after this one commits. Member credits and
+     * transactions do not reflect the refunds when this method returns.
+     * Cancelling a Kup more than once never refunds a participant twice and
+     * a refund is never applied twice.
      * 
      * @param kup: a {@link Kup} instance.
      */
@@ -318,20 +491,57 @@ public interface KupService extends Serializable {
      */
     Kup getTemplateFor(Kup kup);
 
+    /**
+     * Returns the identifier of the latest change recorded on Kup templates.
+     * 
+     * <p>
+     * 
+     * Kups keep the identifier of the latest change they got synced with:
+     * those below it may need a {@link #syncKupsWithTemplate()}.
+     * 
+     * @return a change identifier. 0 if none.
+     */
+    long getLatestTemplateChange();
+
     /**
      * Sync up Kups with their respective templates.
      * 
+     * <p>
+     * 
+     * Only the template changes recorded since the last sync of each Kup are
+     * applied, to the Kups that are not final yet. Cheap enough to be polled:
+     * returns right away if no Kup lags behind its template.
+     * 
      * @throws CoreException
      */
     void syncKupsWithTemplate() throws CoreException;
 
     /**
-     * Sync up Kup's templates content.
+     * Sync up Kup's templates content with the sport events created or added
+     * to templates since the previous sync.
+     * 
+     * @see {@link #syncTemplates(boolean)}
      * 
      * @throws CoreException
      */
     void syncTemplates() throws CoreException;
 
+    /**
+     * Sync up Kup's templates content: adds the stages, rounds and games of
+     * their seasons, stages and rounds.
+     * 
+     * <p>
+     * 
+     * The elements added to templates get recorded in the template change log
+     * by the database, whatever adds them. A full sync looks at every
+     * template element and records the ones missing from the change log: a
+     * safety net for changes the incremental sync may miss.
+     * 
+     * @param full: true to look at every template element.
+     * @throws CoreException
+     */
+    void syncTemplates(boolean full) throws CoreException;
+
     /**
      * Returns when was the last time a given member in a given kup updated its
      * predictions.
@@ -375,18 +585,6 @@ public interface KupService extends Serializable {
      */
     Date getFirstPredictionDateFor(Member member, Kup kup) throws CoreException;
 
-    /**
-     * Returns the ranking table with statistics for a given Kup.
-     * 
-     * @param kup: a {@link Kup} instance
-     * @param offset: offset
-     * @param batchSize: batch size
-     * @return {@link KupRankingTable} instance
-     * @throws CoreException
-     */
-    KupRankingTable getKupRanking(Kup kup, int offset, int batchSize)
-            throws CoreException;
-
     /**
      * Update statistics for a given Kup.
      * 
@@ -69,6 +69,19 @@ public interface Member extends Serializable {
 
     Set<Member> getFriends();
 
+    /**
+     * Returns the identifiers of the friends of this member.
+     * 
+     * <p/>
+     * 
+     * Cached: friends are to be changed through {@link #addFriend(Member)},
+     * {@link #removeFriend(Member)} or {@link #setFriends(Set)} rather than
+     * through the set returned by {@link #getFriends()}.
+     * 
+     * @return a sorted array of member identifiers.
+     */
+    long[] getFriendIds();
+
     int getGender();
 
     long getId();
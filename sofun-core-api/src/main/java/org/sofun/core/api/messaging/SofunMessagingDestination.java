@@ -40,4 +40,10 @@ public final class SofunMessagingDestination {
      */
     public static final String SOFUN_FEEDS = "/queue/sofun-feeds";
 
+    /**
+     * Queue used to compute predictions points as soon as a tournament event
+     * is terminated.
+     */
+    public static final String SOFUN_SCORING = "/queue/sofun-scoring";
+
 }
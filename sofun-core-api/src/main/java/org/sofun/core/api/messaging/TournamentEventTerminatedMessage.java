@@ -0,0 +1,84 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.api.messaging;
+
+import java.io.Serializable;
+
+/**
+ * Tournament Event Terminated Message.
+ * 
+ * <p/>
+ * 
+ * Published on {@link SofunMessagingDestination#SOFUN_SCORING} when a game,
+ * round, stage or season is terminated so that the points of the
+ * corresponding predictions can be computed right away.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class TournamentEventTerminatedMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String TYPE_GAME = "game";
+
+    public static final String TYPE_ROUND = "round";
+
+    public static final String TYPE_STAGE = "stage";
+
+    public static final String TYPE_SEASON = "season";
+
+    private final String type;
+
+    private final String uuid;
+
+    public TournamentEventTerminatedMessage(String type, String uuid) {
+        this.type = type;
+        this.uuid = uuid;
+    }
+
+    public static TournamentEventTerminatedMessage game(String uuid) {
+        return new TournamentEventTerminatedMessage(TYPE_GAME, uuid);
+    }
+
+    public static TournamentEventTerminatedMessage round(long uuid) {
+        return new TournamentEventTerminatedMessage(TYPE_ROUND,
+                String.valueOf(uuid));
+    }
+
+    public static TournamentEventTerminatedMessage stage(long uuid) {
+        return new TournamentEventTerminatedMessage(TYPE_STAGE,
+                String.valueOf(uuid));
+    }
+
+    public static TournamentEventTerminatedMessage season(long uuid) {
+        return new TournamentEventTerminatedMessage(TYPE_SEASON,
+                String.valueOf(uuid));
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getUUID() {
+        return uuid;
+    }
+
+    @Override
+    public String toString() {
+        return type + ":" + uuid;
+    }
+
+}
@@ -17,6 +17,7 @@ package org.sofun.core.api.prediction;
 import java.io.Serializable;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.sofun.core.api.exception.CoreException;
 import org.sofun.core.api.kup.Kup;
@@ -54,6 +55,19 @@ public interface PredictionService extends Serializable {
     PredictionQuestionKupTiebreaker getPredictionQuestionKupTieBreakerFor(
             Member member, Kup kup, QuestionKupTiebreaker question);
 
+    /**
+     * Returns the answers to a Kup tiebreaker question using one query.
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @param question: a {@link QuestionKupTiebreaker} of this Kup.
+     * @param memberIds: identifiers of the members to restrict to or null for
+     *        all the participants.
+     * @return a {@link Map} from member id to answer. Members who did not
+     *         answer are not included.
+     */
+    Map<Long, String> getTiebreakerAnswersFor(Kup kup,
+            QuestionKupTiebreaker question, long[] memberIds);
+
     PredictionRoundOrderedContestantsList getPredictionFor(Member member,
             TournamentRound round, String type, Kup kup);
 
@@ -70,6 +84,30 @@ public interface PredictionService extends Serializable {
     PredictionGameScore createPredictionScoreFor(Member member,
             TournamentGame game, String type, List<Integer> score, Kup kup);
 
+    /**
+     * Records a batch of game predictions of a member within a Kup.
+     * 
+     * <p>
+     * 
+     * The existing predictions of the member are loaded upfront and updated
+     * in place while the missing ones are persisted and flushed together.
+     * Kup membership and participation are settled once for the whole batch.
+     * 
+     * @param member: a {@link Member} instance.
+     * @param kup: a {@link Kup} instance.
+     * @param type: the type of the ordered contestants predictions.
+     * @param winners: a {@link Map} from game to ordered contestants. An
+     *        empty list means a drawn game, null no winner predicted. Can be
+     *        null.
+     * @param scoreType: the type of the score predictions.
+     * @param scores: a {@link Map} from game to (team1, team2) scores. Can be
+     *        null.
+     * @return the {@link List} of created or updated predictions.
+     */
+    List<Prediction> createGamePredictionsFor(Member member, Kup kup,
+            String type, Map<TournamentGame, List<SportContestant>> winners,
+            String scoreType, Map<TournamentGame, List<Integer>> scores);
+
     PredictionGameQuestion createQuestionPredictionFor(Member member,
             TournamentGame game, String type, Question question, Kup kup,
             String choice);
@@ -102,10 +140,59 @@ public interface PredictionService extends Serializable {
 
     List<Prediction> getPredictionsSeasonToCompute();
 
+    /**
+     * Returns the predictions waiting for points computation on a given
+     * terminated game.
+     * 
+     * @param gameUUID: a {@link TournamentGame} UUID
+     * @return a {@link List} of {@link Prediction}
+     */
+    List<Prediction> getPredictionsGameToCompute(String gameUUID);
+
+    /**
+     * Returns the predictions waiting for points computation on a given
+     * terminated round.
+     * 
+     * @param roundUUID: a {@link TournamentRound} UUID
+     * @return a {@link List} of {@link Prediction}
+     */
+    List<Prediction> getPredictionsRoundToCompute(long roundUUID);
+
+    /**
+     * Returns the predictions waiting for points computation on a given
+     * terminated stage.
+     * 
+     * @param stageUUID: a {@link TournamentStage} UUID
+     * @return a {@link List} of {@link Prediction}
+     */
+    List<Prediction> getPredictionsStageToCompute(long stageUUID);
+
+    /**
+     * Returns the predictions waiting for points computation on a given
+     * season.
+     * 
+     * @param seasonUUID: a {@link TournamentSeason} UUID
+     * @return a {@link List} of {@link Prediction}
+     */
+    List<Prediction> getPredictionsSeasonToCompute(long seasonUUID);
+
     List<Prediction> getPredictionsFor(TournamentSeason season, Kup kup);
 
     List<Prediction> getPredictionsFor(Kup kup);
 
+    /**
+     * Does a Kup have predictions waiting for points computation?
+     * 
+     * <p>
+     * 
+     * Backed by an index on pending predictions: the cost does not depend on
+     * the amount of predictions of the Kup.
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @return true if at least one prediction is not computed yet.
+     */
+    boolean hasPredictionsToCompute(Kup kup);
+
     List<Prediction> getPredictionsFor(Member member, int offset, int batchSize);
 
     List<Prediction> getPredictionsFor(Kup kup, Member member);
@@ -15,8 +15,10 @@
 package org.sofun.core.api.sport;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.sofun.core.api.country.Country;
 import org.sofun.core.api.sport.tournament.Tournament;
@@ -68,6 +70,15 @@ public interface SportService extends Serializable {
 
     TournamentGame getTournamentGame(String id);
 
+    /**
+     * Returns the games having the given uuids using one query.
+     * 
+     * @param uuids: a {@link Collection} of game uuids.
+     * @return a {@link Map} from uuid to {@link TournamentGame}. Unknown uuids
+     *         are not included.
+     */
+    Map<String, TournamentGame> getTournamentGames(Collection<String> uuids);
+
     TournamentStage getTournamentStage(long id);
 
     Country getCountry(String iso);
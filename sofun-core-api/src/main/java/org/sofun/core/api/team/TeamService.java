@@ -194,6 +194,20 @@ public interface TeamService extends Serializable {
      */
     List<Kup> getKupsFor(Team team, int offset, int size) throws CoreException;
 
+    /**
+     * Adds a member to a team.
+     * 
+     * <p>
+     * 
+     * Unlike {@link Team#addMember(Member)}, the ranking table entry of the
+     * new member is persisted without loading the other entries.
+     * 
+     * @param team: a {@link Team} instance
+     * @param member: a {@link Member} instance
+     * @return the added {@link Member} instance.
+     */
+    Member addMember(Team team, Member member);
+
     /**
      * Can a given {@link Team} be removed?
      * 
@@ -209,4 +223,38 @@ public interface TeamService extends Serializable {
 
     List<Team> getTeamsWithActiveKups();
 
+    /**
+     * Applies Kup ranking value changes to the ranking tables of the teams
+     * the Kup is registered against.
+     * 
+     * <p>
+     * 
+     * Team entries and table totals are updated in place by the database so
+     * that concurrent Kups do not overwrite each other. Table versions are
+     * bumped so that clients fetch the updated positions. Team tables managed
+     * and loaded in the current persistence context are refreshed.
+     * 
+     * @param kup: a {@link Kup} instance
+     * @param deltas: a {@link Map} from member id to the value delta applied
+     *        on the member's Kup ranking entry.
+     * @throws CoreException
+     */
+    void applyKupRankingDeltas(Kup kup, Map<Long, Integer> deltas)
+            throws CoreException;
+
+    /**
+     * Recomputes the ranking table of a team from the ranking tables of its
+     * (non canceled) Kups.
+     * 
+     * <p>
+     * 
+     * Recovery counterpart of {@link #applyKupRankingDeltas(Kup, Map)}. The
+     * table version is bumped if any entry got fixed.
+     * 
+     * @param team: a {@link Team} instance
+     * @return the amount of entries that had drifted and got fixed.
+     * @throws CoreException
+     */
+    int reconcileRanking(Team team) throws CoreException;
+
 }
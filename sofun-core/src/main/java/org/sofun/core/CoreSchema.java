@@ -0,0 +1,227 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core;
+
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.EJBException;
+import javax.ejb.Local;
+import javax.ejb.SessionContext;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.api.local.CoreSchemaLocal;
+
+/**
+ * Core Schema.
+ * 
+ * <p>
+ * 
+ * Creates, at startup, the PostgreSQL indexes JPA 2 has no way to declare
+ * (partial indexes, mixed directions, etc.), the schema being otherwise
+ * generated by Hibernate:
+ * 
+ * <ul>
+ * <li>the due time of the Kups status transitions (see
+ * {@link org.sofun.core.kup.policy.KupLifeCycleScheduler});</li>
+ * <li>the last change of the Kups indexed attributes (see
+ * {@link org.sofun.core.kup.search.KupSearchIndex});</li>
+ * <li>the predictions waiting for points computation, so that checking
+ * whether a Kup has any left is a single index probe;</li>
+ * <li>the ranking order of the ranking table entries and the ranking change
+ * log (see
+ * {@link org.sofun.core.community.table.MemberRankingTableServiceImpl}).</li>
+ * </ul>
+ * 
+ * <p>
+ * 
+ * Along with the triggers recording the elements added to Kup templates in
+ * the template change log, whatever adds them (template sync or back office,
+ * see {@link org.sofun.core.kup.KupTemplateChangeImpl}).
+ * 
+ * <p>
+ * 
+ * Each index or trigger gets created in its own transaction: DDL never runs
+ * within, nor rolls back, the transaction of another bean. Other databases
+ * are simply skipped.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Startup
+@Singleton
+@Local(CoreSchemaLocal.class)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class CoreSchema implements CoreSchemaLocal {
+
+    private static final Log log = LogFactory.getLog(CoreSchema.class);
+
+    public static final String TRANSITION_INDEX = "kups_next_transition_idx";
+
+    public static final String MODIFIED_INDEX = "kups_index_modified_idx";
+
+    public static final String PENDING_INDEX = "predictions_pending_idx";
+
+    public static final String RANKING_INDEX = "members_ranking_tables_entries_ranking_idx";
+
+    public static final String CHANGES_INDEX = "members_ranking_tables_changes_version_idx";
+
+    /* Index names along with their DDL. */
+    static final String[][] INDEXES = {
+            { TRANSITION_INDEX,
+                    "CREATE INDEX " + TRANSITION_INDEX
+                            + " ON kups (next_transition)" },
+            { MODIFIED_INDEX,
+                    "CREATE INDEX " + MODIFIED_INDEX
+                            + " ON kups (index_modified)" },
+            { PENDING_INDEX,
+                    "CREATE INDEX " + PENDING_INDEX
+                            + " ON predictions (kup_id)"
+                            + " WHERE points_computed = false" },
+            { RANKING_INDEX,
+                    "CREATE INDEX " + RANKING_INDEX
+                            + " ON members_ranking_tables_entries (table_id,"
+                            + " value DESC, correct_predictions DESC,"
+                            + " tiebreaker_offset ASC, first_predictions ASC,"
+                            + " member_id ASC)" },
+            { CHANGES_INDEX,
+                    "CREATE INDEX " + CHANGES_INDEX
+                            + " ON members_ranking_tables_changes"
+                            + " (table_id, version)" } };
+
+    /* Kup template join tables along with the change log type and the column
+     * of their elements. */
+    static final String[][] TEMPLATE_ELEMENTS = {
+            { "kups_tournaments_games", "game", "tournament_game_id" },
+            { "kups_tournaments_rounds", "round", "tournament_round_id" },
+            { "kups_tournaments_stages", "stage", "tournament_stage_id" },
+            { "kups_tournaments_seasons", "season", "tournament_season_id" },
+            { "kups_questions", "question", "question_id" },
+            { "kups_questions_tiebreaker", "tiebreaker", "question_id" },
+            { "kups_tournaments", "tournament", "tournament_id" } };
+
+    /* Trigger names along with the DDL of their function and their own. */
+    static final String[][] TRIGGERS = new String[TEMPLATE_ELEMENTS.length][];
+
+    static {
+        for (int i = 0; i < TEMPLATE_ELEMENTS.length; i++) {
+            final String table = TEMPLATE_ELEMENTS[i][0];
+            final String type = "'" + TEMPLATE_ELEMENTS[i][1] + "'";
+            final String element = "NEW." + TEMPLATE_ELEMENTS[i][2];
+            final String function = table + "_template_log";
+            TRIGGERS[i] = new String[] {
+                    table + "_template_trg",
+                    "CREATE OR REPLACE FUNCTION " + function + "()"
+                            + " RETURNS trigger AS $$ BEGIN"
+                            + " INSERT INTO kups_templates_changes"
+                            + " (id, template_id, type, element_id, created)"
+                            + " SELECT nextval('hibernate_sequence'), t.id, "
+                            + type + ", " + element + ", now() FROM kups t"
+                            + " WHERE t.id = NEW.kup_id"
+                            + " AND t.is_template = true AND NOT EXISTS"
+                            + " (SELECT 1 FROM kups_templates_changes c"
+                            + " WHERE c.template_id = t.id AND c.type = "
+                            + type + " AND c.element_id = " + element + ");"
+                            + " RETURN NULL; END; $$ LANGUAGE plpgsql",
+                    "CREATE TRIGGER " + table + "_template_trg AFTER INSERT"
+                            + " ON " + table + " FOR EACH ROW"
+                            + " EXECUTE PROCEDURE " + function + "()" };
+        }
+    }
+
+    @PersistenceContext(unitName = CoreConstants.PERSISTENCE_UNIT)
+    private transient EntityManager em;
+
+    @Resource
+    private SessionContext context;
+
+    @PostConstruct
+    public void createIndexes() {
+        final CoreSchemaLocal self = context
+                .getBusinessObject(CoreSchemaLocal.class);
+        for (String[] index : INDEXES) {
+            try {
+                self.createIndex(index[0], index[1]);
+            } catch (EJBException e) {
+                log.warn("Cannot create index " + index[0] + ": "
+                        + e.getMessage());
+            }
+        }
+        for (String[] trigger : TRIGGERS) {
+            try {
+                self.createTrigger(trigger[0], trigger[1], trigger[2]);
+            } catch (EJBException e) {
+                log.warn("Cannot create trigger " + trigger[0] + ": "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public boolean createIndex(String name, String ddl) {
+        try {
+            final Query query = em.createNativeQuery("SELECT indexname"
+                    + " FROM pg_indexes WHERE indexname = :name");
+            query.setParameter("name", name);
+            @SuppressWarnings("unchecked")
+            final List<Object> results = query.getResultList();
+            if (!results.isEmpty()) {
+                return false;
+            }
+            em.createNativeQuery(ddl).executeUpdate();
+            log.info("Created index " + name);
+            return true;
+        } catch (PersistenceException e) {
+            log.warn("Cannot create index " + name + ": " + e.getMessage());
+            context.setRollbackOnly();
+            return false;
+        }
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public boolean createTrigger(String name, String function, String ddl) {
+        try {
+            final Query query = em.createNativeQuery("SELECT tgname"
+                    + " FROM pg_trigger WHERE tgname = :name");
+            query.setParameter("name", name);
+            @SuppressWarnings("unchecked")
+            final List<Object> results = query.getResultList();
+            if (!results.isEmpty()) {
+                return false;
+            }
+            em.createNativeQuery(function).executeUpdate();
+            em.createNativeQuery(ddl).executeUpdate();
+            log.info("Created trigger " + name);
+            return true;
+        } catch (PersistenceException e) {
+            log.warn("Cannot create trigger " + name + ": " + e.getMessage());
+            context.setRollbackOnly();
+            return false;
+        }
+    }
+
+}
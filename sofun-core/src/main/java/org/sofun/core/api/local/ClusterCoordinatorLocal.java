@@ -0,0 +1,96 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.api.local;
+
+import java.util.Set;
+
+/**
+ * Cluster Coordinator Local Business Interface
+ * 
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public interface ClusterCoordinatorLocal {
+
+    /**
+     * Returns this node's identifier.
+     * 
+     * @return a {@link String}
+     */
+    String getNodeId();
+
+    /**
+     * Acquires or renews a cluster wide lease within a new transaction.
+     * 
+     * <p>
+     * 
+     * Used to run a job on a single node of the cluster: the job only runs if
+     * the lease got acquired. The lease lives for
+     * <code>cluster.lease.ttl</code> seconds from the database clock: a job
+     * running on a longer period, or for longer, must either renew it by
+     * acquiring it again or release it once done (see
+     * {@link #release(String)}). Otherwise another node may
+     * acquire it once expired, possibly while the job is still running.
+     * 
+     * <p>
+     * 
+     * The lease gets created if missing (see {@link #seed(String)}).
+     * 
+     * @param name: the lease name.
+     * @return true if this node holds the lease.
+     */
+    boolean acquire(String name);
+
+    /**
+     * Creates a cluster wide lease if missing within a new transaction. The
+     * lease is created expired: any node may acquire it. A concurrent
+     * creation by another node only rolls back this transaction.
+     * 
+     * @param name: the lease name.
+     */
+    void seed(String name);
+
+    /**
+     * Releases a cluster wide lease held by this node within a new
+     * transaction. Another node may then acquire it right away.
+     * 
+     * @param name: the lease name.
+     */
+    void release(String name);
+
+    /**
+     * Returns the amount of shards the Kups are split in.
+     * 
+     * @return an int
+     */
+    int getShards();
+
+    /**
+     * Returns the shards this node is responsible for.
+     * 
+     * @return an immutable {@link Set} of shard indexes.
+     */
+    Set<Integer> getLocalShards();
+
+    /**
+     * Is this node responsible for the given Kup?
+     * 
+     * @param kupId: the Kup identifier.
+     * @return true if the Kup belongs to one of the local shards.
+     */
+    boolean isLocal(long kupId);
+
+}
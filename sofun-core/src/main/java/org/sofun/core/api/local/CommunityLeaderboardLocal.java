@@ -0,0 +1,95 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.api.local;
+
+import java.util.Map;
+
+import org.sofun.core.api.community.table.MemberRankingPage;
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.member.Member;
+
+/**
+ * Community Leaderboard Local Business Interface
+ * 
+ * <p>
+ * 
+ * In-memory, incrementally maintained, ranking of large (community wide)
+ * ranking tables.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public interface CommunityLeaderboardLocal {
+
+    /**
+     * Returns a page of a ranking table.
+     * 
+     * @param tableId: a table identifier.
+     * @param offset: position of the first entry (starting at 0)
+     * @param batchSize: maximum amount of entries. 0 means all.
+     * @param member: a {@link Member} whose entry and position should be
+     *        resolved as well or null.
+     * @return a {@link MemberRankingPage} instance.
+     * @throws CoreException
+     */
+    MemberRankingPage getPage(long tableId, int offset, int batchSize,
+            Member member) throws CoreException;
+
+    /**
+     * Returns the position of a member.
+     * 
+     * @param tableId: a table identifier.
+     * @param memberId: a member identifier.
+     * @return an int (starting at 0) or -1 if the member is not ranked.
+     * @throws CoreException
+     */
+    int getPositionFor(long tableId, long memberId) throws CoreException;
+
+    /**
+     * Returns the positions of a set of members.
+     * 
+     * @param tableId: a table identifier.
+     * @param memberIds: member identifiers.
+     * @return an array holding the position (starting at 0) of each member
+     *         or -1 if not ranked.
+     * @throws CoreException
+     */
+    int[] getPositionsFor(long tableId, long[] memberIds) throws CoreException;
+
+    /**
+     * Returns the amount of entries of a table.
+     * 
+     * @param tableId: a table identifier.
+     * @return an int
+     * @throws CoreException
+     */
+    int size(long tableId) throws CoreException;
+
+    /**
+     * Applies committed value changes to a table if it is currently loaded.
+     * 
+     * @param tableId: a table identifier.
+     * @param deltas: a {@link Map} from member id to value delta.
+     */
+    void applyDeltas(long tableId, Map<Long, Integer> deltas);
+
+    /**
+     * Drops a table so that it gets reloaded on next access.
+     * 
+     * @param tableId: a table identifier.
+     */
+    void invalidate(long tableId);
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.api.local;
+
+/**
+ * Core Schema Local Business Interface
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public interface CoreSchemaLocal {
+
+    /**
+     * Creates a PostgreSQL index if missing within a new transaction. A
+     * failure, such as running on another database, only rolls back this
+     * transaction.
+     * 
+     * @param name: the index name.
+     * @param ddl: the <code>CREATE INDEX</code> statement.
+     * @return true if the index got created.
+     */
+    boolean createIndex(String name, String ddl);
+
+    /**
+     * Creates a PostgreSQL trigger and its function if missing within a new
+     * transaction. A failure, such as running on another database, only rolls
+     * back this transaction.
+     * 
+     * @param name: the trigger name.
+     * @param function: the <code>CREATE FUNCTION</code> statement.
+     * @param ddl: the <code>CREATE TRIGGER</code> statement.
+     * @return true if the trigger got created.
+     */
+    boolean createTrigger(String name, String function, String ddl);
+
+}
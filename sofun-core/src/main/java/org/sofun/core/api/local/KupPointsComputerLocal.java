@@ -0,0 +1,72 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.api.local;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.prediction.Prediction;
+
+/**
+ * Kup Points Computer Local Business Interface
+ * 
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public interface KupPointsComputerLocal {
+
+    /**
+     * Computes the points of the given predictions and updates the related
+     * Kup ranking tables.
+     * 
+     * <p>
+     * 
+     * Already computed predictions are skipped which makes it safe to call
+     * more than once for the same tournament event.
+     * 
+     * <p>
+     * 
+     * Predictions are partitioned per Kup. Partitions are computed in
+     * parallel, each one within its own transaction: a failing partition is
+     * rolled back as a whole but does not roll back the other ones.
+     * 
+     * @param predictions: a {@link List} of {@link Prediction}
+     * @return the amount of predictions settled.
+     * @throws CoreException if the computation of at least one Kup failed.
+     *         Raised once all the other Kups are computed.
+     */
+    int computePoints(List<Prediction> predictions) throws CoreException;
+
+    /**
+     * Computes the points of the predictions of a single Kup within a new
+     * transaction.
+     * 
+     * <p>
+     * 
+     * The Kup ranking table is locked for the duration of the transaction so
+     * that updates of a given Kup ranking table are serialized. The
+     * transaction is rolled back if any prediction fails.
+     * 
+     * @param kupId: the Kup identifier.
+     * @param predictionIds: a {@link List} of prediction identifiers.
+     * @return a {@link Future} holding the amount of predictions settled.
+     * @throws CoreException
+     */
+    Future<Integer> computeKupPoints(long kupId, List<Long> predictionIds)
+            throws CoreException;
+
+}
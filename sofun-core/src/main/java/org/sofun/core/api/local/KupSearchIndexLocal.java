@@ -0,0 +1,68 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.api.local;
+
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.kup.search.KupIndexQuery;
+import org.sofun.core.kup.search.KupIndexResults;
+
+/**
+ * Kup Search Index Local Business Interface
+ * 
+ * <p>
+ * 
+ * In-memory, incrementally maintained, index of the Kups not archived yet
+ * answering lobby searches.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public interface KupSearchIndexLocal {
+
+    /**
+     * Searches the Kups.
+     * 
+     * @param query: a {@link KupIndexQuery} instance.
+     * @param memberId: the member whose Kups should be left out or null.
+     * @param offset: position of the first result (starting at 0).
+     * @param batchSize: maximum amount of results. 0 means all.
+     * @return a {@link KupIndexResults} instance or null if the index cannot
+     *         answer (not loaded yet or unsupported criteria, such as archived
+     *         status).
+     */
+    KupIndexResults search(KupIndexQuery query, Long memberId, int offset,
+            int batchSize);
+
+    /**
+     * Checks the participation of a member in a Kup. Only the participations
+     * committed are known.
+     * 
+     * @param kupId: the Kup identifier.
+     * @param memberId: the member identifier.
+     * @return true or false or null if the index cannot answer (not loaded
+     *         yet or Kup no longer opened to participation).
+     */
+    Boolean isParticipant(long kupId, long memberId);
+
+    /**
+     * Indexes the participants who joined a Kup straight through the join
+     * table, which the entity life cycle does not see, once the current
+     * transaction commits.
+     * 
+     * @param kup: a {@link Kup} instance.
+     */
+    void indexJoined(Kup kup);
+
+}
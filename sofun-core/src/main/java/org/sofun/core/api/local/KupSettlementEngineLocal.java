@@ -0,0 +1,104 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.api.local;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.sofun.core.api.exception.CoreException;
+
+/**
+ * Kup Settlement Engine Local Business Interface
+ * 
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public interface KupSettlementEngineLocal {
+
+    /**
+     * Pays out (or cancels) settled Kups and applies the pending payouts of
+     * the given Kups.
+     * 
+     * <p>
+     * 
+     * Kups are processed in parallel, each one independently: a failing Kup
+     * does not prevent the other ones from being paid out and is picked up
+     * again later on.
+     * 
+     * @param kupIds: a {@link List} of Kup identifiers.
+     * @return the amount of Kups completely processed.
+     * @throws CoreException
+     */
+    int settle(List<Long> kupIds) throws CoreException;
+
+    /**
+     * Pays out (or cancels) a single Kup.
+     * 
+     * <p>
+     * 
+     * Payouts are journaled first then applied by batches, each batch within
+     * its own transaction. Safe to call again after a failure: applied
+     * payouts are never credited twice.
+     * 
+     * @param kupId: the Kup identifier.
+     * @return a {@link Future} holding true if the Kup has been completely
+     *         processed.
+     * @throws CoreException
+     */
+    Future<Boolean> settleKup(long kupId) throws CoreException;
+
+    /**
+     * Journals the payouts of a settled Kup within a new transaction.
+     * 
+     * <p>
+     * 
+     * The Kup is cancelled (and its refunds journaled) if it cannot be paid
+     * out. Does nothing if the Kup is not settled or if its payouts have
+     * been journaled already.
+     * 
+     * @param kupId: the Kup identifier.
+     * @return true if payouts have been journaled.
+     * @throws CoreException
+     */
+    boolean journalPayouts(long kupId) throws CoreException;
+
+    /**
+     * Applies a batch of pending payouts of a Kup within a new transaction.
+     * 
+     * @param kupId: the Kup identifier.
+     * @param max: the maximum amount of payouts applied.
+     * @return the amount of payouts processed. 0 if none are pending.
+     * @throws CoreException
+     */
+    int applyPayouts(long kupId, int max) throws CoreException;
+
+    /**
+     * Marks a settled Kup as paid out once all its payouts are applied.
+     * 
+     * @param kupId: the Kup identifier.
+     * @return true if no payouts are pending for this Kup.
+     * @throws CoreException
+     */
+    boolean complete(long kupId) throws CoreException;
+
+    /**
+     * Returns the identifiers of the Kups having pending payouts.
+     * 
+     * @return a {@link List} of Kup identifiers.
+     */
+    List<Long> getPendingKups();
+
+}
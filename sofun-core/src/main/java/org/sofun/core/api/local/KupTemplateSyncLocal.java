@@ -33,4 +33,9 @@ public interface KupTemplateSyncLocal {
      */
     void syncKupTemplates();
 
+    /**
+     * Sync Kup's templates content looking at every template element.
+     */
+    void resyncKupTemplates();
+
 }
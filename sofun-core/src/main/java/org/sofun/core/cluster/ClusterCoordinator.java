@@ -0,0 +1,333 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.cluster;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.Local;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
+import javax.ejb.Schedule;
+import javax.ejb.SessionContext;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.Configuration;
+import org.sofun.core.CoreConstants;
+import org.sofun.core.api.local.ClusterCoordinatorLocal;
+
+/**
+ * Cluster Coordinator.
+ * 
+ * <p/>
+ * 
+ * Coordinates the timers of the nodes of a cluster through the leases stored
+ * in database (see {@link ClusterLeases}):
+ * 
+ * <ul>
+ * <li>jobs that must run on a single node at a time (feeds synchronization,
+ * templates, etc.) acquire a named lease first and release it when done.</li>
+ * <li>Kup related work (life cycle, settlement, points sweep) is split by Kup
+ * id in <code>cluster.shards</code> shards: each node only processes the Kups
+ * of the shards it holds.</li>
+ * </ul>
+ * 
+ * <p/>
+ * 
+ * The node renews its liveness and shard leases every 30 seconds for
+ * <code>cluster.heartbeat.ttl</code> seconds. The shards of a node that
+ * stopped heartbeating get taken over by the remaining nodes once expired.
+ * The local shards are only published once the heartbeat committed and are
+ * dropped locally once <code>cluster.heartbeat.ttl</code> seconds went by
+ * without a successful heartbeat, by which time other nodes may hold them.
+ * All Kup jobs being idempotent, a Kup processed by two nodes while a shard
+ * changes hands is harmless.
+ * 
+ * <p/>
+ * 
+ * Lease rows get created in their own transaction before being acquired
+ * (see {@link #seed(String)}): acquiring a lease never fails on a lease
+ * created by another node at the same time.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Startup
+@Singleton
+@Local(ClusterCoordinatorLocal.class)
+@Lock(LockType.READ)
+public class ClusterCoordinator implements ClusterCoordinatorLocal {
+
+    private static final Log log = LogFactory.getLog(ClusterCoordinator.class);
+
+    /* Property holding the amount of shards the Kups are split in. */
+    public static final String PROP_SHARDS = "cluster.shards";
+
+    public static final int DEFAULT_SHARDS = 16;
+
+    /* Property holding how long (in seconds) node and shard leases live. */
+    public static final String PROP_HEARTBEAT_TTL = "cluster.heartbeat.ttl";
+
+    public static final int DEFAULT_HEARTBEAT_TTL = 90;
+
+    /* Property holding how long (in seconds) job leases live. */
+    public static final String PROP_LEASE_TTL = "cluster.lease.ttl";
+
+    public static final int DEFAULT_LEASE_TTL = 600;
+
+    @PersistenceContext(unitName = CoreConstants.PERSISTENCE_UNIT)
+    private transient EntityManager em;
+
+    @Resource
+    private TimerService timerService;
+
+    @Resource
+    private SessionContext context;
+
+    @Resource
+    private TransactionSynchronizationRegistry registry;
+
+    private final String nodeId = ClusterLeases.getLocalNodeId();
+
+    private final int shards = getIntProperty(PROP_SHARDS, DEFAULT_SHARDS);
+
+    private final AtomicBoolean available = new AtomicBoolean(true);
+
+    /* Whether the node and shard leases got created. */
+    private volatile boolean seeded = false;
+
+    /* Replaced on each committed heartbeat. */
+    private volatile LocalShards localShards = new LocalShards(
+            Collections.<Integer> emptySet(), 0);
+
+    /**
+     * The shards held as of the last committed heartbeat and the local time
+     * (in milliseconds) they expire at.
+     */
+    private static final class LocalShards {
+
+        private final Set<Integer> shards;
+
+        private final long expires;
+
+        private LocalShards(Set<Integer> shards, long expires) {
+            this.shards = Collections.unmodifiableSet(new HashSet<Integer>(
+                    shards));
+            this.expires = expires;
+        }
+
+    }
+
+    private static int getIntProperty(String name, int defaultValue) {
+        final String value = Configuration.getProperties().getProperty(name);
+        if (value != null) {
+            try {
+                final int result = Integer.valueOf(value.trim());
+                if (result > 0) {
+                    return result;
+                }
+            } catch (NumberFormatException e) {
+                log.error("Invalid value for " + name + ": " + value);
+            }
+        }
+        return defaultValue;
+    }
+
+    private ClusterLeases getLeases() {
+        return new ClusterLeases(em, nodeId);
+    }
+
+    private ClusterCoordinatorLocal getSelf() {
+        return context.getBusinessObject(ClusterCoordinatorLocal.class);
+    }
+
+    /**
+     * Creates the liveness and shard leases of this node, each one in its
+     * own transaction.
+     */
+    private void seedLeases() {
+        if (seeded) {
+            return;
+        }
+        final ClusterCoordinatorLocal self = getSelf();
+        self.seed(ClusterLeases.NODE_PREFIX + nodeId);
+        for (String name : ClusterLeases.getShardLeases(shards)) {
+            self.seed(name);
+        }
+        seeded = true;
+    }
+
+    /**
+     * Publishes the shards held once the current transaction committed.
+     * 
+     * @param held: the shards held.
+     * @param expires: the local time (in milliseconds) they expire at.
+     */
+    private void publishOnCommit(final Set<Integer> held, final long expires) {
+        final LocalShards published = new LocalShards(held, expires);
+        if (registry == null || registry.getTransactionKey() == null) {
+            publish(published);
+            return;
+        }
+        registry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    publish(published);
+                }
+            }
+        });
+    }
+
+    private void publish(LocalShards published) {
+        if (!published.shards.equals(localShards.shards)) {
+            log.info("Cluster node " + nodeId + " now holds kup shards "
+                    + published.shards);
+        }
+        localShards = published;
+    }
+
+    @PostConstruct
+    public void init() {
+        log.info("Cluster node " + nodeId + " with " + String.valueOf(shards)
+                + " kup shards");
+        // First heartbeat out of the deployment transaction: a failure is
+        // then simply retried on the next one.
+        timerService.createSingleActionTimer(0, new TimerConfig(null, false));
+    }
+
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void onTimeout(Timer timer) {
+        heartbeat();
+    }
+
+    /**
+     * Renews this node's liveness lease and (re)balances the Kup shards.
+     */
+    @Schedule(second = "*/30", minute = "*", hour = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void heartbeat() {
+
+        if (!available.compareAndSet(true, false)) {
+            return;
+        }
+
+        try {
+            seedLeases();
+            final int ttl = getIntProperty(PROP_HEARTBEAT_TTL,
+                    DEFAULT_HEARTBEAT_TTL);
+            // Taken before the database time: the shards expire locally no
+            // later than in database.
+            final long started = System.currentTimeMillis();
+            final ClusterLeases leases = getLeases();
+            final Date now = leases.getDatabaseTime();
+            leases.heartbeat(ttl, now);
+            final Set<Integer> held = leases.acquireShards(shards, ttl, now);
+            publishOnCommit(held, started + ttl * 1000L);
+        } catch (Exception e) {
+            log.error("Cluster heartbeat failed: " + e.getMessage());
+            context.setRollbackOnly();
+        } finally {
+            available.set(true);
+        }
+
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public boolean acquire(String name) {
+        final ClusterLeases leases = getLeases();
+        if (!leases.exists(name)) {
+            getSelf().seed(name);
+        }
+        final boolean acquired = leases.acquire(name,
+                getIntProperty(PROP_LEASE_TTL, DEFAULT_LEASE_TTL),
+                leases.getDatabaseTime());
+        if (!acquired) {
+            log.debug("Lease " + name + " held by another node.");
+        }
+        return acquired;
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void seed(String name) {
+        try {
+            getLeases().seed(name);
+        } catch (PersistenceException e) {
+            // Created by another node in the mean time.
+            context.setRollbackOnly();
+        }
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void release(String name) {
+        getLeases().release(name);
+    }
+
+    @Override
+    public int getShards() {
+        return shards;
+    }
+
+    @Override
+    public Set<Integer> getLocalShards() {
+        final LocalShards current = localShards;
+        if (System.currentTimeMillis() >= current.expires) {
+            // No successful heartbeat for too long: other nodes may have
+            // taken the shards over.
+            return Collections.emptySet();
+        }
+        return current.shards;
+    }
+
+    @Override
+    public boolean isLocal(long kupId) {
+        return getLocalShards().contains(
+                ClusterLeases.shardOf(kupId, shards));
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.cluster;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Cluster Lease.
+ * 
+ * <p>
+ * 
+ * A named lease held by a cluster node till a given expiration date. Nodes
+ * renew the leases they hold on a regular basis (heartbeat): the leases of a
+ * node that stopped doing so expire and can be taken over by the other ones.
+ * 
+ * @see {@link ClusterLeases}
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Entity
+@Table(name = "cluster_leases")
+public class ClusterLeaseImpl implements Serializable {
+
+    private static final long serialVersionUID = -6281839145093264370L;
+
+    @Id
+    @Column(name = "name", nullable = false)
+    protected String name;
+
+    @Column(name = "owner", nullable = false)
+    protected String owner;
+
+    @Column(name = "expires", nullable = false)
+    protected Date expires;
+
+    @Column(name = "heartbeat", nullable = false)
+    protected Date heartbeat;
+
+    public ClusterLeaseImpl() {
+        super();
+    }
+
+    public ClusterLeaseImpl(String name, String owner, Date heartbeat,
+            Date expires) {
+        this();
+        this.name = name;
+        this.owner = owner;
+        this.heartbeat = (Date) heartbeat.clone();
+        this.expires = (Date) expires.clone();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public Date getExpires() {
+        return (Date) expires.clone();
+    }
+
+    public Date getHeartbeat() {
+        return (Date) heartbeat.clone();
+    }
+
+}
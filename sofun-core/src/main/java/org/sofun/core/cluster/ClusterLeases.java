@@ -0,0 +1,312 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.cluster;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+/**
+ * Cluster Leases.
+ * 
+ * <p>
+ * 
+ * Named leases stored in the <code>cluster_leases</code> table and shared by
+ * all the nodes of the cluster. A lease is held by a single node till it
+ * expires: the owner renews it while the other nodes may only take it over
+ * once expired. Acquisitions are conditional updates so that two nodes can
+ * never both succeed.
+ * 
+ * <p>
+ * 
+ * Each node holds a <code>node.&lt;id&gt;</code> lease renewed on heartbeat
+ * which tells the other nodes it is alive. The Kup id space is split in a
+ * fixed amount of shards (see {@link #shardOf(long, int)}), each one being a
+ * lease: a node claims its fair share of the shards and gives back the extra
+ * ones when new nodes show up. The shards of a node that stopped
+ * heartbeating expire and get claimed by the remaining ones.
+ * 
+ * <p>
+ * 
+ * Lease rows are created once (see {@link #seed(String)}) as expired and
+ * never deleted: acquiring, renewing and releasing them are updates that
+ * cannot fail on a concurrent node. Expiration dates are meant to be computed
+ * from the database clock (see {@link #getDatabaseTime()}) so that the nodes
+ * do not depend on their clocks being in sync.
+ * 
+ * <p>
+ * 
+ * Not thread safe: operates within the caller's transaction.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class ClusterLeases {
+
+    public static final String NODE_PREFIX = "node.";
+
+    public static final String SHARD_PREFIX = "kup.shard.";
+
+    public static final String PROP_NODE_ID = "sofun.node.id";
+
+    private static final String JBOSS_NODE_NAME = "jboss.node.name";
+
+    private final EntityManager em;
+
+    private final String nodeId;
+
+    public ClusterLeases(EntityManager em, String nodeId) {
+        this.em = em;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Returns the identifier of this JVM's node.
+     * 
+     * <p>
+     * 
+     * The <code>sofun.node.id</code> system property, the JBoss node name or
+     * the runtime name (pid@host) in this order.
+     * 
+     * @return a {@link String}
+     */
+    public static String getLocalNodeId() {
+        String id = System.getProperty(PROP_NODE_ID);
+        if (id == null || id.trim().isEmpty()) {
+            id = System.getProperty(JBOSS_NODE_NAME);
+        }
+        if (id == null || id.trim().isEmpty()) {
+            id = ManagementFactory.getRuntimeMXBean().getName();
+        }
+        return id.trim();
+    }
+
+    /**
+     * Returns the shard a Kup belongs to.
+     * 
+     * <p>
+     * 
+     * Matches <code>mod(k.id, shards)</code> in queries.
+     * 
+     * @param id: the Kup identifier.
+     * @param shards: the amount of shards.
+     * @return a shard index within [0, shards[
+     */
+    public static int shardOf(long id, int shards) {
+        return (int) Math.abs(id % shards);
+    }
+
+    private static Date add(Date date, int seconds) {
+        final Calendar ref = Calendar.getInstance();
+        ref.setTime(date);
+        ref.add(Calendar.SECOND, seconds);
+        return ref.getTime();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Returns the current date of the database.
+     * 
+     * @return a {@link Date}
+     */
+    public Date getDatabaseTime() {
+        final Object now = em.createNativeQuery("SELECT CURRENT_TIMESTAMP")
+                .getSingleResult();
+        return new Date(((Date) now).getTime());
+    }
+
+    /**
+     * Creates a lease if it does not exist yet. The lease is created expired
+     * and owned by no node.
+     * 
+     * <p>
+     * 
+     * The insertion fails if another node creates the same lease at the same
+     * time: the caller should run within its own transaction.
+     * 
+     * @param name: the lease name.
+     * @return true if created, false if it already exists.
+     */
+    public boolean seed(String name) {
+        if (em.find(ClusterLeaseImpl.class, name) != null) {
+            return false;
+        }
+        final Date expired = new Date(0);
+        em.persist(new ClusterLeaseImpl(name, "", expired, expired));
+        em.flush();
+        return true;
+    }
+
+    /**
+     * Does a lease exist?
+     * 
+     * @param name: the lease name.
+     * @return true or false.
+     */
+    public boolean exists(String name) {
+        return em.find(ClusterLeaseImpl.class, name) != null;
+    }
+
+    /**
+     * Acquires or renews a lease. Never creates it: a lease that was not
+     * seeded (see {@link #seed(String)}) cannot be acquired.
+     * 
+     * @param name: the lease name.
+     * @param ttl: the lease time to live in seconds.
+     * @param now: the reference {@link Date}.
+     * @return true if this node holds the lease till now + ttl.
+     */
+    public boolean acquire(String name, int ttl, Date now) {
+        final Date expires = add(now, ttl);
+        final Query query = em.createQuery("UPDATE "
+                + ClusterLeaseImpl.class.getSimpleName()
+                + " l SET l.owner = :owner, l.expires = :expires,"
+                + " l.heartbeat = :now WHERE l.name = :name"
+                + " AND (l.owner = :owner OR l.expires < :now)");
+        query.setParameter("owner", nodeId);
+        query.setParameter("expires", expires);
+        query.setParameter("now", now);
+        query.setParameter("name", name);
+        return query.executeUpdate() > 0;
+    }
+
+    /**
+     * Releases a lease held by this node. Other nodes may acquire it right
+     * away.
+     * 
+     * @param name: the lease name.
+     */
+    public void release(String name) {
+        final Query query = em.createQuery("UPDATE "
+                + ClusterLeaseImpl.class.getSimpleName()
+                + " l SET l.expires = :expires"
+                + " WHERE l.name = :name AND l.owner = :owner");
+        query.setParameter("expires", new Date(0));
+        query.setParameter("name", name);
+        query.setParameter("owner", nodeId);
+        query.executeUpdate();
+    }
+
+    /**
+     * Returns the names of the leases of the shards.
+     * 
+     * @param shards: the amount of shards.
+     * @return a {@link List} of lease names.
+     */
+    public static List<String> getShardLeases(int shards) {
+        final List<String> names = new ArrayList<String>(shards);
+        for (int i = 0; i < shards; i++) {
+            names.add(SHARD_PREFIX + i);
+        }
+        return names;
+    }
+
+    /**
+     * Renews this node's liveness lease.
+     * 
+     * @param ttl: the time to live in seconds.
+     * @param now: the reference {@link Date}.
+     */
+    public void heartbeat(int ttl, Date now) {
+        acquire(NODE_PREFIX + nodeId, ttl, now);
+    }
+
+    /**
+     * Returns the nodes whose liveness lease did not expire.
+     * 
+     * @param now: the reference {@link Date}.
+     * @return a sorted {@link Set} of node identifiers.
+     */
+    public Set<String> getLiveNodes(Date now) {
+        final Query query = em.createQuery("SELECT l.owner FROM "
+                + ClusterLeaseImpl.class.getSimpleName()
+                + " l WHERE l.name LIKE :prefix AND l.expires >= :now");
+        query.setParameter("prefix", NODE_PREFIX + "%");
+        query.setParameter("now", now);
+        @SuppressWarnings("unchecked")
+        final List<String> owners = query.getResultList();
+        return new TreeSet<String>(owners);
+    }
+
+    /**
+     * Renews the shards held by this node and claims expired ones up to its
+     * fair share. Shards not seeded yet are skipped. Shards held beyond the
+     * fair share are released so that nodes joining the cluster get theirs.
+     * 
+     * @param shards: the amount of shards.
+     * @param ttl: the shard lease time to live in seconds.
+     * @param now: the reference {@link Date}.
+     * @return the {@link Set} of shards held by this node.
+     */
+    public Set<Integer> acquireShards(int shards, int ttl, Date now) {
+
+        final int live = Math.max(1, getLiveNodes(now).size());
+        final int share = (shards + live - 1) / live;
+
+        final Query query = em.createQuery("SELECT l.name, l.owner, l.expires"
+                + " FROM " + ClusterLeaseImpl.class.getSimpleName()
+                + " l WHERE l.name LIKE :prefix");
+        query.setParameter("prefix", SHARD_PREFIX + "%");
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = query.getResultList();
+        final Map<String, Object[]> leases = new HashMap<String, Object[]>();
+        for (Object[] row : rows) {
+            leases.put((String) row[0], row);
+        }
+
+        final Set<Integer> held = new TreeSet<Integer>();
+
+        // Renew ours first, up to the fair share.
+        for (int i = 0; i < shards; i++) {
+            final Object[] lease = leases.get(SHARD_PREFIX + i);
+            if (lease == null || !nodeId.equals(lease[1])) {
+                continue;
+            }
+            if (held.size() < share && acquire(SHARD_PREFIX + i, ttl, now)) {
+                held.add(i);
+            } else {
+                release(SHARD_PREFIX + i);
+            }
+        }
+
+        // Then claim the unassigned and expired ones.
+        for (int i = 0; i < shards && held.size() < share; i++) {
+            final Object[] lease = leases.get(SHARD_PREFIX + i);
+            if (lease == null || nodeId.equals(lease[1])
+                    || !((Date) lease[2]).before(now)) {
+                continue;
+            }
+            if (acquire(SHARD_PREFIX + i, ttl, now)) {
+                held.add(i);
+            }
+        }
+
+        return held;
+
+    }
+
+}
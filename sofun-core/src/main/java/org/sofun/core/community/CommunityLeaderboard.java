@@ -0,0 +1,431 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.community;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.Local;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.Configuration;
+import org.sofun.core.CoreConstants;
+import org.sofun.core.api.community.table.MemberRankingPage;
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
+import org.sofun.core.api.community.table.MemberRankingTableService;
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.local.CommunityLeaderboardLocal;
+import org.sofun.core.api.local.MemberRankingTableServiceLocal;
+import org.sofun.core.api.member.Member;
+import org.sofun.core.community.table.MemberRankingIndex;
+import org.sofun.core.community.table.MemberRankingPageImpl;
+import org.sofun.core.community.table.MemberRankingTableEntryImpl;
+import org.sofun.core.community.table.MemberRankingTableImpl;
+import org.sofun.core.member.MemberImpl;
+
+/**
+ * Community Leaderboard.
+ * 
+ * <p>
+ * 
+ * Keeps community wide ranking tables in memory, one shard per table, each
+ * shard being a {@link MemberRankingIndex} over lightweight snapshots of the
+ * ranking fields of every entry. Pages are thus resolved in O(page) and
+ * positions in O(log n), only the entries of the page being loaded from the
+ * database.
+ * 
+ * <p>
+ * 
+ * A shard is loaded on first access with a single scalar query. It is then
+ * maintained from the ranking deltas committed by the scoring (see
+ * TeamService#applyKupRankingDeltas), members missing from the shard being
+ * loaded on demand. It is dropped once an entry gets added to its table (see
+ * {@link CommunityLeaderboardListener}) and reloaded once older than the
+ * <code>ranking.leaderboard.ttl</code> property (minutes) so that any drift
+ * is bounded.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@Local(CommunityLeaderboardLocal.class)
+public class CommunityLeaderboard implements CommunityLeaderboardLocal {
+
+    private static final Log log = LogFactory
+            .getLog(CommunityLeaderboard.class);
+
+    /* Property holding the maximum age of a shard in minutes. */
+    public static final String PROP_TTL = "ranking.leaderboard.ttl";
+
+    public static final int DEFAULT_TTL = 60;
+
+    @PersistenceContext(unitName = CoreConstants.PERSISTENCE_UNIT)
+    private transient EntityManager em;
+
+    @EJB(beanName = "MemberRankingTableServiceImpl", beanInterface = MemberRankingTableServiceLocal.class)
+    private MemberRankingTableService rankings;
+
+    @Resource
+    private TransactionSynchronizationRegistry registry;
+
+    private final ConcurrentMap<Long, Shard> shards = new ConcurrentHashMap<Long, Shard>();
+
+    /**
+     * Ranking of one table.
+     */
+    private static final class Shard {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final MemberRankingIndex index = new MemberRankingIndex();
+
+        private final long loaded = System.currentTimeMillis();
+
+    }
+
+    /**
+     * Ranking fields of an entry. Not bound to any persistence context.
+     */
+    private static final class Snapshot extends MemberRankingTableEntryImpl {
+
+        private static final long serialVersionUID = -6151542405736880472L;
+
+        private Snapshot(Object[] row) {
+            super();
+            final MemberImpl m = new MemberImpl();
+            m.setId(((Number) row[0]).longValue());
+            this.member = m;
+            this.value = ((Number) row[1]).intValue();
+            this.correctPredictions = row[2] != null ? ((Number) row[2])
+                    .intValue() : null;
+            this.tiebreakerOffset = row[3] != null ? ((Number) row[3])
+                    .intValue() : null;
+            this.firstPredictions = (Date) row[4];
+        }
+
+    }
+
+    private static final String SNAPSHOT_QUERY = "select e.member.id, e.value,"
+            + " e.correctPredictions, e.tiebreakerOffset, e.firstPredictions"
+            + " from " + MemberRankingTableEntryImpl.class.getSimpleName()
+            + " e where e.table.id=:table_id";
+
+    @PostConstruct
+    public void init() {
+        CommunityLeaderboardListener.register(this);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        CommunityLeaderboardListener.unregister(this);
+    }
+
+    private long getTTL() {
+        final String value = Configuration.getProperties().getProperty(
+                PROP_TTL);
+        if (value != null) {
+            try {
+                final int ttl = Integer.valueOf(value.trim());
+                if (ttl > 0) {
+                    return ttl * 60L * 1000L;
+                }
+            } catch (NumberFormatException e) {
+                log.error("Invalid value for " + PROP_TTL + ": " + value);
+            }
+        }
+        return DEFAULT_TTL * 60L * 1000L;
+    }
+
+    /**
+     * Returns the shard of a table, loading it if needed.
+     * 
+     * @param tableId: a table identifier.
+     * @return a {@link Shard} instance.
+     */
+    private Shard getShard(long tableId) {
+        Shard shard = shards.get(tableId);
+        if (shard != null
+                && System.currentTimeMillis() - shard.loaded < getTTL()) {
+            return shard;
+        }
+        final Shard fresh = new Shard();
+        fresh.lock.writeLock().lock();
+        try {
+            // Deltas received from now on wait for the load to complete.
+            if (shard == null) {
+                final Shard concurrent = shards.putIfAbsent(tableId, fresh);
+                if (concurrent != null) {
+                    return concurrent;
+                }
+            } else if (!shards.replace(tableId, shard, fresh)) {
+                return shards.get(tableId);
+            }
+            final Query query = em.createQuery(SNAPSHOT_QUERY);
+            query.setParameter("table_id", tableId);
+            @SuppressWarnings("unchecked")
+            final List<Object[]> rows = query.getResultList();
+            for (Object[] row : rows) {
+                fresh.index.add(new Snapshot(row));
+            }
+            log.info("Leaderboard loaded for table with id="
+                    + String.valueOf(tableId) + " ("
+                    + String.valueOf(rows.size()) + " entries)");
+        } catch (RuntimeException e) {
+            shards.remove(tableId, fresh);
+            throw e;
+        } finally {
+            fresh.lock.writeLock().unlock();
+        }
+        return fresh;
+    }
+
+    /**
+     * Adds a member who joined after the shard got loaded.
+     * 
+     * @return the position of the member or -1 if not ranked.
+     */
+    private int addMember(long tableId, Shard shard, long memberId) {
+        final Query query = em.createQuery(SNAPSHOT_QUERY
+                + " and e.member.id=:member_id");
+        query.setParameter("table_id", tableId);
+        query.setParameter("member_id", memberId);
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            return -1;
+        }
+        shard.lock.writeLock().lock();
+        try {
+            if (shard.index.getEntry(memberId) == null) {
+                shard.index.add(new Snapshot(rows.get(0)));
+            }
+            return shard.index.getPosition(memberId);
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public MemberRankingPage getPage(long tableId, int offset, int batchSize,
+            Member member) throws CoreException {
+
+        if (offset < 0) {
+            offset = 0;
+        }
+
+        final Shard shard = getShard(tableId);
+        long[] ids;
+        int size;
+        int memberPosition = -1;
+        shard.lock.readLock().lock();
+        try {
+            size = shard.index.size();
+            final List<MemberRankingTableEntry> snapshots = shard.index
+                    .getRange(offset, batchSize > 0 ? batchSize : size);
+            ids = new long[snapshots.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = snapshots.get(i).getMember().getId();
+            }
+            if (member != null) {
+                memberPosition = shard.index.getPosition(member.getId());
+            }
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+
+        MemberRankingTableEntry memberEntry = null;
+        if (member != null) {
+            memberEntry = rankings.getEntryFor(tableId, member.getId());
+            if (memberEntry == null) {
+                memberPosition = -1;
+            } else if (memberPosition == -1) {
+                memberPosition = addMember(tableId, shard, member.getId());
+            }
+        }
+
+        Date modified = null;
+        long entriesTotalPoints = 0;
+        long version = 0;
+        final Query query = em
+                .createQuery("select t.modified, t.entriesTotalPoints,"
+                        + " t.version from "
+                        + MemberRankingTableImpl.class.getSimpleName()
+                        + " t where t.id=:table_id");
+        query.setParameter("table_id", tableId);
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = query.getResultList();
+        if (!rows.isEmpty()) {
+            modified = (Date) rows.get(0)[0];
+            entriesTotalPoints = (Long) rows.get(0)[1];
+            version = (Long) rows.get(0)[2];
+        }
+
+        return new MemberRankingPageImpl(tableId, offset, batchSize, size,
+                rankings.getEntriesFor(tableId, ids), modified,
+                entriesTotalPoints, version, memberEntry, memberPosition);
+
+    }
+
+    @Override
+    public int getPositionFor(long tableId, long memberId)
+            throws CoreException {
+        return getPositionsFor(tableId, new long[] { memberId })[0];
+    }
+
+    @Override
+    public int[] getPositionsFor(long tableId, long[] memberIds)
+            throws CoreException {
+        final Shard shard = getShard(tableId);
+        int[] positions = new int[memberIds.length];
+        shard.lock.readLock().lock();
+        try {
+            for (int i = 0; i < memberIds.length; i++) {
+                positions[i] = shard.index.getPosition(memberIds[i]);
+            }
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+        return positions;
+    }
+
+    @Override
+    public int size(long tableId) throws CoreException {
+        final Shard shard = getShard(tableId);
+        shard.lock.readLock().lock();
+        try {
+            return shard.index.size();
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void applyDeltas(long tableId, Map<Long, Integer> deltas) {
+        final Shard shard = shards.get(tableId);
+        if (shard == null || deltas == null) {
+            return;
+        }
+
+        // Members who joined after the shard got loaded.
+        final List<Long> missing = new ArrayList<Long>();
+        shard.lock.readLock().lock();
+        try {
+            for (Long memberId : deltas.keySet()) {
+                if (shard.index.getEntry(memberId) == null) {
+                    missing.add(memberId);
+                }
+            }
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+        List<Object[]> rows = new ArrayList<Object[]>();
+        if (!missing.isEmpty()) {
+            final Query query = em.createQuery(SNAPSHOT_QUERY
+                    + " and e.member.id in (:member_ids)");
+            query.setParameter("table_id", tableId);
+            query.setParameter("member_ids", missing);
+            @SuppressWarnings("unchecked")
+            final List<Object[]> result = query.getResultList();
+            rows = result;
+        }
+
+        shard.lock.writeLock().lock();
+        try {
+            // Loaded entries are committed: they hold the deltas already.
+            final Set<Long> loaded = new HashSet<Long>();
+            for (Object[] row : rows) {
+                final Snapshot snapshot = new Snapshot(row);
+                final long memberId = snapshot.getMember().getId();
+                if (shard.index.getEntry(memberId) == null) {
+                    shard.index.add(snapshot);
+                }
+                loaded.add(memberId);
+            }
+            for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+                final MemberRankingTableEntry snapshot = shard.index
+                        .getEntry(delta.getKey());
+                if (snapshot == null || delta.getValue() == null
+                        || loaded.contains(delta.getKey())) {
+                    continue;
+                }
+                snapshot.setValue(snapshot.getValue() + delta.getValue());
+                shard.index.update(snapshot);
+            }
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void invalidate(long tableId) {
+        shards.remove(tableId);
+    }
+
+    /**
+     * Drops the shard of a table, if loaded, once the current transaction,
+     * if any, committed. (see {@link CommunityLeaderboardListener})
+     * 
+     * @param tableId: a table identifier.
+     */
+    void invalidateOnCommit(final long tableId) {
+        if (!shards.containsKey(tableId)) {
+            return;
+        }
+        if (registry == null || registry.getTransactionKey() == null) {
+            invalidate(tableId);
+            return;
+        }
+        registry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    invalidate(tableId);
+                }
+            }
+        });
+    }
+
+}
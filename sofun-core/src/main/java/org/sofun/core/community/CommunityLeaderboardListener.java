@@ -0,0 +1,61 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.community;
+
+import javax.persistence.PostPersist;
+
+import org.sofun.core.community.table.MemberRankingTableEntryImpl;
+
+/**
+ * Community Leaderboard Listener.
+ * 
+ * <p>
+ * 
+ * JPA entity listener dropping the leaderboard of a table once a new entry
+ * got committed to it, so that it gets reloaded with the new member on next
+ * access (see {@link CommunityLeaderboard}).
+ * 
+ * <p>
+ * 
+ * Entity listeners do not get injected: the leaderboard registers itself
+ * when created. Nothing happens out of the container or for tables that are
+ * not loaded.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class CommunityLeaderboardListener {
+
+    private static volatile CommunityLeaderboard leaderboard;
+
+    static void register(CommunityLeaderboard instance) {
+        leaderboard = instance;
+    }
+
+    static void unregister(CommunityLeaderboard instance) {
+        if (leaderboard == instance) {
+            leaderboard = null;
+        }
+    }
+
+    @PostPersist
+    public void onCreate(MemberRankingTableEntryImpl entry) {
+        final CommunityLeaderboard current = leaderboard;
+        if (current != null) {
+            current.invalidateOnCommit(entry.getTableId());
+        }
+    }
+
+}
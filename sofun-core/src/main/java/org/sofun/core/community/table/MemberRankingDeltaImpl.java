@@ -0,0 +1,124 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.community.table;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.sofun.core.api.community.table.MemberRankingDelta;
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
+
+/**
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class MemberRankingDeltaImpl implements MemberRankingDelta {
+
+    private static final long serialVersionUID = 5190227374961153032L;
+
+    private final long tableId;
+
+    private final long sinceVersion;
+
+    private final long version;
+
+    private final boolean complete;
+
+    private final List<MemberRankingTableEntry> entries;
+
+    private final Map<Long, Integer> positions;
+
+    private final long totalEntries;
+
+    private final Date lastModified;
+
+    private final long entriesTotalPoints;
+
+    public MemberRankingDeltaImpl(long tableId, long sinceVersion,
+            long version, boolean complete,
+            List<MemberRankingTableEntry> entries,
+            Map<Long, Integer> positions, long totalEntries, Date lastModified,
+            long entriesTotalPoints) {
+        this.tableId = tableId;
+        this.sinceVersion = sinceVersion;
+        this.version = version;
+        this.complete = complete;
+        this.entries = entries;
+        this.positions = positions;
+        this.totalEntries = totalEntries;
+        this.lastModified = lastModified;
+        this.entriesTotalPoints = entriesTotalPoints;
+    }
+
+    @Override
+    public long getTableId() {
+        return tableId;
+    }
+
+    @Override
+    public long getSinceVersion() {
+        return sinceVersion;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public List<MemberRankingTableEntry> getEntries() {
+        if (entries == null) {
+            return new ArrayList<MemberRankingTableEntry>();
+        }
+        return entries;
+    }
+
+    @Override
+    public int getPositionFor(long memberId) {
+        if (positions != null) {
+            final Integer position = positions.get(memberId);
+            if (position != null) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public long getTotalEntries() {
+        return totalEntries;
+    }
+
+    @Override
+    public Date getLastModified() {
+        if (lastModified == null) {
+            return null;
+        }
+        return (Date) lastModified.clone();
+    }
+
+    @Override
+    public long getEntriesTotalPoints() {
+        return entriesTotalPoints;
+    }
+
+}
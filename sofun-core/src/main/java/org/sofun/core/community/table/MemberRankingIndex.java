@@ -0,0 +1,416 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.community.table;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
+
+/**
+ * Member Ranking Index.
+ * 
+ * <p>
+ * 
+ * In-memory order statistic tree (size augmented treap) over the entries of a
+ * ranking table. Entries are ordered following the ranking table rules:
+ * <code>value DESC, correctPredictions DESC, tiebreakerOffset ASC,
+ * firstPredictions ASC</code> (null values being ordered as the database does)
+ * and then by member id to get a total order.
+ * 
+ * <p>
+ * 
+ * Lookups by member, positions, updates and rank range slicing are O(log n).
+ * Each node holds a snapshot of the entry ranking fields: an entry must be
+ * passed to {@link #update(MemberRankingTableEntry)} once modified for the
+ * index to reflect its new position.
+ * 
+ * <p>
+ * 
+ * Not thread safe: the index belongs to a ranking table instance which is
+ * bound to a persistence context.
+ * 
+ * <p>
+ * 
+ * The index of a ranking table thus only lives as long as its persistence
+ * context, i.e. one transaction: it is built from all the entries on first
+ * use, which costs a load of the table plus O(n log n). It only pays off for
+ * callers walking the entries anyway. Scoring and ranking endpoints rather
+ * rely on the database (see MemberRankingTableService) and community
+ * leaderboards on a shared index kept beyond transactions (see
+ * CommunityLeaderboard).
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class MemberRankingIndex {
+
+    private static final class Key {
+
+        private final int value;
+
+        private final Integer correct;
+
+        private final Integer tiebreaker;
+
+        private final Long first;
+
+        private final long memberId;
+
+        private Key(MemberRankingTableEntry entry) {
+            this.value = entry.getValue();
+            this.correct = entry.getCorrectPredictions();
+            this.tiebreaker = entry.getTiebreakerOffset();
+            final Date date = entry.getFirstPredictions();
+            this.first = date != null ? date.getTime() : null;
+            this.memberId = entry.getMember().getId();
+        }
+
+    }
+
+    private static final class Node {
+
+        private final Key key;
+
+        private final MemberRankingTableEntry entry;
+
+        private final int priority;
+
+        private int size = 1;
+
+        private Node left;
+
+        private Node right;
+
+        private Node(Key key, MemberRankingTableEntry entry, int priority) {
+            this.key = key;
+            this.entry = entry;
+            this.priority = priority;
+        }
+
+    }
+
+    private final Map<Long, Node> nodes = new HashMap<Long, Node>();
+
+    private final Random random = new Random();
+
+    private Node root;
+
+    public MemberRankingIndex() {
+        super();
+    }
+
+    public MemberRankingIndex(Collection<MemberRankingTableEntry> entries) {
+        this();
+        for (MemberRankingTableEntry entry : entries) {
+            add(entry);
+        }
+    }
+
+    private static int compareAsc(Long a, Long b) {
+        if (a == null) {
+            return b == null ? 0 : 1;
+        } else if (b == null) {
+            return -1;
+        }
+        return a.compareTo(b);
+    }
+
+    private static int compareInt(int a, int b) {
+        return a < b ? -1 : (a == b ? 0 : 1);
+    }
+
+    /**
+     * Ranking rules. Ascending nulls last, descending nulls first.
+     */
+    static int compare(Key a, Key b) {
+        int c = compareInt(b.value, a.value);
+        if (c != 0) {
+            return c;
+        }
+        if (a.correct == null || b.correct == null) {
+            c = a.correct == null ? (b.correct == null ? 0 : -1) : 1;
+        } else {
+            c = compareInt(b.correct, a.correct);
+        }
+        if (c != 0) {
+            return c;
+        }
+        if (a.tiebreaker == null || b.tiebreaker == null) {
+            c = a.tiebreaker == null ? (b.tiebreaker == null ? 0 : 1) : -1;
+        } else {
+            c = compareInt(a.tiebreaker, b.tiebreaker);
+        }
+        if (c != 0) {
+            return c;
+        }
+        c = compareAsc(a.first, b.first);
+        if (c != 0) {
+            return c;
+        }
+        return a.memberId < b.memberId ? -1 : (a.memberId == b.memberId ? 0
+                : 1);
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static void resize(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            resize(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        resize(b);
+        return b;
+    }
+
+    /* Returns {nodes lower than key, nodes greater than or equal to key} */
+    private static Node[] split(Node node, Key key) {
+        if (node == null) {
+            return new Node[] { null, null };
+        }
+        if (compare(node.key, key) < 0) {
+            final Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            resize(node);
+            return new Node[] { node, parts[1] };
+        }
+        final Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        resize(node);
+        return new Node[] { parts[0], node };
+    }
+
+    private static Node erase(Node node, Key key) {
+        if (node == null) {
+            return null;
+        }
+        final int c = compare(key, node.key);
+        if (c == 0) {
+            return merge(node.left, node.right);
+        } else if (c < 0) {
+            node.left = erase(node.left, key);
+        } else {
+            node.right = erase(node.right, key);
+        }
+        resize(node);
+        return node;
+    }
+
+    /**
+     * Adds an entry to the index. Updates it if already indexed.
+     * 
+     * @param entry: a {@link MemberRankingTableEntry} instance.
+     */
+    public void add(MemberRankingTableEntry entry) {
+        if (entry == null || entry.getMember() == null) {
+            return;
+        }
+        final long memberId = entry.getMember().getId();
+        if (nodes.containsKey(memberId)) {
+            remove(memberId);
+        }
+        final Node node = new Node(new Key(entry), entry, random.nextInt());
+        final Node[] parts = split(root, node.key);
+        root = merge(merge(parts[0], node), parts[1]);
+        nodes.put(memberId, node);
+    }
+
+    /**
+     * Repositions an entry after its ranking fields have been modified.
+     * 
+     * @param entry: a {@link MemberRankingTableEntry} instance.
+     */
+    public void update(MemberRankingTableEntry entry) {
+        add(entry);
+    }
+
+    /**
+     * Removes the entry of a given member.
+     * 
+     * @param memberId: the member identifier.
+     * @return true if an entry has been removed.
+     */
+    public boolean remove(long memberId) {
+        final Node node = nodes.remove(memberId);
+        if (node == null) {
+            return false;
+        }
+        root = erase(root, node.key);
+        return true;
+    }
+
+    /**
+     * Returns the entry of a given member.
+     * 
+     * @param memberId: the member identifier.
+     * @return a {@link MemberRankingTableEntry} or null if not indexed.
+     */
+    public MemberRankingTableEntry getEntry(long memberId) {
+        final Node node = nodes.get(memberId);
+        return node != null ? node.entry : null;
+    }
+
+    /**
+     * Returns the position (starting at 0) of a given member.
+     * 
+     * @param memberId: the member identifier.
+     * @return an int or -1 if not indexed.
+     */
+    public int getPosition(long memberId) {
+        final Node target = nodes.get(memberId);
+        if (target == null) {
+            return -1;
+        }
+        int position = 0;
+        Node node = root;
+        while (node != null) {
+            final int c = compare(target.key, node.key);
+            if (c == 0) {
+                return position + size(node.left);
+            } else if (c < 0) {
+                node = node.left;
+            } else {
+                position += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the entry at a given position.
+     * 
+     * @param position: position starting at 0.
+     * @return a {@link MemberRankingTableEntry} or null if out of range.
+     */
+    public MemberRankingTableEntry get(int position) {
+        if (position < 0 || position >= size()) {
+            return null;
+        }
+        Node node = root;
+        while (node != null) {
+            final int left = size(node.left);
+            if (position < left) {
+                node = node.left;
+            } else if (position == left) {
+                return node.entry;
+            } else {
+                position -= left + 1;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    private static void collect(Node node, int offset, int end, int base,
+            List<MemberRankingTableEntry> out) {
+        if (node == null) {
+            return;
+        }
+        final int position = base + size(node.left);
+        if (offset < position) {
+            collect(node.left, offset, end, base, out);
+        }
+        if (position >= offset && position < end) {
+            out.add(node.entry);
+        }
+        if (end > position + 1) {
+            collect(node.right, offset, end, position + 1, out);
+        }
+    }
+
+    /**
+     * Returns a slice of the ranking.
+     * 
+     * @param offset: position of the first entry (starting at 0)
+     * @param batchSize: maximum amount of entries.
+     * @return a {@link List} of {@link MemberRankingTableEntry} ordered by
+     *         position.
+     */
+    public List<MemberRankingTableEntry> getRange(int offset, int batchSize) {
+        List<MemberRankingTableEntry> out = new ArrayList<MemberRankingTableEntry>();
+        if (offset < 0 || batchSize <= 0) {
+            return out;
+        }
+        final int end = (int) Math.min((long) offset + batchSize,
+                Integer.MAX_VALUE);
+        collect(root, offset, end, 0, out);
+        return out;
+    }
+
+    /**
+     * Returns the entries of a set of members ordered by position.
+     * 
+     * <p>
+     * 
+     * Members not indexed are skipped. Runs in O(k log k) for k members,
+     * whatever the size of the index.
+     * 
+     * @param memberIds: distinct member identifiers.
+     * @return a {@link List} of {@link MemberRankingTableEntry} ordered by
+     *         position.
+     */
+    public List<MemberRankingTableEntry> getEntries(long[] memberIds) {
+        List<Node> found = new ArrayList<Node>();
+        for (long memberId : memberIds) {
+            final Node node = nodes.get(memberId);
+            if (node != null) {
+                found.add(node);
+            }
+        }
+        Collections.sort(found, new Comparator<Node>() {
+            @Override
+            public int compare(Node a, Node b) {
+                return MemberRankingIndex.compare(a.key, b.key);
+            }
+        });
+        List<MemberRankingTableEntry> out = new ArrayList<MemberRankingTableEntry>(
+                found.size());
+        for (Node node : found) {
+            out.add(node.entry);
+        }
+        return out;
+    }
+
+    /**
+     * Returns the amount of indexed entries.
+     * 
+     * @return an int >= 0
+     */
+    public int size() {
+        return size(root);
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.community.table;
+
+import java.util.Date;
+import java.util.List;
+
+import org.sofun.core.api.community.table.MemberRankingPage;
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
+
+/**
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class MemberRankingPageImpl implements MemberRankingPage {
+
+    private static final long serialVersionUID = -2817391350240766153L;
+
+    private final long tableId;
+
+    private final int offset;
+
+    private final int batchSize;
+
+    private final long totalEntries;
+
+    private final List<MemberRankingTableEntry> entries;
+
+    private final Date lastModified;
+
+    private final long entriesTotalPoints;
+
+    private final long version;
+
+    private final MemberRankingTableEntry memberEntry;
+
+    private final int memberPosition;
+
+    public MemberRankingPageImpl(long tableId, int offset, int batchSize,
+            long totalEntries, List<MemberRankingTableEntry> entries,
+            Date lastModified, long entriesTotalPoints, long version,
+            MemberRankingTableEntry memberEntry, int memberPosition) {
+        this.tableId = tableId;
+        this.offset = offset;
+        this.batchSize = batchSize;
+        this.totalEntries = totalEntries;
+        this.entries = entries;
+        this.lastModified = lastModified;
+        this.entriesTotalPoints = entriesTotalPoints;
+        this.version = version;
+        this.memberEntry = memberEntry;
+        this.memberPosition = memberPosition;
+    }
+
+    @Override
+    public long getTableId() {
+        return tableId;
+    }
+
+    @Override
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public long getTotalEntries() {
+        return totalEntries;
+    }
+
+    @Override
+    public List<MemberRankingTableEntry> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public Date getLastModified() {
+        if (lastModified == null) {
+            return null;
+        }
+        return (Date) lastModified.clone();
+    }
+
+    @Override
+    public long getEntriesTotalPoints() {
+        return entriesTotalPoints;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public MemberRankingTableEntry getMemberEntry() {
+        return memberEntry;
+    }
+
+    @Override
+    public int getMemberPosition() {
+        return memberPosition;
+    }
+
+}
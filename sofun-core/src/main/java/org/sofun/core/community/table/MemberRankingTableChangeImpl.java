@@ -0,0 +1,98 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.community.table;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Member Ranking Table Change.
+ * 
+ * <p>
+ * 
+ * Change log record: the entry of a member moved from one position to another
+ * (possibly the same) at a given version of a table. Only used internally by
+ * {@link MemberRankingTableServiceImpl} to compute ranking deltas.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Entity
+@Table(name = "members_ranking_tables_changes")
+public class MemberRankingTableChangeImpl implements Serializable {
+
+    private static final long serialVersionUID = 2871346095417302184L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", nullable = false)
+    protected long id;
+
+    @Column(name = "table_id", nullable = false)
+    protected long tableId;
+
+    @Column(name = "version", nullable = false)
+    protected long version;
+
+    @Column(name = "member_id", nullable = false)
+    protected long memberId;
+
+    @Column(name = "from_position", nullable = false)
+    protected int fromPosition;
+
+    @Column(name = "to_position", nullable = false)
+    protected int toPosition;
+
+    public MemberRankingTableChangeImpl() {
+        super();
+    }
+
+    public MemberRankingTableChangeImpl(long tableId, long version,
+            long memberId, int fromPosition, int toPosition) {
+        this();
+        this.tableId = tableId;
+        this.version = version;
+        this.memberId = memberId;
+        this.fromPosition = fromPosition;
+        this.toPosition = toPosition;
+    }
+
+    public long getTableId() {
+        return tableId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getMemberId() {
+        return memberId;
+    }
+
+    public int getFromPosition() {
+        return fromPosition;
+    }
+
+    public int getToPosition() {
+        return toPosition;
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.community.table;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Persistence;
+import javax.persistence.Query;
+
+import org.sofun.core.api.community.table.MemberRankingTable;
+import org.sofun.core.api.member.Member;
+
+/**
+ * Member Ranking Table Entries.
+ * 
+ * <p>
+ * 
+ * Adds ranking table entries by persisting them rather than through
+ * {@link MemberRankingTable#addEntryForMember(Member)}, which loads all the
+ * other entries of the table first.
+ * 
+ * <p>
+ * 
+ * Tables not persisted yet and tables whose entries are already loaded
+ * within the persistence context go through the collection as before to
+ * keep it consistent with the database.
+ * 
+ * <p>
+ * 
+ * Not thread safe: operates within the caller's transaction.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class MemberRankingTableEntries {
+
+    static final String ENTRY_EXISTS = "select count(e) from "
+            + MemberRankingTableEntryImpl.class.getSimpleName()
+            + " e where e.table.id = :table_id AND e.member.id = :member_id";
+
+    private final EntityManager em;
+
+    public MemberRankingTableEntries(EntityManager em) {
+        this.em = em;
+    }
+
+    /**
+     * Should the entry be persisted instead of added to the collection?
+     */
+    private static boolean isDirect(MemberRankingTable table, Member member) {
+        return table.getId() != 0 && member.getId() != 0
+                && table instanceof MemberRankingTableImpl
+                && !Persistence.getPersistenceUtil().isLoaded(table, "entries");
+    }
+
+    /**
+     * Adds the entry of a member to a table unless it exists already.
+     * 
+     * @param table: a {@link MemberRankingTable} instance.
+     * @param member: a {@link Member} instance.
+     */
+    public void add(MemberRankingTable table, Member member) {
+        if (table == null || member == null) {
+            return;
+        }
+        if (!isDirect(table, member)) {
+            table.addEntryForMember(member);
+            return;
+        }
+        Query query = em.createQuery(ENTRY_EXISTS);
+        query.setParameter("table_id", table.getId());
+        query.setParameter("member_id", member.getId());
+        if (((Number) query.getSingleResult()).longValue() > 0) {
+            return;
+        }
+        em.persist(new MemberRankingTableEntryImpl(table, member));
+        ((MemberRankingTableImpl) table).entryAdded();
+    }
+
+}
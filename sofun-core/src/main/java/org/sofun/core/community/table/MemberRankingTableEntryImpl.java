@@ -20,6 +20,7 @@ import java.util.Date;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -37,6 +38,7 @@ import org.sofun.core.api.community.table.MemberRankingTable;
 import org.sofun.core.api.community.table.MemberRankingTableEntry;
 import org.sofun.core.api.community.table.MemberRankingTableEntryStats;
 import org.sofun.core.api.member.Member;
+import org.sofun.core.community.CommunityLeaderboardListener;
 import org.sofun.core.member.MemberImpl;
 
 /**
@@ -48,6 +50,7 @@ import org.sofun.core.member.MemberImpl;
 @Entity
 @Table(name = "members_ranking_tables_entries")
 @Inheritance(strategy = InheritanceType.JOINED)
+@EntityListeners(CommunityLeaderboardListener.class)
 public class MemberRankingTableEntryImpl implements MemberRankingTableEntry {
 
     private static final long serialVersionUID = 6504412512865063708L;
@@ -146,6 +149,15 @@ public class MemberRankingTableEntryImpl implements MemberRankingTableEntry {
         return member;
     }
 
+    /**
+     * Returns the identifier of the table of this entry without loading it.
+     * 
+     * @return a table identifier or 0 if none.
+     */
+    public long getTableId() {
+        return table != null ? table.getId() : 0;
+    }
+
     @Override
     public MemberRankingTable getRankingTable() {
         return table;
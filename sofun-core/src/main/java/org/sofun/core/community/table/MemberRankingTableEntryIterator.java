@@ -0,0 +1,101 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.community.table;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
+import org.sofun.core.api.community.table.MemberRankingTableService;
+import org.sofun.core.api.exception.CoreException;
+
+/**
+ * Member Ranking Table Entry Iterator.
+ * 
+ * <p>
+ * 
+ * Walks all the entries of a table in ranking order, one keyset page at a
+ * time, so that at most one page is held by the iterator. Entries are loaded
+ * through the {@link MemberRankingTableService} business object: when used
+ * outside of a transaction each page is loaded within its own and comes back
+ * detached.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class MemberRankingTableEntryIterator implements
+        Iterator<MemberRankingTableEntry> {
+
+    private final MemberRankingTableService service;
+
+    private final long tableId;
+
+    private final int batchSize;
+
+    private List<MemberRankingTableEntry> page;
+
+    private int cursor = 0;
+
+    public MemberRankingTableEntryIterator(MemberRankingTableService service,
+            long tableId, int batchSize) {
+        this.service = service;
+        this.tableId = tableId;
+        this.batchSize = batchSize > 0 ? batchSize : 1;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (page == null) {
+            page = fetch(null);
+        } else if (cursor == page.size() && page.size() == batchSize) {
+            page = fetch(page.get(page.size() - 1));
+            cursor = 0;
+        }
+        return cursor < page.size();
+    }
+
+    @Override
+    public MemberRankingTableEntry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(cursor++);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    private List<MemberRankingTableEntry> fetch(MemberRankingTableEntry after) {
+        try {
+            List<MemberRankingTableEntry> entries;
+            if (after == null) {
+                entries = service.getEntries(tableId, 0, batchSize);
+            } else {
+                entries = service.getEntriesAfter(tableId, after, batchSize);
+            }
+            if (entries == null) {
+                return Collections.emptyList();
+            }
+            return entries;
+        } catch (CoreException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+}
@@ -14,7 +14,6 @@
 
 package org.sofun.core.community.table;
 
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.LinkedHashSet;
@@ -32,11 +31,13 @@ import javax.persistence.Inheritance;
 import javax.persistence.InheritanceType;
 import javax.persistence.OneToMany;
 import javax.persistence.OrderBy;
+import javax.persistence.PostLoad;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Transient;
 
 import org.sofun.core.api.community.table.MemberRankingTable;
 import org.sofun.core.api.community.table.MemberRankingTableEntry;
@@ -62,7 +63,7 @@ public class MemberRankingTableImpl implements MemberRankingTable {
 
     @OneToMany(
             targetEntity = MemberRankingTableEntryImpl.class,
-            fetch = FetchType.EAGER,
+            fetch = FetchType.LAZY,
             cascade = CascadeType.ALL,
             mappedBy = "table")
     // The `orderBy` clause below implements the rules. Do not change this
@@ -87,6 +88,22 @@ public class MemberRankingTableImpl implements MemberRankingTable {
             columnDefinition = "int default 0")
     protected long entriesTotalPoints = 0;
 
+    @Column(
+            name = "version",
+            nullable = false,
+            columnDefinition = "bigint default 0")
+    protected long version = 0;
+
+    @Column(
+            name = "change_log_version",
+            nullable = false,
+            columnDefinition = "bigint default 0")
+    protected long changeLogVersion = 0;
+
+    /* Ranking index built on demand, per transaction. Not persisted. */
+    @Transient
+    protected transient MemberRankingIndex index;
+
     public MemberRankingTableImpl() {
         super();
     }
@@ -115,10 +132,57 @@ public class MemberRankingTableImpl implements MemberRankingTable {
     }
 
     protected void doAddEntry(MemberRankingTableEntry e) {
-        getEntries().add(e);
+        if (getEntries().add(e)) {
+            if (index != null) {
+                index.add(e);
+            }
+            // Positions below the new entry all shift.
+            rollChangeLog();
+        }
+        setLastModified(getTime());
+    }
+
+    /**
+     * Records an entry persisted without going through the entries, which
+     * are then left unloaded.
+     */
+    public void entryAdded() {
+        index = null;
+        rollChangeLog();
         setLastModified(getTime());
     }
 
+    /**
+     * Bumps the version and invalidates the change log. Clients holding an
+     * older version will have to fetch the table again.
+     */
+    protected void rollChangeLog() {
+        version++;
+        changeLogVersion = version;
+    }
+
+    /**
+     * Returns the ranking index, building it from the entries if needed.
+     * 
+     * <p>
+     * 
+     * Loads all the entries: the index is dropped along with this instance
+     * at the end of the transaction, and on refresh.
+     * 
+     * @return a {@link MemberRankingIndex} instance.
+     */
+    protected MemberRankingIndex getIndex() {
+        if (index == null) {
+            index = new MemberRankingIndex(getEntries());
+        }
+        return index;
+    }
+
+    @Override
+    public long getId() {
+        return id;
+    }
+
     @Override
     public Set<MemberRankingTableEntry> getEntries() {
         if (entries == null) {
@@ -130,16 +194,28 @@ public class MemberRankingTableImpl implements MemberRankingTable {
     @Override
     public MemberRankingTableEntry getEntryForMember(Member member) {
         if (member != null) {
-            final MemberRankingTableEntry e = createEntryFor(member);
-            final List<MemberRankingTableEntry> l = new ArrayList<MemberRankingTableEntry>(
-                    getEntries());
-            if (l.contains(e)) {
-                return l.get(l.indexOf(e));
-            }
+            return getIndex().getEntry(member.getId());
         }
         return null;
     }
 
+    @Override
+    public List<MemberRankingTableEntry> getEntries(int offset, int batchSize) {
+        return getIndex().getRange(offset, batchSize);
+    }
+
+    @Override
+    public List<MemberRankingTableEntry> getEntriesFor(long[] memberIds) {
+        return getIndex().getEntries(memberIds);
+    }
+
+    @Override
+    public void updateEntry(MemberRankingTableEntry entry) {
+        if (index != null) {
+            index.update(entry);
+        }
+    }
+
     @Override
     public Date getLastModified() {
         if (modified == null) {
@@ -151,12 +227,7 @@ public class MemberRankingTableImpl implements MemberRankingTable {
     @Override
     public int getPositionFor(Member member) {
         if (member != null) {
-            final MemberRankingTableEntry e = createEntryFor(member);
-            if (getEntries().contains(e)) {
-                final List<MemberRankingTableEntry> l = new ArrayList<MemberRankingTableEntry>(
-                        getEntries());
-                return l.indexOf(e);
-            }
+            return getIndex().getPosition(member.getId());
         }
         return -1;
     }
@@ -170,6 +241,13 @@ public class MemberRankingTableImpl implements MemberRankingTable {
         return -1;
     }
 
+    @PostLoad
+    protected void onLoad() {
+        // Entries may have been updated in place by the database: the index
+        // is built again on demand, also after a refresh.
+        index = null;
+    }
+
     @PrePersist
     @PreUpdate
     public void onCreate() {
@@ -186,6 +264,8 @@ public class MemberRankingTableImpl implements MemberRankingTable {
     @Override
     public void setEntries(Set<MemberRankingTableEntry> entries) {
         this.entries = entries;
+        this.index = null;
+        rollChangeLog();
     }
 
     @Override
@@ -208,4 +288,24 @@ public class MemberRankingTableImpl implements MemberRankingTable {
         this.entriesTotalPoints = entriesTotalPoints;
     }
 
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public long getChangeLogVersion() {
+        return changeLogVersion;
+    }
+
+    @Override
+    public void setChangeLogVersion(long version) {
+        this.changeLogVersion = version;
+    }
+
 }
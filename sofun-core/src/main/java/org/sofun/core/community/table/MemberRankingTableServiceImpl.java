@@ -0,0 +1,635 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.community.table;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.Resource;
+import javax.ejb.Local;
+import javax.ejb.Remote;
+import javax.ejb.SessionContext;
+import javax.ejb.Stateless;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.Configuration;
+import org.sofun.core.CoreConstants;
+import org.sofun.core.api.community.table.MemberRankingDelta;
+import org.sofun.core.api.community.table.MemberRankingPage;
+import org.sofun.core.api.community.table.MemberRankingTable;
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
+import org.sofun.core.api.community.table.MemberRankingTableService;
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.local.MemberRankingTableServiceLocal;
+import org.sofun.core.api.member.Member;
+import org.sofun.core.api.remote.MemberRankingTableServiceRemote;
+import org.sofun.core.kup.KupImpl;
+import org.sofun.core.team.TeamImpl;
+
+/**
+ * Member Ranking Table Service Implementation.
+ * 
+ * <p>
+ * 
+ * Pages are either addressed by offset or by keyset: in the latter case the
+ * ranking key of the last entry of the previous page is turned into a
+ * restriction so that the database can seek directly through the
+ * <code>members_ranking_tables_entries</code> ranking index (see
+ * {@link org.sofun.core.CoreSchema}) instead of scanning and skipping the
+ * leading entries. Positions are computed the same way, using a count of the
+ * entries ranked before.
+ * 
+ * <p>
+ * 
+ * Null ranking fields follow PostgreSQL's default ordering: they rank first
+ * on descending columns and last on ascending ones.
+ * 
+ * <p>
+ * 
+ * Ranking deltas are computed from a bounded change log holding, per table
+ * version, the previous and current positions of the entries that got
+ * updated. Any entry whose position changed since a given version stands
+ * within the position ranges covered by the following versions, so these
+ * ranges are all a client needs to catch up.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Stateless
+@Local(MemberRankingTableServiceLocal.class)
+@Remote(MemberRankingTableServiceRemote.class)
+public class MemberRankingTableServiceImpl implements MemberRankingTableService {
+
+    private static final long serialVersionUID = 3395785613298442140L;
+
+    private static final Log log = LogFactory
+            .getLog(MemberRankingTableServiceImpl.class);
+
+    /* Property holding the maximum amount of changes logged per table. */
+    public static final String PROP_MAX_CHANGES = "ranking.changes.max";
+
+    public static final int DEFAULT_MAX_CHANGES = 1000;
+
+    private static final String ENTRIES_QUERY = "from "
+            + MemberRankingTableEntryImpl.class.getSimpleName()
+            + " e where e.table.id=:table_id";
+
+    private static final String ORDER_BY = " order by e.value desc,"
+            + " e.correctPredictions desc, e.tiebreakerOffset asc,"
+            + " e.firstPredictions asc, e.member.id asc";
+
+    /* Ranking key paths, following ORDER_BY */
+    private static final String[] RANK_PATHS = { "e.value",
+            "e.correctPredictions", "e.tiebreakerOffset", "e.firstPredictions",
+            "e.member.id" };
+
+    private static final boolean[] RANK_ASC = { false, false, true, true,
+            true };
+
+    private static final boolean[] RANK_NULLABLE = { false, true, true, true,
+            false };
+
+    private static final String CHANGES_QUERY = "from "
+            + MemberRankingTableChangeImpl.class.getSimpleName()
+            + " c where c.tableId=:table_id";
+
+    @PersistenceContext(unitName = CoreConstants.PERSISTENCE_UNIT)
+    private transient EntityManager em;
+
+    @Resource
+    private transient SessionContext context;
+
+    public MemberRankingTableServiceImpl() {
+        super();
+    }
+
+    public MemberRankingTableServiceImpl(EntityManager em) {
+        this();
+        this.em = em;
+    }
+
+    protected Query createQuery(String queryStr) {
+        Query query = em.createQuery(queryStr);
+        return query;
+    }
+
+    @Override
+    public long getKupRankingTableId(long kupId) throws CoreException {
+        final Query query = createQuery("select k.rankingTable.id from "
+                + KupImpl.class.getSimpleName() + " k where k.id=:kup_id");
+        query.setParameter("kup_id", kupId);
+        return getSingleId(query);
+    }
+
+    @Override
+    public long getTeamRankingTableId(long teamId) throws CoreException {
+        final Query query = createQuery("select t.rankingTable.id from "
+                + TeamImpl.class.getSimpleName() + " t where t.id=:team_id");
+        query.setParameter("team_id", teamId);
+        return getSingleId(query);
+    }
+
+    private long getSingleId(Query query) {
+        @SuppressWarnings("unchecked")
+        final List<Long> ids = query.getResultList();
+        if (ids.isEmpty() || ids.get(0) == null) {
+            return -1;
+        }
+        return ids.get(0);
+    }
+
+    @Override
+    public long countEntries(long tableId) throws CoreException {
+        final Query query = createQuery("select count(e.id) " + ENTRIES_QUERY);
+        query.setParameter("table_id", tableId);
+        return (Long) query.getSingleResult();
+    }
+
+    @Override
+    public List<MemberRankingTableEntry> getEntries(long tableId, int offset,
+            int batchSize) throws CoreException {
+        final Query query = createQuery(ENTRIES_QUERY + ORDER_BY);
+        query.setParameter("table_id", tableId);
+        return getResults(query, offset, batchSize);
+    }
+
+    @Override
+    public List<MemberRankingTableEntry> getEntriesAfter(long tableId,
+            MemberRankingTableEntry after, int batchSize) throws CoreException {
+        if (after == null) {
+            return getEntries(tableId, 0, batchSize);
+        }
+        final Map<String, Object> params = new HashMap<String, Object>();
+        final String restriction = getRankRestriction(getRankKeyFor(after),
+                true, params);
+        final Query query = createQuery(ENTRIES_QUERY + " and " + restriction
+                + ORDER_BY);
+        query.setParameter("table_id", tableId);
+        setParameters(query, params);
+        return getResults(query, 0, batchSize);
+    }
+
+    private List<MemberRankingTableEntry> getResults(Query query, int offset,
+            int batchSize) {
+        if (offset > 0) {
+            query.setFirstResult(offset);
+        }
+        if (batchSize > 0) {
+            query.setMaxResults(batchSize);
+        }
+        @SuppressWarnings("unchecked")
+        final List<MemberRankingTableEntry> results = query.getResultList();
+        return new ArrayList<MemberRankingTableEntry>(results);
+    }
+
+    @Override
+    public List<MemberRankingTableEntry> getEntriesFor(long tableId,
+            long[] memberIds) throws CoreException {
+        if (memberIds == null || memberIds.length == 0) {
+            return new ArrayList<MemberRankingTableEntry>();
+        }
+        List<Long> ids = new ArrayList<Long>(memberIds.length);
+        for (long memberId : memberIds) {
+            ids.add(memberId);
+        }
+        final Query query = createQuery(ENTRIES_QUERY
+                + " and e.member.id in (:member_ids)" + ORDER_BY);
+        query.setParameter("table_id", tableId);
+        query.setParameter("member_ids", ids);
+        return getResults(query, 0, 0);
+    }
+
+    @Override
+    public Iterator<MemberRankingTableEntry> iterateEntries(long tableId,
+            int batchSize) throws CoreException {
+        // Go through the container so that pages fetched outside of a
+        // transaction get their own persistence context.
+        MemberRankingTableService service = this;
+        if (context != null) {
+            service = context
+                    .getBusinessObject(MemberRankingTableServiceLocal.class);
+        }
+        return new MemberRankingTableEntryIterator(service, tableId,
+                batchSize);
+    }
+
+    @Override
+    public MemberRankingTableEntry getEntryFor(long tableId, long memberId)
+            throws CoreException {
+        final Query query = createQuery(ENTRIES_QUERY
+                + " and e.member.id=:member_id");
+        query.setParameter("table_id", tableId);
+        query.setParameter("member_id", memberId);
+        @SuppressWarnings("unchecked")
+        final List<MemberRankingTableEntry> results = query.getResultList();
+        if (results.isEmpty()) {
+            return null;
+        }
+        return results.get(0);
+    }
+
+    @Override
+    public int getPositionFor(long tableId, MemberRankingTableEntry entry)
+            throws CoreException {
+        if (entry == null) {
+            throw new CoreException("Entry cannot be null");
+        }
+        final Map<String, Object> params = new HashMap<String, Object>();
+        final String restriction = getRankRestriction(getRankKeyFor(entry),
+                false, params);
+        final Query query = createQuery("select count(e.id) " + ENTRIES_QUERY
+                + " and " + restriction);
+        query.setParameter("table_id", tableId);
+        setParameters(query, params);
+        return ((Long) query.getSingleResult()).intValue();
+    }
+
+    @Override
+    public int updatePositions(long tableId) throws CoreException {
+        final Query query = createQuery("select e.id " + ENTRIES_QUERY
+                + ORDER_BY);
+        query.setParameter("table_id", tableId);
+        @SuppressWarnings("unchecked")
+        final List<Long> ids = query.getResultList();
+        final Query update = createQuery("update "
+                + MemberRankingTableEntryImpl.class.getSimpleName()
+                + " e set e.position=:position where e.id=:id");
+        int position = 0;
+        for (Long id : ids) {
+            update.setParameter("position", position++);
+            update.setParameter("id", id);
+            update.executeUpdate();
+        }
+        return ids.size();
+    }
+
+    @Override
+    public MemberRankingPage getPage(long tableId, int offset, int batchSize,
+            Member member) throws CoreException {
+        if (offset < 0) {
+            offset = 0;
+        }
+        final List<MemberRankingTableEntry> entries = getEntries(tableId,
+                offset, batchSize);
+        return createPage(tableId, offset, batchSize, entries, member);
+    }
+
+    @Override
+    public MemberRankingPage getPageAfter(long tableId, long afterMemberId,
+            int batchSize, Member member) throws CoreException {
+        final MemberRankingTableEntry after = getEntryFor(tableId,
+                afterMemberId);
+        if (after == null) {
+            throw new CoreException("Member with id="
+                    + String.valueOf(afterMemberId)
+                    + " is not ranked in table with id="
+                    + String.valueOf(tableId));
+        }
+        final int offset = getPositionFor(tableId, after) + 1;
+        final List<MemberRankingTableEntry> entries = getEntriesAfter(tableId,
+                after, batchSize);
+        return createPage(tableId, offset, batchSize, entries, member);
+    }
+
+    private MemberRankingPage createPage(long tableId, int offset,
+            int batchSize, List<MemberRankingTableEntry> entries, Member member)
+            throws CoreException {
+
+        Date modified = null;
+        long entriesTotalPoints = 0;
+        long version = 0;
+        final Query query = createQuery("select t.modified,"
+                + " t.entriesTotalPoints, t.version from "
+                + MemberRankingTableImpl.class.getSimpleName()
+                + " t where t.id=:table_id");
+        query.setParameter("table_id", tableId);
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = query.getResultList();
+        if (!rows.isEmpty()) {
+            modified = (Date) rows.get(0)[0];
+            entriesTotalPoints = (Long) rows.get(0)[1];
+            version = (Long) rows.get(0)[2];
+        }
+
+        MemberRankingTableEntry memberEntry = null;
+        int memberPosition = -1;
+        if (member != null) {
+            // Look within the page first to spare a couple of queries.
+            for (int i = 0; i < entries.size(); i++) {
+                final MemberRankingTableEntry entry = entries.get(i);
+                if (entry.getMember() != null
+                        && entry.getMember().getId() == member.getId()) {
+                    memberEntry = entry;
+                    memberPosition = offset + i;
+                    break;
+                }
+            }
+            if (memberEntry == null) {
+                memberEntry = getEntryFor(tableId, member.getId());
+                if (memberEntry != null) {
+                    memberPosition = getPositionFor(tableId, memberEntry);
+                }
+            }
+        }
+
+        return new MemberRankingPageImpl(tableId, offset, batchSize,
+                countEntries(tableId), entries, modified, entriesTotalPoints,
+                version, memberEntry, memberPosition);
+
+    }
+
+    /**
+     * Returns the maximum amount of changes logged per table.
+     * 
+     * @return an int greater than 0.
+     */
+    private int getMaxChanges() {
+        final String value = Configuration.getProperties().getProperty(
+                PROP_MAX_CHANGES);
+        if (value != null) {
+            try {
+                final int max = Integer.valueOf(value.trim());
+                if (max > 0) {
+                    return max;
+                }
+            } catch (NumberFormatException e) {
+                log.error("Invalid value for " + PROP_MAX_CHANGES + ": "
+                        + value);
+            }
+        }
+        return DEFAULT_MAX_CHANGES;
+    }
+
+    @Override
+    public long logChanges(MemberRankingTable table, Map<Long, int[]> positions)
+            throws CoreException {
+
+        if (table == null) {
+            throw new CoreException("Table cannot be null");
+        }
+
+        final long version = table.getVersion() + 1;
+        table.setVersion(version);
+        if (positions == null || positions.isEmpty()) {
+            return version;
+        }
+
+        final int max = getMaxChanges();
+        if (positions.size() > max) {
+            // Not worth logging: clients will fetch the table again.
+            table.setChangeLogVersion(version);
+            pruneChanges(table.getId(), version);
+            return version;
+        }
+
+        for (Map.Entry<Long, int[]> each : positions.entrySet()) {
+            final int[] move = each.getValue();
+            em.persist(new MemberRankingTableChangeImpl(table.getId(),
+                    version, each.getKey(), move[0], move[1]));
+        }
+
+        // Keep the log bounded: drop the oldest versions first.
+        Query query = createQuery("select count(c.id) " + CHANGES_QUERY);
+        query.setParameter("table_id", table.getId());
+        if ((Long) query.getSingleResult() <= max) {
+            return version;
+        }
+        query = createQuery("select c.version, count(c.id) " + CHANGES_QUERY
+                + " group by c.version order by c.version desc");
+        query.setParameter("table_id", table.getId());
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = query.getResultList();
+        long cutoff = table.getChangeLogVersion();
+        long kept = 0;
+        for (Object[] row : rows) {
+            kept += (Long) row[1];
+            if (kept > max) {
+                cutoff = Math.max(cutoff, (Long) row[0]);
+                break;
+            }
+        }
+        table.setChangeLogVersion(cutoff);
+        pruneChanges(table.getId(), cutoff);
+
+        return version;
+
+    }
+
+    /**
+     * Deletes the changes logged up to a given version.
+     * 
+     * @param tableId: a table identifier.
+     * @param version: a version of the table (included)
+     */
+    private void pruneChanges(long tableId, long version) {
+        final Query query = createQuery("delete " + CHANGES_QUERY
+                + " and c.version<=:version");
+        query.setParameter("table_id", tableId);
+        query.setParameter("version", version);
+        query.executeUpdate();
+    }
+
+    @Override
+    public MemberRankingDelta getChangesSince(long tableId, long version)
+            throws CoreException {
+
+        Query query = createQuery("select t.modified, t.entriesTotalPoints,"
+                + " t.version, t.changeLogVersion from "
+                + MemberRankingTableImpl.class.getSimpleName()
+                + " t where t.id=:table_id");
+        query.setParameter("table_id", tableId);
+        @SuppressWarnings("unchecked")
+        final List<Object[]> tables = query.getResultList();
+        if (tables.isEmpty()) {
+            throw new CoreException("Table with id=" + String.valueOf(tableId)
+                    + " cannot be found.");
+        }
+        final Date modified = (Date) tables.get(0)[0];
+        final long entriesTotalPoints = (Long) tables.get(0)[1];
+        final long current = (Long) tables.get(0)[2];
+        final long changeLogVersion = (Long) tables.get(0)[3];
+        final long totalEntries = countEntries(tableId);
+
+        final List<MemberRankingTableEntry> entries = new ArrayList<MemberRankingTableEntry>();
+        final Map<Long, Integer> positions = new HashMap<Long, Integer>();
+        if (version == current) {
+            return new MemberRankingDeltaImpl(tableId, version, current, true,
+                    entries, positions, totalEntries, modified,
+                    entriesTotalPoints);
+        }
+        if (version > current || version < changeLogVersion) {
+            return new MemberRankingDeltaImpl(tableId, version, current,
+                    false, entries, positions, totalEntries, modified,
+                    entriesTotalPoints);
+        }
+
+        // Position range covered by each version: [from, to]
+        query = createQuery("select c.version, c.fromPosition, c.toPosition "
+                + CHANGES_QUERY
+                + " and c.version>:since and c.version<=:version");
+        query.setParameter("table_id", tableId);
+        query.setParameter("since", version);
+        query.setParameter("version", current);
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = query.getResultList();
+        Map<Long, int[]> ranges = new TreeMap<Long, int[]>();
+        for (Object[] row : rows) {
+            final int from = Math.min((Integer) row[1], (Integer) row[2]);
+            final int to = Math.max((Integer) row[1], (Integer) row[2]);
+            final int[] range = ranges.get((Long) row[0]);
+            if (range == null) {
+                ranges.put((Long) row[0], new int[] { from, to });
+            } else {
+                range[0] = Math.min(range[0], from);
+                range[1] = Math.max(range[1], to);
+            }
+        }
+
+        // Merge overlapping ranges.
+        List<int[]> sorted = new ArrayList<int[]>(ranges.values());
+        Collections.sort(sorted, new Comparator<int[]>() {
+            @Override
+            public int compare(int[] r1, int[] r2) {
+                return r1[0] < r2[0] ? -1 : (r1[0] == r2[0] ? 0 : 1);
+            }
+        });
+        List<int[]> merged = new ArrayList<int[]>();
+        int size = 0;
+        for (int[] range : sorted) {
+            final int[] last = merged.isEmpty() ? null : merged.get(merged
+                    .size() - 1);
+            if (last != null && range[0] <= last[1] + 1) {
+                size += Math.max(0, range[1] - last[1]);
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                size += range[1] - range[0] + 1;
+                merged.add(new int[] { range[0], range[1] });
+            }
+        }
+        if (size > getMaxChanges()) {
+            return new MemberRankingDeltaImpl(tableId, version, current,
+                    false, entries, positions, totalEntries, modified,
+                    entriesTotalPoints);
+        }
+
+        for (int[] range : merged) {
+            int position = range[0];
+            for (MemberRankingTableEntry entry : getEntries(tableId, range[0],
+                    range[1] - range[0] + 1)) {
+                entries.add(entry);
+                positions.put(entry.getMember().getId(), position++);
+            }
+        }
+
+        return new MemberRankingDeltaImpl(tableId, version, current, true,
+                entries, positions, totalEntries, modified, entriesTotalPoints);
+
+    }
+
+    private static Object[] getRankKeyFor(MemberRankingTableEntry entry) {
+        return new Object[] { entry.getValue(), entry.getCorrectPredictions(),
+                entry.getTiebreakerOffset(), entry.getFirstPredictions(),
+                entry.getMember().getId() };
+    }
+
+    /**
+     * Builds the restriction matching the entries ranked after (or before) a
+     * given ranking key.
+     * 
+     * <p>
+     * 
+     * For a key (k0, k1, ...) it expands to
+     * <code>e0 after k0 or (e0 = k0 and (e1 after k1 or (...)))</code>, a null
+     * ranking field being considered greater than any value.
+     * 
+     * @param key: a ranking key as returned by {@link #getRankKeyFor}
+     * @param after: true for the entries ranked after, false for the ones
+     *        ranked before.
+     * @param params: a {@link Map} collecting the query parameters.
+     * @return a JPQL restriction on the "e" alias.
+     */
+    protected static String getRankRestriction(Object[] key, boolean after,
+            Map<String, Object> params) {
+        return getRankRestriction(key, after, 0, params);
+    }
+
+    private static String getRankRestriction(Object[] key, boolean after,
+            int i, Map<String, Object> params) {
+
+        final String path = RANK_PATHS[i];
+        final String param = "rank_" + String.valueOf(i);
+        final Object value = key[i];
+        if (value != null) {
+            params.put(param, value);
+        }
+
+        String strict;
+        if (after == RANK_ASC[i]) {
+            if (value == null) {
+                strict = null;
+            } else if (RANK_NULLABLE[i]) {
+                strict = "(" + path + " > :" + param + " or " + path
+                        + " is null)";
+            } else {
+                strict = path + " > :" + param;
+            }
+        } else {
+            if (value == null) {
+                strict = path + " is not null";
+            } else {
+                strict = path + " < :" + param;
+            }
+        }
+
+        if (i == RANK_PATHS.length - 1) {
+            // Member id: never null and unique within a table.
+            return strict;
+        }
+
+        final String equal = value == null ? path + " is null" : path + " = :"
+                + param;
+        final String tie = "(" + equal + " and "
+                + getRankRestriction(key, after, i + 1, params) + ")";
+        if (strict == null) {
+            return tie;
+        }
+        return "(" + strict + " or " + tie + ")";
+
+    }
+
+    private static void setParameters(Query query, Map<String, Object> params) {
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            if (param.getValue() instanceof Date) {
+                query.setParameter(param.getKey(), (Date) param.getValue(),
+                        TemporalType.TIMESTAMP);
+            } else {
+                query.setParameter(param.getKey(), param.getValue());
+            }
+        }
+    }
+
+}
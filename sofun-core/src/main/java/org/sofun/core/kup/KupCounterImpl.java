@@ -0,0 +1,96 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * Kup Counter.
+ * 
+ * <p>
+ * 
+ * One stripe of the jackpot and participants counters of a Kup opened to
+ * bets. Concurrent bets increment different stripes instead of all locking
+ * the Kup row. Stripes are written with plain SQL and summed up on read by
+ * {@link KupCounters}, then folded into the Kup once closed to bets.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Entity
+@Table(
+        name = "kups_counters",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "kup_id",
+                "stripe" }))
+public class KupCounterImpl implements Serializable {
+
+    private static final long serialVersionUID = -5142872930416254319L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", nullable = false)
+    protected long id;
+
+    @Column(name = "kup_id", nullable = false)
+    protected long kupId;
+
+    @Column(name = "stripe", nullable = false)
+    protected int stripe;
+
+    @Column(name = "jackpot", nullable = false)
+    protected float jackpot = 0;
+
+    @Column(name = "participants", nullable = false)
+    protected int participants = 0;
+
+    public KupCounterImpl() {
+        super();
+    }
+
+    public KupCounterImpl(long kupId, int stripe) {
+        this();
+        this.kupId = kupId;
+        this.stripe = stripe;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getKupId() {
+        return kupId;
+    }
+
+    public int getStripe() {
+        return stripe;
+    }
+
+    public float getJackpot() {
+        return jackpot;
+    }
+
+    public int getParticipants() {
+        return participants;
+    }
+
+}
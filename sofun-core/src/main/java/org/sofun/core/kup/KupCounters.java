@@ -0,0 +1,257 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.Configuration;
+import org.sofun.core.api.kup.Kup;
+
+/**
+ * Kup Counters.
+ * 
+ * <p>
+ * 
+ * Jackpot and participants counters of the Kups. Minutes before kickoff,
+ * hundreds of bets may hit the same Kup: incrementing its row would
+ * serialize them all. A Kup opened to bets gets its counters split in
+ * stripes (see {@link KupCounterImpl}): each bet atomically increments the
+ * stripe of its thread so that concurrent bets rarely wait on each other.
+ * 
+ * <p>
+ * 
+ * The counters of a Kup are the ones of its row plus the sum of its stripes,
+ * summed up by the Kup on first read or at once for several Kups (see
+ * {@link #load(Collection)}). Once closed to bets the
+ * stripes are folded into the Kup row (see {@link #fold(Kup)}). Kups without
+ * stripes are incremented on their row, still atomically.
+ * 
+ * <p>
+ * 
+ * Not thread safe: operates within the caller's transaction.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class KupCounters {
+
+    private static final Log log = LogFactory.getLog(KupCounters.class);
+
+    /* Property holding the amount of stripes of a Kup. */
+    public static final String PROP_STRIPES = "kup.counters.stripes";
+
+    public static final int DEFAULT_STRIPES = 8;
+
+    static final String STRIPE_INCREMENT = "UPDATE kups_counters"
+            + " SET jackpot = jackpot + :jackpot,"
+            + " participants = participants + :participants"
+            + " WHERE kup_id = :kup_id AND stripe = :stripe";
+
+    static final String KUP_INCREMENT = "UPDATE kups"
+            + " SET jackpot = jackpot + :jackpot,"
+            + " nb_participants = nb_participants + :participants"
+            + " WHERE id = :kup_id";
+
+    static final String STRIPES_QUERY = "from "
+            + KupCounterImpl.class.getSimpleName()
+            + " c where c.kupId = :kup_id";
+
+    static final String TOTALS_QUERY = "select c.kupId, sum(c.jackpot),"
+            + " sum(c.participants) from "
+            + KupCounterImpl.class.getSimpleName()
+            + " c where c.kupId IN (:ids) group by c.kupId";
+
+    private final EntityManager em;
+
+    public KupCounters(EntityManager em) {
+        this.em = em;
+    }
+
+    public static int getStripes() {
+        final String value = Configuration.getProperties().getProperty(
+                PROP_STRIPES);
+        if (value != null) {
+            try {
+                final int stripes = Integer.valueOf(value.trim());
+                if (stripes > 0) {
+                    return stripes;
+                }
+            } catch (NumberFormatException e) {
+                log.error("Invalid value for " + PROP_STRIPES + ": " + value);
+            }
+        }
+        return DEFAULT_STRIPES;
+    }
+
+    /**
+     * Returns the stripe incremented by a thread. Threads serving bets at the
+     * same time get different stripes.
+     * 
+     * @param threadId: the thread identifier.
+     * @param stripes: the amount of stripes.
+     * @return a stripe between 0 and stripes - 1.
+     */
+    public static int stripeOf(long threadId, int stripes) {
+        return (int) Math.abs(threadId % stripes);
+    }
+
+    /**
+     * Creates the stripes of a Kup about to be opened to bets. Must happen
+     * before any bet: stripes are never created concurrently.
+     * 
+     * @param kup: a {@link Kup} instance.
+     */
+    public void create(Kup kup) {
+        if (kup == null || kup.getId() == 0) {
+            return;
+        }
+        TypedQuery<KupCounterImpl> query = em.createQuery(STRIPES_QUERY,
+                KupCounterImpl.class);
+        query.setParameter("kup_id", kup.getId());
+        if (!query.getResultList().isEmpty()) {
+            return;
+        }
+        final int stripes = getStripes();
+        for (int i = 0; i < stripes; i++) {
+            em.persist(new KupCounterImpl(kup.getId(), i));
+        }
+        if (kup instanceof KupImpl) {
+            ((KupImpl) kup).setStripedCounters(0, 0);
+        }
+    }
+
+    /**
+     * Increments the counters of a Kup, in database and on the given
+     * instance.
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @param jackpot: amount added to the jackpot.
+     * @param participants: amount of new participants.
+     */
+    public void add(Kup kup, float jackpot, int participants) {
+        boolean striped = false;
+        if (kup.getId() != 0) {
+            Query query = em.createNativeQuery(STRIPE_INCREMENT);
+            query.setParameter("jackpot", jackpot);
+            query.setParameter("participants", participants);
+            query.setParameter("kup_id", kup.getId());
+            query.setParameter("stripe", stripeOf(Thread.currentThread()
+                    .getId(), getStripes()));
+            striped = query.executeUpdate() > 0;
+            if (!striped) {
+                // No row updated if the Kup is not inserted yet: the
+                // insertion then carries the incremented instance counters.
+                query = em.createNativeQuery(KUP_INCREMENT);
+                query.setParameter("jackpot", jackpot);
+                query.setParameter("participants", participants);
+                query.setParameter("kup_id", kup.getId());
+                query.executeUpdate();
+            }
+        }
+        if (kup instanceof KupImpl) {
+            ((KupImpl) kup).addCounters(jackpot, participants, striped);
+        }
+    }
+
+    /**
+     * Sums up the stripes of Kups into the given instances.
+     * 
+     * @param kups: a {@link Collection} of {@link Kup} instances.
+     */
+    public void load(Collection<? extends Kup> kups) {
+        List<Long> ids = new ArrayList<Long>();
+        for (Kup kup : kups) {
+            if (kup instanceof KupImpl && kup.getId() != 0) {
+                ids.add(kup.getId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Query query = em.createQuery(TOTALS_QUERY);
+        query.setParameter("ids", ids);
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = query.getResultList();
+        Map<Long, Object[]> totals = new HashMap<Long, Object[]>();
+        for (Object[] row : rows) {
+            totals.put(((Number) row[0]).longValue(), row);
+        }
+        for (Kup kup : kups) {
+            if (!(kup instanceof KupImpl)) {
+                continue;
+            }
+            final Object[] row = totals.get(kup.getId());
+            if (row != null) {
+                ((KupImpl) kup).setStripedCounters(
+                        ((Number) row[1]).floatValue(),
+                        ((Number) row[2]).intValue());
+            } else {
+                ((KupImpl) kup).setStripedCounters(0, 0);
+            }
+        }
+    }
+
+    /**
+     * Folds the stripes of a Kup closed to bets into its row and drops them.
+     * Stripes are locked first: a bet still incrementing one of them either
+     * commits before or, the stripe being gone, increments the Kup row.
+     * 
+     * @param kup: a {@link Kup} instance.
+     */
+    public void fold(Kup kup) {
+        if (kup == null || kup.getId() == 0) {
+            return;
+        }
+        TypedQuery<KupCounterImpl> query = em.createQuery(STRIPES_QUERY,
+                KupCounterImpl.class);
+        query.setParameter("kup_id", kup.getId());
+        query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        final List<KupCounterImpl> stripes = query.getResultList();
+        if (stripes.isEmpty()) {
+            return;
+        }
+        float jackpot = 0;
+        int participants = 0;
+        for (KupCounterImpl stripe : stripes) {
+            jackpot += stripe.getJackpot();
+            participants += stripe.getParticipants();
+            em.remove(stripe);
+        }
+        Query update = em.createNativeQuery(KUP_INCREMENT);
+        update.setParameter("jackpot", jackpot);
+        update.setParameter("participants", participants);
+        update.setParameter("kup_id", kup.getId());
+        update.executeUpdate();
+        if (kup instanceof KupImpl) {
+            final KupImpl impl = (KupImpl) kup;
+            impl.setStripedCounters(0, 0);
+            impl.addCounters(jackpot, participants, false);
+        }
+        log.info("Folded " + String.valueOf(stripes.size())
+                + " counter stripes into kup w/ uuid=" + kup.getId());
+    }
+
+}
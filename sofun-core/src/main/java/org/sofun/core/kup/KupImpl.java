@@ -16,18 +16,17 @@ package org.sofun.core.kup;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import javax.persistence.CascadeType;
-import javax.persistence.CollectionTable;
 import javax.persistence.Column;
-import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -36,15 +35,19 @@ import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
-import javax.persistence.MapKeyColumn;
+import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.Persistence;
+import javax.persistence.PostLoad;
 import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.sofun.core.CoreConstants;
 import org.sofun.core.api.banking.CurrencyType;
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
 import org.sofun.core.api.feed.Feed;
 import org.sofun.core.api.kup.Kup;
 import org.sofun.core.api.kup.KupRankingTable;
@@ -67,6 +70,7 @@ import org.sofun.core.api.sport.tournament.TournamentStage;
 import org.sofun.core.api.sport.tournament.TournamentStageStatus;
 import org.sofun.core.api.team.Team;
 import org.sofun.core.feed.FeedImpl;
+import org.sofun.core.kup.search.KupIndexListener;
 import org.sofun.core.kup.table.KupRankingTableImpl;
 import org.sofun.core.member.MemberImpl;
 import org.sofun.core.question.QuestionImpl;
@@ -88,6 +92,7 @@ import org.sofun.core.team.TeamImpl;
  */
 @Entity
 @Table(name = "kups")
+@EntityListeners(KupIndexListener.class)
 public class KupImpl implements Kup {
 
     private static final long serialVersionUID = -1502507059363020226L;
@@ -141,9 +146,25 @@ public class KupImpl implements Kup {
     @Column(name = "stake_currency")
     protected String stakeCurrency = CurrencyType.EURO;
 
-    @Column(name = "jackpot", columnDefinition = "float default 0")
+    /* Incremented in database as bets are placed (see KupCounters) */
+    @Column(
+            name = "jackpot",
+            updatable = false,
+            columnDefinition = "float default 0")
     protected float jackpot = 0;
 
+    /* Counter stripes not folded yet. (see KupCounters) */
+    @OneToMany(targetEntity = KupCounterImpl.class, fetch = FetchType.LAZY)
+    @JoinColumn(name = "kup_id", insertable = false, updatable = false)
+    protected List<KupCounterImpl> counters;
+
+    /* Sum of the counter stripes, summed up on first read. */
+    private transient float stripedJackpot;
+
+    private transient int stripedParticipants;
+
+    private transient boolean stripesLoaded;
+
     @Column(name = "winnings_repartition_type", nullable = false)
     protected byte repartitionType = KupWinningsRepartitionRuleType.TYPE_3;
 
@@ -177,9 +198,47 @@ public class KupImpl implements Kup {
             columnDefinition = "DATE DEFAULT CURRENT_DATE")
     protected Date endDate;
 
-    @Column(name = "nb_participants", columnDefinition = "int default 0")
+    @Column(name = "next_transition")
+    protected Date nextTransition;
+
+    /* Start dates of the first and last bettable sport events (denormalized) */
+    @Column(name = "first_event_start_date")
+    protected Date firstEventStartDate;
+
+    @Column(name = "last_event_start_date")
+    protected Date lastEventStartDate;
+
+    @Column(
+            name = "event_dates_computed",
+            nullable = false,
+            columnDefinition = "boolean default false")
+    protected boolean eventDatesComputed = false;
+
+    /* Last template change applied or, for templates, sequence value up to
+     * which children were added (maintained by the template sync only) */
+    @Column(
+            name = "template_change",
+            insertable = false,
+            updatable = false,
+            columnDefinition = "bigint default 0")
+    protected long templateChange;
+
+    /* Last change of the attributes the search index holds, which other
+     * nodes read back (see KupSearchIndex). Bulk updates of these attributes
+     * stamp it as well. */
+    @Column(name = "index_modified")
+    protected Date indexModified;
+
+    /* Incremented in database as participants join (see KupCounters) */
+    @Column(
+            name = "nb_participants",
+            updatable = false,
+            columnDefinition = "int default 0")
     protected int nbParticipants = 0;
 
+    /* Members who joined since the last flush. (see KupIndexListener) */
+    private transient List<Long> joined;
+
     @Column(name = "duration", columnDefinition = "int default 0")
     protected int duration = 0;
 
@@ -287,14 +346,6 @@ public class KupImpl implements Kup {
             referencedColumnName = "id") })
     protected List<QuestionKupTiebreaker> questionsTiebreaker;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @MapKeyColumn(name = "key")
-    @Column(name = "value")
-    @CollectionTable(
-            name = "kups_predictions_points_rules",
-            joinColumns = @JoinColumn(name = "id"))
-    protected Map<String, Integer> pointsDistributionRules = new HashMap<String, Integer>();
-
     @ManyToMany(
             targetEntity = TournamentImpl.class,
             fetch = FetchType.LAZY,
@@ -543,7 +594,8 @@ public class KupImpl implements Kup {
 
     @Override
     public float getJackpot() {
-        return jackpot;
+        loadStripes();
+        return jackpot + stripedJackpot;
     }
 
     @Override
@@ -586,13 +638,14 @@ public class KupImpl implements Kup {
     }
 
     @Override
+    @Deprecated
     public Set<Member> getParticipantsFriendsFor(Member member) {
-        Set<Member> friends = new HashSet<Member>();
-        if (member != null && getParticipants().contains(member)) {
-            for (Member friend : member.getFriends()) {
-                if (getParticipants().contains(friend)) {
-                    friends.add(friend);
-                }
+        Set<Member> friends = new LinkedHashSet<Member>();
+        if (member != null
+                && getRankingTable().getEntryForMember(member) != null) {
+            for (MemberRankingTableEntry entry : getRankingTable()
+                    .getEntriesFor(member.getFriendIds())) {
+                friends.add(entry.getMember());
             }
         }
         return friends;
@@ -730,10 +783,24 @@ public class KupImpl implements Kup {
         }
     }
 
+    @PostLoad
+    protected void onLoad() {
+        // Stripes are loaded on demand, also after a refresh.
+        stripedJackpot = 0;
+        stripedParticipants = 0;
+        stripesLoaded = false;
+    }
+
     @PrePersist
     protected void onCreate() {
         Date now = Calendar.getInstance().getTime();
         setCreated(now);
+        indexModified = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        indexModified = Calendar.getInstance().getTime();
     }
 
     @Override
@@ -752,7 +819,7 @@ public class KupImpl implements Kup {
         if (getJackpot() <= getGuaranteedPrice()) {
             return rake;
         }
-        final int p = getParticipants().size();
+        final int p = getNbParticipants();
         // Below are Betkup.fr rules as visible by the players.
         if (p > 2 && p <= 5) {
             rake = 13;
@@ -783,10 +850,39 @@ public class KupImpl implements Kup {
     public void addParticipant(Member member) {
         if (!getParticipants().contains(member)) {
             participants.add(member);
+            if (joined == null) {
+                joined = new ArrayList<Long>();
+            }
+            joined.add(member.getId());
             getRankingTable().addEntryForMember(member);
         }
     }
 
+    /**
+     * Records a participant added straight into the participants join table,
+     * the participants being left unloaded. (see KupMemberships)
+     * 
+     * @param member: a {@link Member} instance.
+     */
+    public void participantAdded(Member member) {
+        if (joined == null) {
+            joined = new ArrayList<Long>();
+        }
+        joined.add(member.getId());
+    }
+
+    /**
+     * Returns and forgets the members who joined since the last call.
+     * 
+     * @return a {@link List} of member identifiers.
+     */
+    public List<Long> drainJoined() {
+        final List<Long> result = joined != null ? joined : Collections
+                .<Long> emptyList();
+        joined = null;
+        return result;
+    }
+
     @Override
     public byte getRepartitionRuleType() {
         return repartitionType;
@@ -826,6 +922,7 @@ public class KupImpl implements Kup {
     @Override
     public void setBettableTournaments(List<TournamentSeason> tournaments) {
         this.tournamentSeasons = tournaments;
+        bettableEventsChanged();
     }
 
     @Override
@@ -839,6 +936,7 @@ public class KupImpl implements Kup {
     @Override
     public void setBettableGames(List<TournamentGame> games) {
         this.games = games;
+        bettableEventsChanged();
     }
 
     @Override
@@ -852,6 +950,7 @@ public class KupImpl implements Kup {
     @Override
     public void setBettableRounds(List<TournamentRound> rounds) {
         this.rounds = rounds;
+        bettableEventsChanged();
     }
 
     @Override
@@ -865,21 +964,15 @@ public class KupImpl implements Kup {
     @Override
     public void setBettableStages(List<TournamentStage> stages) {
         this.stages = stages;
-    }
-
-    @Override
-    public Map<String, Integer> getPredictionPointsDistributionRule() {
-        return pointsDistributionRules;
-    }
-
-    @Override
-    public void setPredictionPointsDistributionRule(Map<String, Integer> rules) {
-        this.pointsDistributionRules = rules;
+        bettableEventsChanged();
     }
 
     @Override
     public Date getEffectiveStartDate() {
         final Date d = getFirstEventStartDate();
+        if (d == null) {
+            return null;
+        }
         final Calendar ref = Calendar.getInstance();
         ref.setTime(d);
         ref.add(Calendar.SECOND, -CoreConstants.TIME_TO_BET_BEFORE_EVENT_STARTS);
@@ -902,14 +995,30 @@ public class KupImpl implements Kup {
         return ref.getTime();
     }
 
+    @Override
+    public Date getNextTransition() {
+        if (nextTransition == null) {
+            return null;
+        }
+        return (Date) nextTransition.clone();
+    }
+
+    @Override
+    public void setNextTransition(Date date) {
+        if (date == null) {
+            this.nextTransition = null;
+        } else {
+            this.nextTransition = (Date) date.clone();
+        }
+    }
+
     @Override
     public Date getCloseDate() {
 
         // Date at which the last betable sport event of the kup will start.
-        final Date d = getLastEventStartDate();
+        // Falls back on the specified end date if no dated events.
         final Calendar ref = Calendar.getInstance();
-        ref.setTime(d);
-        ref.add(Calendar.SECOND, -CoreConstants.TIME_TO_BET_BEFORE_EVENT_STARTS);
+        ref.setTime(getEffectiveEndDate());
 
         // End date specified by the administrator (i.e. : Sofun Gaming).
         // For instance, players can be requested to save their predictions 1
@@ -940,17 +1049,87 @@ public class KupImpl implements Kup {
         this.metaType = metaType;
     }
 
+    @Override
+    public void updateEventDates() {
+        final Date firstEvent = computeFirstEventStartDate();
+        final Date last = computeLastEventStartDate();
+        // No dated events: the specified start date stands for the first one.
+        final Date first = firstEvent != null ? firstEvent : getStartDate();
+        if (!sameDate(first, firstEventStartDate)
+                || !sameDate(last, lastEventStartDate)) {
+            // Status transitions derive from these dates: reschedule.
+            nextTransition = null;
+        }
+        firstEventStartDate = first;
+        lastEventStartDate = last;
+        eventDatesComputed = true;
+        // Search indexes: only derived from actual events.
+        if (firstEvent != null) {
+            startDate = getEffectiveStartDate();
+        }
+        if (last != null) {
+            endDate = getEffectiveEndDate();
+        }
+        if (firstEvent != null && last != null) {
+            duration = computeDuration();
+        }
+    }
+
     /**
-     * Returns the Kup's first betable event start date.
+     * Flags the stored event dates as stale. The next transition is cleared
+     * along so that the Kup gets scheduled again against its new dates.
+     */
+    private void bettableEventsChanged() {
+        eventDatesComputed = false;
+        nextTransition = null;
+    }
+
+    private static boolean sameDate(Date d1, Date d2) {
+        if (d1 == null || d2 == null) {
+            return d1 == d2;
+        }
+        return d1.getTime() == d2.getTime();
+    }
+
+    /**
+     * Returns the stored start date of the first bettable event, computing it
+     * if the bettable events changed since it was last stored.
      * 
-     * <p>
+     * @return a {@link Date} instance or null.
+     */
+    private Date getFirstEventStartDate() {
+        if (!eventDatesComputed) {
+            updateEventDates();
+        }
+        if (firstEventStartDate == null) {
+            return null;
+        }
+        return (Date) firstEventStartDate.clone();
+    }
+
+    /**
+     * Returns the stored start date of the last bettable event, computing it
+     * if the bettable events changed since it was last stored.
      * 
-     * Returns the specified start date of the Kup if no events and / or start
-     * date of events are unknown
+     * @return a {@link Date} instance or null.
+     */
+    private Date getLastEventStartDate() {
+        if (!eventDatesComputed) {
+            updateEventDates();
+        }
+        if (lastEventStartDate == null) {
+            return null;
+        }
+        return (Date) lastEventStartDate.clone();
+    }
+
+    /**
+     * Returns the Kup's first betable event start date.
      * 
-     * @return a {@link Date} instance.
+     * @return a {@link Date} instance or null if no events and / or start date
+     *         of events are unknown.
      */
-    private Date getFirstEventStartDate() {
+    private Date computeFirstEventStartDate() {
         Date d = null;
         for (TournamentSeason season : getBettableTournaments()) {
             Date startDate = season.getStartDate();
@@ -984,23 +1163,16 @@ public class KupImpl implements Kup {
                 d = game.getStartDate();
             }
         }
-        if (d == null) {
-            d = getStartDate();
-        }
         return d;
     }
 
     /**
      * Returns the Kup's last betable event start date.
      * 
-     * <p>
-     * 
-     * Returns the specified start date of the Kup if no events and / or start
-     * date of events are unknown
-     * 
-     * @return a {@link Date} instance.
+     * @return a {@link Date} instance or null if no events and / or start date
+     *         of events are unknown.
      */
-    private Date getLastEventStartDate() {
+    private Date computeLastEventStartDate() {
         Date d = null;
         for (TournamentSeason season : getBettableTournaments()) {
             Date startDate = season.getStartDate();
@@ -1067,6 +1239,7 @@ public class KupImpl implements Kup {
     public void addBettableTournament(TournamentSeason season) {
         if (!getBettableTournaments().contains(season)) {
             tournamentSeasons.add(season);
+            bettableEventsChanged();
         }
     }
 
@@ -1074,6 +1247,7 @@ public class KupImpl implements Kup {
     public void addBettableGame(TournamentGame game) {
         if (!getBettableGames().contains(game)) {
             games.add(game);
+            bettableEventsChanged();
         }
     }
 
@@ -1081,6 +1255,7 @@ public class KupImpl implements Kup {
     public void addBettableRound(TournamentRound round) {
         if (!getBettableRounds().contains(round)) {
             rounds.add(round);
+            bettableEventsChanged();
         }
     }
 
@@ -1088,6 +1263,7 @@ public class KupImpl implements Kup {
     public void addBettableStage(TournamentStage stage) {
         if (!getBettableStages().contains(stage)) {
             stages.add(stage);
+            bettableEventsChanged();
         }
     }
 
@@ -1156,9 +1332,85 @@ public class KupImpl implements Kup {
         this.isFinal = isFinal;
     }
 
+    /**
+     * Returns the identifier of the last template change applied to this Kup.
+     * 
+     * @see {@link KupTemplateChangeImpl}
+     * 
+     * @return a change identifier. 0 if none.
+     */
+    public long getTemplateChange() {
+        return templateChange;
+    }
+
     @Override
     public int getNbParticipants() {
-        return nbParticipants;
+        loadStripes();
+        return nbParticipants + stripedParticipants;
+    }
+
+    /**
+     * Sums up the counter stripes of the Kup unless done already. Loads them
+     * if needed: readers always get the exact counters.
+     */
+    private void loadStripes() {
+        if (stripesLoaded) {
+            return;
+        }
+        float jackpot = 0;
+        int participants = 0;
+        if (counters != null) {
+            for (KupCounterImpl stripe : counters) {
+                jackpot += stripe.getJackpot();
+                participants += stripe.getParticipants();
+            }
+        }
+        setStripedCounters(jackpot, participants);
+    }
+
+    /**
+     * Can the counters be read without hitting the database? Counters must
+     * not be loaded while the persistence context is flushed.
+     * 
+     * @return true if the counter stripes are summed up or loaded already.
+     */
+    public boolean isCountersLoaded() {
+        return stripesLoaded
+                || counters == null
+                || Persistence.getPersistenceUtil()
+                        .isLoaded(this, "counters");
+    }
+
+    /**
+     * Sets the sums of the counter stripes of the Kup. (see KupCounters)
+     * 
+     * @param jackpot: sum of the jackpot stripes.
+     * @param participants: sum of the participants stripes.
+     */
+    public void setStripedCounters(float jackpot, int participants) {
+        stripedJackpot = jackpot;
+        stripedParticipants = participants;
+        stripesLoaded = true;
+    }
+
+    /**
+     * Reflects counters incremented in database. (see KupCounters)
+     * 
+     * @param jackpot: amount added to the jackpot.
+     * @param participants: amount of new participants.
+     * @param striped: were the stripes incremented rather than the row?
+     */
+    public void addCounters(float jackpot, int participants, boolean striped) {
+        if (striped) {
+            // Otherwise read from the already incremented stripes on load.
+            if (stripesLoaded) {
+                stripedJackpot += jackpot;
+                stripedParticipants += participants;
+            }
+        } else {
+            this.jackpot += jackpot;
+            nbParticipants += participants;
+        }
     }
 
     @Override
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Persistence;
+import javax.persistence.Query;
+
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.member.Member;
+import org.sofun.core.community.table.MemberRankingTableEntries;
+
+/**
+ * Kup Memberships.
+ * 
+ * <p>
+ * 
+ * Adds and checks Kup members and participants straight against the
+ * <code>kups_members</code> and <code>kups_participants</code> join tables
+ * so that the cost does not depend on the size of the Kup: adding one member
+ * to a <code>Set</code> mapped collection would load all the other ones
+ * first. The participants count (see {@link KupCounters}) and the ranking
+ * table entry of a new participant are maintained along.
+ * 
+ * <p>
+ * 
+ * Collections already loaded within the persistence context are used as
+ * before to keep them consistent with the database. So are Kups and members
+ * not flushed yet.
+ * 
+ * <p>
+ * 
+ * Not thread safe: operates within the caller's transaction.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class KupMemberships {
+
+    static final String MEMBERS_TABLE = "kups_members";
+
+    static final String PARTICIPANTS_TABLE = "kups_participants";
+
+    private final EntityManager em;
+
+    public KupMemberships(EntityManager em) {
+        this.em = em;
+    }
+
+    private static boolean isLoaded(Object entity, String attribute) {
+        return Persistence.getPersistenceUtil().isLoaded(entity, attribute);
+    }
+
+    /**
+     * Should the join table be used instead of the collection?
+     */
+    private static boolean isDirect(Kup kup, Member member, String attribute) {
+        return kup.getId() != 0 && member.getId() != 0
+                && !isLoaded(kup, attribute);
+    }
+
+    private boolean exists(String table, long kupId, long memberId) {
+        Query query = em.createNativeQuery("SELECT count(*) FROM " + table
+                + " WHERE kup_id = :kup_id AND member_id = :member_id");
+        query.setParameter("kup_id", kupId);
+        query.setParameter("member_id", memberId);
+        return ((Number) query.getSingleResult()).longValue() > 0;
+    }
+
+    private void insert(String table, long kupId, long memberId) {
+        Query query = em.createNativeQuery("INSERT INTO " + table
+                + " (kup_id, member_id) VALUES (:kup_id, :member_id)");
+        query.setParameter("kup_id", kupId);
+        query.setParameter("member_id", memberId);
+        query.executeUpdate();
+    }
+
+    /**
+     * Is a member a member of a Kup?
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @param member: a {@link Member} instance.
+     * @return true or false.
+     */
+    public boolean isMember(Kup kup, Member member) {
+        if (kup == null || member == null) {
+            return false;
+        }
+        if (!isDirect(kup, member, "members")) {
+            return kup.isMember(member);
+        }
+        return exists(MEMBERS_TABLE, kup.getId(), member.getId());
+    }
+
+    /**
+     * Adds a member to a Kup.
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @param member: a {@link Member} instance.
+     * @return true if added, false if already a member.
+     */
+    public boolean addMember(Kup kup, Member member) {
+        if (kup == null || member == null) {
+            return false;
+        }
+        if (!isDirect(kup, member, "members")) {
+            if (kup.isMember(member)) {
+                return false;
+            }
+            kup.addMember(member);
+            return true;
+        }
+        if (exists(MEMBERS_TABLE, kup.getId(), member.getId())) {
+            return false;
+        }
+        insert(MEMBERS_TABLE, kup.getId(), member.getId());
+        return true;
+    }
+
+    /**
+     * Is a member participating in a Kup?
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @param member: a {@link Member} instance.
+     * @return true or false.
+     */
+    public boolean isParticipant(Kup kup, Member member) {
+        if (kup == null || member == null) {
+            return false;
+        }
+        if (!isDirect(kup, member, "participants")) {
+            return kup.getParticipants().contains(member);
+        }
+        return exists(PARTICIPANTS_TABLE, kup.getId(), member.getId());
+    }
+
+    /**
+     * Adds a participant to a Kup along with its ranking table entry and
+     * increments the participants count of the Kup.
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @param member: a {@link Member} instance.
+     * @return true if added, false if already a participant.
+     */
+    public boolean addParticipant(Kup kup, Member member) {
+        if (kup == null || member == null) {
+            return false;
+        }
+        if (!isDirect(kup, member, "participants")) {
+            if (kup.getParticipants().contains(member)) {
+                return false;
+            }
+            kup.addParticipant(member);
+        } else {
+            if (exists(PARTICIPANTS_TABLE, kup.getId(), member.getId())) {
+                return false;
+            }
+            insert(PARTICIPANTS_TABLE, kup.getId(), member.getId());
+            if (kup instanceof KupImpl) {
+                ((KupImpl) kup).participantAdded(member);
+            }
+            new MemberRankingTableEntries(em).add(kup.getRankingTable(),
+                    member);
+        }
+        new KupCounters(em).add(kup, 0, 1);
+        return true;
+    }
+
+}
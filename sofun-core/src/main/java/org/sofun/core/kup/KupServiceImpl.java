@@ -16,10 +16,13 @@ package org.sofun.core.kup;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -38,8 +41,11 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.sofun.core.CoreConstants;
 import org.sofun.core.api.community.table.MemberRankingTableEntry;
+import org.sofun.core.api.community.table.MemberRankingTableService;
 import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.exception.InvalidPredictionException;
 import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupMemberStatus;
 import org.sofun.core.api.kup.KupRankingTable;
 import org.sofun.core.api.kup.KupRoles;
 import org.sofun.core.api.kup.KupSearchResults;
@@ -49,7 +55,9 @@ import org.sofun.core.api.kup.KupType;
 import org.sofun.core.api.kup.bet.KupMemberBet;
 import org.sofun.core.api.kup.bet.KupWinningsRepartitionRuleType;
 import org.sofun.core.api.kup.prediction.KupPredictionPointsRule;
+import org.sofun.core.api.local.KupSearchIndexLocal;
 import org.sofun.core.api.local.KupServiceLocal;
+import org.sofun.core.api.local.MemberRankingTableServiceLocal;
 import org.sofun.core.api.local.NotificationServiceLocal;
 import org.sofun.core.api.local.PredictionServiceLocal;
 import org.sofun.core.api.member.Member;
@@ -67,7 +75,6 @@ import org.sofun.core.api.question.Question;
 import org.sofun.core.api.question.QuestionKupTiebreaker;
 import org.sofun.core.api.remote.KupServiceRemote;
 import org.sofun.core.api.sport.SportContestant;
-import org.sofun.core.api.sport.tournament.Tournament;
 import org.sofun.core.api.sport.tournament.TournamentGame;
 import org.sofun.core.api.sport.tournament.TournamentGameStatus;
 import org.sofun.core.api.sport.tournament.TournamentRound;
@@ -79,10 +86,15 @@ import org.sofun.core.api.sport.tournament.TournamentStageStatus;
 import org.sofun.core.api.team.Team;
 import org.sofun.core.api.team.TeamPrivacy;
 import org.sofun.core.api.team.TeamRoles;
+import org.sofun.core.community.table.MemberRankingTableServiceImpl;
 import org.sofun.core.kup.bet.KupMemberBetImpl;
-import org.sofun.core.kup.points.rule.GenericRule;
+import org.sofun.core.kup.bet.KupPayoutImpl;
+import org.sofun.core.kup.search.KupIndexQuery;
+import org.sofun.core.kup.search.KupIndexResults;
+import org.sofun.core.kup.points.rule.KupPredictionPointsRuleRegistry;
 import org.sofun.core.kup.table.KupRankingTableImpl;
 import org.sofun.core.member.MemberTransactionImpl;
+import org.sofun.core.prediction.PredictionImpl;
 
 /**
  * Kup Service Implementation.
@@ -111,7 +123,11 @@ public class KupServiceImpl implements KupService {
     @EJB(beanName = "MemberServiceImpl", beanInterface = MemberServiceLocal.class)
     private MemberService members;
 
-    protected static final Map<String, KupPredictionPointsRule> rulePlugins = new HashMap<String, KupPredictionPointsRule>();
+    @EJB(beanName = "MemberRankingTableServiceImpl", beanInterface = MemberRankingTableServiceLocal.class)
+    private MemberRankingTableService rankings;
+
+    @EJB(beanName = "KupSearchIndex", beanInterface = KupSearchIndexLocal.class)
+    private KupSearchIndexLocal kupIndex;
 
     public KupServiceImpl() {
         super();
@@ -120,6 +136,12 @@ public class KupServiceImpl implements KupService {
     public KupServiceImpl(EntityManager em) {
         this();
         this.em = em;
+        this.rankings = new MemberRankingTableServiceImpl(em);
+    }
+
+    public KupServiceImpl(EntityManager em, PredictionService predictions) {
+        this(em);
+        this.predictions = predictions;
     }
 
     protected Query createQuery(String queryStr) {
@@ -245,10 +267,20 @@ public class KupServiceImpl implements KupService {
 
         } else {
 
-            if (kupStatusParam == null || kupStatusParam.isEmpty()) {
+            final KupIndexQuery indexQuery = KupIndexQuery.parse(params,
+                    kupStatus);
+            if (indexQuery == null) {
                 return null;
             }
 
+            // Lobby searches are answered by the in-memory index whenever
+            // possible.
+            final KupSearchResults indexed = searchIndex(indexQuery, offset,
+                    batchSize);
+            if (indexed != null) {
+                return indexed;
+            }
+
             boolean includeRoomKups = false;
             final String withRoomKups = params.get("withRoomKups");
             if (withRoomKups != null && "1".equals(withRoomKups)) {
@@ -409,6 +441,7 @@ public class KupServiceImpl implements KupService {
             if (kups != null) {
                 results.addAll(kups);
             }
+            new KupCounters(em).load(results);
 
         }
 
@@ -416,6 +449,68 @@ public class KupServiceImpl implements KupService {
 
     }
 
+    /**
+     * Searches the in-memory Kup index.
+     * 
+     * @return a {@link KupSearchResults} instance or null if the index cannot
+     *         answer.
+     */
+    private KupSearchResults searchIndex(KupIndexQuery query, int offset,
+            int batchSize) {
+        if (kupIndex == null) {
+            return null;
+        }
+        Long memberId = null;
+        if (query.getExcludedParticipant() != null) {
+            final Member member = members.getMember(query
+                    .getExcludedParticipant());
+            if (member == null) {
+                return null;
+            }
+            memberId = member.getId();
+        }
+        final KupIndexResults hits = kupIndex.search(query, memberId, offset,
+                batchSize);
+        if (hits == null) {
+            return null;
+        }
+        return new KupSearchResultsImpl(offset, batchSize,
+                hits.getTotalResults(), getKupsByIds(hits.getIds()));
+    }
+
+    /**
+     * Loads Kups with a single query.
+     * 
+     * @param ids: Kup identifiers.
+     * @return a {@link List} of {@link Kup} in the order of the identifiers.
+     */
+    private List<Kup> getKupsByIds(long[] ids) {
+        List<Kup> kups = new ArrayList<Kup>();
+        if (ids.length == 0) {
+            return kups;
+        }
+        List<Long> params = new ArrayList<Long>();
+        for (long id : ids) {
+            params.add(id);
+        }
+        final TypedQuery<KupImpl> query = em.createQuery(
+                "from " + KupImpl.class.getSimpleName()
+                        + " k where k.id IN (:ids)", KupImpl.class);
+        query.setParameter("ids", params);
+        Map<Long, Kup> byId = new HashMap<Long, Kup>();
+        for (KupImpl kup : query.getResultList()) {
+            byId.put(kup.getId(), kup);
+        }
+        for (long id : ids) {
+            final Kup kup = byId.get(id);
+            if (kup != null) {
+                kups.add(kup);
+            }
+        }
+        new KupCounters(em).load(kups);
+        return kups;
+    }
+
     @Override
     public Kup getKupById(long kupId) {
 
@@ -425,7 +520,9 @@ public class KupServiceImpl implements KupService {
         query.setParameter("kupId", kupId);
 
         try {
-            return (Kup) query.getSingleResult();
+            final Kup kup = (Kup) query.getSingleResult();
+            loadCounters(kup);
+            return kup;
         } catch (NoResultException nre) {
             return null;
         }
@@ -693,18 +790,16 @@ public class KupServiceImpl implements KupService {
             bet.setEffectiveDate(now);
             em.persist(bet);
 
-            if (!kup.getMembers().contains(member)) {
-                kup.addMember(member);
-            }
+            addMember(member, kup);
 
             // Validate
             if (hasPrediction(member, kup)) {
-                kup.addParticipant(member);
+                addParticipant(member, kup);
                 bet.setEffectiveDate(txn.getDate());
             }
 
             // Increase Jackpot
-            kup.setJackpot(kup.getJackpot() + kup.getStake());
+            new KupCounters(em).add(kup, kup.getStake(), 0);
 
         } else {
             throw new CoreException("Kup type not recognized. Cancelling...");
@@ -712,17 +807,144 @@ public class KupServiceImpl implements KupService {
 
     }
 
+    /**
+     * Checks the participation of a member against the Kup index. Members
+     * become participants once they have both predictions and, unless the
+     * Kup is free, a bet: participants need no further check.
+     * 
+     * @return true if the index knows the member as participant.
+     */
+    private boolean isIndexedParticipant(Member member, Kup kup) {
+        if (kupIndex == null) {
+            return false;
+        }
+        return Boolean.TRUE.equals(kupIndex.isParticipant(kup.getId(),
+                member.getId()));
+    }
+
     @Override
     public boolean hasPrediction(Member member, Kup kup) {
+        if (member != null && kup != null
+                && isIndexedParticipant(member, kup)) {
+            return true;
+        }
         return predictions.hasPredictions(member, kup);
     }
 
+    @Override
+    public boolean isMember(Member member, Kup kup) {
+        return new KupMemberships(em).isMember(kup, member);
+    }
+
+    @Override
+    public boolean isParticipant(Member member, Kup kup) {
+        if (member == null || kup == null) {
+            return false;
+        }
+        if (isIndexedParticipant(member, kup)) {
+            return true;
+        }
+        // The index may miss a join made on another node: ask the database.
+        return new KupMemberships(em).isParticipant(kup, member);
+    }
+
+    @Override
+    public Set<Member> getParticipantsFriendsFor(Kup kup, Member member)
+            throws CoreException {
+        Set<Member> friends = new LinkedHashSet<Member>();
+        if (kup == null || member == null) {
+            return friends;
+        }
+        final long tableId = rankings.getKupRankingTableId(kup.getId());
+        if (tableId == -1
+                || rankings.getEntryFor(tableId, member.getId()) == null) {
+            return friends;
+        }
+        for (MemberRankingTableEntry entry : rankings.getEntriesFor(tableId,
+                member.getFriendIds())) {
+            friends.add(entry.getMember());
+        }
+        return friends;
+    }
+
+    @Override
+    public boolean addMember(Member member, Kup kup) {
+        if (member != null && kup != null
+                && isIndexedParticipant(member, kup)) {
+            // Participants are members.
+            return false;
+        }
+        return new KupMemberships(em).addMember(kup, member);
+    }
+
+    @Override
+    public boolean addParticipant(Member member, Kup kup) {
+        if (member == null || kup == null
+                || isIndexedParticipant(member, kup)) {
+            return false;
+        }
+        final boolean added = new KupMemberships(em).addParticipant(kup,
+                member);
+        if (added && kupIndex != null) {
+            kupIndex.indexJoined(kup);
+        }
+        return added;
+    }
+
+    @Override
+    public void openCounters(Kup kup) {
+        new KupCounters(em).create(kup);
+    }
+
+    @Override
+    public void loadCounters(Kup kup) {
+        if (kup != null) {
+            new KupCounters(em).load(Collections.singletonList(kup));
+        }
+    }
+
+    @Override
+    public void foldCounters(Kup kup) {
+        new KupCounters(em).fold(kup);
+    }
+
+    @Override
+    public byte getMemberStatus(Member member, Kup kup) throws CoreException {
+
+        if (member == null || kup == null) {
+            return KupMemberStatus.NOT_VALIDATED;
+        }
+        if (isParticipant(member, kup)) {
+            return KupMemberStatus.VALIDATED;
+        }
+
+        final boolean hasPrediction = predictions.hasPredictions(member, kup);
+        if (KupType.FREE.equals(kup.getType())) {
+            return hasPrediction ? KupMemberStatus.VALIDATED
+                    : KupMemberStatus.NOT_VALIDATED;
+        }
+        final boolean hasBet = hasBet(member, kup);
+        if (hasPrediction && hasBet) {
+            return KupMemberStatus.VALIDATED;
+        } else if (hasPrediction) {
+            return KupMemberStatus.HAS_PREDICTION;
+        } else if (hasBet) {
+            return KupMemberStatus.HAS_BET;
+        }
+        return KupMemberStatus.NOT_VALIDATED;
+
+    }
+
     @Override
     public boolean hasBet(Member member, Kup kup) throws CoreException {
 
         if (member == null || kup == null) {
             return false;
         }
+        if (!KupType.FREE.equals(kup.getType())
+                && isIndexedParticipant(member, kup)) {
+            return true;
+        }
 
         String queryStr = "from " + KupMemberBetImpl.class.getSimpleName()
                 + " m where m.member.email=:email AND m.kup.id=:kup_id";
@@ -795,6 +1017,44 @@ public class KupServiceImpl implements KupService {
 
     }
 
+    @Override
+    public void addGamePredictions(Member member, Kup kup, String type,
+            Map<TournamentGame, List<SportContestant>> winners,
+            String scoreType, Map<TournamentGame, List<Integer>> scores)
+            throws CoreException {
+
+        // Check every deadline before recording anything.
+        if (winners != null) {
+            for (TournamentGame game : winners.keySet()) {
+                checkPredictionAllowedOn(game);
+            }
+        }
+        if (scores != null) {
+            for (Map.Entry<TournamentGame, List<Integer>> entry : scores
+                    .entrySet()) {
+                checkPredictionAllowedOn(entry.getKey());
+                if (entry.getValue() == null || entry.getValue().size() != 2) {
+                    throw new InvalidPredictionException(
+                            "Invalid score prediction on game with uuid="
+                                    + entry.getKey().getUUID());
+                }
+            }
+        }
+
+        predictions.createGamePredictionsFor(member, kup, type, winners,
+                scoreType, scores);
+
+    }
+
+    private void checkPredictionAllowedOn(TournamentGame game)
+            throws InvalidPredictionException {
+        if (!predictions.isPredictionAllowedOn(game)) {
+            throw new InvalidPredictionException(
+                    "Prediction not allowed on game with uuid="
+                            + (game != null ? game.getUUID() : null));
+        }
+    }
+
     @Override
     public void addGameQuestionPrediction(String type, Member member, Kup kup,
             TournamentGame game, Question question, String choice)
@@ -891,6 +1151,148 @@ public class KupServiceImpl implements KupService {
 
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Kup> getDueKups(byte[] status, String[] types, Date date)
+            throws CoreException {
+
+        String queryStr = "from " + KupImpl.class.getSimpleName()
+                + " k where k.status IN (:status)"
+                + " AND k.nextTransition <= :date";
+
+        if (types != null) {
+            queryStr += " AND k.type IN (:types)";
+        }
+        queryStr += " ORDER BY k.nextTransition";
+
+        Query query = createQuery(queryStr);
+        query.setParameter("status", toByteList(status));
+        query.setParameter("date", date);
+        if (types != null) {
+            query.setParameter("types", Arrays.asList(types));
+        }
+
+        return query.getResultList();
+
+    }
+
+    /* Status of the Kups whose event dates are maintained. */
+    private static final String PENDING_STATUS = KupStatus.CREATED + ", "
+            + KupStatus.OPENED + ", " + KupStatus.ON_GOING + ", "
+            + KupStatus.CLOSED;
+
+    @Override
+    public int refreshEventDates() throws CoreException {
+
+        // Pending bettable events changes must be visible to the statement.
+        em.flush();
+
+        final String events = "SELECT j.kup_id, e.start_date"
+                + " FROM kups_tournaments_seasons j, sports_tournaments_seasons e"
+                + " WHERE e.id = j.tournament_season_id"
+                + " UNION ALL SELECT j.kup_id, e.start_date"
+                + " FROM kups_tournaments_stages j, sports_tournaments_stages e"
+                + " WHERE e.id = j.tournament_stage_id"
+                + " UNION ALL SELECT j.kup_id, e.start_date"
+                + " FROM kups_tournaments_rounds j, sports_tournaments_rounds e"
+                + " WHERE e.id = j.tournament_round_id"
+                + " UNION ALL SELECT j.kup_id, e.start_date"
+                + " FROM kups_tournaments_games j, sports_tournaments_games e"
+                + " WHERE e.id = j.tournament_game_id";
+
+        // Effective dates and duration (search indexes) derive from these.
+        final String toBet = "interval '"
+                + CoreConstants.TIME_TO_BET_BEFORE_EVENT_STARTS + " seconds'";
+
+        // Same as KupImpl.updateEventDates(): without dated events the first
+        // event date falls back on the specified start date while the last
+        // one is left unknown (effective end date falls back on end date).
+        final String firstDate = "COALESCE(d.first_date, kups.start_date)";
+
+        final Query query = em
+                .createNativeQuery("UPDATE kups SET first_event_start_date = "
+                        + firstDate + ","
+                        + " last_event_start_date = d.last_date,"
+                        + " event_dates_computed = true, next_transition = NULL,"
+                        + " index_modified = now(),"
+                        + " start_date = COALESCE(d.first_date - " + toBet
+                        + ", kups.start_date),"
+                        + " end_date = COALESCE(d.last_date - " + toBet
+                        + ", kups.end_date),"
+                        + " duration = COALESCE(CAST(FLOOR(EXTRACT(EPOCH FROM"
+                        + " (d.last_date - d.first_date)) / 60) AS integer),"
+                        + " kups.duration)"
+                        + " FROM (SELECT k.id AS kup_id,"
+                        + " MIN(ev.start_date) AS first_date,"
+                        + " MAX(ev.start_date) AS last_date"
+                        + " FROM kups k LEFT JOIN (" + events + ") ev"
+                        + " ON ev.kup_id = k.id"
+                        + " WHERE k.status IN (" + PENDING_STATUS + ")"
+                        + " AND k.event_dates_computed = false"
+                        + " GROUP BY k.id) d WHERE kups.id = d.kup_id");
+        final int updated = query.executeUpdate();
+        if (updated > 0) {
+            log.info("Refreshed event dates of " + updated + " Kup(s)");
+        }
+        return updated;
+
+    }
+
+    @Override
+    public int refreshEventDatesFor(Collection<?> events) throws CoreException {
+
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        // Join table to bound event ids.
+        final Map<String, Set<Long>> ids = new HashMap<String, Set<Long>>();
+        for (Object event : events) {
+            final String table;
+            final long id;
+            if (event instanceof TournamentGame) {
+                table = "kups_tournaments_games";
+                id = ((TournamentGame) event).getId();
+            } else if (event instanceof TournamentRound) {
+                table = "kups_tournaments_rounds";
+                id = ((TournamentRound) event).getId();
+            } else if (event instanceof TournamentStage) {
+                table = "kups_tournaments_stages";
+                id = ((TournamentStage) event).getId();
+            } else if (event instanceof TournamentSeason) {
+                table = "kups_tournaments_seasons";
+                id = ((TournamentSeason) event).getId();
+            } else {
+                throw new CoreException("Unsupported sport event: " + event);
+            }
+            Set<Long> each = ids.get(table);
+            if (each == null) {
+                each = new HashSet<Long>();
+                ids.put(table, each);
+            }
+            each.add(id);
+        }
+
+        // Pending events changes must be visible to the statements.
+        em.flush();
+
+        for (String[] element : TEMPLATE_ELEMENTS) {
+            final Set<Long> each = ids.get(element[1]);
+            if (each == null) {
+                continue;
+            }
+            final Query query = em.createNativeQuery("UPDATE kups"
+                    + " SET event_dates_computed = false"
+                    + " WHERE status IN (" + PENDING_STATUS + ")"
+                    + " AND id IN (SELECT kup_id FROM " + element[1]
+                    + " WHERE " + element[2] + " IN (:ids))");
+            query.setParameter("ids", each);
+            query.executeUpdate();
+        }
+        return refreshEventDates();
+
+    }
+
     @Override
     public List<Kup> getActiveKups() throws CoreException {
         final byte[] status = KupStatus.getActiveStatus();
@@ -900,10 +1302,8 @@ public class KupServiceImpl implements KupService {
     @Override
     public int getPointsPredictionFor(Kup kup, Prediction prediction)
             throws CoreException {
-        // final KupPredictionPointsRule rule =
-        // rulePlugins.get(kup.getMetaType());
-        // FIXME use kup meta type to deduce points computing rules.
-        KupPredictionPointsRule rule = new GenericRule();
+        final KupPredictionPointsRule rule = KupPredictionPointsRuleRegistry
+                .getRuleFor(kup);
         return rule.getPointsFor(kup, prediction, this);
     }
 
@@ -913,6 +1313,7 @@ public class KupServiceImpl implements KupService {
         final Date now = new Date();
 
         kup.setStatus(KupStatus.CANCELED);
+        foldCounters(kup);
 
         final float stake = kup.getStake();
         // Free roll nothing to reimbursed
@@ -920,16 +1321,27 @@ public class KupServiceImpl implements KupService {
             return;
         }
 
-        for (Member member : kup.getParticipants()) {
-            MemberTransaction txn = new MemberTransactionImpl(now, stake,
-                    kup.getStakeCurrency(), MemberTransactionType.BET_CREDIT);
-            txn.setLabel(MemberTransactionType.BET_CREDIT);
-            txn.setCredit(true);
-            txn.setStatusCode("00000");
-            txn.setStatus(MemberTransactionStatus.INTERNAL);
-            member.addTransaction(txn);
-            txn.setMember(member);
-        }
+        // Refunds are journaled at once and applied asynchronously by the
+        // settlement engine (see KupSettledLifeCyclePolicyManager): member
+        // credits are left untouched here.
+        final Query query = em
+                .createNativeQuery("INSERT INTO kups_payouts (id, kup_id,"
+                        + " member_id, type, position, amount, currency, status,"
+                        + " created) SELECT nextval('hibernate_sequence'),"
+                        + " kp.kup_id, kp.member_id, :type, 0, :amount,"
+                        + " :currency, :pending, :now FROM kups_participants kp"
+                        + " WHERE kp.kup_id = :kup_id AND NOT EXISTS (SELECT 1"
+                        + " FROM kups_payouts p WHERE p.kup_id = kp.kup_id"
+                        + " AND p.member_id = kp.member_id AND p.type = :type)");
+        query.setParameter("type", KupPayoutImpl.TYPE_REFUND);
+        query.setParameter("amount", stake);
+        query.setParameter("currency", kup.getStakeCurrency());
+        query.setParameter("pending", KupPayoutImpl.PENDING);
+        query.setParameter("now", now);
+        query.setParameter("kup_id", kup.getId());
+        final int refunds = query.executeUpdate();
+        log.info(String.valueOf(refunds) + " refunds journaled for kup w/ uuid="
+                + kup.getId());
 
     }
 
@@ -941,11 +1353,11 @@ public class KupServiceImpl implements KupService {
             credentials.add(KupRoles.ADMINISTRATOR);
         }
 
-        if (kup.isMember(member)) {
+        if (isMember(member, kup)) {
             credentials.add(KupRoles.MEMBER);
         }
 
-        if (kup.isParticipant(member)) {
+        if (isParticipant(member, kup)) {
             credentials.add(KupRoles.PARTICIPANT);
         }
 
@@ -963,6 +1375,8 @@ public class KupServiceImpl implements KupService {
         Kup newKup = new KupImpl(kup, team, stake, repartitionType);
         team.addKup(newKup);
         em.persist(newKup);
+        // Opened right away.
+        openCounters(newKup);
         return newKup;
     }
 
@@ -1009,148 +1423,302 @@ public class KupServiceImpl implements KupService {
         }
     }
 
+    /**
+     * Template change log element types along with the Kup join table and
+     * column holding them and, for sport events, the table holding their
+     * status, the status of the ones still to be played and the status of the
+     * ones that may be played later on.
+     */
+    private static final String[][] TEMPLATE_ELEMENTS = new String[][] {
+            { "game", "kups_tournaments_games", "tournament_game_id",
+                    "sports_tournaments_games", TournamentGameStatus.SCHEDULED,
+                    TournamentGameStatus.POSTPONED },
+            { "round", "kups_tournaments_rounds", "tournament_round_id",
+                    "sports_tournaments_rounds",
+                    TournamentRoundStatus.SCHEDULED,
+                    TournamentRoundStatus.POSTPONED },
+            { "stage", "kups_tournaments_stages", "tournament_stage_id",
+                    "sports_tournaments_stages",
+                    TournamentStageStatus.SCHEDULED,
+                    TournamentStageStatus.POSTPONED },
+            { "season", "kups_tournaments_seasons", "tournament_season_id",
+                    "sports_tournaments_seasons",
+                    TournamentSeasonStatus.SCHEDULED,
+                    TournamentSeasonStatus.POSTPONED },
+            { "question", "kups_questions", "question_id", null, null, null },
+            { "tiebreaker", "kups_questions_tiebreaker", "question_id", null,
+                    null, null },
+            { "tournament", "kups_tournaments", "tournament_id", null, null,
+                    null } };
+
+    /* Template change log types of the sport events. */
+    private static final String EVENT_CHANGES = "'game', 'round', 'stage',"
+            + " 'season'";
+
+    /* Templates children added by the template sync: parent join table and
+     * column, child table and parent column, child join table and column,
+     * parent change log type. */
+    private static final String[][] TEMPLATE_CHILDREN = new String[][] {
+            { "kups_tournaments_seasons", "tournament_season_id",
+                    "sports_tournaments_stages", "tournament_season_id",
+                    "kups_tournaments_stages", "tournament_stage_id",
+                    "season" },
+            { "kups_tournaments_stages", "tournament_stage_id",
+                    "sports_tournaments_rounds", "tournament_stage_id",
+                    "kups_tournaments_rounds", "tournament_round_id",
+                    "stage" },
+            { "kups_tournaments_rounds", "tournament_round_id",
+                    "sports_tournaments_games", "round_id",
+                    "kups_tournaments_games", "tournament_game_id",
+                    "round" } };
+
     @Override
-    public void syncKupsWithTemplate() throws CoreException {
-        for (Kup kup : getActiveKups()) {
-
-            // Update start date / end date (depends on events)
-            kup.setStartDate(kup.getEffectiveStartDate());
-            kup.setEndDate(kup.getEffectiveEndDate());
-            // Update Kup search indexes.
-            kup.setNbParticipants(kup.getParticipants().size());
-            // Update Kup duration search index
-            kup.setDuration(kup.computeDuration());
-
-            Kup template = getTemplateFor(kup);
-            if (template == null) {
-                continue;
-            }
+    public long getLatestTemplateChange() {
+        final Query query = em
+                .createNativeQuery("SELECT MAX(id) FROM kups_templates_changes");
+        final Number latest = (Number) query.getSingleResult();
+        return latest != null ? latest.longValue() : 0;
+    }
 
-            // Set sport
-            kup.setSport(template.getSport());
-            for (Tournament tournament : template.getSportTournaments()) {
-                kup.addSportTournament(tournament);
-            }
+    @Override
+    public void syncKupsWithTemplate() throws CoreException {
 
-            log.debug("Syncing Kup w/ id=" + String.valueOf(kup.getId())
-                    + " and template w/ name=" + template.getName());
+        final long latest = getLatestTemplateChange();
+        // Only non final Kups should be upgraded.
+        final String pendingKups = "kups.is_template = false"
+                + " AND kups.is_final = false AND kups.status IN ("
+                + KupStatus.CREATED + ", " + KupStatus.OPENED + ", "
+                + KupStatus.ON_GOING + ")";
+
+        // Each Kup is synced up to its own mark: nothing to do unless one of
+        // them lags behind the latest change of its template.
+        final Query lagging = em.createNativeQuery("SELECT count(*) FROM kups"
+                + " WHERE " + pendingKups
+                + " AND kups.template_change < :latest"
+                + " AND EXISTS (SELECT 1 FROM kups_templates_changes c, kups t"
+                + " WHERE t.name = kups.name AND t.is_template = true"
+                + " AND c.template_id = t.id AND c.id > kups.template_change"
+                + " AND c.id <= :latest)");
+        lagging.setParameter("latest", latest);
+        if (((Number) lagging.getSingleResult()).longValue() == 0) {
+            return;
+        }
 
-            for (TournamentGame game : template.getBettableGames()) {
-                if (TournamentGameStatus.SCHEDULED.equals(game.getGameStatus())
-                        && !kup.getBettableGames().contains(game)) {
-                    log.info("Adding game with uuid=" + game.getUUID()
-                            + " to kup with id=" + kup.getId());
-                    kup.addBettableGame(game);
-                }
+        // Template's changes not applied yet to the Kups derived from it.
+        final String changes = " FROM kups, kups t, kups_templates_changes c"
+                + " WHERE " + pendingKups
+                + " AND kups.template_change < :latest AND t.name = kups.name"
+                + " AND t.is_template = true AND c.template_id = t.id"
+                + " AND c.type = :type AND c.id > kups.template_change"
+                + " AND c.id <= :latest";
+
+        int added = 0;
+        int events = 0;
+        for (String[] element : TEMPLATE_ELEMENTS) {
+            String queryStr = "INSERT INTO " + element[1] + " (kup_id, "
+                    + element[2] + ") SELECT DISTINCT kups.id, c.element_id"
+                    + changes + " AND NOT EXISTS (SELECT 1 FROM " + element[1]
+                    + " j WHERE j.kup_id = kups.id AND j." + element[2]
+                    + " = c.element_id)";
+            if (element[3] != null) {
+                // Only sport events that are still to be played.
+                queryStr += " AND EXISTS (SELECT 1 FROM " + element[3]
+                        + " e WHERE e.id = c.element_id AND e.status = :scheduled)";
             }
-            for (TournamentRound round : template.getBettableRounds()) {
-                if (TournamentRoundStatus.SCHEDULED.equals(round.getStatus())
-                        && !kup.getBettableRounds().contains(round)) {
-                    log.info("Adding round with uuid=" + round.getUUID()
-                            + " to kup with id=" + kup.getId());
-                    kup.addBettableRound(round);
-                }
+            final Query query = em.createNativeQuery(queryStr);
+            query.setParameter("type", element[0]);
+            query.setParameter("latest", latest);
+            if (element[3] != null) {
+                query.setParameter("scheduled", element[4]);
             }
-            for (TournamentStage stage : template.getBettableStages()) {
-                if (TournamentStageStatus.SCHEDULED.equals(stage.getStatus())
-                        && !kup.getBettableStages().contains(stage)) {
-                    log.info("Adding stage with uuid=" + stage.getUUID()
-                            + " to kup with id=" + kup.getId());
-                    kup.addBettableStage(stage);
-                }
+            final int count = query.executeUpdate();
+            if (count > 0) {
+                log.info("Added " + count + " " + element[0]
+                        + "(s) to kups from their template");
             }
-            for (TournamentSeason season : template.getBettableTournaments()) {
-                if (TournamentSeasonStatus.SCHEDULED.equals(season.getStatus())
-                        && !kup.getBettableTournaments().contains(season)) {
-                    log.info("Adding season with uuid=" + season.getUUID()
-                            + " to kup with id=" + kup.getId());
-                    kup.addBettableTournament(season);
-                }
-            }
-            for (Question question : template.getBettableQuestion()) {
-                if (!kup.getBettableQuestion().contains(question)) {
-                    log.info("Adding question with uuid=" + question.getId()
-                            + " to kup with id=" + kup.getId());
-                    kup.addBettableQuestion(question);
-                }
-            }
-            for (QuestionKupTiebreaker question : template
-                    .getQuestionsTiebreaker()) {
-                if (!kup.getQuestionsTiebreaker().contains(question)) {
-                    log.info("Adding question tie breaker with uuid="
-                            + question.getId() + " to kup with id="
-                            + kup.getId());
-                    kup.addQuestionTiebreaker(question);
-                }
+            added += count;
+            if (element[3] != null) {
+                events += count;
             }
+        }
+
+        if (events > 0) {
+            // Event dates of the Kups getting sport events from their template
+            // may move.
+            final Query stale = em.createNativeQuery("UPDATE kups"
+                    + " SET event_dates_computed = false WHERE " + pendingKups
+                    + " AND kups.template_change < :latest"
+                    + " AND EXISTS (SELECT 1 FROM kups_templates_changes c,"
+                    + " kups t WHERE t.name = kups.name"
+                    + " AND t.is_template = true AND c.template_id = t.id"
+                    + " AND c.type IN (" + EVENT_CHANGES + ")"
+                    + " AND c.id > kups.template_change AND c.id <= :latest)");
+            stale.setParameter("latest", latest);
+            stale.executeUpdate();
+        }
+
+        if (added > 0) {
+            // Set sport
+            final Query sport = em
+                    .createNativeQuery("UPDATE kups SET sport_id = t.sport_id,"
+                            + " index_modified = now() FROM kups t WHERE "
+                            + pendingKups
+                            + " AND t.name = kups.name AND t.is_template = true"
+                            + " AND t.sport_id IS NOT NULL"
+                            + " AND kups.sport_id IS DISTINCT FROM t.sport_id");
+            sport.executeUpdate();
+        }
 
+        // Sport events left aside because not scheduled yet (no status or
+        // postponed) may still get scheduled: the mark stops right before the
+        // first of them so that they are looked at again next time.
+        String waiting = "";
+        for (String[] element : TEMPLATE_ELEMENTS) {
+            if (element[3] == null) {
+                continue;
+            }
+            waiting += (waiting.length() == 0 ? "" : " OR ") + "(c.type = '"
+                    + element[0] + "' AND EXISTS (SELECT 1 FROM " + element[3]
+                    + " e WHERE e.id = c.element_id AND (e.status IS NULL"
+                    + " OR e.status = '" + element[5] + "')))";
+        }
+        final Query applied = em
+                .createNativeQuery("UPDATE kups SET template_change ="
+                        + " COALESCE((SELECT MIN(c.id) - 1"
+                        + " FROM kups_templates_changes c, kups w"
+                        + " WHERE w.name = kups.name AND w.is_template = true"
+                        + " AND c.template_id = w.id"
+                        + " AND c.id > kups.template_change"
+                        + " AND c.id <= :latest AND (" + waiting + ")),"
+                        + " :latest) FROM kups t WHERE " + pendingKups
+                        + " AND kups.template_change < :latest"
+                        + " AND t.name = kups.name AND t.is_template = true");
+        applied.setParameter("latest", latest);
+        applied.executeUpdate();
+
+        if (events > 0) {
+            refreshEventDates();
         }
 
     }
 
     @Override
     public void syncTemplates() throws CoreException {
+        syncTemplates(false);
+    }
 
-        // We only interested in opened or to be opened kups.
-        final List<Byte> kupStatus = new ArrayList<Byte>();
-        kupStatus.add(Integer.valueOf(0).byteValue()); // CREATED
-        kupStatus.add(Integer.valueOf(1).byteValue()); // OPENED
-        kupStatus.add(Integer.valueOf(2).byteValue()); // ON_GOING
+    @Override
+    public void syncTemplates(boolean full) throws CoreException {
+
+        // We only interested in opened or to be opened kups. Only non final
+        // Kups should be upgraded.
+        final String pendingTemplates = "t.is_template = true"
+                + " AND t.is_final = false AND t.status IN ("
+                + KupStatus.CREATED + ", " + KupStatus.OPENED + ", "
+                + KupStatus.ON_GOING + ")";
+
+        // Templates keep, as their template change, the sequence value up to
+        // which their children were looked for. Sport events and change log
+        // records get their ids from the same sequence: children created or
+        // recorded since then have greater ids.
+        long since = 0;
+        if (!full) {
+            final Number mark = (Number) em.createNativeQuery(
+                    "SELECT MIN(t.template_change) FROM kups t WHERE "
+                            + pendingTemplates).getSingleResult();
+            if (mark == null) {
+                // No templates.
+                return;
+            }
+            since = mark.longValue();
+        }
+        final long next = ((Number) em.createNativeQuery(
+                "SELECT nextval('hibernate_sequence')").getSingleResult())
+                .longValue();
+
+        final String templates = " FROM kups t, %1$s p, %3$s e WHERE "
+                + pendingTemplates
+                + " AND p.kup_id = t.id AND e.%4$s = p.%2$s"
+                + " AND (e.id > :since OR EXISTS (SELECT 1"
+                + " FROM kups_templates_changes c WHERE c.template_id = t.id"
+                + " AND c.type = '%7$s' AND c.element_id = p.%2$s"
+                + " AND c.id > :since))"
+                + " AND NOT EXISTS (SELECT 1 FROM %5$s j"
+                + " WHERE j.kup_id = t.id AND j.%6$s = e.id)";
+
+        // Seasons' stages, then stages' rounds, then rounds' games so that
+        // children of newly added elements get added within the same run.
+        // Additions get recorded in the change log by the database (see
+        // CoreSchema).
+        for (String[] child : TEMPLATE_CHILDREN) {
+            final Query query = em.createNativeQuery(String.format(
+                    "INSERT INTO %5$s (kup_id, %6$s) SELECT DISTINCT t.id, e.id"
+                            + templates, (Object[]) child));
+            query.setParameter("since", since);
+            final int count = query.executeUpdate();
+            if (count > 0) {
+                log.info("Added " + count + " element(s) to " + child[4]
+                        + " of kup templates");
+            }
+        }
 
+        // Set Sports if not set (lazy init)
         final String queryStr = "from "
                 + KupImpl.class.getSimpleName()
-                + " k where k.isTemplate=:isTemplate AND k.status IN (:status) AND k.isFinal=:isFinal";
-
+                + " k where k.isTemplate=:isTemplate AND k.isFinal=:isFinal"
+                + " AND (k.sport IS NULL OR k.tournaments IS EMPTY)";
         final Query query = createQuery(queryStr);
         query.setParameter("isTemplate", true);
-        query.setParameter("isFinal", false); // Only non final Kups should be
-                                              // upgraded
-        query.setParameter("status", kupStatus);
-
-        // Code below will be applied only to non-final Kup's templates.
+        query.setParameter("isFinal", false);
         @SuppressWarnings("unchecked")
         final List<Kup> kups = query.getResultList();
         for (Kup kup : kups) {
-            // Check Round's games
-            for (TournamentRound round : kup.getBettableRounds()) {
-                for (TournamentGame game : round.getGames()) {
-                    if (!kup.getBettableGames().contains(game)) {
-                        kup.addBettableGame(game);
-                        log.info("Adding game with uuid=" + game.getUUID()
-                                + " to kup with id=" + kup.getId());
-                    }
-                }
-            }
-            // Check Round's stages
-            for (TournamentStage stage : kup.getBettableStages()) {
-                for (TournamentRound round : stage.getRounds()) {
-                    if (!kup.getBettableRounds().contains(round)) {
-                        kup.addBettableRound(round);
-                        log.info("Adding round with uuid=" + round.getUUID()
-                                + " to kup with id=" + kup.getId());
-                    }
-                }
-            }
-            // Check Stage's seasons
-            for (TournamentSeason season : kup.getBettableTournaments()) {
-                for (TournamentStage stage : season.getStages()) {
-                    if (!kup.getBettableStages().contains(stage)) {
-                        kup.addBettableStage(stage);
-                        log.info("Adding stage with uuid=" + stage.getUUID()
-                                + " to kup with id=" + kup.getId());
-                    }
+            kup.getSport();
+        }
+        em.flush();
+
+        if (full) {
+            // Safety net: records the elements the database did not (e.g.
+            // added before the triggers got created).
+            final Date now = new Date();
+            for (String[] element : TEMPLATE_ELEMENTS) {
+                final Query record = em.createNativeQuery("INSERT INTO"
+                        + " kups_templates_changes"
+                        + " (id, template_id, type, element_id, created)"
+                        + " SELECT nextval('hibernate_sequence'), j.kup_id,"
+                        + " :type, j." + element[2] + ", :now FROM "
+                        + element[1] + " j, kups t WHERE t.id = j.kup_id"
+                        + " AND t.is_template = true AND NOT EXISTS"
+                        + " (SELECT 1 FROM kups_templates_changes c"
+                        + " WHERE c.template_id = j.kup_id"
+                        + " AND c.type = :type AND c.element_id = j."
+                        + element[2] + ")");
+                record.setParameter("type", element[0]);
+                record.setParameter("now", now);
+                final int count = record.executeUpdate();
+                if (count > 0) {
+                    log.warn("Recorded " + count + " " + element[0]
+                            + "(s) missing from the template change log");
                 }
             }
-            // Update start / end date (depends on events)
-            kup.setStartDate(kup.getEffectiveStartDate());
-            kup.setEndDate(kup.getEffectiveEndDate());
-            // Update Kup search indexes.
-            kup.setNbParticipants(kup.getParticipants().size());
-            // Update Kup duration search index
-            kup.setDuration(kup.computeDuration());
-            // Set Sports if not set
-            // Lazy init.
-            kup.getSport();
+        }
+
+        final Query mark = em.createNativeQuery("UPDATE kups t"
+                + " SET template_change = :next WHERE " + pendingTemplates);
+        mark.setParameter("next", next);
+        mark.executeUpdate();
+
+        // Start / end dates and duration of the templates getting new sport
+        // events (depend on events)
+        final Query stale = em.createNativeQuery("UPDATE kups"
+                + " SET event_dates_computed = false"
+                + " WHERE status IN (" + PENDING_STATUS + ")"
+                + " AND id IN (SELECT c.template_id"
+                + " FROM kups_templates_changes c WHERE c.id > :since"
+                + " AND c.type IN (" + EVENT_CHANGES + "))");
+        stale.setParameter("since", since);
+        if (stale.executeUpdate() > 0) {
+            refreshEventDates();
         }
 
     }
@@ -1172,67 +1740,115 @@ public class KupServiceImpl implements KupService {
     @Override
     public int countCorrectPredictionsFor(Kup kup, Member member)
             throws CoreException {
-        int nb = 0;
-        for (Prediction p : predictions.getPredictionsFor(kup, member)) {
-            if (p.getPoints() > 0) {
-                nb += 1;
-            }
-        }
+        final String queryStr = "select count(p) from "
+                + PredictionImpl.class.getSimpleName()
+                + " p where p.kup.id=:kup_id and p.member.id=:member_id"
+                + " and p.points > 0";
+        final Query query = createQuery(queryStr);
+        query.setParameter("kup_id", kup.getId());
+        query.setParameter("member_id", member.getId());
+        final int nb = ((Number) query.getSingleResult()).intValue();
         // Lazy update
-        MemberRankingTableEntry entry = kup.getRankingTable()
-                .getEntryForMember(member);
+        MemberRankingTableEntry entry = rankings.getEntryFor(kup
+                .getRankingTable().getId(), member.getId());
         if (entry != null
                 && (entry.getCorrectPredictions() == null || entry
                         .getCorrectPredictions() != nb)) {
             entry.setCorrectPredictions(nb);
+            kup.getRankingTable().updateEntry(entry);
         }
         return nb;
     }
 
-    @Override
-    public KupRankingTable getKupRanking(Kup kup, int offset, int batchSize)
-            throws CoreException {
-        return kup.getRankingTable();
-    }
-
     @Override
     public Date getFirstPredictionDateFor(Member member, Kup kup)
             throws CoreException {
-        Date earliest = null;
-        for (Prediction p : predictions.getPredictionsFor(kup, member)) {
-            if (earliest == null) {
-                earliest = p.getCreated();
-            } else if (p.getCreated().compareTo(earliest) < 0) {
-                earliest = p.getCreated();
-            }
-        }
+        final String queryStr = "select min(p.created) from "
+                + PredictionImpl.class.getSimpleName()
+                + " p where p.kup.id=:kup_id and p.member.id=:member_id";
+        final Query query = createQuery(queryStr);
+        query.setParameter("kup_id", kup.getId());
+        query.setParameter("member_id", member.getId());
+        final Date earliest = (Date) query.getSingleResult();
         // Lazy update
-        MemberRankingTableEntry entry = kup.getRankingTable()
-                .getEntryForMember(member);
+        MemberRankingTableEntry entry = rankings.getEntryFor(kup
+                .getRankingTable().getId(), member.getId());
         if (entry != null && entry.getFirstPredictions() != null
                 && earliest != null) {
             entry.setFirstPredictions(earliest);
+            kup.getRankingTable().updateEntry(entry);
         }
         return earliest;
     }
 
+    /**
+     * Returns an aggregate computed over the predictions of a Kup grouped by
+     * member.
+     * 
+     * @param kup: a {@link Kup} instance
+     * @param aggregate: JPQL aggregate expression over prediction <code>p</code>
+     * @param restriction: additional JPQL restriction or an empty string.
+     * @return a {@link Map} from member id to the aggregate value.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, Object> getPredictionsAggregateByMember(Kup kup,
+            String aggregate, String restriction) {
+        final String queryStr = "select p.member.id, " + aggregate + " from "
+                + PredictionImpl.class.getSimpleName()
+                + " p where p.kup.id=:kup_id" + restriction
+                + " group by p.member.id";
+        final Query query = createQuery(queryStr);
+        query.setParameter("kup_id", kup.getId());
+        Map<Long, Object> values = new HashMap<Long, Object>();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            values.put(((Number) row[0]).longValue(), row[1]);
+        }
+        return values;
+    }
+
     @Override
     public void updateKupStats(Kup kup) throws CoreException {
         if (kup == null) {
             return;
         }
-        log.info("Updating statistics of Kup w/ uuid=" + kup.getId());
+        log.info("Reconciling statistics of Kup w/ uuid=" + kup.getId());
+
+        // Correct and first predictions are maintained incrementally while
+        // creating and scoring predictions. This only fixes entries that
+        // drifted using two aggregate queries per Kup.
+        final Map<Long, Object> corrects = getPredictionsAggregateByMember(
+                kup, "count(p)", " and p.points > 0");
+        final Map<Long, Object> firsts = getPredictionsAggregateByMember(kup,
+                "min(p.created)", "");
+
+        int fixed = 0;
         KupRankingTable table = kup.getRankingTable();
-        for (Iterator<MemberRankingTableEntry> i = table.getEntries()
-                .iterator(); i.hasNext();) {
-            MemberRankingTableEntry entry = i.next();
-            entry.setCorrectPredictions(countCorrectPredictionsFor(kup,
-                    entry.getMember()));
+        for (MemberRankingTableEntry entry : table.getEntries()) {
+            final long memberId = entry.getMember().getId();
+            final Number correct = (Number) corrects.get(memberId);
+            final int nb = correct != null ? correct.intValue() : 0;
+            boolean drifted = false;
+            if (entry.getCorrectPredictions() == null
+                    || entry.getCorrectPredictions() != nb) {
+                entry.setCorrectPredictions(nb);
+                drifted = true;
+            }
             if (entry.getFirstPredictions() == null) {
-                entry.setFirstPredictions(getFirstPredictionDateFor(
-                        entry.getMember(), kup));
+                final Date first = (Date) firsts.get(memberId);
+                if (first != null) {
+                    entry.setFirstPredictions(first);
+                    drifted = true;
+                }
+            }
+            if (drifted) {
+                table.updateEntry(entry);
+                fixed++;
             }
         }
+        if (fixed > 0) {
+            log.warn("Fixed statistics of " + String.valueOf(fixed)
+                    + " entries of Kup w/ uuid=" + kup.getId());
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * Kup Template Change.
+ * 
+ * <p>
+ * 
+ * Change log record: a bettable element (game, round, stage, season,
+ * question, tiebreaker question or tournament) has been added to a Kup
+ * template. Records are written by database triggers as elements get added
+ * to templates (see {@link org.sofun.core.CoreSchema}) and read with plain SQL
+ * by {@link KupServiceImpl}: identifiers are increasing so that Kups derived
+ * from a template only apply the changes above the last one they applied (see
+ * {@link KupImpl#getTemplateChange()}).
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Entity
+@Table(
+        name = "kups_templates_changes",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "template_id",
+                "type", "element_id" }))
+public class KupTemplateChangeImpl implements Serializable {
+
+    private static final long serialVersionUID = 5327019423652784311L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", nullable = false)
+    protected long id;
+
+    @Column(name = "template_id", nullable = false)
+    protected long templateId;
+
+    @Column(name = "type", nullable = false)
+    protected String type;
+
+    @Column(name = "element_id", nullable = false)
+    protected long elementId;
+
+    @Column(name = "created", nullable = false)
+    protected Date created;
+
+    public KupTemplateChangeImpl() {
+        super();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getTemplateId() {
+        return templateId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getElementId() {
+        return elementId;
+    }
+
+    public Date getCreated() {
+        if (created == null) {
+            return null;
+        }
+        return (Date) created.clone();
+    }
+
+}
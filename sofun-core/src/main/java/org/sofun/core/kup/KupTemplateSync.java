@@ -14,6 +14,8 @@
 
 package org.sofun.core.kup;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import javax.ejb.ConcurrencyManagement;
 import javax.ejb.ConcurrencyManagementType;
 import javax.ejb.EJB;
@@ -28,6 +30,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.sofun.core.api.exception.CoreException;
 import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.local.ClusterCoordinatorLocal;
 import org.sofun.core.api.local.KupServiceLocal;
 import org.sofun.core.api.local.KupTemplateSyncLocal;
 
@@ -38,6 +41,23 @@ import org.sofun.core.api.local.KupTemplateSyncLocal;
  * 
  * Trigger the sync of Kups with their respective templates.
  * 
+ * <p>
+ * 
+ * Elements added to templates get recorded in a change log. Each Kup keeps
+ * the latest change it got synced with: only the Kups lagging behind their
+ * template are synced, whichever node ran the previous sync. A run without
+ * changes costs a couple of queries.
+ * 
+ * <p>
+ * 
+ * Templates content only gets the sport events created or recorded since the
+ * previous sync. Sport events committed by a transaction running across a
+ * sync may be missed: a full sync runs once a day as a safety net.
+ * 
+ * <p>
+ * 
+ * Both syncs run on a single node of the cluster at a time.
+ * 
  * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
  * 
  */
@@ -50,44 +70,76 @@ public class KupTemplateSync implements KupTemplateSyncLocal {
 
     private static final Log log = LogFactory.getLog(KupTemplateSync.class);
 
+    private static final String LEASE_FROM_TEMPLATE = "kup.sync.from.template";
+
+    private static final String LEASE_TEMPLATES = "kup.sync.templates";
+
     @EJB(beanName = "KupServiceImpl", beanInterface = KupServiceLocal.class)
     private KupService kups;
 
+    @EJB(beanName = "ClusterCoordinator", beanInterface = ClusterCoordinatorLocal.class)
+    private ClusterCoordinatorLocal cluster;
+
     /* Processing lock for sync from templates */
-    private boolean LOCK_FROM_TEMPLATE = false;
+    private final AtomicBoolean LOCK_FROM_TEMPLATE = new AtomicBoolean(false);
 
     /* Processing lock for template's sync */
-    private boolean LOCK_TEMPLATES = false;
+    private final AtomicBoolean LOCK_TEMPLATES = new AtomicBoolean(false);
 
     @Override
     @Schedule(minute = "*/15", hour = "*", persistent = false)
     public void syncKupsWithTemplate() {
-        if (LOCK_FROM_TEMPLATE) {
+        if (!LOCK_FROM_TEMPLATE.compareAndSet(false, true)) {
             return;
         }
+        boolean leased = false;
         try {
-            LOCK_FROM_TEMPLATE = true;
+            if (!cluster.acquire(LEASE_FROM_TEMPLATE)) {
+                return;
+            }
+            leased = true;
             kups.syncKupsWithTemplate();
         } catch (CoreException e) {
             log.error(e.getMessage());
         } finally {
-            LOCK_FROM_TEMPLATE = false;
+            if (leased) {
+                // Runs less often than the lease lives.
+                cluster.release(LEASE_FROM_TEMPLATE);
+            }
+            LOCK_FROM_TEMPLATE.set(false);
         }
     }
 
     @Override
     @Schedule(minute = "*/15", hour = "*", persistent = false)
     public void syncKupTemplates() {
-        if (LOCK_TEMPLATES) {
+        syncKupTemplates(false);
+    }
+
+    @Override
+    @Schedule(minute = "50", hour = "4", persistent = false)
+    public void resyncKupTemplates() {
+        syncKupTemplates(true);
+    }
+
+    private void syncKupTemplates(boolean full) {
+        if (!LOCK_TEMPLATES.compareAndSet(false, true)) {
             return;
         }
+        boolean leased = false;
         try {
-            LOCK_TEMPLATES = true;
-            kups.syncTemplates();
+            if (!cluster.acquire(LEASE_TEMPLATES)) {
+                return;
+            }
+            leased = true;
+            kups.syncTemplates(full);
         } catch (CoreException e) {
             log.error(e.getMessage());
         } finally {
-            LOCK_TEMPLATES = false;
+            if (leased) {
+                cluster.release(LEASE_TEMPLATES);
+            }
+            LOCK_TEMPLATES.set(false);
         }
     }
 
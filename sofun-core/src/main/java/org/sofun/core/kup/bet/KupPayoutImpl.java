@@ -0,0 +1,151 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.bet;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * Kup Payout.
+ * 
+ * <p>
+ * 
+ * Payout journal record: an amount owed to a member for a given Kup, either
+ * winnings or the refund of the stake of a cancelled Kup. The (kup, member,
+ * type) triplet is the idempotency key of the payout: a member can never be
+ * credited twice for the same reason.
+ * 
+ * <p>
+ * 
+ * Records are written when the Kup is settled or cancelled and applied later
+ * on by the {@link KupSettlementEngine}. A record gets applied in the same
+ * transaction as the member credit transaction it leads to.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Entity
+@Table(
+        name = "kups_payouts",
+        uniqueConstraints = @UniqueConstraint(columnNames = { "kup_id",
+                "member_id", "type" }))
+public class KupPayoutImpl implements Serializable {
+
+    private static final long serialVersionUID = -3716409216830125412L;
+
+    /** Winnings of a paid out Kup */
+    public static final String TYPE_WINNINGS = "WINNINGS";
+
+    /** Stake refund of a cancelled Kup */
+    public static final String TYPE_REFUND = "REFUND";
+
+    /** Payout not applied yet */
+    public static final byte PENDING = 0;
+
+    /** Member has been credited */
+    public static final byte APPLIED = 1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", nullable = false)
+    protected long id;
+
+    @Column(name = "kup_id", nullable = false)
+    protected long kupId;
+
+    @Column(name = "member_id", nullable = false)
+    protected long memberId;
+
+    @Column(name = "type", nullable = false)
+    protected String type;
+
+    @Column(name = "position", nullable = false)
+    protected int position;
+
+    @Column(name = "amount", nullable = false)
+    protected float amount;
+
+    @Column(name = "currency", nullable = false)
+    protected String currency;
+
+    @Column(name = "status", nullable = false)
+    protected byte status = PENDING;
+
+    @Column(name = "transaction_id")
+    protected Long transactionId;
+
+    @Column(name = "created", nullable = false)
+    protected Date created;
+
+    @Column(name = "applied")
+    protected Date applied;
+
+    public KupPayoutImpl() {
+        super();
+    }
+
+    public KupPayoutImpl(long kupId, long memberId, String type,
+            int position, float amount, String currency, Date created) {
+        this();
+        this.kupId = kupId;
+        this.memberId = memberId;
+        this.type = type;
+        this.position = position;
+        this.amount = amount;
+        this.currency = currency;
+        this.created = (Date) created.clone();
+    }
+
+    public long getKupId() {
+        return kupId;
+    }
+
+    public long getMemberId() {
+        return memberId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public float getAmount() {
+        return amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public byte getStatus() {
+        return status;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+}
@@ -0,0 +1,525 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.bet;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.annotation.Resource;
+import javax.ejb.AsyncResult;
+import javax.ejb.Asynchronous;
+import javax.ejb.EJB;
+import javax.ejb.Local;
+import javax.ejb.SessionContext;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.Configuration;
+import org.sofun.core.CoreConstants;
+import org.sofun.core.api.banking.SofunTransaction;
+import org.sofun.core.api.banking.SofunTransactionType;
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
+import org.sofun.core.api.community.table.MemberRankingTableService;
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.kup.KupStatus;
+import org.sofun.core.api.local.KupServiceLocal;
+import org.sofun.core.api.local.KupSettlementEngineLocal;
+import org.sofun.core.api.local.MemberRankingTableServiceLocal;
+import org.sofun.core.api.member.Member;
+import org.sofun.core.api.member.MemberTransactionStatus;
+import org.sofun.core.api.member.MemberTransactionType;
+import org.sofun.core.banking.SofunTransactionImpl;
+import org.sofun.core.community.table.MemberRankingTableServiceImpl;
+import org.sofun.core.kup.KupImpl;
+
+/**
+ * Kup Settlement Engine.
+ * 
+ * <p>
+ * 
+ * Pays out settled gambling Kups and refunds cancelled ones. Each Kup is
+ * processed asynchronously and independently (bounded by the
+ * <code>settlement.partitions.max</code> property): a failing Kup does not
+ * hold back the other ones.
+ * 
+ * <p>
+ * 
+ * Processing a Kup happens in 3 steps, each one within its own transaction:
+ * 
+ * <ul>
+ * <li>the payouts are computed and written to the payout journal (see
+ * {@link KupPayoutImpl}). Refunds are journaled by
+ * {@link KupService#cancelKup(Kup)} the same way.</li>
+ * <li>pending payouts are applied by batches of
+ * <code>settlement.batch.size</code>: member transactions, bets and credits
+ * are inserted and updated with a handful of statements and the journal
+ * records are marked as applied within the same transaction.</li>
+ * <li>the Kup is marked as paid out once no payouts are pending.</li>
+ * </ul>
+ * 
+ * A crash in the middle of a payout leaves the journal consistent with the
+ * member credits: the next run carries on with the pending payouts only.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Stateless
+@Local(KupSettlementEngineLocal.class)
+public class KupSettlementEngine implements KupSettlementEngineLocal {
+
+    private static final Log log = LogFactory.getLog(KupSettlementEngine.class);
+
+    /* Property holding the maximum amount of Kups settled at once. */
+    public static final String PROP_MAX_PARTITIONS = "settlement.partitions.max";
+
+    public static final int DEFAULT_MAX_PARTITIONS = 4;
+
+    /* Property holding the amount of payouts applied per transaction. */
+    public static final String PROP_BATCH_SIZE = "settlement.batch.size";
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    @EJB(beanName = "KupServiceImpl", beanInterface = KupServiceLocal.class)
+    private KupService kups;
+
+    @EJB(beanName = "MemberRankingTableServiceImpl", beanInterface = MemberRankingTableServiceLocal.class)
+    private MemberRankingTableService rankings;
+
+    @PersistenceContext(unitName = CoreConstants.PERSISTENCE_UNIT)
+    protected transient EntityManager em;
+
+    @Resource
+    protected transient SessionContext context;
+
+    public KupSettlementEngine() {
+        super();
+    }
+
+    public KupSettlementEngine(EntityManager em, KupService kups) {
+        this();
+        this.em = em;
+        this.kups = kups;
+        this.rankings = new MemberRankingTableServiceImpl(em);
+    }
+
+    private static int getIntProperty(String name, int defaultValue) {
+        final String value = Configuration.getProperties().getProperty(name);
+        if (value != null) {
+            try {
+                final int i = Integer.valueOf(value.trim());
+                if (i > 0) {
+                    return i;
+                }
+            } catch (NumberFormatException e) {
+                log.error("Invalid value for " + name + ": " + value);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns the winnings of each winner rounded down to the inferior cent as
+     * specified in rules.
+     * 
+     * @param jackpot: the effective jackpot of the Kup.
+     * @param repartition: the winnings repartition rules (percentage per
+     *        position starting at 1)
+     * @return an array of amounts indexed by position - 1.
+     */
+    public static float[] getWinnings(float jackpot,
+            Map<Integer, Float> repartition) {
+        final float[] winnings = new float[repartition.size()];
+        for (int i = 0; i < winnings.length; i++) {
+            final float amount = jackpot * repartition.get(i + 1) / 100;
+            BigDecimal wiredAmount = new BigDecimal(amount);
+            wiredAmount = wiredAmount.setScale(2, BigDecimal.ROUND_HALF_DOWN);
+            winnings[i] = wiredAmount.floatValue();
+        }
+        return winnings;
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public int settle(List<Long> kupIds) throws CoreException {
+
+        final int maxPartitions = getIntProperty(PROP_MAX_PARTITIONS,
+                DEFAULT_MAX_PARTITIONS);
+
+        // Going through the business object for the container to handle the
+        // asynchronous invocation.
+        final KupSettlementEngineLocal self = context
+                .getBusinessObject(KupSettlementEngineLocal.class);
+
+        int settled = 0;
+        Map<Long, Future<Boolean>> running = new LinkedHashMap<Long, Future<Boolean>>();
+        Iterator<Long> it = kupIds.iterator();
+        while (it.hasNext()) {
+            final Long kupId = it.next();
+            running.put(kupId, self.settleKup(kupId));
+            if (running.size() >= maxPartitions || !it.hasNext()) {
+                settled += waitFor(running);
+                running.clear();
+            }
+        }
+
+        return settled;
+
+    }
+
+    /**
+     * Waits for running Kups to complete.
+     * 
+     * @param running: {@link Future} results indexed by Kup id.
+     * @return the amount of Kups completely processed.
+     */
+    private int waitFor(Map<Long, Future<Boolean>> running) {
+        int settled = 0;
+        for (Map.Entry<Long, Future<Boolean>> each : running.entrySet()) {
+            try {
+                if (each.getValue().get()) {
+                    settled++;
+                }
+            } catch (ExecutionException e) {
+                // Only this Kup is left behind. Applied payouts are journaled.
+                final Throwable cause = e.getCause() != null ? e.getCause()
+                        : e;
+                log.error("Settlement failed for kup w/ uuid=" + each.getKey()
+                        + ": " + cause.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while settling kup w/ uuid="
+                        + each.getKey());
+            }
+        }
+        return settled;
+    }
+
+    @Override
+    @Asynchronous
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public Future<Boolean> settleKup(long kupId) throws CoreException {
+
+        final KupSettlementEngineLocal self = context
+                .getBusinessObject(KupSettlementEngineLocal.class);
+
+        self.journalPayouts(kupId);
+
+        final int batchSize = getIntProperty(PROP_BATCH_SIZE,
+                DEFAULT_BATCH_SIZE);
+        int total = 0;
+        int applied;
+        do {
+            applied = self.applyPayouts(kupId, batchSize);
+            total += applied;
+        } while (applied > 0);
+        if (total > 0) {
+            log.info(String.valueOf(total) + " payouts applied for kup w/ uuid="
+                    + kupId);
+        }
+
+        return new AsyncResult<Boolean>(self.complete(kupId));
+
+    }
+
+    /**
+     * Has the Kup payouts been journaled already?
+     * 
+     * @param kupId: the Kup identifier.
+     * @return true if at least one payout exists.
+     */
+    private boolean hasPayouts(long kupId) {
+        final Query query = em.createQuery("select count(p) from "
+                + KupPayoutImpl.class.getSimpleName()
+                + " p where p.kupId = :kupId");
+        query.setParameter("kupId", kupId);
+        return ((Number) query.getSingleResult()).longValue() > 0;
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public boolean journalPayouts(long kupId) throws CoreException {
+
+        // Serialize settlements of this Kup (till commit)
+        final Kup kup = em.find(KupImpl.class, kupId,
+                LockModeType.PESSIMISTIC_WRITE);
+        if (kup == null) {
+            log.error("Kup with uuid=" + kupId + " cannot be found.");
+            return false;
+        }
+        if (kup.getStatus() != KupStatus.SETTLED || hasPayouts(kupId)) {
+            return false;
+        }
+        // Normally folded when closed.
+        kups.foldCounters(kup);
+
+        Map<Integer, Float> repartition = kups
+                .getWinningsRepartitionRulesFor(kup);
+        final int numberOfWinners = repartition.size();
+
+        if (kup.getNbParticipants() < numberOfWinners) {
+            kups.cancelKup(kup);
+            log.info("Kup with id=" + String.valueOf(kup.getId())
+                    + " has been cancelled because participants are "
+                    + "below the amount of winners.");
+            return true;
+        }
+
+        // Cancel if winnings < bet for one of the winners.
+        for (int i = 0; i < numberOfWinners - 1; i++) {
+            final float jackpot = kup.getEffectiveJackpot();
+            final float amount = jackpot * repartition.get(i + 1) / 100;
+            if (kup.getStake() > amount) {
+                kups.cancelKup(kup);
+                log.info("Kup with id=" + String.valueOf(kup.getId())
+                        + " has been cancelled because the winnings are "
+                        + "below the stake for some of the winners.");
+                return true;
+            }
+        }
+
+        // Winners are checked before anything gets written. Only their
+        // entries are loaded.
+        final List<MemberRankingTableEntry> entries = rankings.getEntries(kup
+                .getRankingTable().getId(), 0, numberOfWinners);
+        if (entries.size() < numberOfWinners) {
+            throw new CoreException("Ranking table of kup w/ uuid=" + kupId
+                    + " has " + String.valueOf(entries.size())
+                    + " entries for " + String.valueOf(numberOfWinners)
+                    + " winners.");
+        }
+
+        final Date now = new Date();
+
+        if (kup.getJackpot() < kup.getGuaranteedPrice()) {
+            final float house = kup.getGuaranteedPrice() - kup.getJackpot();
+            final BigDecimal houseAmount = new BigDecimal(house);
+            houseAmount.setScale(2, BigDecimal.ROUND_HALF_UP);
+            SofunTransaction txn = new SofunTransactionImpl(kup, now,
+                    houseAmount.floatValue(), kup.getStakeCurrency(),
+                    SofunTransactionType.TXN_GUARANTEED_PRICE,
+                    SofunTransactionType.TXN_GUARANTEED_PRICE);
+            txn.setDebit(true);
+            em.persist(txn);
+            log.info("SOFUN TXN for kup w/ uuid=" + txn.getKup().getId()
+                    + " type=" + txn.getType() + " amount="
+                    + houseAmount.floatValue());
+        } else {
+            final float rake = kup.getRakeAmount();
+            if (rake > 0) {
+                final BigDecimal rakeAmount = new BigDecimal(rake);
+                rakeAmount.setScale(2, BigDecimal.ROUND_HALF_UP);
+                SofunTransaction txn = new SofunTransactionImpl(kup, now,
+                        rakeAmount.floatValue(), kup.getStakeCurrency(),
+                        SofunTransactionType.TXN_RACK,
+                        SofunTransactionType.TXN_RACK);
+                txn.setCredit(true);
+                em.persist(txn);
+                log.info("SOFUN TXN for kup w/ uuid=" + txn.getKup().getId()
+                        + " type=" + txn.getType() + " amount="
+                        + rakeAmount.floatValue());
+            }
+        }
+
+        final float[] winnings = getWinnings(kup.getEffectiveJackpot(),
+                repartition);
+        int i = 0;
+        for (MemberRankingTableEntry entry : entries) {
+            final Member member = entry.getMember();
+            em.persist(new KupPayoutImpl(kup.getId(), member.getId(),
+                    KupPayoutImpl.TYPE_WINNINGS, i + 1, winnings[i], kup
+                            .getStakeCurrency(), now));
+            log.info("Member with email=" + member.getEmail() + " finished "
+                    + String.valueOf(i + 1) + " out of "
+                    + kup.getNbParticipants() + " in kup w/ uuid="
+                    + kup.getId() + " with winnings of: " + winnings[i]);
+            i++;
+        }
+
+        return true;
+
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public int applyPayouts(long kupId, int max) throws CoreException {
+
+        // Claim a batch of pending payouts: member transaction ids are
+        // assigned up front and link the statements below. The conditions
+        // are checked again on the claimed rows: a concurrent batch waited
+        // for skips the rows it claimed instead of claiming them twice.
+        final Query claim = em
+                .createNativeQuery("UPDATE kups_payouts"
+                        + " SET transaction_id = nextval('hibernate_sequence')"
+                        + " WHERE id IN (SELECT id FROM kups_payouts"
+                        + " WHERE kup_id = :kup_id AND status = :pending"
+                        + " AND transaction_id IS NULL ORDER BY id LIMIT :max)"
+                        + " AND status = :pending AND transaction_id IS NULL");
+        claim.setParameter("kup_id", kupId);
+        claim.setParameter("pending", KupPayoutImpl.PENDING);
+        claim.setParameter("max", max);
+        final int claimed = claim.executeUpdate();
+        if (claimed == 0) {
+            return 0;
+        }
+
+        final Date now = new Date();
+        final String batch = " FROM kups_payouts p, members m, members_credit c"
+                + " WHERE p.kup_id = :kup_id AND p.status = :pending"
+                + " AND p.transaction_id IS NOT NULL"
+                + " AND m.id = p.member_id AND c.id = m.credit_id";
+        final String recorded = " AND EXISTS (SELECT 1 FROM"
+                + " members_credit_transactions t"
+                + " WHERE t.id = p.transaction_id)";
+
+        // Credits are always locked in the same order to prevent deadlocks
+        // between Kups sharing members.
+        final Query lock = em.createNativeQuery("SELECT c.id" + batch
+                + " ORDER BY c.id FOR UPDATE OF c");
+        lock.setParameter("kup_id", kupId);
+        lock.setParameter("pending", KupPayoutImpl.PENDING);
+        lock.getResultList();
+
+        final Query txns = em
+                .createNativeQuery("INSERT INTO members_credit_transactions"
+                        + " (id, txn_id, txn_auth, txn_status, txn_status_code,"
+                        + " txn_date, txn_amount, member_credit_before,"
+                        + " member_credit_after, txn_currency, txn_credit,"
+                        + " txn_debit, txn_type, txn_bonus, label, member_id, ack)"
+                        + " SELECT p.transaction_id, '0', '0', :status, '00000',"
+                        + " :now, p.amount, c.credit, c.credit + p.amount,"
+                        + " p.currency, true, false, :type, false, :type,"
+                        + " p.member_id, false" + batch);
+        txns.setParameter("status", MemberTransactionStatus.INTERNAL);
+        txns.setParameter("type", MemberTransactionType.BET_CREDIT);
+        txns.setParameter("now", now);
+        txns.setParameter("kup_id", kupId);
+        txns.setParameter("pending", KupPayoutImpl.PENDING);
+        txns.executeUpdate();
+
+        // Only winnings are recorded as bets.
+        final Query bets = em
+                .createNativeQuery("INSERT INTO kups_members_bets"
+                        + " (id, effective_date, kup_id, transaction_id, member_id)"
+                        + " SELECT nextval('hibernate_sequence'), :now, p.kup_id,"
+                        + " p.transaction_id, p.member_id FROM kups_payouts p"
+                        + " WHERE p.kup_id = :kup_id AND p.status = :pending"
+                        + " AND p.type = :winnings" + recorded);
+        bets.setParameter("now", now);
+        bets.setParameter("kup_id", kupId);
+        bets.setParameter("pending", KupPayoutImpl.PENDING);
+        bets.setParameter("winnings", KupPayoutImpl.TYPE_WINNINGS);
+        bets.executeUpdate();
+
+        final Query credits = em
+                .createNativeQuery("UPDATE members_credit"
+                        + " SET credit = members_credit.credit + p.amount"
+                        + " FROM kups_payouts p, members m"
+                        + " WHERE p.kup_id = :kup_id AND p.status = :pending"
+                        + " AND m.id = p.member_id"
+                        + " AND m.credit_id = members_credit.id" + recorded);
+        credits.setParameter("kup_id", kupId);
+        credits.setParameter("pending", KupPayoutImpl.PENDING);
+        credits.executeUpdate();
+
+        final Query journal = em.createNativeQuery("UPDATE kups_payouts p"
+                + " SET status = :applied, applied = :now"
+                + " WHERE p.kup_id = :kup_id AND p.status = :pending"
+                + recorded);
+        journal.setParameter("applied", KupPayoutImpl.APPLIED);
+        journal.setParameter("now", now);
+        journal.setParameter("kup_id", kupId);
+        journal.setParameter("pending", KupPayoutImpl.PENDING);
+        final int applied = journal.executeUpdate();
+
+        if (applied < claimed) {
+            // Left pending for manual handling.
+            log.error(String.valueOf(claimed - applied) + " payouts of kup"
+                    + " w/ uuid=" + kupId + " reference members without"
+                    + " credit and cannot be applied.");
+        }
+
+        return claimed;
+
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public boolean complete(long kupId) throws CoreException {
+
+        final Kup kup = em.find(KupImpl.class, kupId,
+                LockModeType.PESSIMISTIC_WRITE);
+        if (kup == null) {
+            return false;
+        }
+
+        final Query query = em.createQuery("select count(p) from "
+                + KupPayoutImpl.class.getSimpleName()
+                + " p where p.kupId = :kupId and p.status = :pending");
+        query.setParameter("kupId", kupId);
+        query.setParameter("pending", KupPayoutImpl.PENDING);
+        final long pending = ((Number) query.getSingleResult()).longValue();
+        if (pending > 0) {
+            return false;
+        }
+
+        if (kup.getStatus() == KupStatus.SETTLED && hasPayouts(kupId)) {
+            final Query winnings = em
+                    .createNativeQuery("UPDATE members_ranking_tables_entries"
+                            + " SET winnings = p.amount FROM kups_payouts p"
+                            + " WHERE p.kup_id = :kup_id AND p.type = :winnings"
+                            + " AND members_ranking_tables_entries.table_id = :table_id"
+                            + " AND members_ranking_tables_entries.member_id = p.member_id");
+            winnings.setParameter("kup_id", kupId);
+            winnings.setParameter("winnings", KupPayoutImpl.TYPE_WINNINGS);
+            winnings.setParameter("table_id", kup.getRankingTable().getId());
+            winnings.executeUpdate();
+
+            log.info("Kup with id=" + String.valueOf(kup.getId())
+                    + " has now status=" + KupStatus.PAID_OUT);
+            kup.setStatus(KupStatus.PAID_OUT);
+        }
+
+        return true;
+
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> getPendingKups() {
+        // Payouts claimed by a batch that could not be applied are excluded:
+        // they are left for manual handling.
+        final Query query = em.createQuery("select distinct p.kupId from "
+                + KupPayoutImpl.class.getSimpleName()
+                + " p where p.status = :pending and p.transactionId is null");
+        query.setParameter("pending", KupPayoutImpl.PENDING);
+        return query.getResultList();
+    }
+
+}
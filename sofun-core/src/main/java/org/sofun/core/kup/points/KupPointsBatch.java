@@ -0,0 +1,169 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.prediction.tournament.PredictionGame;
+import org.sofun.core.api.prediction.tournament.PredictionRound;
+import org.sofun.core.api.prediction.tournament.PredictionSeason;
+import org.sofun.core.api.prediction.tournament.PredictionStage;
+
+/**
+ * Kup Points Batch.
+ * 
+ * <p>
+ * 
+ * Group of predictions awaiting points computation and sharing the same
+ * tournament event (game, round, stage or season) and the same {@link Kup}.
+ * The event result and the Kup ranking table are resolved once per batch
+ * rather than once per prediction.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class KupPointsBatch {
+
+    private final String eventKey;
+
+    private final Kup kup;
+
+    private final List<Prediction> predictions = new ArrayList<Prediction>();
+
+    public KupPointsBatch(String eventKey, Kup kup) {
+        this.eventKey = eventKey;
+        this.kup = kup;
+    }
+
+    public String getEventKey() {
+        return eventKey;
+    }
+
+    public Kup getKup() {
+        return kup;
+    }
+
+    public List<Prediction> getPredictions() {
+        return predictions;
+    }
+
+    public void addPrediction(Prediction prediction) {
+        predictions.add(prediction);
+    }
+
+    public int size() {
+        return predictions.size();
+    }
+
+    /**
+     * Returns the key of the tournament event a prediction applies to.
+     * 
+     * @param prediction: a {@link Prediction} instance.
+     * @return a {@link String} such as "game:1234" or "unknown:" + prediction
+     *         id if the event cannot be resolved.
+     */
+    public static String getEventKeyFor(Prediction prediction) {
+        if (prediction instanceof PredictionGame
+                && ((PredictionGame) prediction).getTournamentGame() != null) {
+            return "game:"
+                    + ((PredictionGame) prediction).getTournamentGame()
+                            .getUUID();
+        } else if (prediction instanceof PredictionRound
+                && ((PredictionRound) prediction).getTournamentRound() != null) {
+            return "round:"
+                    + ((PredictionRound) prediction).getTournamentRound()
+                            .getUUID();
+        } else if (prediction instanceof PredictionStage
+                && ((PredictionStage) prediction).getTournamentStage() != null) {
+            return "stage:"
+                    + ((PredictionStage) prediction).getTournamentStage()
+                            .getUUID();
+        } else if (prediction instanceof PredictionSeason
+                && ((PredictionSeason) prediction).getTournamentSeason() != null) {
+            return "season:"
+                    + ((PredictionSeason) prediction).getTournamentSeason()
+                            .getUUID();
+        }
+        return "unknown:" + prediction.getId();
+    }
+
+    /**
+     * Partitions predictions per Kup.
+     * 
+     * <p>
+     * 
+     * Already computed and null predictions are skipped. Only identifiers are
+     * kept so that each partition can be reloaded within its own transaction.
+     * 
+     * @param predictions: a {@link List} of {@link Prediction}
+     * @return a {@link Map} from Kup id to a {@link List} of prediction ids.
+     */
+    public static Map<Long, List<Long>> partitionByKup(
+            List<Prediction> predictions) {
+        Map<Long, List<Long>> partitions = new LinkedHashMap<Long, List<Long>>();
+        for (Prediction prediction : predictions) {
+            if (prediction == null || prediction.isPointsComputed()
+                    || prediction.getKup() == null) {
+                continue;
+            }
+            final long kupId = prediction.getKup().getId();
+            List<Long> partition = partitions.get(kupId);
+            if (partition == null) {
+                partition = new ArrayList<Long>();
+                partitions.put(kupId, partition);
+            }
+            partition.add(prediction.getId());
+        }
+        return partitions;
+    }
+
+    /**
+     * Groups predictions per (event, Kup).
+     * 
+     * <p>
+     * 
+     * Already computed and null predictions are skipped. Batch order follows
+     * the order in which each (event, Kup) pair first shows up.
+     * 
+     * @param predictions: a {@link List} of {@link Prediction}
+     * @return a {@link Collection} of {@link KupPointsBatch}
+     */
+    public static Collection<KupPointsBatch> groupByEventAndKup(
+            List<Prediction> predictions) {
+        Map<String, KupPointsBatch> batches = new LinkedHashMap<String, KupPointsBatch>();
+        for (Prediction prediction : predictions) {
+            if (prediction == null || prediction.isPointsComputed()
+                    || prediction.getKup() == null) {
+                continue;
+            }
+            final String eventKey = getEventKeyFor(prediction);
+            final String key = eventKey + "/" + prediction.getKup().getId();
+            KupPointsBatch batch = batches.get(key);
+            if (batch == null) {
+                batch = new KupPointsBatch(eventKey, prediction.getKup());
+                batches.put(key, batch);
+            }
+            batch.addPrediction(prediction);
+        }
+        return batches.values();
+    }
+
+}
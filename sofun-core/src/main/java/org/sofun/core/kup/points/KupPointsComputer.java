@@ -0,0 +1,518 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.annotation.Resource;
+import javax.ejb.AsyncResult;
+import javax.ejb.Asynchronous;
+import javax.ejb.EJB;
+import javax.ejb.Local;
+import javax.ejb.SessionContext;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.Configuration;
+import org.sofun.core.CoreConstants;
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
+import org.sofun.core.api.community.table.MemberRankingTableService;
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupRankingTable;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.kup.KupType;
+import org.sofun.core.api.local.KupPointsComputerLocal;
+import org.sofun.core.api.local.KupServiceLocal;
+import org.sofun.core.api.local.MemberRankingTableServiceLocal;
+import org.sofun.core.api.local.TeamServiceLocal;
+import org.sofun.core.api.member.Member;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.team.TeamService;
+import org.sofun.core.community.table.MemberRankingTableServiceImpl;
+import org.sofun.core.kup.KupImpl;
+import org.sofun.core.kup.points.outcome.EventOutcomeCache;
+import org.sofun.core.prediction.PredictionImpl;
+import org.sofun.core.team.TeamServiceImpl;
+
+/**
+ * Kup Points Computer.
+ * 
+ * <p>
+ * 
+ * Computes points for a set of pending predictions. Used both by the
+ * {@link KupPointsListener} as soon as a tournament event is terminated and
+ * by the {@link KupPointsTimer} safety net sweep.
+ * 
+ * <p>
+ * 
+ * Pending predictions are partitioned per Kup. Each partition is computed
+ * asynchronously within its own transaction while holding a lock on the Kup
+ * ranking table: Kups are computed in parallel (bounded by the
+ * <code>scoring.partitions.max</code> property) whereas updates of a given
+ * ranking table remain serialized. A failing prediction rolls back its whole
+ * Kup which is picked up again by the next sweep, and the failure is
+ * reported to the caller once the other Kups are computed.
+ * 
+ * <p>
+ * 
+ * Within a partition, predictions are grouped per event. Ranking entries are
+ * updated once per batch and the batch is flushed at once. Only the entries
+ * of the members having predictions are loaded and their positions are
+ * counted by the database (see {@link MemberRankingTableService}).
+ * 
+ * <p>
+ * 
+ * Value changes are propagated as deltas to the ranking tables of the teams
+ * the Kup is registered against. Each batch bumps the Kup ranking table
+ * version and logs the moves of its entries so that clients can fetch
+ * ranking deltas only.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Stateless
+@Local(KupPointsComputerLocal.class)
+public class KupPointsComputer implements KupPointsComputerLocal {
+
+    private static final Log log = LogFactory.getLog(KupPointsComputer.class);
+
+    /* Property holding the maximum amount of Kups computed at once. */
+    public static final String PROP_MAX_PARTITIONS = "scoring.partitions.max";
+
+    public static final int DEFAULT_MAX_PARTITIONS = 4;
+
+    @EJB(beanName = "KupServiceImpl", beanInterface = KupServiceLocal.class)
+    private KupService kups;
+
+    @EJB(beanName = "TeamServiceImpl", beanInterface = TeamServiceLocal.class)
+    private TeamService teams;
+
+    @EJB(beanName = "MemberRankingTableServiceImpl", beanInterface = MemberRankingTableServiceLocal.class)
+    private MemberRankingTableService rankings;
+
+    @PersistenceContext(unitName = CoreConstants.PERSISTENCE_UNIT)
+    protected transient EntityManager em;
+
+    @Resource
+    protected transient SessionContext context;
+
+    public KupPointsComputer() {
+        super();
+    }
+
+    public KupPointsComputer(EntityManager em, KupService kups,
+            SessionContext context) {
+        this();
+        this.em = em;
+        this.kups = kups;
+        this.context = context;
+        this.rankings = new MemberRankingTableServiceImpl(em);
+        this.teams = new TeamServiceImpl(em);
+    }
+
+    /**
+     * Returns the maximum amount of Kup partitions computed at once.
+     * 
+     * @return an int greater than 0.
+     */
+    private int getMaxPartitions() {
+        final String value = Configuration.getProperties().getProperty(
+                PROP_MAX_PARTITIONS);
+        if (value != null) {
+            try {
+                final int max = Integer.valueOf(value.trim());
+                if (max > 0) {
+                    return max;
+                }
+            } catch (NumberFormatException e) {
+                log.error("Invalid value for " + PROP_MAX_PARTITIONS + ": "
+                        + value);
+            }
+        }
+        return DEFAULT_MAX_PARTITIONS;
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public int computePoints(List<Prediction> predictions)
+            throws CoreException {
+
+        final Map<Long, List<Long>> partitions = KupPointsBatch
+                .partitionByKup(predictions);
+        if (partitions.isEmpty()) {
+            return 0;
+        }
+
+        final int maxPartitions = getMaxPartitions();
+        log.info("Predictions partitioned in "
+                + String.valueOf(partitions.size()) + " kups. ("
+                + String.valueOf(maxPartitions) + " computed at once)");
+
+        // Going through the business object for the container to handle the
+        // asynchronous invocation and the new transaction.
+        final KupPointsComputerLocal self = context
+                .getBusinessObject(KupPointsComputerLocal.class);
+
+        int computed = 0;
+        List<Long> failed = new ArrayList<Long>();
+        Map<Long, Future<Integer>> running = new LinkedHashMap<Long, Future<Integer>>();
+        Iterator<Map.Entry<Long, List<Long>>> it = partitions.entrySet()
+                .iterator();
+        while (it.hasNext()) {
+            final Map.Entry<Long, List<Long>> partition = it.next();
+            running.put(partition.getKey(), self.computeKupPoints(
+                    partition.getKey(), partition.getValue()));
+            if (running.size() >= maxPartitions || !it.hasNext()) {
+                computed += waitFor(running, failed);
+                running.clear();
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            throw new CoreException("Points computation failed for kups w/"
+                    + " uuid=" + failed + " (" + String.valueOf(computed)
+                    + " predictions settled within the other kups)");
+        }
+
+        return computed;
+
+    }
+
+    /**
+     * Waits for running partitions to complete.
+     * 
+     * @param running: {@link Future} results indexed by Kup id.
+     * @param failed: collects the ids of the Kups which partition failed.
+     * @return the amount of predictions settled by successful partitions.
+     */
+    private int waitFor(Map<Long, Future<Integer>> running, List<Long> failed) {
+        int computed = 0;
+        for (Map.Entry<Long, Future<Integer>> each : running.entrySet()) {
+            try {
+                computed += each.getValue().get();
+            } catch (ExecutionException e) {
+                // Partition rolled back: only this Kup is left behind.
+                final Throwable cause = e.getCause() != null ? e.getCause()
+                        : e;
+                log.error("Points computation failed for kup w/ uuid="
+                        + each.getKey() + ": " + cause.getMessage(), cause);
+                failed.add(each.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while computing points for kup w/"
+                        + " uuid=" + each.getKey());
+                failed.add(each.getKey());
+            }
+        }
+        return computed;
+    }
+
+    @Override
+    @Asynchronous
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public Future<Integer> computeKupPoints(long kupId,
+            List<Long> predictionIds) throws CoreException {
+        // Event outcomes are shared by the predictions of this Kup only.
+        final boolean opened = EventOutcomeCache.open();
+        try {
+            return new AsyncResult<Integer>(computeKup(kupId, predictionIds));
+        } catch (CoreException e) {
+            // Checked exception: the container would commit the predictions
+            // settled so far without their ranking deltas.
+            context.setRollbackOnly();
+            throw e;
+        } finally {
+            if (opened) {
+                EventOutcomeCache.close();
+            }
+        }
+    }
+
+    /**
+     * Computes the points of the predictions of a single Kup.
+     * 
+     * @param kupId: the Kup identifier.
+     * @param predictionIds: a {@link List} of prediction identifiers.
+     * @return the amount of predictions settled.
+     * @throws CoreException
+     */
+    private int computeKup(long kupId, List<Long> predictionIds)
+            throws CoreException {
+
+        final Kup kup = em.find(KupImpl.class, kupId);
+        if (kup == null) {
+            log.error("Kup with uuid=" + kupId + " cannot be found.");
+            return 0;
+        }
+
+        // Verify the Kup has been moderated.
+        if (!isModerated(kup)) {
+            log.warn("Kup with uuid=" + kup.getId()
+                    + " has not been moderated yet...");
+            return 0;
+        }
+
+        // Serialize updates of this Kup ranking table (till commit)
+        final KupRankingTable table = kup.getRankingTable();
+        if (em.contains(table)) {
+            em.lock(table, LockModeType.PESSIMISTIC_WRITE);
+        }
+
+        // Predictions are loaded once the lock is held: the ones settled by a
+        // concurrent computation are now marked as computed and skipped.
+        List<Prediction> predictions = new ArrayList<Prediction>();
+        for (Long predictionId : predictionIds) {
+            final Prediction prediction = em.find(PredictionImpl.class,
+                    predictionId);
+            if (prediction != null) {
+                predictions.add(prediction);
+            }
+        }
+
+        final Map<Long, MemberRankingTableEntry> entries = indexEntries(table,
+                predictions);
+
+        int computed = 0;
+        for (KupPointsBatch batch : KupPointsBatch
+                .groupByEventAndKup(predictions)) {
+            computed += computeBatch(batch, entries);
+            // Push this batch updates to the database (JDBC batched)
+            em.flush();
+        }
+
+        return computed;
+
+    }
+
+    /**
+     * Is the Kup and its template (if any) moderated?
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @return true if points can be computed for this Kup.
+     */
+    private boolean isModerated(Kup kup) {
+        if (!kup.isModerated()) {
+            return false;
+        }
+        if (!kup.isTemplate()) {
+            final Kup template = kups.getTemplateFor(kup);
+            if (template != null && !template.isModerated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indexes the ranking table entries of the members having predictions by
+     * member id. The other entries of the table are not loaded.
+     * 
+     * @param table: a {@link KupRankingTable} instance.
+     * @param predictions: a {@link List} of {@link Prediction} instances.
+     * @return a {@link Map} from member id to {@link MemberRankingTableEntry}
+     * @throws CoreException
+     */
+    private Map<Long, MemberRankingTableEntry> indexEntries(
+            KupRankingTable table, List<Prediction> predictions)
+            throws CoreException {
+        Map<Long, MemberRankingTableEntry> index = new HashMap<Long, MemberRankingTableEntry>();
+        if (table == null || predictions.isEmpty()) {
+            return index;
+        }
+        Set<Long> ids = new HashSet<Long>();
+        for (Prediction prediction : predictions) {
+            ids.add(prediction.getMember().getId());
+        }
+        long[] memberIds = new long[ids.size()];
+        int i = 0;
+        for (Long id : ids) {
+            memberIds[i++] = id;
+        }
+        for (MemberRankingTableEntry entry : rankings.getEntriesFor(
+                table.getId(), memberIds)) {
+            index.put(entry.getMember().getId(), entry);
+        }
+        return index;
+    }
+
+    /**
+     * Computes the points of all the predictions within a batch.
+     * 
+     * <p>
+     * 
+     * Points of all the predictions are computed first. Predictions are only
+     * settled and points only applied, once per ranking entry, when the
+     * whole batch succeeded.
+     * 
+     * @param batch: a {@link KupPointsBatch} instance.
+     * @param entries: ranking entries of the batch Kup indexed by member id.
+     * @return the amount of predictions settled.
+     * @throws CoreException
+     */
+    private int computeBatch(KupPointsBatch batch,
+            Map<Long, MemberRankingTableEntry> entries) throws CoreException {
+
+        final Kup kup = batch.getKup();
+
+        // Points of the whole batch are computed before anything gets
+        // updated: a failing prediction leaves the batch untouched.
+        Map<Prediction, Integer> points = new LinkedHashMap<Prediction, Integer>();
+        List<Prediction> outsiders = new ArrayList<Prediction>();
+        for (Prediction prediction : batch.getPredictions()) {
+
+            final Member member = prediction.getMember();
+            final MemberRankingTableEntry entry = entries.get(member.getId());
+
+            if (entry == null) {
+                if (KupType.GAMBLING_FR.equals(kup.getType())) {
+                    log.debug("member=" + member.getEmail()
+                            + " in kup w/ uuid=" + kup.getId()
+                            + " is not a participant."
+                            + " (predictions but no bet probably)");
+                    outsiders.add(prediction);
+                } else if (KupType.FREE.equals(kup.getType())) {
+                    log.error("member=" + member.getEmail()
+                            + " in kup w/ uuid=" + kup.getId()
+                            + " Cannot be found within ranking table.");
+                }
+                continue;
+            }
+
+            final int predictionPoints = kups.getPointsPredictionFor(kup,
+                    prediction);
+            log.debug(String.format("Points for prediction w/ uuid=%d in kup"
+                    + " w/ uuid=%d for member with email=%s => %d points",
+                    prediction.getId(), kup.getId(), member.getEmail(),
+                    predictionPoints));
+            points.put(prediction, predictionPoints);
+
+        }
+
+        int settled = 0;
+        for (Prediction prediction : outsiders) {
+            prediction.setPointsComputed(true);
+            settled++;
+        }
+
+        Map<MemberRankingTableEntry, int[]> deltas = new LinkedHashMap<MemberRankingTableEntry, int[]>();
+        for (Map.Entry<Prediction, Integer> each : points.entrySet()) {
+
+            final Prediction prediction = each.getKey();
+            final int predictionPoints = each.getValue();
+
+            // Update points and settle prediction
+            prediction.setPoints(predictionPoints);
+            prediction.setPointsComputed(true);
+            settled++;
+
+            // [points, correct predictions]
+            final MemberRankingTableEntry entry = entries.get(prediction
+                    .getMember().getId());
+            int[] delta = deltas.get(entry);
+            if (delta == null) {
+                delta = new int[2];
+                deltas.put(entry, delta);
+            }
+            delta[0] += predictionPoints;
+            if (predictionPoints > 0) {
+                delta[1]++;
+            }
+
+        }
+
+        if (deltas.isEmpty()) {
+            return settled;
+        }
+
+        // Positions before this batch, for the ranking change log. Counted by
+        // the database: previous batches are flushed already.
+        final KupRankingTable table = kup.getRankingTable();
+        Map<Long, int[]> moves = new HashMap<Long, int[]>();
+        for (MemberRankingTableEntry entry : deltas.keySet()) {
+            moves.put(entry.getMember().getId(), new int[] {
+                    rankings.getPositionFor(table.getId(), entry), -1 });
+        }
+
+        // Apply deltas on ranking entries.
+        Map<Long, Integer> valueDeltas = new HashMap<Long, Integer>();
+        for (Map.Entry<MemberRankingTableEntry, int[]> each : deltas
+                .entrySet()) {
+            final MemberRankingTableEntry entry = each.getKey();
+            final int[] delta = each.getValue();
+            final Member member = entry.getMember();
+            if (delta[0] != 0) {
+                entry.setValue(entry.getValue() + delta[0]);
+                valueDeltas.put(member.getId(), delta[0]);
+            }
+            if (delta[1] > 0) {
+                Integer correct = entry.getCorrectPredictions();
+                if (correct == null) {
+                    // Predictions of this batch are already settled at this
+                    // point and thus included in the count.
+                    correct = kups.countCorrectPredictionsFor(kup, member);
+                } else {
+                    correct = correct + delta[1];
+                }
+                entry.setCorrectPredictions(correct);
+            }
+            if (entry.getFirstPredictions() == null) {
+                entry.setFirstPredictions(kups.getFirstPredictionDateFor(
+                        member, kup));
+            }
+        }
+
+        // Log the moves and bump the table version.
+        em.flush();
+        for (MemberRankingTableEntry entry : deltas.keySet()) {
+            moves.get(entry.getMember().getId())[1] = rankings
+                    .getPositionFor(table.getId(), entry);
+        }
+        rankings.logChanges(table, moves);
+
+        // Update last modified.
+        final Date modified = Calendar.getInstance().getTime();
+        table.setLastModified(modified);
+
+        // Propagate the same deltas to the team rankings.
+        teams.applyKupRankingDeltas(kup, valueDeltas);
+
+        log.info("Points computed for " + String.valueOf(batch.size())
+                + " predictions of event=" + batch.getEventKey()
+                + " in kup w/ uuid=" + kup.getId() + " ("
+                + String.valueOf(deltas.size()) + " ranking entries updated)");
+
+        return settled;
+
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points;
+
+import java.util.List;
+
+import javax.ejb.ActivationConfigProperty;
+import javax.ejb.EJB;
+import javax.ejb.MessageDriven;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import javax.jms.ObjectMessage;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.api.local.KupPointsComputerLocal;
+import org.sofun.core.api.local.PredictionServiceLocal;
+import org.sofun.core.api.messaging.SofunMessagingCredentials;
+import org.sofun.core.api.messaging.SofunMessagingDestination;
+import org.sofun.core.api.messaging.TournamentEventTerminatedMessage;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.prediction.PredictionService;
+
+/**
+ * Kup Points Listener.
+ * 
+ * <p>
+ * 
+ * Computes the points of the predictions bound to a tournament event as soon
+ * as a feed marks it as terminated. A single session is used so that two
+ * events never update the same ranking table concurrently.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@MessageDriven(activationConfig = {
+        @ActivationConfigProperty(propertyName = "destinationType", propertyValue = SofunMessagingDestination.DESTINATION_TYPE),
+        @ActivationConfigProperty(propertyName = "maxSession", propertyValue = "1"),
+        @ActivationConfigProperty(propertyName = "minSession", propertyValue = "1"),
+        @ActivationConfigProperty(propertyName = "user", propertyValue = SofunMessagingCredentials.USERNAME),
+        @ActivationConfigProperty(propertyName = "password", propertyValue = SofunMessagingCredentials.PASSWORD),
+        @ActivationConfigProperty(propertyName = "destination", propertyValue = SofunMessagingDestination.SOFUN_SCORING) })
+public class KupPointsListener implements MessageListener {
+
+    private static final Log log = LogFactory.getLog(KupPointsListener.class);
+
+    @EJB(beanName = "PredictionServiceImpl", beanInterface = PredictionServiceLocal.class)
+    private PredictionService predictions;
+
+    @EJB(beanName = "KupPointsComputer", beanInterface = KupPointsComputerLocal.class)
+    private KupPointsComputerLocal computer;
+
+    private List<Prediction> getPredictionsFor(
+            TournamentEventTerminatedMessage event) {
+        final String type = event.getType();
+        if (TournamentEventTerminatedMessage.TYPE_GAME.equals(type)) {
+            return predictions.getPredictionsGameToCompute(event.getUUID());
+        }
+        final long uuid = Long.valueOf(event.getUUID());
+        if (TournamentEventTerminatedMessage.TYPE_ROUND.equals(type)) {
+            return predictions.getPredictionsRoundToCompute(uuid);
+        } else if (TournamentEventTerminatedMessage.TYPE_STAGE.equals(type)) {
+            return predictions.getPredictionsStageToCompute(uuid);
+        } else if (TournamentEventTerminatedMessage.TYPE_SEASON.equals(type)) {
+            return predictions.getPredictionsSeasonToCompute(uuid);
+        }
+        return null;
+    }
+
+    @Override
+    public void onMessage(Message message) {
+
+        try {
+            if (message instanceof ObjectMessage) {
+
+                final Object object = ((ObjectMessage) message).getObject();
+                if (!(object instanceof TournamentEventTerminatedMessage)) {
+                    log.error("Unexpected scoring message: " + object);
+                    return;
+                }
+
+                final TournamentEventTerminatedMessage event = (TournamentEventTerminatedMessage) object;
+                final List<Prediction> toCompute = getPredictionsFor(event);
+                if (toCompute == null) {
+                    log.error("Unknown tournament event type for " + event);
+                    return;
+                }
+                if (toCompute.isEmpty()) {
+                    log.debug("No predictions to compute for " + event);
+                    return;
+                }
+
+                final int computed = computer.computePoints(toCompute);
+                log.info("Points computed for " + String.valueOf(computed)
+                        + "/" + String.valueOf(toCompute.size())
+                        + " predictions of " + event);
+
+            }
+        } catch (Exception e) {
+            log.error(e.getMessage());
+        }
+
+    }
+
+}
@@ -14,11 +14,9 @@
 
 package org.sofun.core.kup.points;
 
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.ejb.EJB;
 import javax.ejb.Lock;
@@ -26,19 +24,14 @@ import javax.ejb.LockType;
 import javax.ejb.Schedule;
 import javax.ejb.Singleton;
 import javax.ejb.Timeout;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.sofun.core.api.community.table.MemberRankingTableEntry;
-import org.sofun.core.api.kup.Kup;
-import org.sofun.core.api.kup.KupRankingTable;
-import org.sofun.core.api.kup.KupService;
-import org.sofun.core.api.kup.KupType;
-import org.sofun.core.api.local.KupServiceLocal;
+import org.sofun.core.api.local.ClusterCoordinatorLocal;
+import org.sofun.core.api.local.KupPointsComputerLocal;
 import org.sofun.core.api.local.PredictionServiceLocal;
-import org.sofun.core.api.member.Member;
-import org.sofun.core.api.member.MemberService;
-import org.sofun.core.api.member.ejb.MemberServiceLocal;
 import org.sofun.core.api.prediction.Prediction;
 import org.sofun.core.api.prediction.PredictionService;
 
@@ -46,7 +39,25 @@ import org.sofun.core.api.prediction.PredictionService;
  * Kup Points Timer.
  * 
  * <p>
- * Clock triggering points computations.
+ * Safety net sweep triggering points computations.
+ * </p>
+ * 
+ * <p>
+ * Points are computed by the {@link KupPointsListener} as soon as a feed
+ * terminates a tournament event. This timer only picks up whatever has been
+ * left behind (lost message, event terminated by hand, Kup moderated after
+ * the event ended, etc.) and thus runs at a lower pace.
+ * </p>
+ * 
+ * <p>
+ * The sweep itself does not run within a transaction: each Kup gets computed
+ * and committed on its own by the {@link KupPointsComputer}. Failures are
+ * not swallowed: the timeout fails and the container reports it.
+ * </p>
+ * 
+ * <p>
+ * Within a cluster, each node only sweeps the predictions of the Kups of the
+ * shards it holds.
  * </p>
  * 
  * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
@@ -60,23 +71,22 @@ public class KupPointsTimer {
     @EJB(beanName = "PredictionServiceImpl", beanInterface = PredictionServiceLocal.class)
     private PredictionService predictions;
 
-    @EJB(beanName = "MemberServiceImpl", beanInterface = MemberServiceLocal.class)
-    private MemberService members;
+    @EJB(beanName = "KupPointsComputer", beanInterface = KupPointsComputerLocal.class)
+    private KupPointsComputerLocal computer;
 
-    @EJB(beanName = "KupServiceImpl", beanInterface = KupServiceLocal.class)
-    private KupService kups;
+    @EJB(beanName = "ClusterCoordinator", beanInterface = ClusterCoordinatorLocal.class)
+    private ClusterCoordinatorLocal cluster;
 
-    private boolean available = true;
+    private final AtomicBoolean available = new AtomicBoolean(true);
 
     @Timeout
-    @Schedule(minute = "*/5", hour = "*", persistent = false)
+    @Schedule(minute = "*/30", hour = "*", persistent = false)
     @Lock(LockType.READ)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
     public void check() throws Exception {
 
-        if (!available) {
+        if (!available.compareAndSet(true, false)) {
             return;
-        } else {
-            available = false;
         }
 
         try {
@@ -87,114 +97,31 @@ public class KupPointsTimer {
             toCompute.addAll(predictions.getPredictionsStageToCompute());
             toCompute.addAll(predictions.getPredictionsSeasonToCompute());
 
+            Iterator<Prediction> it = toCompute.iterator();
+            while (it.hasNext()) {
+                if (!cluster.isLocal(it.next().getKup().getId())) {
+                    it.remove();
+                }
+            }
+
             final int totalPredictions = toCompute.size();
             if (totalPredictions > 0) {
 
                 log.info("Found " + String.valueOf(toCompute.size())
                         + " predictions for which we need to compute points.");
 
-                int current = 1;
-                ListIterator<Prediction> predictionIter = toCompute
-                        .listIterator();
-                List<Long> moderatedKups = new ArrayList<Long>();
-                while (predictionIter.hasNext()) {
-
-                    Prediction prediction = predictionIter.next();
-
-                    if (prediction == null || prediction.isPointsComputed()) {
-                        continue;
-                    }
-
-                    // Verify the Kup has been moderated.
-                    if (!prediction.getKup().isModerated()
-                            || (!prediction.getKup().isTemplate() && (kups
-                                    .getTemplateFor(prediction.getKup()) != null && !kups
-                                            .getTemplateFor(prediction.getKup()).isModerated()) 
-                                    )) {
-                        if (!moderatedKups
-                                .contains(prediction.getKup().getId())) {
-                            log.warn("Kup with uuid="
-                                    + prediction.getKup().getId()
-                                    + " has not been moderated yet...");
-                            moderatedKups.add(prediction.getKup().getId());
-                        }
-                        continue;
-                    }
-
-                    // Reload member from context.
-                    Member member = members.getMember(prediction.getMember()
-                            .getEmail());
-
-                    // Get corresponding Kup.
-                    Kup kup = prediction.getKup();
-
-                    KupRankingTable kupRanking = kup.getRankingTable();
-                    MemberRankingTableEntry kupRankingEntry = kupRanking
-                            .getEntryForMember(member);
-
-                    if (kupRankingEntry == null) {
-                        if (KupType.GAMBLING_FR.equals(kup.getType())) {
-                            log.debug("member=" + member.getEmail()
-                                    + " in kup w/ uuid=" + kup.getId()
-                                    + " is not a participant."
-                                    + " (predictions but no bet probably)");
-                            prediction.setPointsComputed(true);
-                        } else if (KupType.FREE.equals(kup.getType())) {
-                            log.error("member=" + member.getEmail()
-                                    + " in kup w/ uuid=" + kup.getId()
-                                    + " Cannot be found within ranking table.");
-                        }
-                        continue;
-                    }
-
-                    final int predictionPoints = kups.getPointsPredictionFor(
-                            kup, prediction);
-                    log.info(String.format(
-                            "Points for prediction w/ uuid=%d in kup"
-                                    + " w/ uuid=%d for member with email=%s =>"
-                                    + " %d points (prediction %d/%d)",
-                            prediction.getId(), kup.getId(), member.getEmail(),
-                            predictionPoints, current, totalPredictions));
-
-                    // Update points and settle prediction
-                    prediction.setPoints(predictionPoints);
-                    kupRankingEntry.setValue(kupRankingEntry.getValue()
-                            + predictionPoints);
-                    prediction.setPointsComputed(true);
-
-                    // Update correct number of predictions.
-                    if (predictionPoints > 0) {
-                        Integer correct = kupRankingEntry
-                                .getCorrectPredictions();
-                        if (correct == null) {
-                            correct = kups.countCorrectPredictionsFor(kup,
-                                    member);
-                        } else {
-                            correct = correct + 1;
-                        }
-                        kupRankingEntry.setCorrectPredictions(correct);
-                    }
-                    if (kupRankingEntry.getFirstPredictions() == null) {
-                        kupRankingEntry.setFirstPredictions(kups
-                                .getFirstPredictionDateFor(member, kup));
-                    }
-
-                    // Update last modified.
-                    final Date modified = Calendar.getInstance().getTime();
-                    kupRanking.setLastModified(modified);
-
-                    current++;
+                final int computed = computer.computePoints(toCompute);
 
-                }
+                log.info("Points computed for " + String.valueOf(computed)
+                        + "/" + String.valueOf(totalPredictions)
+                        + " predictions.");
 
             }
 
-        } catch (Throwable t) {
-            t.printStackTrace();
-            log.error(t.getMessage());
         } finally {
-            available = true;
+            available.set(true);
         }
 
     }
+
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.outcome;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.api.sport.tournament.TournamentRound;
+
+/**
+ * Event Outcome Cache.
+ * 
+ * <p>
+ * 
+ * Shares {@link GameOutcome} and {@link RoundOutcome} snapshots in between
+ * the predictions of a points computation. The cache is bound to the thread
+ * running the computation and only lives till it is closed: events updated
+ * by the feeds afterwards are read again by the next computation. Outside of
+ * a computation, outcomes are built on each call.
+ * 
+ * <pre>
+ * final boolean opened = EventOutcomeCache.open();
+ * try {
+ *     // compute points
+ * } finally {
+ *     if (opened) {
+ *         EventOutcomeCache.close();
+ *     }
+ * }
+ * </pre>
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public final class EventOutcomeCache {
+
+    private static final ThreadLocal<EventOutcomeCache> current = new ThreadLocal<EventOutcomeCache>();
+
+    private final Map<String, GameOutcome> games = new HashMap<String, GameOutcome>();
+
+    private final Map<Long, RoundOutcome> rounds = new HashMap<Long, RoundOutcome>();
+
+    private EventOutcomeCache() {
+    }
+
+    /**
+     * Opens a cache for the current thread if none is opened yet.
+     * 
+     * @return true if opened by this call: the caller must then close it.
+     */
+    public static boolean open() {
+        if (current.get() != null) {
+            return false;
+        }
+        current.set(new EventOutcomeCache());
+        return true;
+    }
+
+    /**
+     * Closes the cache of the current thread, dropping all its outcomes.
+     */
+    public static void close() {
+        current.remove();
+    }
+
+    /**
+     * Returns the outcome of a given game.
+     * 
+     * @param game: a {@link TournamentGame} instance
+     * @return a {@link GameOutcome} instance.
+     */
+    public static GameOutcome getGameOutcome(TournamentGame game) {
+        final EventOutcomeCache cache = current.get();
+        final String uuid = game.getUUID();
+        if (cache == null || uuid == null) {
+            return new GameOutcome(game);
+        }
+        GameOutcome outcome = cache.games.get(uuid);
+        if (outcome == null) {
+            outcome = new GameOutcome(game);
+            cache.games.put(uuid, outcome);
+        }
+        return outcome;
+    }
+
+    /**
+     * Returns the outcome of a given round.
+     * 
+     * @param round: a {@link TournamentRound} instance
+     * @return a {@link RoundOutcome} instance.
+     */
+    public static RoundOutcome getRoundOutcome(TournamentRound round) {
+        final EventOutcomeCache cache = current.get();
+        if (cache == null) {
+            return new RoundOutcome(round);
+        }
+        final long uuid = round.getUUID();
+        RoundOutcome outcome = cache.rounds.get(uuid);
+        if (outcome == null) {
+            outcome = new RoundOutcome(round);
+            cache.rounds.put(uuid, outcome);
+        }
+        return outcome;
+    }
+
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.outcome;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.sport.SportContestant;
+import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.api.sport.tournament.TournamentGameScore;
+
+/**
+ * Game Outcome.
+ * 
+ * <p>
+ * 
+ * Immutable snapshot of a terminated {@link TournamentGame} result used by the
+ * points computation rules. Scores, contestants, scorers and tennis sets are
+ * parsed once out of the game and its properties so that predictions on the
+ * same game do not parse them again.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public final class GameOutcome implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String PROP_PLAYERS_UUID_GOALS = "GAME_PROP_PLAYERS_UUID_GOALS";
+
+    public static final String PROP_PLAYER_UUID_FIRST_GOAL = "GAME_PROP_PLAYER_UUID_FIRST_GOAL";
+
+    public static final String PROP_TEAM_UUID_FIRST_GOAL = "GAME_PROP_TEAM_UUID_FIRST_GOAL";
+
+    public static final String PROP_TENNIS_SCORE_FIRST_ENTRY = "scoreFirstEntryId";
+
+    public static final String PROP_TENNIS_SCORE_SECOND_ENTRY = "scoreSecondEntryId";
+
+    /* Sets of a tennis score holding something else than digits. */
+    private static final int[] MALFORMED = new int[0];
+
+    private final String gameUUID;
+
+    private final String status;
+
+    private final boolean hasScore;
+
+    private final int scoreTeam1;
+
+    private final int scoreTeam2;
+
+    private final String[] contestantUUIDs;
+
+    private final String winnerUUID;
+
+    private final Map<String, String> properties;
+
+    private final Map<String, Integer> intProperties;
+
+    private final Set<String> scorers;
+
+    private final int[] setsFirstEntry;
+
+    private final int[] setsSecondEntry;
+
+    public GameOutcome(TournamentGame game) {
+
+        gameUUID = game.getUUID();
+        status = game.getGameStatus();
+
+        final TournamentGameScore score = game.getScore();
+        if (score != null) {
+            hasScore = true;
+            scoreTeam1 = score.getScoreTeam1();
+            scoreTeam2 = score.getScoreTeam2();
+        } else {
+            hasScore = false;
+            scoreTeam1 = 0;
+            scoreTeam2 = 0;
+        }
+
+        contestantUUIDs = new String[game.getContestants().size()];
+        int i = 0;
+        for (SportContestant contestant : game.getContestants()) {
+            contestantUUIDs[i++] = contestant.getUUID();
+        }
+
+        winnerUUID = game.getWinner() != null ? game.getWinner().getUUID()
+                : null;
+
+        Map<String, String> props = new HashMap<String, String>();
+        if (game.getProperties() != null) {
+            props.putAll(game.getProperties());
+        }
+        properties = Collections.unmodifiableMap(props);
+
+        Map<String, Integer> ints = new HashMap<String, Integer>();
+        for (Map.Entry<String, String> entry : props.entrySet()) {
+            final Integer value = parseInt(entry.getValue());
+            if (value != null) {
+                ints.put(entry.getKey(), value);
+            }
+        }
+        intProperties = Collections.unmodifiableMap(ints);
+
+        final String goals = props.get(PROP_PLAYERS_UUID_GOALS);
+        if (goals != null) {
+            Set<String> uuids = new HashSet<String>();
+            for (String uuid : goals.split(",")) {
+                uuids.add(uuid);
+            }
+            scorers = Collections.unmodifiableSet(uuids);
+        } else {
+            scorers = null;
+        }
+
+        setsFirstEntry = parseSets(props.get(PROP_TENNIS_SCORE_FIRST_ENTRY));
+        setsSecondEntry = parseSets(props.get(PROP_TENNIS_SCORE_SECOND_ENTRY));
+
+    }
+
+    private static Integer parseInt(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Tennis scores are stored as one digit per set. (i.e.: "636")
+     */
+    private static int[] parseSets(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        int[] sets = new int[value.length()];
+        for (int i = 0; i < value.length(); i++) {
+            final int digit = Character.digit(value.charAt(i), 10);
+            if (digit < 0) {
+                return MALFORMED;
+            }
+            sets[i] = digit;
+        }
+        return sets;
+    }
+
+    private int[] getSets(int[] sets, String key) throws CoreException {
+        if (sets == null) {
+            throw new CoreException("Missing tennis score property=" + key
+                    + " for game with uuid=" + gameUUID);
+        }
+        if (sets == MALFORMED) {
+            throw new CoreException("Malformed tennis score property=" + key
+                    + " for game with uuid=" + gameUUID + ": "
+                    + properties.get(key));
+        }
+        return sets.clone();
+    }
+
+    public String getGameUUID() {
+        return gameUUID;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public boolean hasScore() {
+        return hasScore;
+    }
+
+    public int getScoreTeam1() {
+        return scoreTeam1;
+    }
+
+    public int getScoreTeam2() {
+        return scoreTeam2;
+    }
+
+    /**
+     * Returns the contestant UUID at a given position in the game.
+     * 
+     * @param index: contestant position (0 for home team)
+     * @return a contestant UUID or null if no such contestant.
+     */
+    public String getContestantUUID(int index) {
+        if (index < 0 || index >= contestantUUIDs.length) {
+            return null;
+        }
+        return contestantUUIDs[index];
+    }
+
+    public String getWinnerUUID() {
+        return winnerUUID;
+    }
+
+    /**
+     * Returns a raw game property value.
+     * 
+     * @param key: a game property key.
+     * @return a {@link String} or null if the property is not set.
+     */
+    public String getProperty(String key) {
+        return properties.get(key);
+    }
+
+    /**
+     * Returns a numerical game property value.
+     * 
+     * @param key: a game property key.
+     * @return an integer
+     * @throws CoreException if the property is not set or is not a number.
+     *         The result is then probably not available yet.
+     */
+    public int getIntProperty(String key) throws CoreException {
+        final Integer value = intProperties.get(key);
+        if (value == null) {
+            throw new CoreException("Missing numerical property=" + key
+                    + " for game with uuid=" + gameUUID);
+        }
+        return value;
+    }
+
+    /**
+     * Did a given player score during the game?
+     * 
+     * @param playerUUID: a player UUID.
+     * @return true if the player scored.
+     * @throws CoreException if scorers are not known yet.
+     */
+    public boolean hasScored(String playerUUID) throws CoreException {
+        if (scorers == null) {
+            throw new CoreException("Missing scorers for game with uuid="
+                    + gameUUID);
+        }
+        return scorers.contains(playerUUID);
+    }
+
+    /**
+     * Returns the first entry games won per set (tennis).
+     * 
+     * @return an array of integers, one per set played.
+     * @throws CoreException if the score is not set yet or is malformed.
+     */
+    public int[] getSetsFirstEntry() throws CoreException {
+        return getSets(setsFirstEntry, PROP_TENNIS_SCORE_FIRST_ENTRY);
+    }
+
+    /**
+     * Returns the second entry games won per set (tennis).
+     * 
+     * @return an array of integers, one per set played.
+     * @throws CoreException if the score is not set yet or is malformed.
+     */
+    public int[] getSetsSecondEntry() throws CoreException {
+        return getSets(setsSecondEntry, PROP_TENNIS_SCORE_SECOND_ENTRY);
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.outcome;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sofun.core.api.sport.SportContestant;
+import org.sofun.core.api.sport.tournament.TournamentRound;
+import org.sofun.core.api.sport.tournament.table.TournamentRoundLeagueTable;
+
+/**
+ * Round Outcome.
+ * 
+ * <p>
+ * 
+ * Immutable snapshot of a terminated {@link TournamentRound} result used by
+ * the points computation rules. League tables are sorted once per table type
+ * instead of once per prediction. Only values are held (contestants UUIDs),
+ * no entity, so that snapshots never hold on a persistence context.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public final class RoundOutcome implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /* Column key used to order league tables. */
+    public static final String POSITION_KEY = "pos";
+
+    private final long roundUUID;
+
+    private final String status;
+
+    private final Map<String, String> properties;
+
+    private final Map<String, List<String>> orderedContestants;
+
+    public RoundOutcome(TournamentRound round) {
+
+        roundUUID = round.getUUID();
+        status = round.getStatus();
+
+        Map<String, String> props = new HashMap<String, String>();
+        if (round.getProperties() != null) {
+            props.putAll(round.getProperties());
+        }
+        properties = Collections.unmodifiableMap(props);
+
+        Map<String, List<String>> tables = new HashMap<String, List<String>>();
+        if (round.getTables() != null) {
+            for (TournamentRoundLeagueTable table : round.getTables()) {
+                if (table.getType() == null
+                        || tables.containsKey(table.getType())) {
+                    continue;
+                }
+                List<String> uuids = new ArrayList<String>();
+                for (SportContestant contestant : table
+                        .getOrderedContestantsForKey(POSITION_KEY)) {
+                    uuids.add(contestant != null ? contestant.getUUID() : null);
+                }
+                tables.put(table.getType(),
+                        Collections.unmodifiableList(uuids));
+            }
+        }
+        orderedContestants = Collections.unmodifiableMap(tables);
+
+    }
+
+    public long getRoundUUID() {
+        return roundUUID;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns a raw round property value.
+     * 
+     * @param key: a round property key.
+     * @return a {@link String} or null if the property is not set.
+     */
+    public String getProperty(String key) {
+        return properties.get(key);
+    }
+
+    /**
+     * Returns the contestants UUIDs of a given league table ordered by
+     * position.
+     * 
+     * @param tableType: a league table type. (i.e.: DRIVERS)
+     * @return an unmodifiable {@link List} of UUIDs or null if no such table.
+     */
+    public List<String> getOrderedContestantUUIDs(String tableType) {
+        return orderedContestants.get(tableType);
+    }
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.rule;
+
+import org.sofun.core.api.kup.prediction.KupPredictionPointsRule;
+
+/**
+ * Base class for Kup prediction points rules.
+ * 
+ * <p>
+ * 
+ * Rules are stateless and shared across predictions and Kups by the
+ * {@link KupPredictionPointsRuleRegistry}.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public abstract class AbstractKupPredictionPointsRule implements
+        KupPredictionPointsRule {
+
+    private static final long serialVersionUID = 1L;
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.rule;
+
+import java.util.List;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.prediction.tournament.contestant.PredictionGameOrderedContestantsList;
+import org.sofun.core.api.sport.SportContestant;
+import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.api.sport.tournament.TournamentGameScore;
+
+/**
+ * Points computation rule for NBA K15 Kups.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class BasketballNBAKlubRule extends AbstractKupPredictionPointsRule {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int getPointsFor(Kup kup, Prediction prediction, KupService kups)
+            throws CoreException {
+
+        int points = 0;
+
+        if ("ic".equals(prediction.getType())
+                && prediction instanceof PredictionGameOrderedContestantsList) {
+
+            PredictionGameOrderedContestantsList gamePrediction = (PredictionGameOrderedContestantsList) prediction;
+            TournamentGame game = gamePrediction.getTournamentGame();
+            TournamentGameScore score = game.getScore();
+            List<SportContestant> playerPrediction = gamePrediction
+                    .getContestants();
+
+            if (score.getScoreTeam1() > score.getScoreTeam2()) {
+                if (playerPrediction.size() > 0
+                        && game.getContestants().get(0)
+                                .equals(playerPrediction.get(0))) {
+                    points += 5;
+                }
+            } else if (score.getScoreTeam1() < score.getScoreTeam2()) {
+                if (playerPrediction.size() > 0
+                        && game.getContestants().get(1)
+                                .equals(playerPrediction.get(0))) {
+                    points += 7;
+                }
+            }
+
+        } else {
+            throw new CoreException("Missing rules for kup with id="
+                    + kup.getId() + " and name=" + kup.getName());
+        }
+
+        return points;
+    }
+
+}
@@ -0,0 +1,945 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.rule;
+
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.prediction.tournament.contestant.PredictionRoundOrderedContestantsList;
+import org.sofun.core.api.sport.SportContestant;
+import org.sofun.core.api.sport.tournament.TournamentRound;
+import org.sofun.core.kup.points.outcome.EventOutcomeCache;
+import org.sofun.core.kup.points.outcome.RoundOutcome;
+import org.sofun.core.prediction.contestant.PredictionOrderedContestantResultImpl;
+
+/**
+ * Points computation rule for Tour de France cycling Kups.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class CyclingTourDeFranceRule extends AbstractKupPredictionPointsRule {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Log log = LogFactory
+            .getLog(CyclingTourDeFranceRule.class);
+
+    @Override
+    public int getPointsFor(Kup kup, Prediction prediction, KupService kups)
+            throws CoreException {
+
+        int points = 0;
+
+        String predictionType = prediction.getType();
+
+        PredictionRoundOrderedContestantsList roundPrediction = (PredictionRoundOrderedContestantsList) prediction;
+        TournamentRound round = roundPrediction.getTournamentRound();
+        final RoundOutcome outcome = EventOutcomeCache.getRoundOutcome(round);
+        List<SportContestant> member = roundPrediction.getContestants();
+
+        if ("cycling_maillot_jaune".equals(predictionType)) {
+            if (member == null || member.size() < 1) {
+                return 0;
+            }
+            SportContestant playerChoice = member.get(0);
+            List<String> actuals = outcome
+                    .getOrderedContestantUUIDs("INDIVIDUAL_AGGREGATED");
+            if (actuals == null || actuals.size() == 0) {
+                throw new CoreException(
+                        "No results for INDIVIDUAL_AGGREGATED in kup with id="
+                                + kup.getId() + " and name="
+                                + kup.getName());
+            }
+            if (actuals.get(0).equals(playerChoice.getUUID())) {
+                final int predictionsPoints = 15;
+                prediction
+                        .addResult(new PredictionOrderedContestantResultImpl(
+                                "position", predictionsPoints, prediction,
+                                0));
+                points += predictionsPoints;
+            }
+            // Check if 4 good predictions on jersey's for 15 points bonus
+            if (points > 0) {
+                List<Prediction> playerPredictions = kups
+                        .getPredictionsFor(prediction.getMember(), kup);
+                int goodOnes = 1;
+                for (Prediction p : playerPredictions) {
+                    if ((p.getType().equals("cycling_maillot_vert") && p
+                            .getPoints() == 15)
+                            || (p.getType().equals("cycling_maillot_apois") && p
+                                    .getPoints() == 15)
+                            || (p.getType().equals("cycling_maillot_blanc") && p
+                                    .getPoints() == 15)) {
+                        PredictionRoundOrderedContestantsList rp = (PredictionRoundOrderedContestantsList) p;
+                        if (rp.getTournamentRound().getUUID() == round
+                                .getUUID()) {
+                            goodOnes += 1;
+                        }
+                    }
+                }
+                if (goodOnes == 4) {
+                    log.info("Bonus 15 points 4 jerseys are corrects!");
+                    points += 15;
+                }
+            }
+        } else if ("cycling_maillot_vert".equals(predictionType)) {
+            if (member == null || member.size() < 1) {
+                return 0;
+            }
+            SportContestant playerChoice = member.get(0);
+            List<String> actuals = outcome
+                    .getOrderedContestantUUIDs("GREEN_AGGREGATED");
+            if (actuals == null || actuals.size() == 0) {
+                throw new CoreException(
+                        "No results for GREEN_AGGREGATED in kup with id="
+                                + kup.getId() + " and name="
+                                + kup.getName());
+            }
+            if (actuals.get(0).equals(playerChoice.getUUID())) {
+                final int predictionsPoints = 15;
+                prediction
+                        .addResult(new PredictionOrderedContestantResultImpl(
+                                "position", predictionsPoints, prediction,
+                                0));
+                points += predictionsPoints;
+            }
+            // Check if 4 good predictions on jersey's for 15 points bonus
+            if (points > 0) {
+                List<Prediction> playerPredictions = kups
+                        .getPredictionsFor(prediction.getMember(), kup);
+                int goodOnes = 1;
+                for (Prediction p : playerPredictions) {
+                    if ((p.getType().equals("cycling_maillot_jaune") && p
+                            .getPoints() == 15)
+                            || (p.getType().equals("cycling_maillot_apois") && p
+                                    .getPoints() == 15)
+                            || (p.getType().equals("cycling_maillot_blanc") && p
+                                    .getPoints() == 15)) {
+                        PredictionRoundOrderedContestantsList rp = (PredictionRoundOrderedContestantsList) p;
+                        if (rp.getTournamentRound().getUUID() == round
+                                .getUUID()) {
+                            goodOnes += 1;
+                        }
+                    }
+                }
+                if (goodOnes == 4) {
+                    log.info("Bonus 15 points 4 jerseys are corrects!");
+                    points += 15;
+                }
+            }
+        } else if ("cycling_maillot_apois".equals(predictionType)) {
+            if (member == null || member.size() < 1) {
+                return 0;
+            }
+            SportContestant playerChoice = member.get(0);
+            List<String> actuals = outcome
+                    .getOrderedContestantUUIDs("MOUNTAIN_AGGREGATED");
+            if (actuals == null || actuals.size() == 0) {
+                throw new CoreException(
+                        "No results for MOUNTAIN_AGGREGATED in kup with id="
+                                + kup.getId() + " and name="
+                                + kup.getName());
+            }
+            if (actuals.get(0).equals(playerChoice.getUUID())) {
+                final int predictionsPoints = 15;
+                prediction
+                        .addResult(new PredictionOrderedContestantResultImpl(
+                                "position", predictionsPoints, prediction,
+                                0));
+                points += predictionsPoints;
+            }
+            // Check if 4 good predictions on jersey's for 15 points bonus
+            if (points > 0) {
+                List<Prediction> playerPredictions = kups
+                        .getPredictionsFor(prediction.getMember(), kup);
+                int goodOnes = 1;
+                for (Prediction p : playerPredictions) {
+                    if ((p.getType().equals("cycling_maillot_jaune") && p
+                            .getPoints() == 15)
+                            || (p.getType().equals("cycling_maillot_vert") && p
+                                    .getPoints() == 15)
+                            || (p.getType().equals("cycling_maillot_blanc") && p
+                                    .getPoints() == 15)) {
+                        PredictionRoundOrderedContestantsList rp = (PredictionRoundOrderedContestantsList) p;
+                        if (rp.getTournamentRound().getUUID() == round
+                                .getUUID()) {
+                            goodOnes += 1;
+                        }
+                    }
+                }
+                if (goodOnes == 4) {
+                    log.info("Bonus 15 points 4 jerseys are corrects!");
+                    points += 15;
+                }
+            }
+        } else if ("cycling_maillot_blanc".equals(predictionType)) {
+            if (member == null || member.size() < 1) {
+                return 0;
+            }
+            SportContestant playerChoice = member.get(0);
+            List<String> actuals = outcome
+                    .getOrderedContestantUUIDs("YOUNG_AGGREGATED");
+            if (actuals == null || actuals.size() == 0) {
+                throw new CoreException(
+                        "No results for YOUNG_AGGREGATED in kup with id="
+                                + kup.getId() + " and name="
+                                + kup.getName());
+            }
+            if (actuals.get(0).equals(playerChoice.getUUID())) {
+                final int predictionsPoints = 15;
+                prediction
+                        .addResult(new PredictionOrderedContestantResultImpl(
+                                "position", predictionsPoints, prediction,
+                                0));
+                points += predictionsPoints;
+            }
+            // Check if 4 good predictions on jersey's for 15 points bonus
+            if (points > 0) {
+                List<Prediction> playerPredictions = kups
+                        .getPredictionsFor(prediction.getMember(), kup);
+                int goodOnes = 1;
+                for (Prediction p : playerPredictions) {
+                    if ((p.getType().equals("cycling_maillot_jaune") && p
+                            .getPoints() == 15)
+                            || (p.getType().equals("cycling_maillot_vert") && p
+                                    .getPoints() == 15)
+                            || (p.getType().equals("cycling_maillot_apois") && p
+                                    .getPoints() == 15)) {
+                        PredictionRoundOrderedContestantsList rp = (PredictionRoundOrderedContestantsList) p;
+                        if (rp.getTournamentRound().getUUID() == round
+                                .getUUID()) {
+                            goodOnes += 1;
+                        }
+                    }
+                }
+                if (goodOnes == 4) {
+                    log.info("Bonus 15 points 4 jerseys are corrects!");
+                    points += 15;
+                }
+            }
+        } else if ("cycling_podium_individual".equals(predictionType)) {
+
+            List<String> actual = outcome
+                    .getOrderedContestantUUIDs("INDIVIDUAL_STAGE");
+
+            int top3 = 0;
+            int inTop3 = 0;
+
+            try {
+                if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(0))) {
+                    final int predictionsPoints = 25;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                    top3 += 1;
+                    inTop3 += 1;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(1))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                    inTop3 += 1;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(2))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                    inTop3 += 1;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(3))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(4))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(5))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(6))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(7))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(8))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(9))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(10))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(11))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(12))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(13))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(14))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(15))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(16))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(17))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(18))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(19))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(1))) {
+                    final int predictionsPoints = 25;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 1));
+                    points += predictionsPoints;
+                    top3 += 1;
+                    inTop3 += 1;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(0))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 1));
+                    points += predictionsPoints;
+                    inTop3 += 1;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(2))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 1));
+                    points += predictionsPoints;
+                    inTop3 += 1;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(4))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(5))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(6))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(7))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(8))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(9))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(10))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(11))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(12))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(13))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(14))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(15))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(16))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(17))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(18))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(19))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(2))) {
+                    final int predictionsPoints = 25;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 2));
+                    points += predictionsPoints;
+                    top3 += 1;
+                    inTop3 += 1;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(0))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 2));
+                    points += predictionsPoints;
+                    inTop3 += 1;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(1))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 2));
+                    points += predictionsPoints;
+                    inTop3 += 1;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(4))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(5))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(6))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(7))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(8))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(9))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(10))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(11))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(12))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(13))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(14))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(15))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(16))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(17))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(18))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(19))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+
+            //
+            // TOP 3 BONUS
+            //
+
+            if (top3 == 3) {
+                log.info("Bonus 20 points for 3 correct predictions in correct order");
+                points += 20;
+            } else if (inTop3 == 3) {
+                log.info("Bonus 15 points for 3 correct predictions in wrong order");
+                points += 15;
+            } else if (inTop3 == 2) {
+                log.info("Bonus 10 points for 2 correct predictions in wrong or correct order");
+                points += 10;
+            }
+
+        } else if ("cycling_podium_team".equals(predictionType)) {
+
+            List<String> actual = outcome
+                    .getOrderedContestantUUIDs("TEAM_STAGE");
+
+            int top3 = 0;
+            int inTop3 = 0;
+
+            try {
+                if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(0))) {
+                    final int predictionsPoints = 25;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                    top3 += 1;
+                    inTop3 += 1;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(1))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                    inTop3 += 1;
+                } else if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(2))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                    inTop3 += 1;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(1))) {
+                    final int predictionsPoints = 25;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 1));
+                    points += predictionsPoints;
+                    top3 += 1;
+                    inTop3 += 1;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(0))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 1));
+                    points += predictionsPoints;
+                    inTop3 += 1;
+                } else if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(2))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 1));
+                    points += predictionsPoints;
+                    inTop3 += 1;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(2))) {
+                    final int predictionsPoints = 25;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 2));
+                    points += predictionsPoints;
+                    top3 += 1;
+                    inTop3 += 1;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(0))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 2));
+                    points += predictionsPoints;
+                    inTop3 += 1;
+                } else if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(1))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 2));
+                    points += predictionsPoints;
+                    inTop3 += 1;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+
+            //
+            // TOP 3 BONUS
+            //
+
+            if (top3 == 3) {
+                log.info("Bonus 20 points for 3 correct predictions in correct order");
+                points += 20;
+            } else if (inTop3 == 3) {
+                log.info("Bonus 15 points for 3 correct predictions in wrong order");
+                points += 15;
+            } else if (inTop3 == 2) {
+                log.info("Bonus 10 points for 2 correct predictions in wrong order");
+                points += 10;
+            }
+
+        } else {
+            throw new CoreException("Missing rules for kup with id="
+                    + kup.getId() + " and name=" + kup.getName());
+        }
+
+        return points;
+    }
+
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.rule;
+
+import java.util.List;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.prediction.tournament.contestant.PredictionRoundOrderedContestantsList;
+import org.sofun.core.api.sport.SportContestant;
+import org.sofun.core.api.sport.tournament.TournamentRound;
+import org.sofun.core.kup.points.outcome.EventOutcomeCache;
+import org.sofun.core.kup.points.outcome.RoundOutcome;
+import org.sofun.core.prediction.PredictionResultImpl;
+import org.sofun.core.prediction.contestant.PredictionOrderedContestantResultImpl;
+
+/**
+ * Points computation rule for Formula 1 Grand Prix Kups.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class F1GrandPrixRule extends AbstractKupPredictionPointsRule {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int getPointsFor(Kup kup, Prediction prediction, KupService kups)
+            throws CoreException {
+
+        int points = 0;
+
+        String predictionType = prediction.getType();
+
+        PredictionRoundOrderedContestantsList roundPrediction = (PredictionRoundOrderedContestantsList) prediction;
+        TournamentRound round = roundPrediction.getTournamentRound();
+        final RoundOutcome outcome = EventOutcomeCache.getRoundOutcome(round);
+        List<SportContestant> member = roundPrediction.getContestants();
+
+        if ("f1_driver_best_lap".equals(predictionType) && member != null
+                && member.size() > 0) {
+            SportContestant playerChoice = member.get(0);
+            final String fastest = outcome
+                    .getProperty("fast_time_driver_uuid");
+            if (fastest == null) {
+                throw new CoreException("Missing fastest lap driver in kup"
+                        + " with id=" + kup.getId() + " and roundUUID="
+                        + round.getUUID());
+            }
+            if (fastest.equals(playerChoice.getUUID())) {
+                final int predictionsPoints = 20;
+                prediction
+                        .addResult(new PredictionOrderedContestantResultImpl(
+                                "position", predictionsPoints, prediction,
+                                0));
+                points += predictionsPoints;
+            }
+        } else if ("f1_driver_grid".equals(predictionType)) {
+
+            List<String> actual = outcome
+                    .getOrderedContestantUUIDs("DRIVERS");
+
+            try {
+                if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(0))) {
+                    final int predictionsPoints = 20;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(1))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 1));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(2))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 2));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(3) != null
+                        && member.get(3).getUUID()
+                                .equals(actual.get(3))) {
+                    final int predictionsPoints = 5;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 3));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+
+        } else if ("f1_driver_ranking".equals(predictionType)) {
+
+            List<String> actual = outcome
+                    .getOrderedContestantUUIDs("DRIVERS");
+
+            int top3 = 0;
+
+            try {
+                if (member.get(0) != null
+                        && member.get(0).getUUID()
+                                .equals(actual.get(0))) {
+                    final int predictionsPoints = 25;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 0));
+                    points += predictionsPoints;
+                    top3 += 1;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+
+            try {
+                if (member.get(1) != null
+                        && member.get(1).getUUID()
+                                .equals(actual.get(1))) {
+                    final int predictionsPoints = 18;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 1));
+                    points += predictionsPoints;
+                    top3 += 1;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(2) != null
+                        && member.get(2).getUUID()
+                                .equals(actual.get(2))) {
+                    final int predictionsPoints = 15;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 2));
+                    points += predictionsPoints;
+                    top3 += 1;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(3) != null
+                        && member.get(3).getUUID()
+                                .equals(actual.get(3))) {
+                    final int predictionsPoints = 12;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 3));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(4) != null
+                        && member.get(4).getUUID()
+                                .equals(actual.get(4))) {
+                    final int predictionsPoints = 10;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 4));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(5) != null
+                        && member.get(5).getUUID()
+                                .equals(actual.get(5))) {
+                    final int predictionsPoints = 8;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 5));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(6) != null
+                        && member.get(6).getUUID()
+                                .equals(actual.get(6))) {
+                    final int predictionsPoints = 6;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 6));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(7) != null
+                        && member.get(7).getUUID()
+                                .equals(actual.get(7))) {
+                    final int predictionsPoints = 4;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 7));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(8) != null
+                        && member.get(8).getUUID()
+                                .equals(actual.get(8))) {
+                    final int predictionsPoints = 2;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 8));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+            try {
+                if (member.get(9) != null
+                        && member.get(9).getUUID()
+                                .equals(actual.get(9))) {
+                    final int predictionsPoints = 1;
+                    prediction
+                            .addResult(new PredictionOrderedContestantResultImpl(
+                                    "position", predictionsPoints,
+                                    prediction, 9));
+                    points += predictionsPoints;
+                }
+            } catch (IndexOutOfBoundsException e) {
+            }
+
+            //
+            // TOP 3 BONUS
+            //
+
+            if (top3 == 3) {
+                prediction.addResult(new PredictionResultImpl(
+                        "bonus_top_3", 50, prediction));
+                points += 50;
+            }
+
+            //
+            // TOP 5 BONUS
+            //
+
+            for (int i = 0; i <= 4; i++) {
+                try {
+                    SportContestant m = member.get(i);
+                    for (int j = 0; j <= 4; j++) {
+                        String a = actual.get(j);
+                        if (m != null && a.equals(m.getUUID())
+                                && i != j) {
+                            points += 5;
+                            prediction.addResult(new PredictionResultImpl(
+                                    "bonus_top_5", 5, prediction));
+                            break;
+                        }
+                    }
+                } catch (IndexOutOfBoundsException e) {
+                }
+            }
+
+        } else {
+            throw new CoreException("Missing rules for kup with id="
+                    + kup.getId() + " and name=" + kup.getName());
+        }
+
+        return points;
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.rule;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.prediction.KupPredictionPointsRule;
+
+/**
+ * Kup prediction points rules registry.
+ * 
+ * <p>
+ * 
+ * Compiled rules are keyed by rule identifier (their class name): each rule
+ * gets instantiated once and is shared by all the templates it applies to.
+ * The rule identifier of a Kup template, identified by its (name, meta type)
+ * as Kups created out of it share both, gets resolved once and cached.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public final class KupPredictionPointsRuleRegistry {
+
+    /* Compiled rules by rule identifier. */
+    private static final ConcurrentMap<String, KupPredictionPointsRule> rules = new ConcurrentHashMap<String, KupPredictionPointsRule>();
+
+    /* Rule identifier of each template. */
+    private static final Map<Template, String> templates = new ConcurrentHashMap<Template, String>();
+
+    private static final GenericRule resolver = new GenericRule();
+
+    private KupPredictionPointsRuleRegistry() {
+    }
+
+    /**
+     * Returns the identifier a rule is registered under.
+     * 
+     * @param rule: a {@link KupPredictionPointsRule} instance.
+     * @return a rule identifier.
+     */
+    public static String getRuleId(KupPredictionPointsRule rule) {
+        return rule.getClass().getName();
+    }
+
+    /**
+     * Returns the points computation rule for a given Kup.
+     * 
+     * @param kup: a {@link Kup} instance
+     * @return a {@link KupPredictionPointsRule} instance.
+     * @throws CoreException if no rule applies to this Kup.
+     */
+    public static KupPredictionPointsRule getRuleFor(Kup kup)
+            throws CoreException {
+        final Template template = new Template(kup.getName(),
+                kup.getMetaType());
+        final String ruleId = templates.get(template);
+        if (ruleId != null) {
+            final KupPredictionPointsRule rule = rules.get(ruleId);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        final KupPredictionPointsRule resolved = resolver.resolve(kup
+                .getName());
+        if (resolved == null) {
+            throw new CoreException("Missing rules for kup with id="
+                    + kup.getId() + " and name=" + kup.getName());
+        }
+        final String resolvedId = getRuleId(resolved);
+        final KupPredictionPointsRule previous = rules.putIfAbsent(
+                resolvedId, resolved);
+        templates.put(template, resolvedId);
+        return previous != null ? previous : resolved;
+    }
+
+    /**
+     * Registers a points computation rule under its identifier, replacing
+     * the compiled instance of this rule if any.
+     * 
+     * @param rule: a {@link KupPredictionPointsRule} instance.
+     * @return the rule identifier.
+     */
+    public static String register(KupPredictionPointsRule rule) {
+        final String ruleId = getRuleId(rule);
+        rules.put(ruleId, rule);
+        return ruleId;
+    }
+
+    /**
+     * Registers a points computation rule for a given template name and meta
+     * type. Overrides the rule resolved from the template name if any.
+     * 
+     * @param name: a Kup template name.
+     * @param metaType: a Kup meta type.
+     * @param rule: a {@link KupPredictionPointsRule} instance.
+     */
+    public static void register(String name, String metaType,
+            KupPredictionPointsRule rule) {
+        templates.put(new Template(name, metaType), register(rule));
+    }
+
+    /**
+     * Drops all cached rules.
+     */
+    public static void clear() {
+        templates.clear();
+        rules.clear();
+    }
+
+    /* Kup template identity. */
+    private static final class Template {
+
+        private final String name;
+
+        private final String metaType;
+
+        Template(String name, String metaType) {
+            this.name = name;
+            this.metaType = metaType;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Template)) {
+                return false;
+            }
+            final Template other = (Template) obj;
+            return (name != null ? name.equals(other.name)
+                    : other.name == null)
+                    && (metaType != null ? metaType.equals(other.metaType)
+                            : other.metaType == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (name != null ? name.hashCode() : 0)
+                    + (metaType != null ? metaType.hashCode() : 0);
+        }
+
+    }
+
+}
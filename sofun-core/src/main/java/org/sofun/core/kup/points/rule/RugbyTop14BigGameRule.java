@@ -0,0 +1,145 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.rule;
+
+import java.util.List;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.prediction.tournament.PredictionGameQuestion;
+import org.sofun.core.api.prediction.tournament.contestant.PredictionGameOrderedContestantsList;
+import org.sofun.core.api.sport.SportContestant;
+import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.api.sport.tournament.TournamentGameScore;
+
+/**
+ * Points computation rule for rugby Top 14 big game Kups.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class RugbyTop14BigGameRule extends AbstractKupPredictionPointsRule {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int getPointsFor(Kup kup, Prediction prediction, KupService kups)
+            throws CoreException {
+
+        int points = 0;
+
+        if ("ic".equals(prediction.getType())
+                && prediction instanceof PredictionGameOrderedContestantsList) {
+
+            PredictionGameOrderedContestantsList gamePrediction = (PredictionGameOrderedContestantsList) prediction;
+            TournamentGame game = gamePrediction.getTournamentGame();
+            TournamentGameScore score = game.getScore();
+            List<SportContestant> playerPrediction = gamePrediction
+                    .getContestants();
+
+            if (score.getScoreTeam1() > score.getScoreTeam2()) {
+                if (playerPrediction.size() > 0
+                        && game.getContestants().get(0)
+                                .equals(playerPrediction.get(0))) {
+                    points += 5;
+                }
+            } else if (score.getScoreTeam1() < score.getScoreTeam2()) {
+                if (playerPrediction.size() > 0
+                        && game.getContestants().get(1)
+                                .equals(playerPrediction.get(0))) {
+                    points += 5;
+                }
+            } else if (score.getScoreTeam1() == score.getScoreTeam2()) {
+                if (playerPrediction.size() == 0) {
+                    points += 5;
+                }
+            }
+
+        } else if ("q".equals(prediction.getType())
+                && prediction instanceof PredictionGameQuestion) {
+
+            PredictionGameQuestion questionPrediction = (PredictionGameQuestion) prediction;
+            TournamentGame game = questionPrediction.getTournamentGame();
+
+            String label = questionPrediction.getQuestion().getLabel();
+            if ("label_question_number_of_total_tries_team1".equals(label)) {
+
+                String result = game.getProperties().get(
+                        "GAME_PROP_TEAM1_NB_TRIES");
+                String answer = questionPrediction.getAnswer();
+                // If result is null let it fail with an NPE. It will be
+                // then retried later on when actual result will be set. If
+                // not it means there is an issue.
+                if (result.equals(answer)) {
+                    points += 15;
+                }
+
+            } else if ("label_question_number_of_total_tries_team2"
+                    .equals(label)) {
+
+                String result = game.getProperties().get(
+                        "GAME_PROP_TEAM2_NB_TRIES");
+                String answer = questionPrediction.getAnswer();
+                // If result is null let it fail with an NPE. It will be
+                // then retried later on when actual result will be set. If
+                // not it means there is an issue.
+                if (result.equals(answer)) {
+                    points += 15;
+                }
+
+            } else if ("label_question_first_team_that_tries".equals(label)) {
+
+                String result = game.getProperties().get(
+                        "GAME_PROP_TEAM_UUID_FIRST_TRY");
+
+                String answer = questionPrediction.getAnswer();
+                if ("0".equals(answer)) {
+                    answer = "-1";
+                }
+                if (result.equals(answer)) {
+                    points += 10;
+                }
+
+            } else if ("label_question_points_difference".equals(label)) {
+
+                int scoret1 = game.getScore().getScoreTeam1();
+                int scoret2 = game.getScore().getScoreTeam2();
+
+                final int diff = Math.abs(scoret1 - scoret2);
+
+                final String answer = questionPrediction.getAnswer();
+
+                if ("0".equals(answer)) {
+                    if (diff == 0) {
+                        points += 20;
+                    }
+                } else if (answer != null
+                        && diff == Integer.valueOf(answer)) {
+                    points += 20;
+                }
+
+            }
+
+        } else {
+            throw new CoreException("Missing rules for kup with id="
+                    + kup.getId() + " and name=" + kup.getName());
+        }
+
+        return points;
+    }
+
+}
@@ -0,0 +1,1519 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.rule;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.prediction.tournament.PredictionGameQuestion;
+import org.sofun.core.api.prediction.tournament.PredictionGameScore;
+import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.api.sport.tournament.TournamentGameScore;
+import org.sofun.core.kup.points.outcome.EventOutcomeCache;
+import org.sofun.core.kup.points.outcome.GameOutcome;
+
+/**
+ * Points computation rule for soccer big game Kups (Ligue 1, Champions
+ * League, Premier League, Liga, Lega, Bundesliga, Coupe de la Ligue and
+ * internationals).
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class SoccerBigGameRule extends AbstractKupPredictionPointsRule {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int getPointsFor(Kup kup, Prediction prediction, KupService kups)
+            throws CoreException {
+
+        int points = 0;
+
+        if ("se".equals(prediction.getType())
+                && prediction instanceof PredictionGameScore) {
+
+            PredictionGameScore gamePrediction = (PredictionGameScore) prediction;
+            TournamentGame game = gamePrediction.getTournamentGame();
+            TournamentGameScore score = game.getScore();
+
+            if (score.getScoreTeam1() == gamePrediction.getScoreTeam1()
+                    && score.getScoreTeam2() == gamePrediction
+                            .getScoreTeam2()) {
+                points += 20;
+            } else if (score.getScoreTeam1() > score.getScoreTeam2()
+                    && gamePrediction.getScoreTeam1() > gamePrediction
+                            .getScoreTeam2()) {
+                points += 6;
+            } else if (score.getScoreTeam1() < score.getScoreTeam2()
+                    && gamePrediction.getScoreTeam1() < gamePrediction
+                            .getScoreTeam2()) {
+                points += 6;
+            } else if (score.getScoreTeam1() == score.getScoreTeam2()
+                    && gamePrediction.getScoreTeam1() == gamePrediction
+                            .getScoreTeam2()) {
+                points += 6;
+            }
+
+        } else if ("q".equals(prediction.getType())
+                && prediction instanceof PredictionGameQuestion) {
+
+            PredictionGameQuestion questionPrediction = (PredictionGameQuestion) prediction;
+            TournamentGame game = questionPrediction.getTournamentGame();
+            final GameOutcome outcome = EventOutcomeCache.getGameOutcome(game);
+
+            String label = questionPrediction.getQuestion().getLabel();
+
+            if ("label_question_winner_first_half".equals(label)) {
+
+                String result = game.getProperties().get(
+                        "GAME_PROP_WINNER_FIRST_HALF");
+                String answer = questionPrediction.getAnswer();
+
+                if ("0".equals(answer)) {
+                    answer = "";
+                }
+
+                if (result.equals(answer)) {
+                    points += 5;
+                }
+
+            } else if ("label_question_team_winner_second_half"
+                    .equals(label)) {
+
+                String result = game.getProperties().get(
+                        "GAME_PROP_WINNER_SECOND_HALF");
+                String answer = questionPrediction.getAnswer();
+
+                if ("0".equals(answer)) {
+                    answer = "";
+                }
+
+                if (result.equals(answer)) {
+                    points += 5;
+                }
+
+            } else if ("label_question_team_first_scores".equals(label)) {
+
+                String result = game.getProperties().get(
+                        "GAME_PROP_TEAM_UUID_FIRST_GOAL");
+                String answer = questionPrediction.getAnswer();
+                if ("0".equals(answer)) {
+                    answer = "-1";
+                }
+                if (result.equals(answer)) {
+                    points += 5;
+                }
+
+            } else if ("label_question_which_quaters_first_score"
+                    .equals(label)) {
+
+                final String result = game.getProperties().get(
+                        "GAME_PROP_FIRST_GOAL_QUARTER");
+                final String answer = questionPrediction.getAnswer();
+                if (result.equals(answer)) {
+                    points += 15;
+                }
+
+            } else if ("label_question_total_goals_fulltime".equals(label)
+                    || "label_question_total_goals_fulltime_and_extra"
+                            .equals(label)) {
+
+                final int nbGoals = game.getScore().getScoreTeam1()
+                        + game.getScore().getScoreTeam2();
+
+                String answer = questionPrediction.getAnswer();
+                if (answer == null || "".equals(answer)) {
+                    answer = "0";
+                }
+
+                if (nbGoals == Integer.valueOf(answer)) {
+                    points += 15;
+                }
+
+            } else if ("label_question_extra_time".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+                final String result = game.getProperties().get(
+                        "GAME_PROP_HAS_EXTRA_TIME");
+                if ("label_yes".equals(answer) && "1".equals(result)) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !"1".equals(result)) {
+                    points += 5;
+                }
+
+            } else if ("label_question_penalties".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+                final String result = game.getProperties().get(
+                        "GAME_PROP_HAS_SHOOTOUT");
+                if ("label_yes".equals(answer) && "1".equals(result)) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !"1".equals(result)) {
+                    points += 5;
+                }
+
+            } else if ("label_question_team_home_scores_first"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+                final String result = game.getProperties().get(
+                        "GAME_PROP_TEAM_UUID_FIRST_GOAL");
+                if ("label_yes".equals(answer)
+                        && game.getContestants().get(0).getUUID()
+                                .equals(result)) {
+                    points += 5;
+                } else if ("label_no".equals(answer)
+                        && !game.getContestants().get(0).getUUID()
+                                .equals(result)) {
+                    points += 5;
+                }
+
+            } else if ("label_question_more_than_2_goals".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+                final int result = game.getScore().getScoreTeam1()
+                        + game.getScore().getScoreTeam2();
+                if ("label_yes".equals(answer) && result > 2) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && result <= 2) {
+                    points += 5;
+                }
+
+            } else if ("label_question_samaras_greece_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p10866";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_lewandowsk_poland_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p56764";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_arshavin_russia_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p13227";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_goals_difference_at_end"
+                    .equals(label)) {
+
+                TournamentGameScore score = game.getScore();
+                String answer = questionPrediction.getAnswer();
+
+                int diffScore = Math.abs(score.getScoreTeam1()
+                        - score.getScoreTeam2());
+
+                if (String.valueOf(diffScore).equals(answer)) {
+                    points += 15;
+                }
+
+            } else if ("label_question_baros_repcheque_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p10602";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_gomez_germany_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p17884";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_Ronaldo_portugal_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p14937";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_ronaldo_real_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p14937";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_vanpersie_holland_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p12297";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_bendtner_denmark_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p27697";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_xavi_spain_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p5816";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_cassano_italie_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p7174";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_keane_ireland_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p1710";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_olic_croatie_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p13139";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_benzema_france_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p19927";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_lampard_england_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p2051";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_milevskyi_ukraine_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p14566";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_ibrahimovic_sweden_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p9808";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_dudka_poland_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p26917";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_pavlioutchenko_russia_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p20298";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_salpingidis_grece_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p28130";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_pekhart_repcheque_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p37647";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_meireles_portugal_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p19921";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_krohndehli_denmark_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p16099";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_ozil_germany_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p37605";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_robben_holland_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p8533";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_obraniak_bordeaux_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p40676";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_yedder_toulouse_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p83912";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_vanbommel_holland_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p4854";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_rossi_italie_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p10625";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_kranjcar_croatie_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p28097";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_ramos_spain_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p17861";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_duff_ireland_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p1256";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_nasri_france_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p28554";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_milevskyi_ukraine_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p14566";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_cole_england_scores".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p3785";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_kallstrom_sweden_scores"
+                    .equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+
+                // Ivory coast
+                final String uuid = "p14985";
+                boolean scored = outcome.hasScored(uuid);
+
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+
+            } else if ("label_question_papastathopoulos_greece_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p39476";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_dzagoev_russia_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p51437";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_ribery_france_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p28559";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_ribery_bayern_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p28559";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_pastore_psg_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p54782";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_leko_zagreb_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p13169";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_pantelic_olympiakos_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p26747";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_herrera_mhsc_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p119588";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_okazaki_japan_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p78412";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_elmander_sweden_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p4739";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_plasil_repcheque_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p12057";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_blaszczykowski_poland_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p37092";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_nani_portugal_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p38530";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_kvist_denmark_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p27261";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_alonso_spain_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p3508";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_modric_croatie_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p37055";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_rooney_england_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p13017";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_podolski_germany_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p17733";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_rosicky_repcheque_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p8597";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_karagounis_greece_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p6994";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_torres_spain_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p14402";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_balotelli_italie_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p42493";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_moutinho_portugal_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p19624";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_fabregas_spain_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p17878";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_iniesta_spain_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p12237";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_erding_rennes_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p19510";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_briand_lyon_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p27675";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_aubameyang_asse_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p54694";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_roux_lille_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p51525";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_remy_om_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p38419";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_contout_sochaux_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p42759";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_medjani_ajaccio_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p17337";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_ibrahimovic_paris_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p9808";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_hulk_porto_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p53645";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_kalou_lille_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p37352";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_bressan_bate_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p63448";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_belhanda_mhsc_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p66959";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_ayew_marseille_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p45124";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_lavezzi_paris_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p45154";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_plasil_bordeaux_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p12057";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_kalou_lille_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p37352";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_menez_paris_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p19500";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_gomez_lyon_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p20088";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_samassa_valenciennes_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p37786";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_pitroipa_rennes_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p18168";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_monnetpaquet_lorient_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p38261";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_hamouna_asse_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p67276";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_nogueira_sochaux_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p45033";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_gignac_marseille_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p37827";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_mutu_ajaccio_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p4193";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_maoulida_bastia_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p10019";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_govou_evian_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p6600";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_payet_lille_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p37901";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_lacazette_lyon_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p59966";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_gomis_lyon_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p37998";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_gouffran_bordeaux_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p42727";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_feret_rennes_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p45082";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_mavouba_lille_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p18787";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_utaka_mhsc_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p13000";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_rami_valence_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p41795";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_cabaye_france_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p27341";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_suarez_uruguay_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p44404";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_gerrard_liverpool_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p1814";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_nasri_manchester_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p28554";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_gago_valence_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p19975";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_iniesta_barcelone_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p12237";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_giroud_france_scores".equals(label)
+                    || "label_question_giroud_arsenal_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p44346";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_hazard_chelsea_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p42786";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_pukki_finland_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p57127";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_valbuena_france_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p37852";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_putsila_belarus_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p49432";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_hamouna_asse_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p67276";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_nogueira_sochaux_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p45033";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_pitroipa_rennes_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p18168";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_monnetpaquet_lorient_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p38261";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_milevskiy_kiev_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p14566";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_arteta_arsenal_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p8758";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_gomez_bayern_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p17884";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_huntelaar_schalke_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p14941";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_messi_barcelona_scores"
+                    .equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p19054";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_boateng_inter_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p20360";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else if ("label_question_forlan_milan_scores".equals(label)) {
+                final String answer = questionPrediction.getAnswer();
+                final String uuid = "p12273";
+                boolean scored = outcome.hasScored(uuid);
+                if ("label_yes".equals(answer) && scored) {
+                    points += 5;
+                } else if ("label_no".equals(answer) && !scored) {
+                    points += 5;
+                }
+            } else {
+                throw new CoreException(
+                        "Missing questions rules for kup with id="
+                                + kup.getId() + " and name="
+                                + kup.getName() + " FOR questions=" + label);
+            }
+
+        } else {
+            throw new CoreException("Missing rules for kup with id="
+                    + kup.getId() + " and name=" + kup.getName());
+        }
+
+        return points;
+    }
+
+}
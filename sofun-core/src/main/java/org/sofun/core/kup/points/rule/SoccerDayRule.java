@@ -0,0 +1,88 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.rule;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.prediction.tournament.PredictionGameScore;
+import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.api.sport.tournament.TournamentGameScore;
+
+/**
+ * Points computation rule for soccer day Kups (Ligue 1, Coupe de la Ligue and
+ * partners weekly Kups).
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class SoccerDayRule extends AbstractKupPredictionPointsRule {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int getPointsFor(Kup kup, Prediction prediction, KupService kups)
+            throws CoreException {
+
+        int points = 0;
+
+        if ("se".equals(prediction.getType())
+                && prediction instanceof PredictionGameScore) {
+
+            PredictionGameScore gamePrediction = (PredictionGameScore) prediction;
+            TournamentGame game = gamePrediction.getTournamentGame();
+            TournamentGameScore score = game.getScore();
+
+            if (score.getScoreTeam1() == gamePrediction.getScoreTeam1()
+                    && score.getScoreTeam2() == gamePrediction
+                            .getScoreTeam2()) {
+                points += 15;
+            } else {
+                if (score.getScoreTeam1() > score.getScoreTeam2()
+
+                        && gamePrediction.getScoreTeam1() > gamePrediction
+                                .getScoreTeam2()) {
+                    points += 6;
+                } else if (score.getScoreTeam1() < score.getScoreTeam2()
+                        && gamePrediction.getScoreTeam1() < gamePrediction
+                                .getScoreTeam2()) {
+                    points += 6;
+                } else if (score.getScoreTeam1() < score.getScoreTeam2()
+                        && gamePrediction.getScoreTeam1() < gamePrediction
+                                .getScoreTeam2()) {
+                    points += 6;
+                } else if (score.getScoreTeam1() == score.getScoreTeam2()
+                        && gamePrediction.getScoreTeam1() == gamePrediction
+                                .getScoreTeam2()) {
+                    points += 6;
+                }
+                if (score.getScoreTeam1() == gamePrediction.getScoreTeam1()) {
+                    points += 3;
+                } else if (score.getScoreTeam2() == gamePrediction
+                        .getScoreTeam2()) {
+                    points += 3;
+                }
+            }
+
+        } else {
+            throw new CoreException("Missing rules for kup with id="
+                    + kup.getId() + " and name=" + kup.getName());
+        }
+
+        return points;
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.rule;
+
+import java.util.List;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.prediction.tournament.PredictionGameQuestion;
+import org.sofun.core.api.prediction.tournament.PredictionGameScore;
+import org.sofun.core.api.prediction.tournament.contestant.PredictionGameOrderedContestantsList;
+import org.sofun.core.api.sport.SportContestant;
+import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.api.sport.tournament.TournamentGameScore;
+
+/**
+ * Points computation rule for soccer Kross and Klub3 Kups.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class SoccerKrossRule extends AbstractKupPredictionPointsRule {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int getPointsFor(Kup kup, Prediction prediction, KupService kups)
+            throws CoreException {
+
+        int points = 0;
+
+        if ("se".equals(prediction.getType())
+                && prediction instanceof PredictionGameScore) {
+
+            PredictionGameScore gamePrediction = (PredictionGameScore) prediction;
+            TournamentGame game = gamePrediction.getTournamentGame();
+            TournamentGameScore score = game.getScore();
+
+            if (score.getScoreTeam1() == gamePrediction.getScoreTeam1()
+                    && score.getScoreTeam2() == gamePrediction
+                            .getScoreTeam2()) {
+                points += 15;
+            } else if (score.getScoreTeam1() > score.getScoreTeam2()
+                    && gamePrediction.getScoreTeam1() > gamePrediction
+                            .getScoreTeam2()) {
+                points += 5;
+            } else if (score.getScoreTeam1() < score.getScoreTeam2()
+                    && gamePrediction.getScoreTeam1() < gamePrediction
+                            .getScoreTeam2()) {
+                points += 5;
+            } else if (score.getScoreTeam1() == score.getScoreTeam2()
+                    && gamePrediction.getScoreTeam1() == gamePrediction
+                            .getScoreTeam2()) {
+                points += 5;
+            }
+
+        } else if ("ic".equals(prediction.getType())
+                && prediction instanceof PredictionGameOrderedContestantsList) {
+
+            PredictionGameOrderedContestantsList gamePrediction = (PredictionGameOrderedContestantsList) prediction;
+            TournamentGame game = gamePrediction.getTournamentGame();
+            TournamentGameScore score = game.getScore();
+            List<SportContestant> playerPrediction = gamePrediction
+                    .getContestants();
+
+            if (score.getScoreTeam1() > score.getScoreTeam2()) {
+                if (playerPrediction.size() > 0
+                        && game.getContestants().get(0)
+                                .equals(playerPrediction.get(0))) {
+                    points += 5;
+                }
+            } else if (score.getScoreTeam1() < score.getScoreTeam2()) {
+                if (playerPrediction.size() > 0
+                        && game.getContestants().get(1)
+                                .equals(playerPrediction.get(0))) {
+                    points += 5;
+                }
+            }
+
+        } else if ("q".equals(prediction.getType())
+
+        && prediction instanceof PredictionGameQuestion) {
+
+            PredictionGameQuestion questionPrediction = (PredictionGameQuestion) prediction;
+            TournamentGame game = questionPrediction.getTournamentGame();
+
+            String label = questionPrediction.getQuestion().getLabel();
+
+            if ("label_question_first_player_that_scores".equals(label)) {
+
+                String result = game.getProperties().get(
+                        "GAME_PROP_PLAYER_UUID_FIRST_GOAL");
+                String answer = questionPrediction.getAnswer();
+                if ("0".equals(answer)) {
+                    answer = "-1";
+                }
+                // If result is null let it fail with an NPE. It will be
+                // then retried later on when actual result will be set.
+                // If not it means there is an issue.
+                if (result.equals(answer)) {
+                    points += 15;
+                }
+
+            } else if ("label_question_winner_first_half".equals(label)) {
+
+                String result = game.getProperties().get(
+                        "GAME_PROP_WINNER_FIRST_HALF");
+                String answer = questionPrediction.getAnswer();
+
+                if ("0".equals(answer)) {
+                    answer = "";
+                }
+
+                if (result.equals(answer)) {
+                    points += 5;
+                }
+
+            } else if ("label_question_winner_second_half".equals(label)) {
+
+                String result = game.getProperties().get(
+                        "GAME_PROP_WINNER_SECOND_HALF");
+                String answer = questionPrediction.getAnswer();
+
+                if ("0".equals(answer)) {
+                    answer = "";
+                }
+
+                if (result.equals(answer)) {
+                    points += 5;
+                }
+
+            } else if ("label_question_goals_difference_at_end"
+                    .equals(label)) {
+
+                TournamentGameScore score = game.getScore();
+                String answer = questionPrediction.getAnswer();
+
+                int diffScore = Math.abs(score.getScoreTeam1()
+                        - score.getScoreTeam2());
+
+                if (String.valueOf(diffScore).equals(answer)) {
+                    points += 5;
+                }
+
+            } else if ("label_question_team_first_scores".equals(label)) {
+
+                String result = game.getProperties().get(
+                        "GAME_PROP_TEAM_UUID_FIRST_GOAL");
+                String answer = questionPrediction.getAnswer();
+                if ("0".equals(answer)) {
+                    answer = "-1";
+                }
+                if (result.equals(answer)) {
+                    points += 10;
+                }
+
+            } else if ("label_question_extra_time".equals(label)) {
+
+                final String answer = questionPrediction.getAnswer();
+                final String result = game.getProperties().get(
+                        "GAME_PROP_HAS_EXTRA_TIME");
+                if ("label_yes".equals(answer) && "1".equals(result)) {
+                    points += 10;
+                } else if ("label_no".equals(answer) && !"1".equals(result)) {
+                    points += 10;
+                }
+
+            } else {
+                throw new CoreException("Missing rules for kup with id="
+                        + kup.getId() + " and name=" + kup.getName()
+                        + " and question=" + label);
+            }
+
+        } else {
+            throw new CoreException("Missing rules for kup with id="
+                    + kup.getId() + " and name=" + kup.getName());
+        }
+
+        return points;
+    }
+
+}
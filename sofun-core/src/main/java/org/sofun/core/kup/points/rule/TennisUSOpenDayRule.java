@@ -0,0 +1,233 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.points.rule;
+
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.prediction.tournament.PredictionGameQuestion;
+import org.sofun.core.api.prediction.tournament.PredictionGameScore;
+import org.sofun.core.api.prediction.tournament.contestant.PredictionGameOrderedContestantsList;
+import org.sofun.core.api.sport.SportContestant;
+import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.api.sport.tournament.TournamentGameScore;
+import org.sofun.core.kup.points.outcome.EventOutcomeCache;
+import org.sofun.core.kup.points.outcome.GameOutcome;
+
+/**
+ * Points computation rule for US Open 2012 tennis day and big game Kups.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class TennisUSOpenDayRule extends AbstractKupPredictionPointsRule {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Log log = LogFactory.getLog(TennisUSOpenDayRule.class);
+
+    @Override
+    public int getPointsFor(Kup kup, Prediction prediction, KupService kups)
+            throws CoreException {
+
+        int points = 0;
+
+        if ("ic".equals(prediction.getType())
+                && prediction instanceof PredictionGameOrderedContestantsList) {
+
+            PredictionGameOrderedContestantsList gamePrediction = (PredictionGameOrderedContestantsList) prediction;
+            TournamentGame game = gamePrediction.getTournamentGame();
+            TournamentGameScore score = game.getScore();
+            List<SportContestant> playerPrediction = gamePrediction
+                    .getContestants();
+
+            if (score.getScoreTeam1() > score.getScoreTeam2()) {
+                if (playerPrediction.size() > 0
+                        && game.getContestants().get(0)
+                                .equals(playerPrediction.get(0))) {
+                    points += 2;
+                }
+            } else if (score.getScoreTeam1() < score.getScoreTeam2()) {
+                if (playerPrediction.size() > 0
+                        && game.getContestants().get(1)
+                                .equals(playerPrediction.get(0))) {
+                    points += 2;
+                }
+            }
+
+        } else if ("se".equals(prediction.getType())
+                && prediction instanceof PredictionGameScore) {
+
+            PredictionGameScore gamePrediction = (PredictionGameScore) prediction;
+            TournamentGame game = gamePrediction.getTournamentGame();
+            TournamentGameScore score = game.getScore();
+
+            if (score.getScoreTeam1() == gamePrediction.getScoreTeam1()
+                    && score.getScoreTeam2() == gamePrediction
+                            .getScoreTeam2()) {
+                points += 10;
+            } else if (score.getScoreTeam1() > score.getScoreTeam2()
+                    && gamePrediction.getScoreTeam1() > gamePrediction
+                            .getScoreTeam2()) {
+                points += 2;
+            } else if (score.getScoreTeam1() < score.getScoreTeam2()
+                    && gamePrediction.getScoreTeam1() < gamePrediction
+                            .getScoreTeam2()) {
+                points += 2;
+            } else if (score.getScoreTeam1() == score.getScoreTeam2()
+                    && gamePrediction.getScoreTeam1() == gamePrediction
+                            .getScoreTeam2()) {
+                points += 2;
+            }
+
+        } else if ("q".equals(prediction.getType())
+                && prediction instanceof PredictionGameQuestion) {
+
+            PredictionGameQuestion questionPrediction = (PredictionGameQuestion) prediction;
+            TournamentGame game = questionPrediction.getTournamentGame();
+            final GameOutcome outcome = EventOutcomeCache.getGameOutcome(game);
+
+            String label = questionPrediction.getQuestion().getLabel();
+
+            if ("label_question_tennis_sets_number".equals(label)) {
+
+                final int nb_sets_max = outcome
+                        .getIntProperty("number_of_sets");
+
+                // Raise if results are missing or malformed: computed again
+                // later on.
+                final int[] setsFirstEntry = outcome.getSetsFirstEntry();
+                final int[] setsSecondEntry = outcome.getSetsSecondEntry();
+
+                // First entry games per set then second entry ones.
+                final int[] answerSets = parseAnswer(questionPrediction
+                        .getAnswer());
+                if (answerSets == null) {
+                    log.warn("Malformed answer for prediction with uuid="
+                            + prediction.getId() + ": no points granted.");
+                    return points;
+                }
+                final int nb_answer_sets = answerSets.length / 2;
+
+                boolean finalTbGame = false;
+                if (setsFirstEntry.length > nb_sets_max) {
+                    finalTbGame = true;
+                }
+
+                int offset = 0;
+                int nb_se_sets = 0;
+                int nb_ic_sets = 0;
+                while (offset < setsFirstEntry.length) {
+
+                    try {
+
+                        // Player predicted less sets than actual match
+                        if (offset > nb_answer_sets) {
+                            break;
+                        }
+
+                        // TODO fixme tb game.
+
+                        final int actual1 = setsFirstEntry[offset];
+                        final int actual2 = setsSecondEntry[offset];
+                        final int first = answerSets[offset];
+                        final int second = answerSets[offset + nb_answer_sets];
+
+                        // SE set
+                        if (actual1 == first && actual2 == second) {
+                            nb_se_sets += 1;
+                            nb_ic_sets += 1;
+                            points += 40;
+                        } else if ((actual1 < actual2 && first < second)
+                                || (actual1 > actual2 && first > second)) {
+                            // IC set
+                            nb_ic_sets += 1;
+                            points += 5;
+                        }
+
+                    } catch (IndexOutOfBoundsException e) {
+                        log.warn("Cannot compute prediction with uuid="
+                                + prediction.getId());
+                    } finally {
+                        offset += 1;
+                    }
+
+                }
+
+                // Compute combo
+                if (!finalTbGame) {
+                    // Points for the actual amount of sets
+                    if (nb_answer_sets == setsFirstEntry.length) {
+                        points += 20;
+                        // Combo only applies when correct number of sets
+                        if (nb_se_sets == setsFirstEntry.length) {
+                            points += 50;
+                        } else if (nb_ic_sets == setsFirstEntry.length) {
+                            points += 30;
+                        }
+
+                    }
+                } else {
+                    // Points for the actual amount of sets
+                    if (nb_answer_sets == nb_sets_max) {
+                        points += 20;
+                        // Combo only applies when correct number of sets
+                        if (nb_se_sets == nb_sets_max) {
+                            points += 50;
+                        } else if (nb_ic_sets == nb_sets_max) {
+                            points += 30;
+                        }
+                    }
+                }
+
+            } else {
+                throw new CoreException("Missing rules for kup with id="
+                        + kup.getId() + " and name=" + kup.getName());
+            }
+
+        } else {
+            throw new CoreException("Missing rules for kup with id="
+                    + kup.getId() + " and name=" + kup.getName());
+        }
+
+        return points;
+    }
+
+    /*
+     * Answers are stored as games per set separated by '#'. (i.e.:
+     * "6#3#6#4#6#3" for 6/4 3/6 6/3)
+     */
+    private static int[] parseAnswer(String answer) {
+        if (answer == null || answer.isEmpty()) {
+            return null;
+        }
+        final String[] values = answer.split("#");
+        final int[] sets = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            try {
+                sets[i] = Integer.parseInt(values[i]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return sets;
+    }
+
+}
@@ -15,10 +15,12 @@
 package org.sofun.core.kup.policy;
 
 import java.util.Calendar;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.sofun.core.CoreConstants;
 import org.sofun.core.api.kup.Kup;
 import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.local.ClusterCoordinatorLocal;
 import org.sofun.core.api.prediction.PredictionService;
 
 /**
@@ -30,7 +32,7 @@ import org.sofun.core.api.prediction.PredictionService;
 public abstract class AbstractKupLifeCycleManager {
 
     /* Is the manager busy computing already? */
-    protected boolean available = true;
+    protected final AtomicBoolean available = new AtomicBoolean(true);
 
     /* Kups Service */
     protected abstract KupService getKups();
@@ -38,6 +40,20 @@ public abstract class AbstractKupLifeCycleManager {
     /* Prediction's service */
     protected abstract PredictionService getPredictions();
 
+    /* Cluster coordinator */
+    protected abstract ClusterCoordinatorLocal getCluster();
+
+    /**
+     * Is this node responsible for the given {@link Kup}? Other nodes take
+     * care of the Kups of the shards they hold.
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @return true if the Kup belongs to one of the local shards.
+     */
+    protected boolean isLocal(Kup kup) {
+        return getCluster().isLocal(kup.getId());
+    }
+
     /**
      * Returns the reference time at which a {@link Kup} should be on going.
      * 
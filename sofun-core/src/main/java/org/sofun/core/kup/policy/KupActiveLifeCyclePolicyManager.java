@@ -15,12 +15,12 @@
 package org.sofun.core.kup.policy;
 
 import java.util.Calendar;
+import java.util.Date;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 
 import javax.ejb.EJB;
-import javax.ejb.Schedule;
 import javax.ejb.Singleton;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -32,6 +32,7 @@ import org.sofun.core.api.kup.Kup;
 import org.sofun.core.api.kup.KupService;
 import org.sofun.core.api.kup.KupStatus;
 import org.sofun.core.api.kup.KupType;
+import org.sofun.core.api.local.ClusterCoordinatorLocal;
 import org.sofun.core.api.local.KupServiceLocal;
 import org.sofun.core.api.local.PredictionServiceLocal;
 import org.sofun.core.api.prediction.PredictionService;
@@ -41,8 +42,8 @@ import org.sofun.core.api.prediction.PredictionService;
  * 
  * <p/>
  * 
- * triggering Kup life cycle checks on regular basis out of process for active
- * Kups only.
+ * triggering Kup life cycle checks out of process for due Kups only. (see
+ * {@link KupLifeCycleScheduler})
  * 
  * <p/>
  * 
@@ -70,6 +71,9 @@ public class KupActiveLifeCyclePolicyManager extends
     @PersistenceContext(unitName = CoreConstants.PERSISTENCE_UNIT)
     protected transient EntityManager em;
 
+    @EJB(beanName = "ClusterCoordinator", beanInterface = ClusterCoordinatorLocal.class)
+    private ClusterCoordinatorLocal cluster;
+
     @Override
     public KupService getKups() {
         return kups;
@@ -80,18 +84,25 @@ public class KupActiveLifeCyclePolicyManager extends
         return predictions;
     }
 
+    @Override
+    public ClusterCoordinatorLocal getCluster() {
+        return cluster;
+    }
+
     /**
      * Kup life cycle management.
      * 
+     * <p/>
+     * 
+     * Triggered by the {@link KupLifeCycleScheduler} and only applied to the
+     * Kups whose next transition is due.
+     * 
      * @throws Exception
      */
-    @Schedule(minute = "*/4", hour = "*", persistent = false)
     public void check() throws Exception {
 
-        if (!available) {
+        if (!available.compareAndSet(true, false)) {
             return;
-        } else {
-            available = false;
         }
 
         try {
@@ -102,8 +113,8 @@ public class KupActiveLifeCyclePolicyManager extends
             activesAndCreated[0] = KupStatus.CREATED;
             activesAndCreated[1] = KupStatus.OPENED;
             activesAndCreated[2] = KupStatus.ON_GOING;
-            final List<Kup> activeKups = kups.getKupsByStatus(
-                    activesAndCreated, null);
+            final List<Kup> activeKups = kups.getDueKups(activesAndCreated,
+                    null, new Date());
 
             final Calendar ref = getReferenceTime();
 
@@ -111,6 +122,9 @@ public class KupActiveLifeCyclePolicyManager extends
             while (kupsIter.hasNext()) {
 
                 Kup kup = kupsIter.next();
+                if (!isLocal(kup)) {
+                    continue;
+                }
                 // Ensure no changes have been made by another transaction in
                 // the mean time.
                 em.refresh(kup);
@@ -119,16 +133,26 @@ public class KupActiveLifeCyclePolicyManager extends
                     final Calendar startDate = Calendar.getInstance();
                     startDate.setTime(kup.getStartDate());
                     if (ref.compareTo(startDate) >= 0) {
+                        kups.openCounters(kup);
                         kup.setStatus(KupStatus.OPENED);
                         log.info("Kup with id=" + String.valueOf(kup.getId())
                                 + " has now status=" + KupStatus.OPENED);
                     }
                 } else if (KupStatus.OPENED == kup.getStatus()) {
+                    final Date effectiveStartDate = kup.getEffectiveStartDate();
+                    if (effectiveStartDate == null) {
+                        // Must not hold back the other due Kups.
+                        log.error("Kup with id=" + String.valueOf(kup.getId())
+                                + " has no start date.");
+                        continue;
+                    }
                     final Calendar startDate = Calendar.getInstance();
-                    startDate.setTime(kup.getEffectiveStartDate());
+                    startDate.setTime(effectiveStartDate);
                     if (ref.compareTo(startDate) >= 0) {
+                        // Still opened to bets.
+                        kups.loadCounters(kup);
                         boolean cancelled = false;
-                        if (kup.getParticipants().size() < 2) {
+                        if (kup.getNbParticipants() < 2) {
                             // Cancel gambling Kup if only one (1) participant.
                             if (KupType.GAMBLING_FR.equals(kup.getType())) {
                                 kups.cancelKup(kup);
@@ -147,16 +171,23 @@ public class KupActiveLifeCyclePolicyManager extends
                         }
                     }
                 } else if (KupStatus.ON_GOING == kup.getStatus()) {
+                    final Date effectiveEndDate = kup.getEffectiveEndDate();
+                    if (effectiveEndDate == null) {
+                        log.error("Kup with id=" + String.valueOf(kup.getId())
+                                + " has no end date.");
+                        continue;
+                    }
                     final Calendar endDate = Calendar.getInstance();
                     // Kup is closed if the last event of the Kup is less
                     // than 5 minutes to begin.
-                    endDate.setTime(kup.getEffectiveEndDate());
+                    endDate.setTime(effectiveEndDate);
                     if (ref.compareTo(endDate) >= 0) {
+                        kups.foldCounters(kup);
                         Map<Integer, Float> repartition = kups
                                 .getWinningsRepartitionRulesFor(kup);
                         final int numberOfWinners = repartition.size();
                         boolean cancelled = false;
-                        if (kup.getParticipants().size() < numberOfWinners) {
+                        if (kup.getNbParticipants() < numberOfWinners) {
                             // Cancel gambling Kup participants below amount of
                             // announced winners.
                             if (KupType.GAMBLING_FR.equals(kup.getType())) {
@@ -183,7 +214,7 @@ public class KupActiveLifeCyclePolicyManager extends
             log.error(t.getMessage());
             t.printStackTrace();
         } finally {
-            available = true;
+            available.set(true);
         }
 
         // Cancel status in exceptional situations will be handled manually per
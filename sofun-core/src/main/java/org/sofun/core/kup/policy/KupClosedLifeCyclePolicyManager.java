@@ -16,43 +16,43 @@ package org.sofun.core.kup.policy;
 
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 
 import javax.ejb.EJB;
-import javax.ejb.Schedule;
 import javax.ejb.Singleton;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.sofun.core.CoreConstants;
 import org.sofun.core.api.community.table.MemberRankingTableEntry;
+import org.sofun.core.api.community.table.MemberRankingTableService;
 import org.sofun.core.api.kup.Kup;
-import org.sofun.core.api.kup.KupRankingTable;
 import org.sofun.core.api.kup.KupService;
 import org.sofun.core.api.kup.KupStatus;
 import org.sofun.core.api.kup.KupType;
+import org.sofun.core.api.local.ClusterCoordinatorLocal;
 import org.sofun.core.api.local.KupServiceLocal;
+import org.sofun.core.api.local.MemberRankingTableServiceLocal;
 import org.sofun.core.api.local.PredictionServiceLocal;
-import org.sofun.core.api.member.Member;
-import org.sofun.core.api.prediction.Prediction;
-import org.sofun.core.api.prediction.PredictionQuestionKupTiebreaker;
 import org.sofun.core.api.prediction.PredictionService;
 import org.sofun.core.api.question.QuestionKupTiebreaker;
 import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.community.table.MemberRankingTableEntryImpl;
 
 /**
  * Kup Policy Timer.
  * 
  * <p/>
  * 
- * triggering Kup life cycle checks on regular basis out of process for active
- * Kups only.
+ * triggering Kup life cycle checks out of process for due Kups only. (see
+ * {@link KupLifeCycleScheduler})
  * 
  * <p/>
  * 
@@ -82,6 +82,12 @@ public class KupClosedLifeCyclePolicyManager extends
     @PersistenceContext(unitName = CoreConstants.PERSISTENCE_UNIT)
     protected transient EntityManager em;
 
+    @EJB(beanName = "ClusterCoordinator", beanInterface = ClusterCoordinatorLocal.class)
+    private ClusterCoordinatorLocal cluster;
+
+    @EJB(beanName = "MemberRankingTableServiceImpl", beanInterface = MemberRankingTableServiceLocal.class)
+    private MemberRankingTableService rankings;
+
     @Override
     public KupService getKups() {
         return kups;
@@ -92,18 +98,25 @@ public class KupClosedLifeCyclePolicyManager extends
         return predictions;
     }
 
+    @Override
+    public ClusterCoordinatorLocal getCluster() {
+        return cluster;
+    }
+
     /**
      * Kup life cycle management.
      * 
+     * <p/>
+     * 
+     * Triggered by the {@link KupLifeCycleScheduler} and only applied to the
+     * Kups whose next transition is due.
+     * 
      * @throws Exception
      */
-    @Schedule(minute = "*/5", hour = "*", persistent = false)
     public void check() throws Exception {
 
-        if (!available) {
+        if (!available.compareAndSet(true, false)) {
             return;
-        } else {
-            available = false;
         }
 
         try {
@@ -116,13 +129,16 @@ public class KupClosedLifeCyclePolicyManager extends
 
             final byte[] closeStatus = new byte[1];
             closeStatus[0] = KupStatus.CLOSED;
-            final List<Kup> closedKups = kups
-                    .getKupsByStatus(closeStatus, null);
+            final List<Kup> closedKups = kups.getDueKups(closeStatus, null,
+                    new Date());
 
             ListIterator<Kup> kupsIter = closedKups.listIterator();
             while (kupsIter.hasNext()) {
 
                 Kup kup = kupsIter.next();
+                if (!isLocal(kup)) {
+                    continue;
+                }
                 // Ensure no changes have been made by another transaction in
                 // the mean time.
                 em.refresh(kup);
@@ -138,45 +154,25 @@ public class KupClosedLifeCyclePolicyManager extends
                     continue;
                 }
 
-                boolean compute = true;
-                ListIterator<Prediction> predictionsIter = getPredictions()
-                        .getPredictionsFor(kup).listIterator();
-                while (predictionsIter.hasNext()) {
-                    Prediction prediction = predictionsIter.next();
-                    if (!prediction.isPointsComputed()) {
-                        compute = false;
-                        break;
-                    }
-                }
-
                 // Not all predictions got computed. We will retry later on.
                 // Computation is performed by another scheduled timer.
-                if (!compute) {
+                if (getPredictions().hasPredictionsToCompute(kup)) {
                     continue;
                 }
 
                 // Sort out winners and apply policy in case of players w/ same
-                // amount of points.
-                KupRankingTable table = kup.getRankingTable();
-                List<MemberRankingTableEntry> entries = new ArrayList<MemberRankingTableEntry>(
-                        table.getEntries());
+                // amount of points. Entries are updated by the database and
+                // never loaded as a whole.
+                final long tableId = kup.getRankingTable().getId();
                 if (kup.getQuestionsTiebreaker().size() > 0) {
-                    setTiebreakerOffsets(entries, kup);
+                    setTiebreakerOffsets(tableId, kup);
                 }
 
                 // The table is final at this stage. We do not have any risk of
                 // conflicts since no new participants will ever be
                 // added nor values updated.
-                table.setEntries(new HashSet<MemberRankingTableEntry>(entries));
-
                 // Set final member's position in table.
-                int i = 0;
-                for (MemberRankingTableEntry entry : entries) {
-                    MemberRankingTableEntry actual = table
-                            .getEntryForMember(entry.getMember());
-                    actual.setPosition(i);
-                    i++;
-                }
+                rankings.updatePositions(tableId);
 
                 // Verify if we need to cancel the kup because there are no
                 // winners when we are in a non-free type of Kup to meet CGUs.
@@ -185,16 +181,11 @@ public class KupClosedLifeCyclePolicyManager extends
                     Map<Integer, Float> repartition = kups
                             .getWinningsRepartitionRulesFor(kup);
                     int actualWinners = 0;
-                    Iterator<MemberRankingTableEntry> ki = kup
-                            .getRankingTable().getEntries().iterator();
-                    while (ki.hasNext()) {
-                        MemberRankingTableEntry entry = ki.next();
+                    for (MemberRankingTableEntry entry : rankings.getEntries(
+                            tableId, 0, repartition.size())) {
                         if (entry.getValue() > 0) {
                             actualWinners += 1;
                         }
-                        if (actualWinners >= repartition.size()) {
-                            break;
-                        }
                     }
 
                     if (actualWinners == 0) {
@@ -217,7 +208,7 @@ public class KupClosedLifeCyclePolicyManager extends
             log.error(t.getMessage());
             t.printStackTrace();
         } finally {
-            available = true;
+            available.set(true);
         }
 
         // Cancel status in exceptional situations will be handled manually per
@@ -226,8 +217,18 @@ public class KupClosedLifeCyclePolicyManager extends
 
     }
 
-    protected void setTiebreakerOffsets(List<MemberRankingTableEntry> entries,
-            Kup kup) {
+    /**
+     * Sets the tiebreaker offsets of all the entries of a Kup ranking table,
+     * i.e. the distance between each answer and the actual outcome.
+     * 
+     * <p>
+     * 
+     * Entries are updated in bulk, one statement per distinct offset.
+     * 
+     * @param tableId: the identifier of the Kup ranking table.
+     * @param kup: a {@link Kup} instance.
+     */
+    protected void setTiebreakerOffsets(long tableId, Kup kup) {
         QuestionKupTiebreaker q = kup.getQuestionsTiebreaker().get(0);
         int tb = 0;
         if (q.getId() == 3) {
@@ -239,33 +240,50 @@ public class KupClosedLifeCyclePolicyManager extends
         } else {
             tb = countTotalScores(kup);
         }
-        ListIterator<MemberRankingTableEntry> it = entries.listIterator();
-        while (it.hasNext()) {
-            MemberRankingTableEntry e = it.next();
-            e.setTiebreakerOffset(Math.abs(getTiebreakerQuestionAnswerFor(
-                    e.getMember(), kup)
-                    - tb));
+        // All participants answers at once.
+        final Map<Long, String> answers = getPredictions()
+                .getTiebreakerAnswersFor(kup, q, null);
+        Map<Integer, List<Long>> offsets = new HashMap<Integer, List<Long>>();
+        for (Map.Entry<Long, String> answer : answers.entrySet()) {
+            final int offset = Math.abs(parseTiebreakerAnswer(answer
+                    .getValue()) - tb);
+            List<Long> memberIds = offsets.get(offset);
+            if (memberIds == null) {
+                memberIds = new ArrayList<Long>();
+                offsets.put(offset, memberIds);
+            }
+            memberIds.add(answer.getKey());
+        }
+
+        // Members without answer first.
+        final String update = "update "
+                + MemberRankingTableEntryImpl.class.getSimpleName()
+                + " e set e.tiebreakerOffset=:offset"
+                + " where e.table.id=:table_id";
+        Query query = em.createQuery(update);
+        query.setParameter("offset", Math.abs(tb));
+        query.setParameter("table_id", tableId);
+        query.executeUpdate();
+        for (Map.Entry<Integer, List<Long>> offset : offsets.entrySet()) {
+            query = em.createQuery(update
+                    + " and e.member.id in (:member_ids)");
+            query.setParameter("offset", offset.getKey());
+            query.setParameter("table_id", tableId);
+            query.setParameter("member_ids", offset.getValue());
+            query.executeUpdate();
         }
     }
 
-    private int getTiebreakerQuestionAnswerFor(Member member, Kup kup) {
-        int answer = 0;
+    private int parseTiebreakerAnswer(String answer) {
         // FIXME deal with different and possibly several questions.
-        if (kup.getQuestionsTiebreaker().size() > 0) {
-            QuestionKupTiebreaker q = kup.getQuestionsTiebreaker().get(0);
-            PredictionQuestionKupTiebreaker p = getPredictions()
-                    .getPredictionQuestionKupTieBreakerFor(member, kup, q);
-            if (p != null) {
-                if (!p.getAnswer().isEmpty()) {
-                    try {
-                        answer = Integer.valueOf(p.getAnswer());
-                    } catch (NumberFormatException e) {
-                        log.warn("Issue validating tie breaker question.");
-                    }
-                }
+        if (answer != null && !answer.isEmpty()) {
+            try {
+                return Integer.valueOf(answer);
+            } catch (NumberFormatException e) {
+                log.warn("Issue validating tie breaker question.");
             }
         }
-        return answer;
+        return 0;
     }
 
     /**
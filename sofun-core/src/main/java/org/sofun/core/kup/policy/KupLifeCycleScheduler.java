@@ -0,0 +1,424 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.policy;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.SessionContext;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.Configuration;
+import org.sofun.core.CoreConstants;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupStatus;
+import org.sofun.core.api.kup.KupType;
+import org.sofun.core.api.local.ClusterCoordinatorLocal;
+import org.sofun.core.api.local.KupSettlementEngineLocal;
+import org.sofun.core.kup.KupImpl;
+
+/**
+ * Kup Life Cycle Scheduler.
+ * 
+ * <p/>
+ * 
+ * Each Kup stores the instant at which its next status transition is due
+ * (<code>kups.next_transition</code> column, indexed by
+ * {@link org.sofun.core.CoreSchema}). The scheduler keeps a single timer
+ * armed on the earliest one and, when it fires, runs the life
+ * cycle policy managers against the due Kups only. It then computes the next
+ * transition of these Kups and arms the timer again.
+ * 
+ * <p/>
+ * 
+ * Effective dates may move when sport events get rescheduled: the Kups bound
+ * to them get their stored event dates refreshed and their transition
+ * cleared (see
+ * {@link org.sofun.core.api.kup.KupService#refreshEventDatesFor(java.util.Collection)})
+ * so that they are scheduled again. A due Kup whose transition did not happen
+ * is simply rescheduled. A Kup without any date yet is checked again every
+ * <code>kup.lifecycle.horizon</code> minutes rather than on every pass. A
+ * transition that is blocked (e.g. points not computed yet) is attempted
+ * again after {@link #RETRY_DELAY} seconds.
+ * 
+ * <p/>
+ * 
+ * A coarse timer verifies every 5 minutes that the timer is armed on the
+ * earliest transition and schedules the Kups having none yet (new ones or
+ * Kups whose dates moved). Stored event dates are never recomputed here: they
+ * are refreshed where sport events and Kups bettable events get written.
+ * Payouts and refunds left pending (see
+ * {@link KupSettledLifeCyclePolicyManager}) get the timer to fire again after
+ * {@link #RETRY_DELAY} seconds.
+ * 
+ * <p/>
+ * 
+ * Within a cluster, each node only schedules the Kups of the shards it holds
+ * (see {@link ClusterCoordinatorLocal}).
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Startup
+@Singleton
+public class KupLifeCycleScheduler {
+
+    private static final Log log = LogFactory
+            .getLog(KupLifeCycleScheduler.class);
+
+    /* Property holding the delay (in minutes) before Kups without any date
+     * are checked again. */
+    public static final String PROP_HORIZON = "kup.lifecycle.horizon";
+
+    public static final int DEFAULT_HORIZON = 1440;
+
+    /* Delay (in seconds) before a blocked transition is attempted again. */
+    public static final int RETRY_DELAY = 300;
+
+    private static final String TIMER_INFO = "kup.lifecycle";
+
+    /* Restricts queries on Kups k to the local shards. */
+    private static final String LOCAL_SHARDS = " AND mod(k.id, :shards) IN (:local)";
+
+    /* Status from which a transition is expected. */
+    private static final byte[] PENDING_STATUS = new byte[] {
+            KupStatus.CREATED, KupStatus.OPENED, KupStatus.ON_GOING,
+            KupStatus.CLOSED, KupStatus.SETTLED };
+
+    @EJB
+    private KupActiveLifeCyclePolicyManager active;
+
+    @EJB
+    private KupClosedLifeCyclePolicyManager closed;
+
+    @EJB
+    private KupSettledLifeCyclePolicyManager settled;
+
+    @EJB(beanName = "KupSettlementEngine", beanInterface = KupSettlementEngineLocal.class)
+    private KupSettlementEngineLocal settlement;
+
+    @EJB(beanName = "ClusterCoordinator", beanInterface = ClusterCoordinatorLocal.class)
+    private ClusterCoordinatorLocal cluster;
+
+    @PersistenceContext(unitName = CoreConstants.PERSISTENCE_UNIT)
+    private transient EntityManager em;
+
+    @Resource
+    private TimerService timerService;
+
+    @Resource
+    private SessionContext context;
+
+    private static int getHorizon() {
+        final String value = Configuration.getProperties().getProperty(
+                PROP_HORIZON);
+        if (value != null) {
+            try {
+                final int horizon = Integer.valueOf(value.trim());
+                if (horizon > 0) {
+                    return horizon;
+                }
+            } catch (NumberFormatException e) {
+                log.error("Invalid value for " + PROP_HORIZON + ": " + value);
+            }
+        }
+        return DEFAULT_HORIZON;
+    }
+
+    private static Date add(Date date, int field, int amount) {
+        final Calendar ref = Calendar.getInstance();
+        ref.setTime(date);
+        ref.add(field, amount);
+        return ref.getTime();
+    }
+
+    /**
+     * Computes the instant at which the next status transition of a Kup is
+     * due. Mirrors the conditions checked by the policy managers.
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @param now: the reference {@link Date}.
+     * @return a {@link Date} or null if no transition is expected.
+     */
+    public static Date getNextTransitionFor(Kup kup, Date now) {
+
+        // Policy managers compare to now + TIME_TO_BET_BEFORE_EVENT_STARTS
+        // for active Kups.
+        final int ttb = -CoreConstants.TIME_TO_BET_BEFORE_EVENT_STARTS;
+
+        Date date = null;
+        switch (kup.getStatus()) {
+        case KupStatus.CREATED:
+            date = kup.getStartDate();
+            if (date != null) {
+                date = add(date, Calendar.SECOND, ttb);
+            }
+            break;
+        case KupStatus.OPENED:
+            date = kup.getEffectiveStartDate();
+            if (date != null) {
+                date = add(date, Calendar.SECOND, ttb);
+            }
+            break;
+        case KupStatus.ON_GOING:
+            date = kup.getEffectiveEndDate();
+            if (date != null) {
+                date = add(date, Calendar.SECOND, ttb);
+            }
+            break;
+        case KupStatus.CLOSED:
+            date = kup.getEffectiveEndDate();
+            break;
+        case KupStatus.SETTLED:
+            if (KupType.GAMBLING_FR.equals(kup.getType())) {
+                return now;
+            }
+            return null;
+        default:
+            return null;
+        }
+
+        if (date == null) {
+            // Dates get known along with events: no need to poll these often.
+            return add(now, Calendar.MINUTE, getHorizon());
+        }
+        return date;
+
+    }
+
+    @PostConstruct
+    public void init() {
+        reschedule();
+    }
+
+    private static List<Byte> getPendingStatus() {
+        List<Byte> status = new ArrayList<Byte>();
+        for (byte each : PENDING_STATUS) {
+            status.add(each);
+        }
+        return status;
+    }
+
+    /**
+     * Binds the local shards parameters of a query.
+     * 
+     * @param query: a {@link Query} using {@link #LOCAL_SHARDS}.
+     * @param local: the local shards.
+     * @return the {@link Query}
+     */
+    private Query setLocalShards(Query query, Set<Integer> local) {
+        query.setParameter("shards", cluster.getShards());
+        query.setParameter("local", local);
+        return query;
+    }
+
+    /**
+     * Schedules the Kups having no transition yet and arms the timer on the
+     * earliest transition.
+     */
+    @Schedule(minute = "*/5", hour = "*", persistent = false)
+    public void reschedule() {
+
+        final Date now = new Date();
+
+        final Set<Integer> local = cluster.getLocalShards();
+        if (local.isEmpty()) {
+            // No shard held (yet).
+            arm(null, now);
+            return;
+        }
+
+        Query query = em.createQuery("from " + KupImpl.class.getSimpleName()
+                + " k where k.nextTransition is null and k.status IN (:status)"
+                + " AND (k.status <> :settled OR k.type = :gambling)"
+                + LOCAL_SHARDS);
+        setLocalShards(query, local);
+        query.setParameter("status", getPendingStatus());
+        query.setParameter("settled", KupStatus.SETTLED);
+        query.setParameter("gambling", KupType.GAMBLING_FR);
+        @SuppressWarnings("unchecked")
+        final List<Kup> unscheduled = query.getResultList();
+        for (Kup kup : unscheduled) {
+            try {
+                kup.setNextTransition(getNextTransitionFor(kup, now));
+            } catch (Exception e) {
+                log.error("Cannot schedule kup with id="
+                        + String.valueOf(kup.getId()) + ": " + e.getMessage());
+            }
+        }
+
+        query = em.createQuery("select min(k.nextTransition) from "
+                + KupImpl.class.getSimpleName()
+                + " k where k.status IN (:status)" + LOCAL_SHARDS);
+        setLocalShards(query, local);
+        query.setParameter("status", getPendingStatus());
+        Date next = (Date) query.getSingleResult();
+        boolean pending = false;
+        for (Long kupId : settlement.getPendingKups()) {
+            if (cluster.isLocal(kupId)) {
+                pending = true;
+                break;
+            }
+        }
+        if (pending) {
+            // Payouts or refunds left behind: try again later on.
+            final Date retry = add(now, Calendar.SECOND, RETRY_DELAY);
+            if (next == null || retry.before(next)) {
+                next = retry;
+            }
+        }
+        arm(next, now);
+
+    }
+
+    /**
+     * Arms the timer, replacing the previous one.
+     * 
+     * @param date: the {@link Date} at which the timer should fire or null.
+     * @param now: the reference {@link Date}.
+     */
+    private void arm(Date date, Date now) {
+        for (Timer timer : timerService.getTimers()) {
+            if (TIMER_INFO.equals(timer.getInfo())) {
+                timer.cancel();
+            }
+        }
+        if (date == null) {
+            return;
+        }
+        if (date.before(now)) {
+            date = now;
+        }
+        timerService.createSingleActionTimer(date, new TimerConfig(TIMER_INFO,
+                false));
+        log.debug("Next kup transition due at " + date);
+    }
+
+    /**
+     * Runs the policy managers against the due Kups.
+     * 
+     * <p/>
+     * 
+     * Not transactional: each policy manager runs within its own transaction.
+     * 
+     * @param timer: the {@link Timer} that fired.
+     */
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void onTimeout(Timer timer) {
+
+        final Date now = new Date();
+        final KupLifeCycleScheduler self = context
+                .getBusinessObject(KupLifeCycleScheduler.class);
+
+        try {
+            final Map<Long, Byte> due = self.getDueKups(now);
+            if (!due.isEmpty()) {
+                log.debug(String.valueOf(due.size()) + " kups are due");
+                active.check();
+                closed.check();
+            }
+            // Also carries on with pending payouts and refunds.
+            settled.check();
+            if (!due.isEmpty()) {
+                self.updateTransitions(due, now);
+            }
+        } catch (Exception e) {
+            log.error("Kup life cycle failed: " + e.getMessage());
+        } finally {
+            self.reschedule();
+        }
+
+    }
+
+    /**
+     * Returns the local Kups due at a given date.
+     * 
+     * @param date: a {@link Date} instance.
+     * @return a {@link Map} from Kup id to its current status.
+     */
+    public Map<Long, Byte> getDueKups(Date date) {
+        final Map<Long, Byte> due = new HashMap<Long, Byte>();
+        final Set<Integer> local = cluster.getLocalShards();
+        if (local.isEmpty()) {
+            return due;
+        }
+        final Query query = em.createQuery("select k.id, k.status from "
+                + KupImpl.class.getSimpleName()
+                + " k where k.status IN (:status)"
+                + " AND k.nextTransition <= :date" + LOCAL_SHARDS);
+        setLocalShards(query, local);
+        query.setParameter("status", getPendingStatus());
+        query.setParameter("date", date);
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = query.getResultList();
+        for (Object[] row : rows) {
+            due.put((Long) row[0], (Byte) row[1]);
+        }
+        return due;
+    }
+
+    /**
+     * Computes the next transition of the Kups that were due.
+     * 
+     * @param due: a {@link Map} from Kup id to its status before the policy
+     *        managers ran.
+     * @param now: the reference {@link Date}.
+     */
+    public void updateTransitions(Map<Long, Byte> due, Date now) {
+        for (Map.Entry<Long, Byte> each : due.entrySet()) {
+            final Kup kup = em.find(KupImpl.class, each.getKey());
+            if (kup == null) {
+                continue;
+            }
+            Date next;
+            try {
+                next = getNextTransitionFor(kup, now);
+            } catch (Exception e) {
+                log.error("Cannot schedule kup with id="
+                        + String.valueOf(kup.getId()) + ": " + e.getMessage());
+                next = add(now, Calendar.SECOND, RETRY_DELAY);
+            }
+            if (next != null && !next.after(now)
+                    && kup.getStatus() == each.getValue()) {
+                // Still due but status unchanged: transition blocked.
+                next = add(now, Calendar.SECOND, RETRY_DELAY);
+            }
+            kup.setNextTransition(next);
+        }
+    }
+
+}
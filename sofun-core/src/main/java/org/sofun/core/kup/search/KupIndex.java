@@ -0,0 +1,435 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.sofun.core.api.kup.KupStatus;
+
+/**
+ * Kup Index.
+ * 
+ * <p>
+ * 
+ * Faceted in-memory index of Kups answering lobby searches (see
+ * {@link KupIndexQuery}) along with exact counts.
+ * 
+ * <p>
+ * 
+ * Entries are posted per status, stake class, sport, template flag and team
+ * privacy. A search scans the smallest posting matching its criteria,
+ * filters the entries and keeps the top <code>offset + batchSize</code>
+ * ones in a bounded heap: O(n log k) where n is the size of the posting.
+ * 
+ * <p>
+ * 
+ * Only the Kups which are not archived yet ({@link #INDEXED_STATUS}) are
+ * indexed: searches for other status are not answered.
+ * 
+ * <p>
+ * 
+ * Participants are only tracked for Kups still opened to participation
+ * ({@link #TRACKED_STATUS}, see {@link KupParticipations}): searches leaving
+ * a member's Kups out and participation checks are not answered for other
+ * status.
+ * 
+ * <p>
+ * 
+ * Thread safe.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class KupIndex {
+
+    /* Status of the indexed Kups. */
+    public static final Set<Byte> INDEXED_STATUS = Collections
+            .unmodifiableSet(new HashSet<Byte>(Arrays.asList(
+                    KupStatus.CREATED, KupStatus.OPENED, KupStatus.ON_GOING,
+                    KupStatus.CLOSED)));
+
+    /* Status for which participants are tracked. */
+    public static final Set<Byte> TRACKED_STATUS = Collections
+            .unmodifiableSet(new HashSet<Byte>(Arrays.asList(
+                    KupStatus.CREATED, KupStatus.OPENED, KupStatus.ON_GOING)));
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, KupIndexEntry> entries = new HashMap<Long, KupIndexEntry>();
+
+    private final Map<Byte, Set<Long>> byStatus = new HashMap<Byte, Set<Long>>();
+
+    private final Map<String, Set<Long>> byStake = new HashMap<String, Set<Long>>();
+
+    private final Map<String, Set<Long>> bySport = new HashMap<String, Set<Long>>();
+
+    private final Map<String, Set<Long>> byPrivacy = new HashMap<String, Set<Long>>();
+
+    private final Set<Long> templates = new HashSet<Long>();
+
+    private final KupParticipations participations = new KupParticipations();
+
+    private static <K> void post(Map<K, Set<Long>> facet, K key, long id) {
+        Set<Long> posting = facet.get(key);
+        if (posting == null) {
+            posting = new HashSet<Long>();
+            facet.put(key, posting);
+        }
+        posting.add(id);
+    }
+
+    private static <K> void unpost(Map<K, Set<Long>> facet, K key, long id) {
+        final Set<Long> posting = facet.get(key);
+        if (posting != null) {
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                facet.remove(key);
+            }
+        }
+    }
+
+    private void index(KupIndexEntry entry) {
+        final long id = entry.getId();
+        post(byStatus, entry.getStatus(), id);
+        post(byStake, entry.getStakeClass(), id);
+        post(bySport, entry.getSport(), id);
+        post(byPrivacy, entry.getTeamPrivacy(), id);
+        if (entry.isTemplate()) {
+            templates.add(id);
+        }
+    }
+
+    private void unindex(KupIndexEntry entry) {
+        final long id = entry.getId();
+        unpost(byStatus, entry.getStatus(), id);
+        unpost(byStake, entry.getStakeClass(), id);
+        unpost(bySport, entry.getSport(), id);
+        unpost(byPrivacy, entry.getTeamPrivacy(), id);
+        templates.remove(id);
+    }
+
+    /**
+     * Adds or replaces the entry of a Kup. An entry not knowing its amount of
+     * participants keeps the one of the entry it replaces. An archived Kup
+     * gets removed.
+     * 
+     * @param entry: a {@link KupIndexEntry} instance.
+     */
+    public void put(KupIndexEntry entry) {
+        if (!INDEXED_STATUS.contains(entry.getStatus())) {
+            remove(entry.getId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (entry.getNbParticipants() == KupIndexEntry.UNKNOWN) {
+                final KupIndexEntry current = entries.get(entry.getId());
+                entry = entry.withNbParticipants(current != null ? current
+                        .getNbParticipants() : 0);
+            }
+            final KupIndexEntry previous = entries.put(entry.getId(), entry);
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(entry);
+            if (!TRACKED_STATUS.contains(entry.getStatus())) {
+                participations.remove(entry.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the entry of a Kup.
+     * 
+     * @param kupId: the Kup identifier.
+     */
+    public void remove(long kupId) {
+        lock.writeLock().lock();
+        try {
+            final KupIndexEntry previous = entries.remove(kupId);
+            if (previous != null) {
+                unindex(previous);
+            }
+            participations.remove(kupId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records the participants of a Kup. Ignored if the Kup is not indexed or
+     * not tracked.
+     * 
+     * @param kupId: the Kup identifier.
+     * @param memberIds: member identifiers.
+     */
+    public void addParticipants(long kupId, Collection<Long> memberIds) {
+        if (memberIds == null || memberIds.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            final KupIndexEntry entry = entries.get(kupId);
+            if (entry == null || !TRACKED_STATUS.contains(entry.getStatus())) {
+                return;
+            }
+            participations.add(kupId, memberIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records members who joined a Kup and adds the ones not known yet to its
+     * amount of participants. Ignored if the Kup is not indexed or not
+     * tracked.
+     * 
+     * @param kupId: the Kup identifier.
+     * @param memberIds: member identifiers.
+     */
+    public void join(long kupId, Collection<Long> memberIds) {
+        if (memberIds == null || memberIds.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            final KupIndexEntry entry = entries.get(kupId);
+            if (entry == null || !TRACKED_STATUS.contains(entry.getStatus())) {
+                return;
+            }
+            final int joined = participations.add(kupId, memberIds);
+            if (joined > 0) {
+                entries.put(kupId, entry.withNbParticipants(entry
+                        .getNbParticipants() + joined));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the amount of participants of a Kup, as counted in database.
+     * Ignored if the Kup is not indexed.
+     * 
+     * @param kupId: the Kup identifier.
+     * @param nb: the amount of participants.
+     */
+    public void setNbParticipants(long kupId, int nb) {
+        lock.writeLock().lock();
+        try {
+            final KupIndexEntry entry = entries.get(kupId);
+            if (entry != null && entry.getNbParticipants() != nb) {
+                entries.put(kupId, entry.withNbParticipants(nb));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Is a member participating in a Kup?
+     * 
+     * @param kupId: the Kup identifier.
+     * @param memberId: the member identifier.
+     * @return true or false or null if the Kup is not indexed or its
+     *         participants not tracked.
+     */
+    public Boolean isParticipant(long kupId, long memberId) {
+        lock.readLock().lock();
+        try {
+            final KupIndexEntry entry = entries.get(kupId);
+            if (entry == null || !TRACKED_STATUS.contains(entry.getStatus())) {
+                return null;
+            }
+            return participations.contains(kupId, memberId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public KupIndexEntry getEntry(long kupId) {
+        lock.readLock().lock();
+        try {
+            return entries.get(kupId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Can the index answer a query?
+     * 
+     * @param query: a {@link KupIndexQuery} instance.
+     * @param memberId: the member whose Kups should be left out or null.
+     * @return true if it can.
+     */
+    public boolean supports(KupIndexQuery query, Long memberId) {
+        if (query.getStatus() == null) {
+            return false;
+        }
+        if (memberId == null) {
+            return INDEXED_STATUS.containsAll(query.getStatus());
+        }
+        return TRACKED_STATUS.containsAll(query.getStatus());
+    }
+
+    /**
+     * Collects the postings of the given keys.
+     * 
+     * @return a {@link List} of postings.
+     */
+    private static <K> List<Set<Long>> getPostings(Map<K, Set<Long>> facet,
+            Collection<K> keys) {
+        List<Set<Long>> postings = new ArrayList<Set<Long>>();
+        for (K key : keys) {
+            final Set<Long> posting = facet.get(key);
+            if (posting != null) {
+                postings.add(posting);
+            }
+        }
+        return postings;
+    }
+
+    private static int size(List<Set<Long>> postings) {
+        int size = 0;
+        for (Set<Long> posting : postings) {
+            size += posting.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the smallest postings holding all the Kups matching a query.
+     * Postings of a facet are disjoint.
+     */
+    private List<Set<Long>> getCandidates(KupIndexQuery query) {
+        List<List<Set<Long>>> facets = new ArrayList<List<Set<Long>>>();
+        if (query.getStatus() != null) {
+            facets.add(getPostings(byStatus, query.getStatus()));
+        }
+        if (query.getStakeClasses() != null) {
+            facets.add(getPostings(byStake, query.getStakeClasses()));
+        }
+        if (query.getSports() != null) {
+            facets.add(getPostings(bySport, query.getSports()));
+        }
+        if (query.isRoomKups()) {
+            facets.add(getPostings(byPrivacy, KupIndexQuery.ROOM_PRIVACY));
+        } else if (query.isTemplate()) {
+            facets.add(Collections.singletonList(templates));
+        }
+        List<Set<Long>> smallest = Collections.singletonList(entries
+                .keySet());
+        int smallestSize = entries.size();
+        for (List<Set<Long>> facet : facets) {
+            final int size = size(facet);
+            if (size < smallestSize) {
+                smallest = facet;
+                smallestSize = size;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Searches the index.
+     * 
+     * @param query: a {@link KupIndexQuery} instance.
+     * @param memberId: the member whose Kups should be left out or null.
+     * @param offset: position of the first result (starting at 0).
+     * @param batchSize: maximum amount of results. 0 means all.
+     * @return a {@link KupIndexResults} instance or null if the query is not
+     *         supported (see {@link #supports(KupIndexQuery, Long)}).
+     */
+    public KupIndexResults search(KupIndexQuery query, Long memberId,
+            int offset, int batchSize) {
+
+        if (!supports(query, memberId)) {
+            return null;
+        }
+        if (offset < 0) {
+            offset = 0;
+        }
+
+        final Comparator<KupIndexEntry> comparator = query.getComparator();
+        final int limit = batchSize > 0 ? offset + batchSize
+                : Integer.MAX_VALUE;
+        // Worst of the kept results at the head.
+        final PriorityQueue<KupIndexEntry> top = new PriorityQueue<KupIndexEntry>(
+                11, Collections.reverseOrder(comparator));
+        int total = 0;
+
+        lock.readLock().lock();
+        try {
+            final long[] excluded = memberId != null ? participations
+                    .getKups(memberId) : null;
+            for (Set<Long> posting : getCandidates(query)) {
+                for (Long id : posting) {
+                    final KupIndexEntry entry = entries.get(id);
+                    if (entry == null || !query.matches(entry)) {
+                        continue;
+                    }
+                    if (excluded != null && excluded.length > 0
+                            && Arrays.binarySearch(excluded, id) >= 0) {
+                        continue;
+                    }
+                    total++;
+                    if (top.size() < limit) {
+                        top.add(entry);
+                    } else if (comparator.compare(entry, top.peek()) < 0) {
+                        top.poll();
+                        top.add(entry);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<KupIndexEntry> sorted = new ArrayList<KupIndexEntry>(top);
+        Collections.sort(sorted, comparator);
+        final int from = Math.min(offset, sorted.size());
+        long[] ids = new long[sorted.size() - from];
+        for (int i = from; i < sorted.size(); i++) {
+            ids[i - from] = sorted.get(i).getId();
+        }
+        return new KupIndexResults(ids, total);
+
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.search;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupType;
+import org.sofun.core.kup.KupImpl;
+
+/**
+ * Kup Index Entry.
+ * 
+ * <p>
+ * 
+ * Immutable snapshot of the searchable fields of a Kup. Not bound to any
+ * persistence context.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public final class KupIndexEntry implements Serializable {
+
+    private static final long serialVersionUID = 3154218006410937581L;
+
+    public static final String STAKE_FREE = "FREE";
+
+    public static final String STAKE_FREEROLL = "FREEROLL";
+
+    public static final String STAKE_GAMBLING = "GAMBLING";
+
+    /* Amount of participants not known by the entry. */
+    public static final int UNKNOWN = -1;
+
+    private final long id;
+
+    private final String name;
+
+    private final String type;
+
+    private final float stake;
+
+    private final int guaranteedPrice;
+
+    private final byte status;
+
+    private final boolean template;
+
+    private final String teamPrivacy;
+
+    private final String sport;
+
+    private final Date startDate;
+
+    private final Date endDate;
+
+    private final int nbParticipants;
+
+    private final int duration;
+
+    public KupIndexEntry(long id, String name, String type, float stake,
+            int guaranteedPrice, byte status, boolean template,
+            String teamPrivacy, String sportName, Date startDate,
+            Date endDate, int nbParticipants, int duration) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.stake = stake;
+        this.guaranteedPrice = guaranteedPrice;
+        this.status = status;
+        this.template = template;
+        this.teamPrivacy = teamPrivacy;
+        this.sport = sportName != null ? sportName.toUpperCase() : null;
+        this.startDate = startDate != null ? (Date) startDate.clone() : null;
+        this.endDate = endDate != null ? (Date) endDate.clone() : null;
+        this.nbParticipants = nbParticipants;
+        this.duration = duration;
+    }
+
+    /**
+     * Indexes a Kup. The amount of participants is left unknown if reading it
+     * requires loading the Kup counters. (see {@link KupIndex#put})
+     * 
+     * @param kup: a {@link Kup} instance.
+     */
+    public KupIndexEntry(Kup kup) {
+        this(kup.getId(), kup.getName(), kup.getType(), kup.getStake(), kup
+                .getGuaranteedPrice(), kup.getStatus(), kup.isTemplate(), kup
+                .getTeam() != null ? kup.getTeam().getPrivacy() : null, kup
+                .getSport() != null ? kup.getSport().getName() : null, kup
+                .getStartDate(), kup.getEndDate(), getNbParticipants(kup),
+                kup.getDuration());
+    }
+
+    private static int getNbParticipants(Kup kup) {
+        if (kup instanceof KupImpl && !((KupImpl) kup).isCountersLoaded()) {
+            return UNKNOWN;
+        }
+        return kup.getNbParticipants();
+    }
+
+    /**
+     * Returns a copy of this entry with the given amount of participants.
+     * 
+     * @param nb: an amount of participants.
+     * @return a {@link KupIndexEntry} instance.
+     */
+    KupIndexEntry withNbParticipants(int nb) {
+        return new KupIndexEntry(id, name, type, stake, guaranteedPrice,
+                status, template, teamPrivacy, sport, startDate, endDate, nb,
+                duration);
+    }
+
+    /**
+     * Builds an entry out of a row of {@link KupSearchIndex#ENTRIES_QUERY}.
+     * 
+     * @param row: an array of objects.
+     */
+    public KupIndexEntry(Object[] row) {
+        this(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                row[3] != null ? ((Number) row[3]).floatValue() : 0,
+                row[4] != null ? ((Number) row[4]).intValue() : 0,
+                ((Number) row[5]).byteValue(), Boolean.TRUE.equals(row[6]),
+                (String) row[7], (String) row[8], (Date) row[9],
+                (Date) row[10], row[11] != null ? ((Number) row[11])
+                        .intValue() : 0, row[12] != null ? ((Number) row[12])
+                        .intValue() : 0);
+    }
+
+    /**
+     * Returns the stake class of a Kup.
+     * 
+     * @param type: the Kup type.
+     * @param stake: the Kup stake.
+     * @return {@link #STAKE_FREE}, {@link #STAKE_FREEROLL},
+     *         {@link #STAKE_GAMBLING} or null.
+     */
+    public static String getStakeClass(String type, float stake) {
+        if (KupType.FREE.equals(type)) {
+            return STAKE_FREE;
+        } else if (KupType.GAMBLING_FR.equals(type)) {
+            return stake > 0 ? STAKE_GAMBLING : STAKE_FREEROLL;
+        }
+        return null;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public float getStake() {
+        return stake;
+    }
+
+    public String getStakeClass() {
+        return getStakeClass(type, stake);
+    }
+
+    public int getGuaranteedPrice() {
+        return guaranteedPrice;
+    }
+
+    public byte getStatus() {
+        return status;
+    }
+
+    public boolean isTemplate() {
+        return template;
+    }
+
+    public String getTeamPrivacy() {
+        return teamPrivacy;
+    }
+
+    /**
+     * Returns the upper cased sport name.
+     * 
+     * @return a {@link String} or null.
+     */
+    public String getSport() {
+        return sport;
+    }
+
+    public Date getStartDate() {
+        return startDate != null ? (Date) startDate.clone() : null;
+    }
+
+    public Date getEndDate() {
+        return endDate != null ? (Date) endDate.clone() : null;
+    }
+
+    public int getNbParticipants() {
+        return nbParticipants;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    /* Date comparison without copies. */
+    int compareStartDate(KupIndexEntry other, boolean asc) {
+        return compareDates(startDate, other.startDate, asc);
+    }
+
+    int compareEndDate(KupIndexEntry other, boolean asc) {
+        return compareDates(endDate, other.endDate, asc);
+    }
+
+    /**
+     * Compares dates the way the database orders them: nulls last when
+     * ascending and first when descending.
+     */
+    private static int compareDates(Date d1, Date d2, boolean asc) {
+        if (d1 == null || d2 == null) {
+            if (d1 == d2) {
+                return 0;
+            }
+            return (d1 == null) == asc ? 1 : -1;
+        }
+        return asc ? d1.compareTo(d2) : d2.compareTo(d1);
+    }
+
+}
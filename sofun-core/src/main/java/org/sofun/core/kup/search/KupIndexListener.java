@@ -0,0 +1,83 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.search;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.kup.KupImpl;
+
+/**
+ * Kup Index Listener.
+ * 
+ * <p>
+ * 
+ * JPA entity listener forwarding Kup life cycle (creation, status, dates,
+ * stakes, etc.) and participation changes to the {@link KupSearchIndex}.
+ * Changes made through bulk or native queries are not seen: they are picked
+ * up when the index gets reloaded.
+ * 
+ * <p>
+ * 
+ * Entity listeners do not get injected: the index registers itself when
+ * deployed. Nothing happens out of the container.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class KupIndexListener {
+
+    private static final Log log = LogFactory.getLog(KupIndexListener.class);
+
+    private static volatile KupSearchIndex index;
+
+    static void register(KupSearchIndex searchIndex) {
+        index = searchIndex;
+    }
+
+    static void unregister(KupSearchIndex searchIndex) {
+        if (index == searchIndex) {
+            index = null;
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(KupImpl kup) {
+        final KupSearchIndex current = index;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.update(new KupIndexEntry(kup), kup.drainJoined());
+        } catch (Exception e) {
+            // Never fail the flush: the next reload will fix the index.
+            log.error("Cannot index kup with id=" + String.valueOf(kup.getId())
+                    + ": " + e.getMessage());
+        }
+    }
+
+    @PostRemove
+    public void onRemove(KupImpl kup) {
+        final KupSearchIndex current = index;
+        if (current != null) {
+            current.remove(kup.getId());
+        }
+    }
+
+}
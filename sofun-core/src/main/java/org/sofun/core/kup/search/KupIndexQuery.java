@@ -0,0 +1,354 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.search;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.sofun.core.api.kup.KupType;
+import org.sofun.core.api.team.TeamPrivacy;
+
+/**
+ * Kup Index Query.
+ * 
+ * <p>
+ * 
+ * Lobby search criteria as parsed from the parameters of
+ * <code>KupService.search()</code> and matched against {@link KupIndexEntry}
+ * instances. Mirrors the JPQL query the service used to build.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class KupIndexQuery implements Serializable {
+
+    private static final long serialVersionUID = -2207409651861826519L;
+
+    public static final String SORT_START_DATE = "START_DATE";
+
+    public static final String SORT_JACKPOT = "JACKPOT";
+
+    public static final String SORT_PARTICIPANTS = "PARTICIPANTS";
+
+    public static final String SORT_DURATION = "KUP_DURATION";
+
+    public static final List<String> ROOM_PRIVACY = Arrays.asList(
+            TeamPrivacy.PUBLIC, TeamPrivacy.PUBLIC_GAMBLING_FR);
+
+    /* Sort keys */
+    private static final int STATUS_ASC = 0;
+
+    private static final int START_DATE_ASC = 1;
+
+    private static final int END_DATE_DESC = 2;
+
+    private static final int JACKPOT_DESC = 3;
+
+    private static final int PARTICIPANTS_DESC = 4;
+
+    private static final int DURATION_DESC = 5;
+
+    private Set<Byte> status;
+
+    private boolean roomKups = false;
+
+    private boolean template = true;
+
+    private List<String> names;
+
+    private String stake;
+
+    private List<String> sports;
+
+    private String excludedParticipant;
+
+    private boolean closed = false;
+
+    private List<String> sort;
+
+    /**
+     * Parses lobby search parameters.
+     * 
+     * @param params: the search parameters.
+     * @param status: the Kup status to search for or null for any.
+     * @return a {@link KupIndexQuery} or null if the parameters are invalid.
+     */
+    public static KupIndexQuery parse(Map<String, String> params,
+            List<Byte> status) {
+
+        final String statusParam = params.get("status");
+        if (statusParam == null || statusParam.isEmpty()) {
+            return null;
+        }
+
+        final KupIndexQuery query = new KupIndexQuery();
+        if (status != null) {
+            query.status = new LinkedHashSet<Byte>(status);
+        }
+        query.closed = "ALL_CLOSED".equals(statusParam);
+        query.roomKups = "1".equals(params.get("withRoomKups"));
+
+        final String template = params.get("isTemplate");
+        if (template != null && !template.isEmpty() && !template.equals("1")) {
+            query.template = false;
+        }
+
+        final String name = params.get("name");
+        if (name != null && !name.isEmpty()) {
+            query.names = Arrays.asList(name.split(","));
+        }
+
+        final String stake = params.get("stake");
+        if (stake != null) {
+            if (stake.isEmpty()) {
+                return null;
+            }
+            query.stake = stake;
+        }
+
+        final String sports = params.get("sports");
+        if (sports != null) {
+            if (sports.isEmpty()) {
+                return null;
+            }
+            List<String> sparams = Arrays.asList(sports.split("#"));
+            if (!sparams.contains("ALL")) {
+                query.sports = sparams;
+            }
+        }
+
+        final String excluded = params.get("removeValidatedfor");
+        if (excluded != null && !excluded.isEmpty()) {
+            query.excludedParticipant = excluded;
+        }
+
+        final String sort = params.get("sort");
+        if (sort != null) {
+            if (sort.isEmpty()) {
+                return null;
+            }
+            query.sort = Arrays.asList(sort.split("#"));
+        }
+
+        return query;
+
+    }
+
+    /**
+     * Returns the status searched for.
+     * 
+     * @return a {@link Set} of status or null for any.
+     */
+    public Set<Byte> getStatus() {
+        return status;
+    }
+
+    public boolean isRoomKups() {
+        return roomKups;
+    }
+
+    public boolean isTemplate() {
+        return template;
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    public String getStake() {
+        return stake;
+    }
+
+    /**
+     * Returns the sport names searched for, matched against upper cased
+     * sport names.
+     * 
+     * @return a {@link List} or null for any.
+     */
+    public List<String> getSports() {
+        return sports;
+    }
+
+    /**
+     * Returns the email of the member whose Kups should be left out.
+     * 
+     * @return an email or null.
+     */
+    public String getExcludedParticipant() {
+        return excludedParticipant;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public List<String> getSort() {
+        return sort;
+    }
+
+    /**
+     * Returns the stake classes the stake criterion narrows the search to.
+     * 
+     * @return a {@link List} of stake classes or null if no narrowing.
+     */
+    public List<String> getStakeClasses() {
+        if ("FREEROLL".equals(stake)) {
+            return Arrays.asList(KupIndexEntry.STAKE_FREEROLL);
+        } else if ("GAMBLING".equals(stake)) {
+            return Arrays.asList(KupIndexEntry.STAKE_GAMBLING);
+        } else if ("FREE".equals(stake)) {
+            return Arrays.asList(KupIndexEntry.STAKE_FREE);
+        } else if ("ALL_GAMBLING".equals(stake)) {
+            return Arrays.asList(KupIndexEntry.STAKE_FREEROLL,
+                    KupIndexEntry.STAKE_GAMBLING);
+        }
+        return null;
+    }
+
+    private boolean matchesStake(KupIndexEntry entry) {
+        if (stake == null) {
+            return true;
+        } else if ("FREE_FREEROLL".equals(stake)) {
+            return entry.getStake() == 0;
+        } else if ("FREEROLL".equals(stake)) {
+            return entry.getStake() == 0
+                    && KupType.GAMBLING_FR.equals(entry.getType());
+        } else if ("GAMBLING".equals(stake)) {
+            return entry.getStake() > 0
+                    && KupType.GAMBLING_FR.equals(entry.getType());
+        } else if ("FREE".equals(stake)) {
+            return KupType.FREE.equals(entry.getType());
+        } else if ("ALL_GAMBLING".equals(stake)) {
+            return KupType.GAMBLING_FR.equals(entry.getType());
+        }
+        return true;
+    }
+
+    /**
+     * Does an entry match the criteria? Participants are not taken into
+     * account.
+     * 
+     * @param entry: a {@link KupIndexEntry} instance.
+     * @return true if matching.
+     */
+    public boolean matches(KupIndexEntry entry) {
+        if (roomKups) {
+            if (!ROOM_PRIVACY.contains(entry.getTeamPrivacy())) {
+                return false;
+            }
+        } else if (entry.isTemplate() != template) {
+            return false;
+        }
+        if (status != null && !status.contains(entry.getStatus())) {
+            return false;
+        }
+        if (names != null && !names.contains(entry.getName())) {
+            return false;
+        }
+        if (!matchesStake(entry)) {
+            return false;
+        }
+        if (sports != null && !sports.contains(entry.getSport())) {
+            return false;
+        }
+        if (closed && entry.getNbParticipants() <= 0) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the sort keys, in the order the service used to apply them.
+     */
+    private int[] getSortKeys() {
+        List<Integer> keys = new ArrayList<Integer>();
+        if (sort == null || sort.contains(SORT_START_DATE)) {
+            if (closed) {
+                keys.add(END_DATE_DESC);
+            } else {
+                keys.add(STATUS_ASC);
+                keys.add(START_DATE_ASC);
+            }
+        }
+        if (sort != null) {
+            if (sort.contains(SORT_JACKPOT)) {
+                keys.add(JACKPOT_DESC);
+            }
+            if (sort.contains(SORT_PARTICIPANTS)) {
+                keys.add(PARTICIPANTS_DESC);
+            }
+            if (sort.contains(SORT_DURATION)) {
+                keys.add(DURATION_DESC);
+            }
+        }
+        int[] result = new int[keys.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = keys.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ordering of the results. Ties are broken by Kup id so that
+     * pages are stable.
+     * 
+     * @return a {@link Comparator} instance.
+     */
+    public Comparator<KupIndexEntry> getComparator() {
+        final int[] keys = getSortKeys();
+        return new Comparator<KupIndexEntry>() {
+            @Override
+            public int compare(KupIndexEntry e1, KupIndexEntry e2) {
+                for (int key : keys) {
+                    int c = 0;
+                    switch (key) {
+                    case STATUS_ASC:
+                        c = e1.getStatus() - e2.getStatus();
+                        break;
+                    case START_DATE_ASC:
+                        c = e1.compareStartDate(e2, true);
+                        break;
+                    case END_DATE_DESC:
+                        c = e1.compareEndDate(e2, false);
+                        break;
+                    case JACKPOT_DESC:
+                        c = e2.getGuaranteedPrice() - e1.getGuaranteedPrice();
+                        break;
+                    case PARTICIPANTS_DESC:
+                        c = e2.getNbParticipants() - e1.getNbParticipants();
+                        break;
+                    case DURATION_DESC:
+                        c = e2.getDuration() - e1.getDuration();
+                        break;
+                    default:
+                        break;
+                    }
+                    if (c != 0) {
+                        return c;
+                    }
+                }
+                return e1.getId() < e2.getId() ? -1
+                        : (e1.getId() == e2.getId() ? 0 : 1);
+            }
+        };
+    }
+
+}
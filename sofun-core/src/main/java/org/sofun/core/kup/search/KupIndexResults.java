@@ -0,0 +1,55 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.search;
+
+import java.io.Serializable;
+
+/**
+ * Kup Index Results.
+ * 
+ * <p>
+ * 
+ * A page of Kup identifiers along with the exact amount of matching Kups.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class KupIndexResults implements Serializable {
+
+    private static final long serialVersionUID = 8923415760311265482L;
+
+    private final long[] ids;
+
+    private final long totalResults;
+
+    public KupIndexResults(long[] ids, long totalResults) {
+        this.ids = ids;
+        this.totalResults = totalResults;
+    }
+
+    /**
+     * Returns the identifiers of the Kups of the page, ordered.
+     * 
+     * @return an array of Kup identifiers.
+     */
+    public long[] getIds() {
+        return ids;
+    }
+
+    public long getTotalResults() {
+        return totalResults;
+    }
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kup Participations.
+ * 
+ * <p>
+ * 
+ * Compact two-way participation structure: the participants of each Kup and
+ * the Kups of each participant, both kept as sorted arrays of identifiers.
+ * A membership check is a binary search within the smallest side and leaving
+ * a member's Kups out of a search costs one lookup plus a binary search per
+ * candidate Kup.
+ * 
+ * <p>
+ * 
+ * Arrays are copied on insertion: participations are added a few at a time
+ * while most checks happen on the lobby and Kup pages.
+ * 
+ * <p>
+ * 
+ * Not thread safe: guarded by the {@link KupIndex} lock.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class KupParticipations {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final Map<Long, long[]> byKup = new HashMap<Long, long[]>();
+
+    private final Map<Long, long[]> byMember = new HashMap<Long, long[]>();
+
+    private int size = 0;
+
+    /**
+     * Inserts a value in a sorted array.
+     * 
+     * @return the new array or the given one if the value was already there.
+     */
+    private static long[] insert(long[] values, long value) {
+        if (values == null) {
+            return new long[] { value };
+        }
+        int pos = Arrays.binarySearch(values, value);
+        if (pos >= 0) {
+            return values;
+        }
+        pos = -pos - 1;
+        long[] grown = new long[values.length + 1];
+        System.arraycopy(values, 0, grown, 0, pos);
+        grown[pos] = value;
+        System.arraycopy(values, pos, grown, pos + 1, values.length - pos);
+        return grown;
+    }
+
+    /**
+     * Removes a value from a sorted array.
+     * 
+     * @return the new array, the given one if the value was not there or null
+     *         if the array ends up empty.
+     */
+    private static long[] delete(long[] values, long value) {
+        if (values == null) {
+            return null;
+        }
+        final int pos = Arrays.binarySearch(values, value);
+        if (pos < 0) {
+            return values;
+        }
+        if (values.length == 1) {
+            return null;
+        }
+        long[] shrunk = new long[values.length - 1];
+        System.arraycopy(values, 0, shrunk, 0, pos);
+        System.arraycopy(values, pos + 1, shrunk, pos, values.length - pos
+                - 1);
+        return shrunk;
+    }
+
+    /**
+     * Merges values in a sorted array.
+     * 
+     * @param values: a sorted array or null.
+     * @param added: sorted values, without duplicates.
+     * @param count: the amount of values to merge from <code>added</code>.
+     * @return the merged array.
+     */
+    private static long[] merge(long[] values, long[] added, int count) {
+        if (values == null) {
+            return Arrays.copyOf(added, count);
+        }
+        long[] merged = new long[values.length + count];
+        int i = 0, j = 0, k = 0;
+        while (i < values.length && j < count) {
+            merged[k++] = values[i] < added[j] ? values[i++] : added[j++];
+        }
+        while (i < values.length) {
+            merged[k++] = values[i++];
+        }
+        while (j < count) {
+            merged[k++] = added[j++];
+        }
+        return merged;
+    }
+
+    /**
+     * Records the participants of a Kup. Participants are merged at once so
+     * that loading a Kup with many participants stays O(n log n).
+     * 
+     * @param kupId: the Kup identifier.
+     * @param memberIds: member identifiers.
+     * @return the amount of participants not known yet.
+     */
+    public int add(long kupId, Collection<Long> memberIds) {
+        final long[] members = byKup.get(kupId);
+        long[] added = new long[memberIds.size()];
+        int count = 0;
+        for (Long memberId : memberIds) {
+            if (memberId != null) {
+                added[count++] = memberId;
+            }
+        }
+        Arrays.sort(added, 0, count);
+        int fresh = 0;
+        for (int i = 0; i < count; i++) {
+            final long memberId = added[i];
+            if (i > 0 && added[i - 1] == memberId) {
+                // Duplicate: left untouched by the compaction below.
+                continue;
+            }
+            if (members != null
+                    && Arrays.binarySearch(members, memberId) >= 0) {
+                continue;
+            }
+            added[fresh++] = memberId;
+            byMember.put(memberId, insert(byMember.get(memberId), kupId));
+        }
+        if (fresh > 0) {
+            byKup.put(kupId, merge(members, added, fresh));
+            size += fresh;
+        }
+        return fresh;
+    }
+
+    /**
+     * Forgets all the participations of a Kup.
+     * 
+     * @param kupId: the Kup identifier.
+     */
+    public void remove(long kupId) {
+        final long[] members = byKup.remove(kupId);
+        if (members == null) {
+            return;
+        }
+        for (long memberId : members) {
+            final long[] kups = delete(byMember.get(memberId), kupId);
+            if (kups == null) {
+                byMember.remove(memberId);
+            } else {
+                byMember.put(memberId, kups);
+            }
+        }
+        size -= members.length;
+    }
+
+    /**
+     * Is a member participating in a Kup?
+     * 
+     * @param kupId: the Kup identifier.
+     * @param memberId: the member identifier.
+     * @return true if recorded.
+     */
+    public boolean contains(long kupId, long memberId) {
+        final long[] members = byKup.get(kupId);
+        if (members == null) {
+            return false;
+        }
+        final long[] kups = byMember.get(memberId);
+        if (kups == null) {
+            return false;
+        }
+        if (kups.length < members.length) {
+            return Arrays.binarySearch(kups, kupId) >= 0;
+        }
+        return Arrays.binarySearch(members, memberId) >= 0;
+    }
+
+    /**
+     * Returns the Kups of a member. The returned array must not be modified.
+     * 
+     * @param memberId: the member identifier.
+     * @return a sorted array of Kup identifiers, possibly empty.
+     */
+    public long[] getKups(long memberId) {
+        final long[] kups = byMember.get(memberId);
+        return kups != null ? kups : EMPTY;
+    }
+
+    /**
+     * Returns the participants of a Kup. The returned array must not be
+     * modified.
+     * 
+     * @param kupId: the Kup identifier.
+     * @return a sorted array of member identifiers, possibly empty.
+     */
+    public long[] getMembers(long kupId) {
+        final long[] members = byKup.get(kupId);
+        return members != null ? members : EMPTY;
+    }
+
+    /**
+     * Returns the amount of participations recorded.
+     * 
+     * @return an int.
+     */
+    public int size() {
+        return size;
+    }
+
+}
@@ -0,0 +1,501 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.kup.search;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Local;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sofun.core.Configuration;
+import org.sofun.core.CoreConstants;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.local.KupSearchIndexLocal;
+import org.sofun.core.kup.KupCounterImpl;
+import org.sofun.core.kup.KupImpl;
+
+/**
+ * Kup Search Index.
+ * 
+ * <p>
+ * 
+ * Keeps a {@link KupIndex} of the Kups not archived yet in memory so that
+ * lobby searches and their counts are answered without querying the
+ * database: only the Kups of the page are loaded.
+ * 
+ * <p>
+ * 
+ * The index is loaded in the background by a timer with three scalar
+ * queries: request threads never load it and fall back on the database
+ * until it is. It is then maintained from the Kup changes committed on this
+ * node (see {@link KupIndexListener}) and, every
+ * <code>kup.index.refresh</code> seconds, from the Kups whose indexed
+ * attributes changed since the previous read (<code>index_modified</code>
+ * column, stamped by Kups and by the bulk updates of these attributes) so
+ * that changes committed by other nodes get picked up. Changes are read
+ * again from {@link #CHANGES_OVERLAP} seconds before the previous read:
+ * transactions commit after stamping and node clocks drift. The index is
+ * only reloaded once older than the <code>kup.index.ttl</code> property
+ * (minutes), as a safety net.
+ * 
+ * <p>
+ * 
+ * The amounts of participants, a sort key, are incremented in database by
+ * native queries (see {@link org.sofun.core.kup.KupCounters}): a join only
+ * adds its new participants to the indexed amount, and the amounts of the
+ * Kups opened to participation are read again every
+ * <code>kup.index.refresh</code> seconds so that joins committed by other
+ * nodes do not leave them stale. The participants of the Kups whose amount
+ * grew this way are read again along.
+ * 
+ * <p>
+ * 
+ * Participations only grow: a positive participation check is always right
+ * while a negative one may ignore a member who just joined the Kup through
+ * another node, until the next refresh.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+@Startup
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@Local(KupSearchIndexLocal.class)
+public class KupSearchIndex implements KupSearchIndexLocal {
+
+    private static final Log log = LogFactory.getLog(KupSearchIndex.class);
+
+    /* Property holding the maximum age of the index in minutes. */
+    public static final String PROP_TTL = "kup.index.ttl";
+
+    public static final int DEFAULT_TTL = 60;
+
+    /* Property holding the period of the participants refresh in seconds. */
+    public static final String PROP_REFRESH = "kup.index.refresh";
+
+    public static final int DEFAULT_REFRESH = 30;
+
+    /* Seconds the changes are read again from before the previous read. */
+    public static final int CHANGES_OVERLAP = 60;
+
+    static final String ENTRIES_QUERY = "select k.id, k.name, k.type,"
+            + " k.stake, k.guaranteedPrice, k.status, k.isTemplate,"
+            + " t.privacy, s.name, k.startDate, k.endDate, k.nbParticipants,"
+            + " k.duration from " + KupImpl.class.getSimpleName()
+            + " k left join k.team t left join k.sport s"
+            + " where k.status in (:status)";
+
+    /* Same columns as ENTRIES_QUERY, whatever the status. */
+    static final String CHANGES_QUERY = "select k.id, k.name, k.type,"
+            + " k.stake, k.guaranteedPrice, k.status, k.isTemplate,"
+            + " t.privacy, s.name, k.startDate, k.endDate, k.nbParticipants,"
+            + " k.duration from " + KupImpl.class.getSimpleName()
+            + " k left join k.team t left join k.sport s"
+            + " where k.indexModified >= :since";
+
+    /* Participants counted by the stripes of the Kups opened to bets. */
+    static final String STRIPES_QUERY = "select c.kupId, sum(c.participants)"
+            + " from " + KupCounterImpl.class.getSimpleName()
+            + " c group by c.kupId";
+
+    static final String COUNTS_QUERY = "select k.id, k.nbParticipants from "
+            + KupImpl.class.getSimpleName() + " k where k.status in (:status)";
+
+    static final String PARTICIPANTS_QUERY = "select k.id, p.id from "
+            + KupImpl.class.getSimpleName()
+            + " k join k.participants p where k.status in (:status)"
+            + " order by k.id";
+
+    static final String JOINED_QUERY = "select k.id, p.id from "
+            + KupImpl.class.getSimpleName()
+            + " k join k.participants p where k.id in (:ids)";
+
+    @PersistenceContext(unitName = CoreConstants.PERSISTENCE_UNIT)
+    private transient EntityManager em;
+
+    @Resource
+    private TransactionSynchronizationRegistry registry;
+
+    @Resource
+    private TimerService timerService;
+
+    private volatile KupIndex index;
+
+    private volatile long loaded = 0;
+
+    /* When changes were last read. */
+    private volatile long changesRead = 0;
+
+    private final AtomicBoolean loading = new AtomicBoolean(false);
+
+    /* Changes committed while loading, replayed on the fresh index. */
+    private List<Change> replay;
+
+    /**
+     * A committed change.
+     */
+    private static final class Change {
+
+        private final KupIndexEntry entry;
+
+        private final List<Long> joined;
+
+        private final long removed;
+
+        private Change(KupIndexEntry entry, List<Long> joined, long removed) {
+            this.entry = entry;
+            this.joined = joined;
+            this.removed = removed;
+        }
+
+        private void applyTo(KupIndex target) {
+            if (entry == null) {
+                target.remove(removed);
+            } else {
+                target.put(entry);
+                target.join(entry.getId(), joined);
+            }
+        }
+
+    }
+
+    @PostConstruct
+    public void init() {
+        KupIndexListener.register(this);
+        if (timerService != null) {
+            timerService.createIntervalTimer(0, getRefreshPeriod(),
+                    new TimerConfig(null, false));
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        KupIndexListener.unregister(this);
+    }
+
+    private long getTTL() {
+        final String value = Configuration.getProperties().getProperty(
+                PROP_TTL);
+        if (value != null) {
+            try {
+                final int ttl = Integer.valueOf(value.trim());
+                if (ttl > 0) {
+                    return ttl * 60L * 1000L;
+                }
+            } catch (NumberFormatException e) {
+                log.error("Invalid value for " + PROP_TTL + ": " + value);
+            }
+        }
+        return DEFAULT_TTL * 60L * 1000L;
+    }
+
+    private long getRefreshPeriod() {
+        final String value = Configuration.getProperties().getProperty(
+                PROP_REFRESH);
+        if (value != null) {
+            try {
+                final int refresh = Integer.valueOf(value.trim());
+                if (refresh > 0) {
+                    return refresh * 1000L;
+                }
+            } catch (NumberFormatException e) {
+                log.error("Invalid value for " + PROP_REFRESH + ": " + value);
+            }
+        }
+        return DEFAULT_REFRESH * 1000L;
+    }
+
+    /**
+     * Reloads the index once expired or applies the changes committed since
+     * the previous run and refreshes the amounts of participants. Runs are
+     * skipped while a previous one is not over.
+     * 
+     * @param timer: the {@link Timer} instance.
+     */
+    @Timeout
+    public void onTimeout(Timer timer) {
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (index == null
+                    || System.currentTimeMillis() - loaded >= getTTL()) {
+                load();
+            } else {
+                refresh();
+            }
+        } catch (RuntimeException e) {
+            log.error("Cannot load kup index: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                replay = null;
+            }
+            loading.set(false);
+        }
+    }
+
+    private void load() {
+
+        final long start = System.currentTimeMillis();
+        changesRead = start;
+        synchronized (this) {
+            replay = new ArrayList<Change>();
+        }
+
+        final KupIndex fresh = new KupIndex();
+        Query query = em.createQuery(STRIPES_QUERY);
+        @SuppressWarnings("unchecked")
+        final List<Object[]> stripes = query.getResultList();
+        Map<Long, Integer> striped = new HashMap<Long, Integer>();
+        for (Object[] row : stripes) {
+            striped.put(((Number) row[0]).longValue(),
+                    ((Number) row[1]).intValue());
+        }
+
+        query = em.createQuery(ENTRIES_QUERY);
+        query.setParameter("status", new ArrayList<Byte>(
+                KupIndex.INDEXED_STATUS));
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = query.getResultList();
+        for (Object[] row : rows) {
+            KupIndexEntry entry = new KupIndexEntry(row);
+            final Integer participants = striped.get(entry.getId());
+            if (participants != null) {
+                entry = entry.withNbParticipants(entry.getNbParticipants()
+                        + participants);
+            }
+            fresh.put(entry);
+        }
+
+        query = em.createQuery(PARTICIPANTS_QUERY);
+        query.setParameter("status", new ArrayList<Byte>(
+                KupIndex.TRACKED_STATUS));
+        @SuppressWarnings("unchecked")
+        final List<Object[]> participants = query.getResultList();
+        // Rows are grouped per Kup: record each Kup's participants at once.
+        List<Long> members = new ArrayList<Long>();
+        long kupId = 0;
+        for (Object[] row : participants) {
+            final long id = ((Number) row[0]).longValue();
+            if (id != kupId && !members.isEmpty()) {
+                fresh.addParticipants(kupId, members);
+                members = new ArrayList<Long>();
+            }
+            kupId = id;
+            members.add(((Number) row[1]).longValue());
+        }
+        fresh.addParticipants(kupId, members);
+
+        synchronized (this) {
+            for (Change change : replay) {
+                change.applyTo(fresh);
+            }
+            replay = null;
+            index = fresh;
+            loaded = System.currentTimeMillis();
+        }
+
+        log.info("Kup index loaded (" + String.valueOf(rows.size())
+                + " kups) in " + (loaded - start) + "ms");
+
+    }
+
+    /**
+     * Applies the changes committed since the previous read then reads the
+     * amounts of participants of the Kups opened to participation again,
+     * along with the participants of the Kups whose amount grew. A join
+     * committed while reading may be missed: the next refresh counts it.
+     */
+    private void refresh() {
+        final KupIndex current = index;
+        if (current == null) {
+            return;
+        }
+        Query query = em.createQuery(STRIPES_QUERY);
+        @SuppressWarnings("unchecked")
+        final List<Object[]> stripes = query.getResultList();
+        Map<Long, Integer> striped = new HashMap<Long, Integer>();
+        for (Object[] row : stripes) {
+            striped.put(((Number) row[0]).longValue(),
+                    ((Number) row[1]).intValue());
+        }
+
+        final long start = System.currentTimeMillis();
+        query = em.createQuery(CHANGES_QUERY);
+        query.setParameter("since", new Date(changesRead - CHANGES_OVERLAP
+                * 1000L));
+        @SuppressWarnings("unchecked")
+        final List<Object[]> changes = query.getResultList();
+        for (Object[] row : changes) {
+            // Removes the ones no longer indexed.
+            current.put(new KupIndexEntry(row)
+                    .withNbParticipants(KupIndexEntry.UNKNOWN));
+        }
+        changesRead = start;
+        if (!changes.isEmpty()) {
+            log.debug("Applied " + String.valueOf(changes.size())
+                    + " kup change(s) to the index");
+        }
+
+        query = em.createQuery(COUNTS_QUERY);
+        query.setParameter("status", new ArrayList<Byte>(
+                KupIndex.TRACKED_STATUS));
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = query.getResultList();
+        final List<Long> grown = new ArrayList<Long>();
+        for (Object[] row : rows) {
+            final long id = ((Number) row[0]).longValue();
+            int nb = row[1] != null ? ((Number) row[1]).intValue() : 0;
+            final Integer participants = striped.get(id);
+            if (participants != null) {
+                nb += participants;
+            }
+            final KupIndexEntry entry = current.getEntry(id);
+            if (entry != null && nb > entry.getNbParticipants()) {
+                // Joined through another node.
+                grown.add(id);
+            }
+            current.setNbParticipants(id, nb);
+        }
+
+        if (!grown.isEmpty()) {
+            query = em.createQuery(JOINED_QUERY);
+            query.setParameter("ids", grown);
+            @SuppressWarnings("unchecked")
+            final List<Object[]> joined = query.getResultList();
+            final Map<Long, List<Long>> members;
+            members = new HashMap<Long, List<Long>>();
+            for (Object[] row : joined) {
+                final long kupId = ((Number) row[0]).longValue();
+                List<Long> each = members.get(kupId);
+                if (each == null) {
+                    each = new ArrayList<Long>();
+                    members.put(kupId, each);
+                }
+                each.add(((Number) row[1]).longValue());
+            }
+            for (Map.Entry<Long, List<Long>> each : members.entrySet()) {
+                current.addParticipants(each.getKey(), each.getValue());
+            }
+        }
+    }
+
+    private void apply(Change change) {
+        synchronized (this) {
+            if (replay != null) {
+                replay.add(change);
+            }
+        }
+        final KupIndex current = index;
+        if (current != null) {
+            change.applyTo(current);
+        }
+    }
+
+    /**
+     * Applies a change once the current transaction, if any, committed.
+     */
+    private void applyOnCommit(final Change change) {
+        if (registry == null || registry.getTransactionKey() == null) {
+            apply(change);
+            return;
+        }
+        registry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    apply(change);
+                }
+            }
+        });
+    }
+
+    /**
+     * Indexes a Kup. (see {@link KupIndexListener})
+     * 
+     * @param entry: the {@link KupIndexEntry} of the Kup.
+     * @param joined: identifiers of the members who joined.
+     */
+    void update(KupIndexEntry entry, List<Long> joined) {
+        // The amount of participants of the entry is the one seen by this
+        // transaction: the indexed one is only incremented by the joins.
+        applyOnCommit(new Change(
+                entry.withNbParticipants(KupIndexEntry.UNKNOWN), joined, 0));
+    }
+
+    /**
+     * Removes a Kup from the index. (see {@link KupIndexListener})
+     * 
+     * @param kupId: the Kup identifier.
+     */
+    void remove(long kupId) {
+        applyOnCommit(new Change(null, null, kupId));
+    }
+
+    @Override
+    public KupIndexResults search(KupIndexQuery query, Long memberId,
+            int offset, int batchSize) {
+        final KupIndex current = index;
+        if (current == null) {
+            return null;
+        }
+        return current.search(query, memberId, offset, batchSize);
+    }
+
+    @Override
+    public Boolean isParticipant(long kupId, long memberId) {
+        final KupIndex current = index;
+        if (current == null) {
+            return null;
+        }
+        return current.isParticipant(kupId, memberId);
+    }
+
+    @Override
+    public void indexJoined(Kup kup) {
+        if (kup instanceof KupImpl) {
+            final KupImpl impl = (KupImpl) kup;
+            update(new KupIndexEntry(impl), impl.drainJoined());
+        }
+    }
+
+}
@@ -14,6 +14,8 @@
 
 package org.sofun.core.kup.stat;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import javax.ejb.EJB;
 import javax.ejb.Lock;
 import javax.ejb.LockType;
@@ -24,13 +26,23 @@ import javax.ejb.Timeout;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.local.ClusterCoordinatorLocal;
 import org.sofun.core.api.local.KupServiceLocal;
 
 /**
  * Kup Stats Timer.
  * 
  * <p>
- * Clock triggering points computations.
+ * Clock triggering the reconciliation of Kup ranking statistics.
+ * </p>
+ * 
+ * <p>
+ * Correct and first predictions are maintained incrementally while creating
+ * and scoring predictions. This weekly run only fixes drifts.
+ * </p>
+ * 
+ * <p>
+ * Runs on a single node of the cluster at a time.
  * </p>
  * 
  * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
@@ -41,19 +53,26 @@ public class KupStatsTimer {
 
     private static final Log log = LogFactory.getLog(KupStatsTimer.class);
 
+    private static final String LEASE = "kup.stats";
+
     @EJB(beanName = "KupServiceImpl", beanInterface = KupServiceLocal.class)
     private KupService kups;
 
-    private boolean available = true;
+    @EJB(beanName = "ClusterCoordinator", beanInterface = ClusterCoordinatorLocal.class)
+    private ClusterCoordinatorLocal cluster;
+
+    private final AtomicBoolean available = new AtomicBoolean(true);
 
     @Timeout
-    @Schedule(minute = "15", hour = "2", persistent = false)
+    @Schedule(dayOfWeek = "Mon", minute = "15", hour = "2", persistent = false)
     @Lock(LockType.READ)
     public void check() throws Exception {
-        if (!available) {
+        if (!available.compareAndSet(true, false)) {
+            return;
+        }
+        if (!cluster.acquire(LEASE)) {
+            available.set(true);
             return;
-        } else {
-            available = false;
         }
         try {
             kups.updateKupsStats();
@@ -61,7 +80,7 @@ public class KupStatsTimer {
             t.printStackTrace();
             log.error(t.getMessage());
         } finally {
-            available = true;
+            available.set(true);
         }
     }
 
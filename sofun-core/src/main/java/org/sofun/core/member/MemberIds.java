@@ -0,0 +1,104 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.sofun.core.member;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.sofun.core.api.member.Member;
+
+/**
+ * Member Ids.
+ * 
+ * <p>
+ * 
+ * Helpers dealing with compact sets of member identifiers stored as sorted
+ * <code>long</code> arrays: membership is a binary search.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public final class MemberIds {
+
+    public static final long[] EMPTY = new long[0];
+
+    private MemberIds() {
+    }
+
+    /**
+     * Returns the sorted identifiers of a collection of members.
+     * 
+     * @param members: a {@link Collection} of {@link Member}
+     * @return a sorted array of distinct identifiers.
+     */
+    public static long[] of(Collection<Member> members) {
+        if (members == null || members.isEmpty()) {
+            return EMPTY;
+        }
+        long[] ids = new long[members.size()];
+        int size = 0;
+        for (Member member : members) {
+            if (member != null) {
+                ids[size++] = member.getId();
+            }
+        }
+        Arrays.sort(ids, 0, size);
+        return distinct(ids, size);
+    }
+
+    /**
+     * Does a sorted set of identifiers contain a given identifier?
+     * 
+     * @param ids: a sorted array of identifiers.
+     * @param id: an identifier.
+     * @return true if it does.
+     */
+    public static boolean contains(long[] ids, long id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    /**
+     * Returns a sorted set of identifiers with an extra identifier.
+     * 
+     * @param ids: a sorted array of identifiers.
+     * @param id: an identifier.
+     * @return a new sorted array or <code>ids</code> itself if it already
+     *         contains <code>id</code>.
+     */
+    public static long[] with(long[] ids, long id) {
+        final int i = Arrays.binarySearch(ids, id);
+        if (i >= 0) {
+            return ids;
+        }
+        final int insertion = -i - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, insertion);
+        result[insertion] = id;
+        System.arraycopy(ids, insertion, result, insertion + 1, ids.length
+                - insertion);
+        return result;
+    }
+
+    private static long[] distinct(long[] sorted, int size) {
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (j == 0 || sorted[i] != sorted[j - 1]) {
+                sorted[j++] = sorted[i];
+            }
+        }
+        return j == sorted.length ? sorted : Arrays.copyOf(sorted, j);
+    }
+
+}
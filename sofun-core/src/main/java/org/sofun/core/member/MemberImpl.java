@@ -38,10 +38,12 @@ import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.PostLoad;
 import javax.persistence.PrePersist;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Transient;
 
 import org.sofun.core.api.exception.CoreException;
 import org.sofun.core.api.feed.FeedEntry;
@@ -221,6 +223,10 @@ public class MemberImpl implements Member {
             referencedColumnName = "id") })
     protected Set<Member> friends;
 
+    /* Sorted friend ids built on demand. Not persisted. */
+    @Transient
+    protected transient long[] friendIds;
+
     @ManyToMany(targetEntity = TeamImpl.class, mappedBy = "members")
     protected Set<Team> memberTeams;
 
@@ -460,6 +466,12 @@ public class MemberImpl implements Member {
         setModified(now);
     }
 
+    @PostLoad
+    protected void onLoad() {
+        // Friends may have been reloaded (refresh).
+        friendIds = null;
+    }
+
     @Override
     public String getLocale() {
         return locale;
@@ -539,15 +551,25 @@ public class MemberImpl implements Member {
         return friends;
     }
 
+    @Override
+    public long[] getFriendIds() {
+        if (friendIds == null) {
+            friendIds = MemberIds.of(getFriends());
+        }
+        return friendIds;
+    }
+
     @Override
     public void setFriends(Set<Member> friends) {
         this.friends = friends;
+        this.friendIds = null;
     }
 
     @Override
     public void addFriend(Member member) {
         if (member != null && !isFriend(member)) {
             getFriends().add(member);
+            friendIds = null;
         }
     }
 
@@ -567,6 +589,7 @@ public class MemberImpl implements Member {
     public void removeFriend(Member member) {
         if (getFriends().contains(member)) {
             getFriends().remove(member);
+            friendIds = null;
         }
     }
 
@@ -68,6 +68,9 @@ public class SofunMessagingServiceImpl implements SofunMessagingService {
     @Resource(mappedName = SofunMessagingDestination.SOFUN_FEEDS)
     protected transient Queue feedQueue;
 
+    @Resource(mappedName = SofunMessagingDestination.SOFUN_SCORING)
+    protected transient Queue scoringQueue;
+
     public SofunMessagingServiceImpl() {
         super();
     }
@@ -81,6 +84,8 @@ public class SofunMessagingServiceImpl implements SofunMessagingService {
             return facebookQueue;
         } else if (SofunMessagingDestination.SOFUN_FEEDS.equals(destination)) {
             return feedQueue;
+        } else if (SofunMessagingDestination.SOFUN_SCORING.equals(destination)) {
+            return scoringQueue;
         } else {
             return null;
         }
@@ -17,7 +17,9 @@ package org.sofun.core.prediction;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.ejb.EJB;
 import javax.ejb.Local;
@@ -31,8 +33,10 @@ import javax.persistence.Query;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.sofun.core.CoreConstants;
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
 import org.sofun.core.api.exception.CoreException;
 import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupRankingTable;
 import org.sofun.core.api.kup.KupService;
 import org.sofun.core.api.kup.KupType;
 import org.sofun.core.api.local.KupServiceLocal;
@@ -41,6 +45,7 @@ import org.sofun.core.api.member.Member;
 import org.sofun.core.api.prediction.Prediction;
 import org.sofun.core.api.prediction.PredictionQuestionKupTiebreaker;
 import org.sofun.core.api.prediction.PredictionService;
+import org.sofun.core.api.prediction.tournament.PredictionGame;
 import org.sofun.core.api.prediction.tournament.PredictionGameQuestion;
 import org.sofun.core.api.prediction.tournament.PredictionGameScore;
 import org.sofun.core.api.prediction.tournament.contestant.PredictionGameOrderedContestantsList;
@@ -54,9 +59,11 @@ import org.sofun.core.api.sport.SportContestant;
 import org.sofun.core.api.sport.tournament.TournamentGame;
 import org.sofun.core.api.sport.tournament.TournamentGameStatus;
 import org.sofun.core.api.sport.tournament.TournamentRound;
+import org.sofun.core.api.sport.tournament.TournamentRoundStatus;
 import org.sofun.core.api.sport.tournament.TournamentSeason;
 import org.sofun.core.api.sport.tournament.TournamentStage;
 import org.sofun.core.api.sport.tournament.TournamentStageStatus;
+import org.sofun.core.community.table.MemberRankingTableEntryImpl;
 import org.sofun.core.prediction.tournament.PredictionGameQuestionImpl;
 import org.sofun.core.prediction.tournament.PredictionGameScoreImpl;
 import org.sofun.core.prediction.tournament.contestant.PredictionGameOrderedContestantsListImpl;
@@ -97,6 +104,11 @@ public class PredictionServiceImpl implements PredictionService {
         this.em = em;
     }
 
+    public PredictionServiceImpl(EntityManager em, KupService kups) {
+        this(em);
+        this.kups = kups;
+    }
+
     private Query createQuery(String queryStr) {
         Query query = em.createQuery(queryStr);
         return query;
@@ -278,6 +290,91 @@ public class PredictionServiceImpl implements PredictionService {
 
     }
 
+    /**
+     * Records the creation date of a new prediction as the member's first
+     * prediction within the Kup ranking table if none recorded yet.
+     * 
+     * <p>
+     * 
+     * Keeps the ranking entry statistic up to date without having to rescan
+     * all the member's predictions.
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @param member: a {@link Member} instance.
+     * @param prediction: a newly persisted {@link Prediction} instance.
+     */
+    @SuppressWarnings("unchecked")
+    private void updateFirstPredictionFor(Kup kup, Member member,
+            Prediction prediction) {
+        final KupRankingTable table = kup.getRankingTable();
+        if (!em.contains(table) || prediction.getCreated() == null) {
+            return;
+        }
+        final String queryStr = "from "
+                + MemberRankingTableEntryImpl.class.getSimpleName()
+                + " e where e.table=:table and e.member.id=:member_id"
+                + " and e.firstPredictions is null";
+        Query query = createQuery(queryStr);
+        query.setParameter("table", table);
+        query.setParameter("member_id", member.getId());
+        for (MemberRankingTableEntry entry : (List<MemberRankingTableEntry>) query
+                .getResultList()) {
+            entry.setFirstPredictions(prediction.getCreated());
+            table.updateEntry(entry);
+        }
+    }
+
+    /**
+     * Adds the member to the Kup and, if the Kup is free or the member
+     * already placed a bet, to its participants.
+     * 
+     * @param member: a {@link Member} instance.
+     * @param kup: a {@link Kup} instance.
+     */
+    private void joinKup(Member member, Kup kup) {
+        kups.addMember(member, kup);
+        if (kup.getType().equals(KupType.FREE)) {
+            kups.addParticipant(member, kup);
+        } else {
+            boolean hasBet;
+            try {
+                hasBet = kups.hasBet(member, kup);
+            } catch (CoreException e) {
+                log.error("An error occured while checking member participation."
+                        + " member email=" + member.getEmail() + " kup uuid="
+                        + String.valueOf(kup.getId()));
+                hasBet = false;
+            }
+            if (hasBet) {
+                kups.addParticipant(member, kup);
+            }
+        }
+    }
+
+    /**
+     * Returns the game predictions of a member within a Kup with their games
+     * fetched along.
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @param member: a {@link Member} instance.
+     * @param type: the prediction type.
+     * @param klass: the prediction implementation class.
+     * @return a {@link List} of {@link PredictionGame} instances.
+     */
+    @SuppressWarnings("unchecked")
+    private List<PredictionGame> getGamePredictionsFor(Kup kup,
+            Member member, String type,
+            @SuppressWarnings("rawtypes") Class klass) {
+        final String queryStr = "from " + klass.getSimpleName()
+                + " p join fetch p.game where p.kup.id=:kup_id"
+                + " and p.member.id=:member_id and p.type=:type";
+        Query query = createQuery(queryStr);
+        query.setParameter("kup_id", kup.getId());
+        query.setParameter("member_id", member.getId());
+        query.setParameter("type", type);
+        return query.getResultList();
+    }
+
     @Override
     public PredictionGameOrderedContestantsList createPredictionFor(
             Member member, TournamentGame game, String type,
@@ -293,25 +390,9 @@ public class PredictionServiceImpl implements PredictionService {
             prediction.setTournamentGame(game);
             prediction.setKup(kup);
 
-            kup.addMember(member);
-            if (kup.getType().equals(KupType.FREE)) {
-                kup.addParticipant(member);
-            } else {
-                boolean hasBet;
-                try {
-                    hasBet = kups.hasBet(member, kup);
-                } catch (CoreException e) {
-                    log.error("An error occured while checking member participation."
-                            + " member email="
-                            + member.getEmail()
-                            + " kup uuid=" + kup.getId());
-                    hasBet = false;
-                }
-                if (hasBet) {
-                    kup.addParticipant(member);
-                }
-            }
+            joinKup(member, kup);
             em.persist(prediction);
+            updateFirstPredictionFor(kup, member, prediction);
             log.info("New game prediction (ordered) saved for member="
                     + member.getEmail() + " in Kup="
                     + String.valueOf(kup.getId()) + " on game having uuid="
@@ -348,25 +429,9 @@ public class PredictionServiceImpl implements PredictionService {
             prediction.setMember(member);
             prediction.setTournamentGame(game);
             prediction.setKup(kup);
-            kup.addMember(member);
-            if (kup.getType().equals(KupType.FREE)) {
-                kup.addParticipant(member);
-            } else {
-                boolean hasBet;
-                try {
-                    hasBet = kups.hasBet(member, kup);
-                } catch (CoreException e) {
-                    log.error("An error occured while checking member participation."
-                            + " member email="
-                            + member.getEmail()
-                            + " kup uuid=" + String.valueOf(kup.getId()));
-                    hasBet = false;
-                }
-                if (hasBet) {
-                    kup.addParticipant(member);
-                }
-            }
+            joinKup(member, kup);
             em.persist(prediction);
+            updateFirstPredictionFor(kup, member, prediction);
             log.info("New game prediction (score) saved for member="
                     + member.getEmail() + " in Kup="
                     + String.valueOf(kup.getId()) + " on game having uuid="
@@ -387,6 +452,94 @@ public class PredictionServiceImpl implements PredictionService {
 
     }
 
+    @Override
+    public List<Prediction> createGamePredictionsFor(Member member, Kup kup,
+            String type, Map<TournamentGame, List<SportContestant>> winners,
+            String scoreType, Map<TournamentGame, List<Integer>> scores) {
+
+        final List<Prediction> predictions = new ArrayList<Prediction>();
+        final List<Prediction> created = new ArrayList<Prediction>();
+        final Date now = new Date();
+
+        if (winners != null && !winners.isEmpty()) {
+            final Map<String, PredictionGameOrderedContestantsList> existing = new HashMap<String, PredictionGameOrderedContestantsList>();
+            for (PredictionGame each : getGamePredictionsFor(kup, member,
+                    type, PredictionGameOrderedContestantsListImpl.class)) {
+                existing.put(each.getTournamentGame().getUUID(),
+                        (PredictionGameOrderedContestantsList) each);
+            }
+            for (Map.Entry<TournamentGame, List<SportContestant>> entry : winners
+                    .entrySet()) {
+                final TournamentGame game = entry.getKey();
+                PredictionGameOrderedContestantsList prediction = existing
+                        .get(game.getUUID());
+                if (prediction == null) {
+                    prediction = new PredictionGameOrderedContestantsListImpl();
+                    prediction.setType(type);
+                    prediction.setMember(member);
+                    prediction.setTournamentGame(game);
+                    prediction.setKup(kup);
+                    existing.put(game.getUUID(), prediction);
+                    created.add(prediction);
+                } else {
+                    prediction.setLastModified(now);
+                }
+                final List<SportContestant> contestants = entry.getValue();
+                prediction.setDrawn(contestants != null
+                        && contestants.size() == 0);
+                prediction.setContestants(contestants);
+                predictions.add(prediction);
+            }
+        }
+
+        if (scores != null && !scores.isEmpty()) {
+            final Map<String, PredictionGameScore> existing = new HashMap<String, PredictionGameScore>();
+            for (PredictionGame each : getGamePredictionsFor(kup, member,
+                    scoreType, PredictionGameScoreImpl.class)) {
+                existing.put(each.getTournamentGame().getUUID(),
+                        (PredictionGameScore) each);
+            }
+            for (Map.Entry<TournamentGame, List<Integer>> entry : scores
+                    .entrySet()) {
+                final TournamentGame game = entry.getKey();
+                PredictionGameScore prediction = existing.get(game.getUUID());
+                if (prediction == null) {
+                    prediction = new PredictionGameScoreImpl();
+                    prediction.setType(scoreType);
+                    prediction.setMember(member);
+                    prediction.setTournamentGame(game);
+                    prediction.setKup(kup);
+                    existing.put(game.getUUID(), prediction);
+                    created.add(prediction);
+                } else {
+                    prediction.setLastModified(now);
+                }
+                final List<Integer> score = entry.getValue();
+                prediction.setScoreTeam1(score.get(0));
+                prediction.setScoreTeam2(score.get(1));
+                predictions.add(prediction);
+            }
+        }
+
+        if (!created.isEmpty()) {
+            joinKup(member, kup);
+            for (Prediction prediction : created) {
+                em.persist(prediction);
+            }
+            updateFirstPredictionFor(kup, member, created.get(0));
+        }
+        // One flush: inserts and updates go out as JDBC batches.
+        em.flush();
+
+        log.info("Game predictions saved for member=" + member.getEmail()
+                + " in Kup=" + String.valueOf(kup.getId()) + " created="
+                + created.size() + " updated="
+                + (predictions.size() - created.size()));
+
+        return predictions;
+
+    }
+
     @Override
     public PredictionGameQuestion createQuestionPredictionFor(Member member,
             TournamentGame game, String type, Question question, Kup kup,
@@ -402,25 +555,9 @@ public class PredictionServiceImpl implements PredictionService {
             prediction.setTournamentGame(game);
             prediction.setKup(kup);
             prediction.setQuestion(question);
-            kup.addMember(member);
-            if (kup.getType().equals(KupType.FREE)) {
-                kup.addParticipant(member);
-            } else {
-                boolean hasBet;
-                try {
-                    hasBet = kups.hasBet(member, kup);
-                } catch (CoreException e) {
-                    log.error("An error occured while checking member participation."
-                            + " member email="
-                            + member.getEmail()
-                            + " kup uuid=" + String.valueOf(kup.getId()));
-                    hasBet = false;
-                }
-                if (hasBet) {
-                    kup.addParticipant(member);
-                }
-            }
+            joinKup(member, kup);
             em.persist(prediction);
+            updateFirstPredictionFor(kup, member, prediction);
             log.info("New game prediction (question) saved for member="
                     + member.getEmail() + " in Kup="
                     + String.valueOf(kup.getId()) + " on game having uuid="
@@ -454,25 +591,9 @@ public class PredictionServiceImpl implements PredictionService {
             prediction.setMember(member);
             prediction.setTournamentRound(round);
             prediction.setKup(kup);
-            kup.addMember(member);
-            if (kup.getType().equals(KupType.FREE)) {
-                kup.addParticipant(member);
-            } else {
-                boolean hasBet;
-                try {
-                    hasBet = kups.hasBet(member, kup);
-                } catch (CoreException e) {
-                    log.error("An error occured while checking member participation."
-                            + " member email="
-                            + member.getEmail()
-                            + " kup uuid=" + String.valueOf(kup.getId()));
-                    hasBet = false;
-                }
-                if (hasBet) {
-                    kup.addParticipant(member);
-                }
-            }
+            joinKup(member, kup);
             em.persist(prediction);
+            updateFirstPredictionFor(kup, member, prediction);
             log.info("New round prediction (orderd) saved for member="
                     + member.getEmail() + " in Kup="
                     + String.valueOf(kup.getId()) + " on round having uuid="
@@ -511,25 +632,9 @@ public class PredictionServiceImpl implements PredictionService {
             prediction.setTournamentStage(stage);
             prediction.setContestants(contestants);
             prediction.setKup(kup);
-            kup.addMember(member);
-            if (kup.getType().equals(KupType.FREE)) {
-                kup.addParticipant(member);
-            } else {
-                boolean hasBet;
-                try {
-                    hasBet = kups.hasBet(member, kup);
-                } catch (CoreException e) {
-                    log.error("An error occured while checking member participation."
-                            + " member email="
-                            + member.getEmail()
-                            + " kup uuid=" + String.valueOf(kup.getId()));
-                    hasBet = false;
-                }
-                if (hasBet) {
-                    kup.addParticipant(member);
-                }
-            }
+            joinKup(member, kup);
             em.persist(prediction);
+            updateFirstPredictionFor(kup, member, prediction);
             log.info("New stage prediction (orderd) saved for member="
                     + member.getEmail() + " in Kup="
                     + String.valueOf(kup.getId()) + " on stage having uuid="
@@ -568,25 +673,9 @@ public class PredictionServiceImpl implements PredictionService {
             prediction.setTournamentSeason(season);
             prediction.setContestants(contestants);
             prediction.setKup(kup);
-            kup.addMember(member);
-            if (kup.getType().equals(KupType.FREE)) {
-                kup.addParticipant(member);
-            } else {
-                boolean hasBet;
-                try {
-                    hasBet = kups.hasBet(member, kup);
-                } catch (CoreException e) {
-                    log.error("An error occured while checking member participation."
-                            + " member email="
-                            + member.getEmail()
-                            + " kup uuid=" + String.valueOf(kup.getId()));
-                    hasBet = false;
-                }
-                if (hasBet) {
-                    kup.addParticipant(member);
-                }
-            }
+            joinKup(member, kup);
             em.persist(prediction);
+            updateFirstPredictionFor(kup, member, prediction);
             log.info("New season prediction (orderd) saved for member="
                     + member.getEmail() + " in Kup="
                     + String.valueOf(kup.getId()) + " on season having uuid="
@@ -795,6 +884,20 @@ public class PredictionServiceImpl implements PredictionService {
 
     }
 
+    @Override
+    public boolean hasPredictionsToCompute(Kup kup) {
+
+        // Plain SQL: the polymorphic query would join every prediction table.
+        final Query query = em
+                .createNativeQuery("SELECT id FROM predictions"
+                        + " WHERE kup_id = :kup_id AND points_computed = false"
+                        + " LIMIT 1");
+        query.setParameter("kup_id", kup.getId());
+
+        return !query.getResultList().isEmpty();
+
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<Prediction> getPredictionsFor(Kup kup, Member member) {
@@ -953,6 +1056,89 @@ public class PredictionServiceImpl implements PredictionService {
         return predictions;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Prediction> getPredictionsGameToCompute(String gameUUID) {
+
+        List<Prediction> predictions = new ArrayList<Prediction>();
+
+        final String[] impls = new String[] {
+                PredictionGameOrderedContestantsListImpl.class.getSimpleName(),
+                PredictionGameScoreImpl.class.getSimpleName(),
+                PredictionGameQuestionImpl.class.getSimpleName() };
+
+        for (String impl : impls) {
+            String queryStr = "from "
+                    + impl
+                    + " p where p.game.uuid=:uuid and p.game.status=:status"
+                    + " and p.pointsComputed=:pointsComputed";
+            Query query = createQuery(queryStr);
+            query.setParameter("uuid", gameUUID);
+            query.setParameter("status", TournamentGameStatus.TERMINATED);
+            query.setParameter("pointsComputed", false);
+            predictions.addAll(query.getResultList());
+        }
+
+        return predictions;
+
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Prediction> getPredictionsRoundToCompute(long roundUUID) {
+
+        String queryStr = "from "
+                + PredictionRoundOrderedContestantsListImpl.class
+                        .getSimpleName()
+                + " p where p.round.uuid=:uuid and p.round.status=:status"
+                + " and p.pointsComputed=:pointsComputed";
+
+        Query query = createQuery(queryStr);
+        query.setParameter("uuid", roundUUID);
+        query.setParameter("status", TournamentRoundStatus.TERMINATED);
+        query.setParameter("pointsComputed", false);
+
+        return query.getResultList();
+
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Prediction> getPredictionsStageToCompute(long stageUUID) {
+
+        String queryStr = "from "
+                + PredictionStageOrderedContestantsListImpl.class
+                        .getSimpleName()
+                + " p where p.stage.uuid=:uuid and p.stage.status=:status"
+                + " and p.pointsComputed=:pointsComputed";
+
+        Query query = createQuery(queryStr);
+        query.setParameter("uuid", stageUUID);
+        query.setParameter("status", TournamentStageStatus.TERMINATED);
+        query.setParameter("pointsComputed", false);
+
+        return query.getResultList();
+
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Prediction> getPredictionsSeasonToCompute(long seasonUUID) {
+
+        String queryStr = "from "
+                + PredictionSeasonOrderedContestantsListImpl.class
+                        .getSimpleName()
+                + " p where p.season.uuid=:uuid"
+                + " and p.pointsComputed=:pointsComputed";
+
+        Query query = createQuery(queryStr);
+        query.setParameter("uuid", seasonUUID);
+        query.setParameter("pointsComputed", false);
+
+        return query.getResultList();
+
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<Prediction> getPredictionsFor(Member member, int offset,
@@ -1051,6 +1237,7 @@ public class PredictionServiceImpl implements PredictionService {
             prediction.setKup(kup);
             prediction.setQuestion(question);
             em.persist(prediction);
+            updateFirstPredictionFor(kup, member, prediction);
             log.info("New tiebreaker question saved for member="
                     + member.getEmail() + " in Kup="
                     + String.valueOf(kup.getId()));
@@ -1088,4 +1275,43 @@ public class PredictionServiceImpl implements PredictionService {
         }
     }
 
+    @Override
+    public Map<Long, String> getTiebreakerAnswersFor(Kup kup,
+            QuestionKupTiebreaker question, long[] memberIds) {
+
+        Map<Long, String> answers = new HashMap<Long, String>();
+        if (kup == null || question == null
+                || (memberIds != null && memberIds.length == 0)) {
+            return answers;
+        }
+
+        String queryStr = "select m.member.id, m.answer from "
+                + PredictionQuestionKupTiebreakerImpl.class.getSimpleName()
+                + " m where m.type=:type and m.kup.id=:kup_id and m.question.id=:question_id";
+        List<Long> ids = null;
+        if (memberIds != null) {
+            ids = new ArrayList<Long>(memberIds.length);
+            for (long memberId : memberIds) {
+                ids.add(memberId);
+            }
+            queryStr += " and m.member.id in (:member_ids)";
+        }
+
+        Query query = createQuery(queryStr);
+        query.setParameter("kup_id", kup.getId());
+        query.setParameter("question_id", question.getId());
+        query.setParameter("type", "tb");
+        if (ids != null) {
+            query.setParameter("member_ids", ids);
+        }
+
+        @SuppressWarnings("unchecked")
+        final List<Object[]> rows = query.getResultList();
+        for (Object[] row : rows) {
+            answers.put((Long) row[0], (String) row[1]);
+        }
+        return answers;
+
+    }
+
 }
@@ -15,8 +15,11 @@
 package org.sofun.core.sport;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import javax.ejb.Local;
 import javax.ejb.Remote;
@@ -220,6 +223,26 @@ public class SportServiceImpl implements SportService {
         return (TournamentGame) getEntityByUUID(uuid, TournamentGameImpl.class);
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map<String, TournamentGame> getTournamentGames(
+            Collection<String> uuids) {
+        final Map<String, TournamentGame> games = new HashMap<String, TournamentGame>();
+        if (uuids == null || uuids.isEmpty()) {
+            return games;
+        }
+        final String queryStr = "from "
+                + TournamentGameImpl.class.getSimpleName()
+                + " o where o.uuid in (:uuids)";
+        final Query query = createQuery(queryStr);
+        query.setParameter("uuids", uuids);
+        for (TournamentGame game : (List<TournamentGame>) query
+                .getResultList()) {
+            games.put(game.getUUID(), game);
+        }
+        return games;
+    }
+
     @Override
     public TournamentStage getTournamentStage(long id) {
         return (TournamentStage) getEntityByUUID(id, TournamentStageImpl.class);
@@ -17,6 +17,7 @@ package org.sofun.core.sport;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.ejb.ConcurrencyManagement;
 import javax.ejb.ConcurrencyManagementType;
@@ -29,7 +30,11 @@ import javax.ejb.Startup;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.sofun.core.CoreConstants;
+import org.sofun.core.api.local.SofunMessagingServiceLocal;
 import org.sofun.core.api.local.SportServiceLocal;
+import org.sofun.core.api.messaging.SofunMessagingDestination;
+import org.sofun.core.api.messaging.SofunMessagingService;
+import org.sofun.core.api.messaging.TournamentEventTerminatedMessage;
 import org.sofun.core.api.sport.SportService;
 import org.sofun.core.api.sport.tournament.TournamentGame;
 import org.sofun.core.api.sport.tournament.TournamentGameStatus;
@@ -67,8 +72,11 @@ public class SportsGraphLifeCycleManager {
     @EJB(beanName = "SportServiceImpl", beanInterface = SportServiceLocal.class)
     private SportService sports;
 
+    @EJB(beanName = "SofunMessagingServiceImpl", beanInterface = SofunMessagingServiceLocal.class)
+    private SofunMessagingService messaging;
+
     /** Processing lock */
-    private boolean available = true;
+    private final AtomicBoolean available = new AtomicBoolean(true);
 
     /**
      * Returns the reference time for end of predictions.
@@ -81,6 +89,15 @@ public class SportsGraphLifeCycleManager {
         return ref;
     }
 
+    /**
+     * Notifies the scoring queue that a tournament event has been terminated.
+     * 
+     * @param event: a {@link TournamentEventTerminatedMessage} instance.
+     */
+    private void notifyTerminated(TournamentEventTerminatedMessage event) {
+        messaging.sendMessage(event, SofunMessagingDestination.SOFUN_SCORING);
+    }
+
     /**
      * Checks sports graph elements (Season, Stage, Round and Game) and
      * transitioning their status when needed.
@@ -91,10 +108,8 @@ public class SportsGraphLifeCycleManager {
     // @Schedule(minute = "*/5", hour = "*", persistent = false)
     public void check() throws Exception {
 
-        if (!available) {
+        if (!available.compareAndSet(true, false)) {
             return;
-        } else {
-            available = false;
         }
 
         try {
@@ -135,6 +150,8 @@ public class SportsGraphLifeCycleManager {
                         log.info("Marking game with uuid=" + game.getUUID()
                                 + " as terminated. Former status was unknown.");
                         game.setGameStatus(TournamentGameStatus.TERMINATED);
+                        notifyTerminated(TournamentEventTerminatedMessage
+                                .game(game.getUUID()));
                     }
                 }
             }
@@ -171,6 +188,8 @@ public class SportsGraphLifeCycleManager {
                                 + String.valueOf(round.getUUID())
                                 + " are marked as terminated. Marking round terminated");
                         round.setStatus(TournamentRoundStatus.TERMINATED);
+                        notifyTerminated(TournamentEventTerminatedMessage
+                                .round(round.getUUID()));
                     }
                     if (onGoing) {
                         log.info("At least one game in round w/ UUID="
@@ -236,6 +255,8 @@ public class SportsGraphLifeCycleManager {
                                 + "POSPONED Marking round as "
                                 + "TERMINATED. Former status was unknown");
                         round.setStatus(TournamentRoundStatus.TERMINATED);
+                        notifyTerminated(TournamentEventTerminatedMessage
+                                .round(round.getUUID()));
                     }
                 }
 
@@ -274,6 +295,8 @@ public class SportsGraphLifeCycleManager {
                                 + String.valueOf(stage.getUUID())
                                 + " are marked as terminated. Marking stage terminated");
                         stage.setStatus(TournamentStageStatus.TERMINATED);
+                        notifyTerminated(TournamentEventTerminatedMessage
+                                .stage(stage.getUUID()));
                     }
                 }
                 if (onGoing) {
@@ -322,6 +345,8 @@ public class SportsGraphLifeCycleManager {
                             + "POSPONED Marking stage as "
                             + "TERMINATED. Former status was unknown");
                     stage.setStatus(TournamentStageStatus.TERMINATED);
+                    notifyTerminated(TournamentEventTerminatedMessage
+                            .stage(stage.getUUID()));
                 }
 
             }
@@ -354,6 +379,8 @@ public class SportsGraphLifeCycleManager {
                             + String.valueOf(season.getUUID())
                             + " are marked as terminated. Marking season terminated");
                     season.setStatus(TournamentSeasonStatus.TERMINATED);
+                    notifyTerminated(TournamentEventTerminatedMessage
+                            .season(season.getUUID()));
                 }
                 if (onGoing) {
                     log.info("At least one stage in season w/ UUID="
@@ -398,11 +425,13 @@ public class SportsGraphLifeCycleManager {
                             + "POSPONED Marking season as "
                             + "TERMINATED. Former status was unknown");
                     season.setStatus(TournamentSeasonStatus.TERMINATED);
+                    notifyTerminated(TournamentEventTerminatedMessage
+                            .season(season.getUUID()));
                 }
 
             }
         } finally {
-            available = true;
+            available.set(true);
         }
 
     }
@@ -14,7 +14,10 @@
 
 package org.sofun.core.sport;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.ejb.ConcurrencyManagement;
 import javax.ejb.ConcurrencyManagementType;
@@ -26,6 +29,8 @@ import javax.ejb.Startup;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.local.KupServiceLocal;
 import org.sofun.core.api.local.SportServiceLocal;
 import org.sofun.core.api.sport.SportService;
 import org.sofun.core.api.sport.tournament.TournamentGame;
@@ -64,8 +69,11 @@ public class SportsGraphTimeManager {
     @EJB(beanName = "SportServiceImpl", beanInterface = SportServiceLocal.class)
     private SportService sports;
 
+    @EJB(beanName = "KupServiceImpl", beanInterface = KupServiceLocal.class)
+    private KupService kups;
+
     /** Processing lock */
-    private boolean available = true;
+    private final AtomicBoolean available = new AtomicBoolean(true);
 
     /**
      * Checks sports graph elements (Season, Stage, Round and Game) and
@@ -77,14 +85,14 @@ public class SportsGraphTimeManager {
     // @Schedule(minute = "*/5", hour = "*", persistent = false)
     public void check() throws Exception {
 
-        if (!available) {
+        if (!available.compareAndSet(true, false)) {
             return;
-        } else {
-            available = false;
         }
 
         try {
 
+            final List<Object> rescheduled = new ArrayList<Object>();
+
             // Update scheduled rounds start date
             for (TournamentRound round : sports
                     .getTournamentRoundsByStatus(TournamentRoundStatus.SCHEDULED)) {
@@ -100,6 +108,7 @@ public class SportsGraphTimeManager {
                 }
                 if (first != null && !first.equals(round.getStartDate())) {
                     round.setStartDate(first);
+                    rescheduled.add(round);
                     log.info("Updated start_date for round w/ uuid="
                             + round.getUUID());
                 }
@@ -120,6 +129,7 @@ public class SportsGraphTimeManager {
                 }
                 if (first != null && !first.equals(stage.getStartDate())) {
                     stage.setStartDate(first);
+                    rescheduled.add(stage);
                     log.info("Update start_date for stage w/ uuid="
                             + stage.getUUID());
                 }
@@ -140,12 +150,16 @@ public class SportsGraphTimeManager {
                 }
                 if (first != null && !first.equals(season.getStartDate())) {
                     season.setStartDate(first);
+                    rescheduled.add(season);
                     log.info("Update start_date for season w/ uuid="
                             + season.getUUID());
                 }
             }
+
+            // Kups event dates depend on the dates above.
+            kups.refreshEventDatesFor(rescheduled);
         } finally {
-            available = true;
+            available.set(true);
         }
 
     }
@@ -17,6 +17,7 @@ package org.sofun.core.team;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.ejb.EJB;
 import javax.ejb.Lock;
@@ -27,6 +28,8 @@ import javax.ejb.Timeout;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.sofun.core.api.community.table.MemberRankingTableEntry;
+import org.sofun.core.api.community.table.MemberRankingTableService;
+import org.sofun.core.api.local.MemberRankingTableServiceLocal;
 import org.sofun.core.api.local.TeamServiceLocal;
 import org.sofun.core.api.team.Team;
 import org.sofun.core.api.team.TeamService;
@@ -38,7 +41,7 @@ import org.sofun.core.api.team.TeamService;
 @Singleton
 public class FacebookLigue1Clubs {
 
-    private boolean available = true;
+    private final AtomicBoolean available = new AtomicBoolean(true);
 
     private static final Log log = LogFactory.getLog(FacebookLigue1Clubs.class);
 
@@ -66,19 +69,22 @@ public class FacebookLigue1Clubs {
     private static final long APP_TEAM_BASTIA_ID = 3638929;
     private static final long APP_TEAM_REIMS_ID = 3638932;
 
+    private static final int BATCH_SIZE = 500;
+
     @EJB(beanName = "TeamServiceImpl", beanInterface = TeamServiceLocal.class)
     private TeamService teams;
 
+    @EJB(beanName = "MemberRankingTableServiceImpl", beanInterface = MemberRankingTableServiceLocal.class)
+    private MemberRankingTableService rankings;
+
     @Timeout
     // XXX DISABLED
     // @Schedule(minute = "*/15", hour = "*", persistent = false)
     @Lock(LockType.READ)
     public void check() throws Exception {
 
-        if (!available) {
+        if (!available.compareAndSet(true, false)) {
             return;
-        } else {
-            available = false;
         }
 
         try {
@@ -107,19 +113,24 @@ public class FacebookLigue1Clubs {
 
             List<Team> lclubs = Arrays.asList(clubs);
 
-            Iterator<MemberRankingTableEntry> entriesIt = appTeam
-                    .getRankingTable().getEntries().iterator();
+            // Tables are walked one page at a time, club entries fetched one
+            // by one.
+            Iterator<MemberRankingTableEntry> entriesIt = rankings
+                    .iterateEntries(appTeam.getRankingTable().getId(),
+                            BATCH_SIZE);
             while (entriesIt.hasNext()) {
 
                 MemberRankingTableEntry entry = entriesIt.next();
                 boolean up = false;
                 for (Team club : lclubs) {
                     if (club.isMember(entry.getMember())) {
-                        MemberRankingTableEntry clubEntry = club
-                                .getRankingTable().getEntryForMember(
-                                        entry.getMember());
-                        clubEntry.setValue(entry.getValue());
-                        up = true;
+                        MemberRankingTableEntry clubEntry = rankings
+                                .getEntryFor(club.getRankingTable().getId(),
+                                        entry.getMember().getId());
+                        if (clubEntry != null) {
+                            clubEntry.setValue(entry.getValue());
+                            up = true;
+                        }
                         break;
                     }
                 }
@@ -135,8 +146,9 @@ public class FacebookLigue1Clubs {
             // Compute total points for each clubs
             for (Team club : lclubs) {
                 long totalPoints = 0;
-                Iterator<MemberRankingTableEntry> clubEntriesIt = club
-                        .getRankingTable().getEntries().iterator();
+                Iterator<MemberRankingTableEntry> clubEntriesIt = rankings
+                        .iterateEntries(club.getRankingTable().getId(),
+                                BATCH_SIZE);
                 while (clubEntriesIt.hasNext()) {
                     MemberRankingTableEntry entry = clubEntriesIt.next();
                     totalPoints += entry.getValue();
@@ -148,7 +160,7 @@ public class FacebookLigue1Clubs {
             t.printStackTrace();
             log.error(t.getMessage());
         } finally {
-            available = true;
+            available.set(true);
         }
 
     }
@@ -299,6 +299,17 @@ public class TeamImpl implements Team {
         return member;
     }
 
+    /**
+     * Adds a member whose ranking table entry is persisted on its own, the
+     * entries being left unloaded. (see TeamService#addMember)
+     * 
+     * @param member: a {@link Member} instance.
+     */
+    public void memberAdded(Member member) {
+        getMembers().add(member);
+        member.addMemberTeam(this);
+    }
+
     @Override
     public void removeMember(Member member) {
         if (isMember(member)) {
@@ -14,22 +14,21 @@
 
 package org.sofun.core.team;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.ejb.EJB;
 import javax.ejb.Lock;
 import javax.ejb.LockType;
+import javax.ejb.Schedule;
 import javax.ejb.Singleton;
 import javax.ejb.Timeout;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.sofun.core.api.community.table.MemberRankingTableEntry;
-import org.sofun.core.api.kup.Kup;
-import org.sofun.core.api.kup.KupStatus;
+import org.sofun.core.api.local.ClusterCoordinatorLocal;
 import org.sofun.core.api.local.TeamServiceLocal;
 import org.sofun.core.api.team.Team;
 import org.sofun.core.api.team.TeamService;
@@ -38,7 +37,19 @@ import org.sofun.core.api.team.TeamService;
  * Team points timer.
  * 
  * <p>
- * Clock triggering team ranking's update.
+ * Team rankings reconciliation.
+ * </p>
+ * 
+ * <p>
+ * Team rankings are maintained incrementally as Kup points get computed (see
+ * {@link TeamService#applyKupRankingDeltas}). This timer recomputes, in bulk
+ * and within the database, the rankings of the teams having active Kups so
+ * that any drift (canceled Kups, failures, manual fixes, etc.) gets
+ * recovered.
+ * </p>
+ * 
+ * <p>
+ * Runs on a single node of the cluster at a time.
  * </p>
  * 
  * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
@@ -49,75 +60,54 @@ public class TeamPointsTimer {
 
     private static final Log log = LogFactory.getLog(TeamPointsTimer.class);
 
-    private boolean available = true;
+    private static final String LEASE = "team.points";
+
+    private final AtomicBoolean available = new AtomicBoolean(true);
 
     @EJB(beanName = "TeamServiceImpl", beanInterface = TeamServiceLocal.class)
     private TeamService teams;
 
+    @EJB(beanName = "ClusterCoordinator", beanInterface = ClusterCoordinatorLocal.class)
+    private ClusterCoordinatorLocal cluster;
+
     @Timeout
-    // XXX DISABLE
-    // @Schedule(minute = "*/59", hour = "*", persistent = false)
+    @Schedule(minute = "30", hour = "4", persistent = false)
     @Lock(LockType.READ)
     public void check() throws Exception {
 
-        if (!available) {
+        if (!available.compareAndSet(true, false)) {
             return;
-        } else {
-            available = false;
         }
 
         try {
 
+            if (!cluster.acquire(LEASE)) {
+                return;
+            }
+
             List<Team> actives = teams.getTeamsWithActiveKups();
             log.info("Found " + actives.size()
-                    + " teams for which we need to update ranking");
+                    + " teams for which we need to reconcile ranking");
 
-            List<Long> computed = new ArrayList<Long>();
-            ListIterator<Team> teamItr = actives.listIterator();
-            while (teamItr.hasNext()) {
-                Team team = teamItr.next();
-                if (computed.contains(team.getId())) {
+            Set<Long> computed = new HashSet<Long>();
+            int fixed = 0;
+            for (Team team : actives) {
+                if (team == null || !computed.add(team.getId())) {
                     continue;
                 }
                 team.setNbMembers(team.getMembers().size());
-                long entriesTotalPoints = 0;
-                log.info("Updating team ranking. Team UUID=" + team.getId()
-                        + " name=" + team.getName());
-                Iterator<MemberRankingTableEntry> teamEntriesItr = team
-                        .getRankingTable().getEntries().iterator();
-                while (teamEntriesItr.hasNext()) {
-                    MemberRankingTableEntry entry = teamEntriesItr.next();
-                    int total = 0;
-                    Iterator<Kup> kupItr = team.getKups().iterator();
-                    while (kupItr.hasNext()) {
-                        Kup kup = kupItr.next();
-                        if (kup.getStatus() == KupStatus.CANCELED) {
-                            continue;
-                        }
-                        MemberRankingTableEntry teamEntry = kup
-                                .getRankingTable().getEntryForMember(
-                                        entry.getMember());
-                        if (teamEntry != null) {
-                            total += teamEntry.getValue();
-                        }
-                    }
-                    entry.setValue(total);
-                    entriesTotalPoints += total;
-                    log.debug("Member with email="
-                            + entry.getMember().getEmail()
-                            + " in team with id=" + team.getId()
-                            + " has now value=" + total);
-                }
-                team.getRankingTable()
-                        .setEntriesTotalPoints(entriesTotalPoints);
-                computed.add(team.getId());
+                fixed += teams.reconcileRanking(team);
             }
 
+            log.info("Team rankings reconciled for "
+                    + String.valueOf(computed.size()) + " teams ("
+                    + String.valueOf(fixed) + " entries fixed)");
+
         } catch (Throwable t) {
             t.printStackTrace();
             log.error(t.getMessage());
         } finally {
-            available = true;
+            available.set(true);
         }
     }
 }
@@ -16,13 +16,18 @@ package org.sofun.core.team;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
+import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.ejb.Local;
 import javax.ejb.Remote;
@@ -31,6 +36,10 @@ import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
+import javax.persistence.TemporalType;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,6 +48,8 @@ import org.sofun.core.api.community.Community;
 import org.sofun.core.api.community.CommunityService;
 import org.sofun.core.api.exception.CoreException;
 import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupStatus;
+import org.sofun.core.api.local.CommunityLeaderboardLocal;
 import org.sofun.core.api.local.CommunityServiceLocal;
 import org.sofun.core.api.local.NotificationServiceLocal;
 import org.sofun.core.api.local.TeamServiceLocal;
@@ -54,6 +65,9 @@ import org.sofun.core.api.team.TeamService;
 import org.sofun.core.api.team.TeamTag;
 import org.sofun.core.api.team.TeamType;
 import org.sofun.core.api.team.table.TeamRankingTable;
+import org.sofun.core.community.table.MemberRankingTableEntries;
+import org.sofun.core.community.table.MemberRankingTableImpl;
+import org.sofun.core.kup.KupCounters;
 import org.sofun.core.kup.KupImpl;
 
 /**
@@ -89,6 +103,14 @@ public class TeamServiceImpl implements TeamService {
             beanInterface = NotificationServiceLocal.class)
     private NotificationService notifications;
 
+    @EJB(
+            beanName = "CommunityLeaderboard",
+            beanInterface = CommunityLeaderboardLocal.class)
+    private CommunityLeaderboardLocal leaderboard;
+
+    @Resource
+    private transient TransactionSynchronizationRegistry registry;
+
     public TeamServiceImpl() {
         super();
     }
@@ -536,6 +558,8 @@ public class TeamServiceImpl implements TeamService {
         @SuppressWarnings("unchecked")
         List<Kup> results = query.getResultList();
         if (results != null) {
+            // Counters of the whole page at once.
+            new KupCounters(em).load(results);
             return results;
         }
         return new ArrayList<Kup>();
@@ -546,8 +570,9 @@ public class TeamServiceImpl implements TeamService {
     public boolean isTeamRemovable(Team team) {
         boolean canRemove = true;
         if (team != null) {
+            new KupCounters(em).load(team.getKups());
             for (Kup kup : team.getKups()) {
-                if (kup.getParticipants().size() > 1) {
+                if (kup.getNbParticipants() > 1) {
                     // admin is always a member.
                     canRemove = false;
                     break;
@@ -576,4 +601,203 @@ public class TeamServiceImpl implements TeamService {
         return new ArrayList<Team>();
     }
 
+    @Override
+    public Member addMember(Team team, Member member) {
+        if (team == null || member == null) {
+            return member;
+        }
+        if (!(team instanceof TeamImpl) || !team.hasRankingTable()) {
+            return team.addMember(member);
+        }
+        ((TeamImpl) team).memberAdded(member);
+        new MemberRankingTableEntries(em).add(team.getRankingTable(), member);
+        return member;
+    }
+
+    @Override
+    public void applyKupRankingDeltas(Kup kup, Map<Long, Integer> deltas)
+            throws CoreException {
+
+        if (kup == null || deltas == null || deltas.isEmpty()) {
+            return;
+        }
+
+        final Query tablesQuery = em
+                .createNativeQuery("SELECT teams.table_id FROM teams, teams_kups"
+                        + " WHERE teams.id = teams_kups.team_id"
+                        + " AND teams_kups.kup_id = :kup_id"
+                        + " AND teams.table_id IS NOT NULL"
+                        + " ORDER BY teams.table_id");
+        tablesQuery.setParameter("kup_id", kup.getId());
+        @SuppressWarnings("unchecked")
+        final List<Number> tableIds = tablesQuery.getResultList();
+        if (tableIds.isEmpty()) {
+            return;
+        }
+
+        // Pending changes must not overwrite the in place updates below.
+        em.flush();
+
+        // Rows are always updated in (table, member) order to prevent
+        // deadlocks between Kups sharing teams.
+        final Map<Long, Integer> sorted = new TreeMap<Long, Integer>(deltas);
+        final Query entryUpdate = em
+                .createNativeQuery("UPDATE members_ranking_tables_entries"
+                        + " SET value = value + :delta"
+                        + " WHERE table_id = :table_id AND member_id = :member_id");
+        final Query tableUpdate = em
+                .createNativeQuery("UPDATE members_ranking_tables"
+                        + " SET entries_total_points = entries_total_points + :delta,"
+                        + " version = version + 1,"
+                        + " change_log_version = version + 1,"
+                        + " modified = :modified WHERE id = :table_id");
+        final Date modified = Calendar.getInstance().getTime();
+
+        for (Number tableId : tableIds) {
+            long total = 0;
+            Map<Long, Integer> applied = new HashMap<Long, Integer>();
+            for (Map.Entry<Long, Integer> delta : sorted.entrySet()) {
+                if (delta.getValue() == null || delta.getValue() == 0) {
+                    continue;
+                }
+                entryUpdate.setParameter("delta", delta.getValue());
+                entryUpdate.setParameter("table_id", tableId.longValue());
+                entryUpdate.setParameter("member_id", delta.getKey());
+                if (entryUpdate.executeUpdate() > 0) {
+                    total += delta.getValue();
+                    applied.put(delta.getKey(), delta.getValue());
+                }
+            }
+            if (applied.isEmpty()) {
+                continue;
+            }
+            // Positions may change even if the deltas cancel each other out:
+            // the version is always bumped.
+            tableUpdate.setParameter("delta", total);
+            tableUpdate.setParameter("modified", modified,
+                    TemporalType.TIMESTAMP);
+            tableUpdate.setParameter("table_id", tableId.longValue());
+            tableUpdate.executeUpdate();
+            refreshIfLoaded(tableId.longValue());
+            notifyLeaderboard(tableId.longValue(), applied);
+        }
+
+    }
+
+    @Override
+    public int reconcileRanking(Team team) throws CoreException {
+
+        if (team == null) {
+            return 0;
+        }
+
+        final Query tableQuery = createQuery("select t.rankingTable.id from "
+                + TeamImpl.class.getSimpleName() + " t where t.id=:team_id");
+        tableQuery.setParameter("team_id", team.getId());
+        @SuppressWarnings("unchecked")
+        final List<Long> tableIds = tableQuery.getResultList();
+        if (tableIds.isEmpty() || tableIds.get(0) == null) {
+            return 0;
+        }
+        final long tableId = tableIds.get(0);
+
+        // Pending changes must not overwrite the in place updates below.
+        em.flush();
+
+        final String sum = "COALESCE((SELECT SUM(ke.value)"
+                + " FROM teams_kups tk, kups k, members_ranking_tables_entries ke"
+                + " WHERE tk.team_id = :team_id AND k.id = tk.kup_id"
+                + " AND k.status <> :canceled AND ke.table_id = k.table_id"
+                + " AND ke.member_id = members_ranking_tables_entries.member_id), 0)";
+        final Query entriesUpdate = em
+                .createNativeQuery("UPDATE members_ranking_tables_entries SET value = "
+                        + sum
+                        + " WHERE table_id = :table_id AND value <> "
+                        + sum);
+        entriesUpdate.setParameter("team_id", team.getId());
+        entriesUpdate.setParameter("canceled", KupStatus.CANCELED);
+        entriesUpdate.setParameter("table_id", tableId);
+        final int fixed = entriesUpdate.executeUpdate();
+
+        // The version is only bumped if entries actually moved.
+        final String bump = fixed > 0 ? ", version = version + 1,"
+                + " change_log_version = version + 1" : "";
+        final Query tableUpdate = em
+                .createNativeQuery("UPDATE members_ranking_tables"
+                        + " SET entries_total_points = (SELECT COALESCE(SUM(value), 0)"
+                        + " FROM members_ranking_tables_entries WHERE table_id = :table_id)"
+                        + bump + " WHERE id = :table_id");
+        tableUpdate.setParameter("table_id", tableId);
+        tableUpdate.executeUpdate();
+        refreshIfLoaded(tableId);
+
+        if (fixed > 0) {
+            notifyLeaderboard(tableId, null);
+            log.warn("Team ranking reconciliation fixed "
+                    + String.valueOf(fixed) + " entries for team with id="
+                    + team.getId());
+        }
+        return fixed;
+
+    }
+
+    /**
+     * Refreshes a ranking table updated in place by the database if it is
+     * managed and loaded in the current persistence context. Loaded entries
+     * are refreshed along (cascade). Entries loaded on their own, outside of
+     * the table, are not.
+     * 
+     * @param tableId: a table identifier.
+     */
+    private void refreshIfLoaded(long tableId) {
+        final Object table = em.getReference(MemberRankingTableImpl.class,
+                tableId);
+        if (em.getEntityManagerFactory().getPersistenceUnitUtil()
+                .isLoaded(table)) {
+            em.refresh(table);
+        }
+    }
+
+    /**
+     * Forwards ranking changes to the in-memory leaderboard once the current
+     * transaction is committed.
+     * 
+     * @param tableId: a table identifier.
+     * @param deltas: value deltas per member id or null to have the table
+     *        reloaded.
+     */
+    private void notifyLeaderboard(final long tableId,
+            final Map<Long, Integer> deltas) {
+        if (leaderboard == null) {
+            return;
+        }
+        if (registry == null || registry.getTransactionKey() == null) {
+            if (deltas == null) {
+                leaderboard.invalidate(tableId);
+            } else {
+                leaderboard.applyDeltas(tableId, deltas);
+            }
+            return;
+        }
+        registry.registerInterposedSynchronization(new Synchronization() {
+
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != Status.STATUS_COMMITTED) {
+                    return;
+                }
+                if (deltas == null) {
+                    leaderboard.invalidate(tableId);
+                } else {
+                    leaderboard.applyDeltas(tableId, deltas);
+                }
+            }
+
+        });
+    }
+
 }
@@ -17,6 +17,7 @@ package org.sofun.core.team;
 import java.security.SecureRandom;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.ejb.EJB;
 import javax.ejb.Lock;
@@ -49,7 +50,7 @@ public class WireThemAll {
 
     private static final Log log = LogFactory.getLog(WireThemAll.class);
 
-    private boolean available = true;
+    private final AtomicBoolean available = new AtomicBoolean(true);
 
     @EJB(
             beanName = "MemberServiceImpl",
@@ -61,10 +62,8 @@ public class WireThemAll {
     @Lock(LockType.READ)
     public void check() throws Exception {
 
-        if (!available) {
+        if (!available.compareAndSet(true, false)) {
             return;
-        } else {
-            available = false;
         }
 
         try {
@@ -93,7 +92,7 @@ public class WireThemAll {
             t.printStackTrace();
             log.error(t.getMessage());
         } finally {
-            available = true;
+            available.set(true);
         }
     }
 }
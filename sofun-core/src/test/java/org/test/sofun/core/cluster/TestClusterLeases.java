@@ -0,0 +1,152 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.test.sofun.core.cluster;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.sofun.core.cluster.ClusterLeases;
+import org.test.sofun.core.testing.SofunCoreTestCase;
+
+/**
+ * Cluster leases TestCase.
+ * 
+ * <p>
+ * 
+ * Two nodes sharing the same database.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class TestClusterLeases extends SofunCoreTestCase {
+
+    private static final int TTL = 90;
+
+    private static final int SHARDS = 8;
+
+    private ClusterLeases node1;
+
+    private ClusterLeases node2;
+
+    private Date now;
+
+    public TestClusterLeases(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        node1 = new ClusterLeases(em, "node1");
+        node2 = new ClusterLeases(em, "node2");
+        now = new Date();
+        node1.seed("job");
+        node1.seed(ClusterLeases.NODE_PREFIX + "node1");
+        node2.seed(ClusterLeases.NODE_PREFIX + "node2");
+        for (String name : ClusterLeases.getShardLeases(SHARDS)) {
+            node1.seed(name);
+        }
+    }
+
+    private static Date later(Date date, int seconds) {
+        final Calendar ref = Calendar.getInstance();
+        ref.setTime(date);
+        ref.add(Calendar.SECOND, seconds);
+        return ref.getTime();
+    }
+
+    public void testShardOf() {
+        assertEquals(0, ClusterLeases.shardOf(16, SHARDS));
+        assertEquals(3, ClusterLeases.shardOf(11, SHARDS));
+        assertEquals(3, ClusterLeases.shardOf(-11, SHARDS));
+    }
+
+    public void testSeededLease() {
+        assertFalse(node1.acquire("other", TTL, now));
+        assertTrue(node2.seed("other"));
+        assertFalse(node1.seed("other"));
+        assertTrue(node1.acquire("other", TTL, now));
+        assertFalse(node2.acquire("other", TTL, now));
+    }
+
+    public void testExclusiveLease() {
+        assertTrue(node1.acquire("job", TTL, now));
+        assertFalse(node2.acquire("job", TTL, now));
+        // Renewed by its owner.
+        assertTrue(node1.acquire("job", TTL, later(now, 30)));
+        assertFalse(node2.acquire("job", TTL, later(now, 60)));
+    }
+
+    public void testReleasedLease() {
+        assertTrue(node1.acquire("job", TTL, now));
+        node1.release("job");
+        assertTrue(node2.acquire("job", TTL, now));
+        assertFalse(node1.acquire("job", TTL, now));
+    }
+
+    public void testExpiredLease() {
+        assertTrue(node1.acquire("job", TTL, now));
+        assertFalse(node2.acquire("job", TTL, later(now, TTL)));
+        // node1 died: taken over once expired.
+        assertTrue(node2.acquire("job", TTL, later(now, TTL + 1)));
+        assertFalse(node1.acquire("job", TTL, later(now, TTL + 2)));
+    }
+
+    public void testLiveNodes() {
+        node1.heartbeat(TTL, now);
+        node2.heartbeat(TTL, later(now, 30));
+        assertEquals(2, node1.getLiveNodes(later(now, 60)).size());
+        Set<String> live = node1.getLiveNodes(later(now, TTL + 1));
+        assertEquals(1, live.size());
+        assertTrue(live.contains("node2"));
+    }
+
+    public void testShardsRebalancing() {
+
+        // node1 alone gets all the shards.
+        node1.heartbeat(TTL, now);
+        assertEquals(SHARDS, node1.acquireShards(SHARDS, TTL, now).size());
+
+        // node2 joins: nothing is free till node1 gives back its extra shards.
+        Date at = later(now, 30);
+        node2.heartbeat(TTL, at);
+        assertTrue(node2.acquireShards(SHARDS, TTL, at).isEmpty());
+        node1.heartbeat(TTL, at);
+        Set<Integer> shards1 = node1.acquireShards(SHARDS, TTL, at);
+        assertEquals(SHARDS / 2, shards1.size());
+        Set<Integer> shards2 = node2.acquireShards(SHARDS, TTL, at);
+        assertEquals(SHARDS / 2, shards2.size());
+
+        Set<Integer> all = new HashSet<Integer>(shards1);
+        all.addAll(shards2);
+        assertEquals(SHARDS, all.size());
+
+        // Stable on next heartbeats.
+        at = later(at, 30);
+        node1.heartbeat(TTL, at);
+        node2.heartbeat(TTL, at);
+        assertEquals(shards1, node1.acquireShards(SHARDS, TTL, at));
+        assertEquals(shards2, node2.acquireShards(SHARDS, TTL, at));
+
+        // node1 stops heartbeating: node2 takes its shards over once expired.
+        at = later(at, TTL + 1);
+        node2.heartbeat(TTL, at);
+        assertEquals(SHARDS, node2.acquireShards(SHARDS, TTL, at).size());
+
+    }
+
+}
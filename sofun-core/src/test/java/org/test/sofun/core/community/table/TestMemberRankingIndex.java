@@ -0,0 +1,133 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.test.sofun.core.community.table;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
+import org.sofun.core.community.table.MemberRankingIndex;
+import org.sofun.core.community.table.MemberRankingTableEntryImpl;
+import org.sofun.core.member.MemberImpl;
+
+import junit.framework.TestCase;
+
+/**
+ * Member ranking index TestCase.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ *
+ */
+public class TestMemberRankingIndex extends TestCase {
+
+    public TestMemberRankingIndex(String testName) {
+        super(testName);
+    }
+
+    private MemberRankingTableEntry getEntry(long memberId, int value,
+            int correct, Date first) {
+        MemberImpl member = new MemberImpl();
+        member.setId(memberId);
+        MemberRankingTableEntry entry = new MemberRankingTableEntryImpl(member);
+        entry.setValue(value);
+        entry.setCorrectPredictions(correct);
+        entry.setFirstPredictions(first);
+        return entry;
+    }
+
+    public void testOrdering() {
+        final Date early = new Date(1000);
+        final Date late = new Date(2000);
+        List<MemberRankingTableEntry> entries = new ArrayList<MemberRankingTableEntry>();
+        entries.add(getEntry(1, 10, 2, late));
+        entries.add(getEntry(2, 30, 1, late));
+        entries.add(getEntry(3, 10, 3, late));
+        entries.add(getEntry(4, 10, 2, early));
+        entries.add(getEntry(5, 0, 0, null));
+
+        MemberRankingIndex index = new MemberRankingIndex(entries);
+        assertEquals(5, index.size());
+        assertEquals(0, index.getPosition(2));
+        assertEquals(1, index.getPosition(3));
+        assertEquals(2, index.getPosition(4));
+        assertEquals(3, index.getPosition(1));
+        assertEquals(4, index.getPosition(5));
+        assertEquals(-1, index.getPosition(6));
+
+        assertSame(entries.get(2), index.get(1));
+        assertSame(entries.get(0), index.getEntry(1));
+        assertNull(index.getEntry(6));
+    }
+
+    public void testEntriesForMembers() {
+        List<MemberRankingTableEntry> entries = new ArrayList<MemberRankingTableEntry>();
+        for (int i = 1; i <= 50; i++) {
+            entries.add(getEntry(i, i, 0, null));
+        }
+        MemberRankingIndex index = new MemberRankingIndex(entries);
+
+        List<MemberRankingTableEntry> friends = index.getEntries(new long[] {
+                3, 42, 7, 99 });
+        assertEquals(3, friends.size());
+        assertSame(entries.get(41), friends.get(0));
+        assertSame(entries.get(6), friends.get(1));
+        assertSame(entries.get(2), friends.get(2));
+
+        assertTrue(index.getEntries(new long[0]).isEmpty());
+    }
+
+    public void testUpdate() {
+        List<MemberRankingTableEntry> entries = new ArrayList<MemberRankingTableEntry>();
+        for (int i = 1; i <= 100; i++) {
+            entries.add(getEntry(i, i, 0, null));
+        }
+        MemberRankingIndex index = new MemberRankingIndex(entries);
+        assertEquals(99, index.getPosition(1));
+        assertEquals(0, index.getPosition(100));
+
+        MemberRankingTableEntry entry = index.getEntry(1);
+        entry.setValue(1000);
+        // Not repositioned until updated.
+        assertEquals(99, index.getPosition(1));
+        index.update(entry);
+        assertEquals(0, index.getPosition(1));
+        assertEquals(1, index.getPosition(100));
+        assertEquals(100, index.size());
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertEquals(99, index.size());
+        assertEquals(0, index.getPosition(100));
+    }
+
+    public void testRange() {
+        List<MemberRankingTableEntry> entries = new ArrayList<MemberRankingTableEntry>();
+        for (int i = 1; i <= 50; i++) {
+            entries.add(getEntry(i, i, 0, null));
+        }
+        MemberRankingIndex index = new MemberRankingIndex(entries);
+
+        List<MemberRankingTableEntry> range = index.getRange(10, 5);
+        assertEquals(5, range.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(40 - i, range.get(i).getValue());
+        }
+        assertEquals(2, index.getRange(48, 10).size());
+        assertEquals(0, index.getRange(50, 10).size());
+        assertEquals(50, index.getRange(0, Integer.MAX_VALUE).size());
+    }
+
+}
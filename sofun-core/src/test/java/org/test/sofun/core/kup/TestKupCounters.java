@@ -0,0 +1,125 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.test.sofun.core.kup;
+
+import java.util.Collections;
+
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.kup.KupCounters;
+import org.sofun.core.kup.KupImpl;
+import org.test.sofun.core.testing.SofunCoreTestCase;
+
+/**
+ * Kup counters TestCase.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class TestKupCounters extends SofunCoreTestCase {
+
+    private KupCounters counters;
+
+    private long kupId;
+
+    public TestKupCounters(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        counters = new KupCounters(em);
+        Kup kup = new KupImpl("My Kup");
+        kup.setJackpot(3);
+        em.persist(kup);
+        em.flush();
+        kupId = kup.getId();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        counters = null;
+        super.tearDown();
+    }
+
+    private Kup reload() {
+        em.flush();
+        em.clear();
+        return em.find(KupImpl.class, kupId);
+    }
+
+    public void testStripeOf() {
+        assertEquals(0, KupCounters.stripeOf(16, 8));
+        assertEquals(3, KupCounters.stripeOf(11, 8));
+        assertEquals(3, KupCounters.stripeOf(-11, 8));
+    }
+
+    public void testWithoutStripes() {
+        Kup kup = reload();
+        counters.add(kup, 5, 1);
+        assertEquals(8f, kup.getJackpot(), 0.001f);
+        assertEquals(1, kup.getNbParticipants());
+
+        kup = reload();
+        assertEquals(8f, kup.getJackpot(), 0.001f);
+        assertEquals(1, kup.getNbParticipants());
+    }
+
+    public void testStripes() {
+        Kup kup = reload();
+        counters.create(kup);
+        counters.add(kup, 5, 1);
+        counters.add(kup, 5, 1);
+        assertEquals(13f, kup.getJackpot(), 0.001f);
+        assertEquals(2, kup.getNbParticipants());
+
+        // Stripes are loaded on first read.
+        kup = reload();
+        assertEquals(13f, kup.getJackpot(), 0.001f);
+        assertEquals(2, kup.getNbParticipants());
+
+        // Or at once for several Kups.
+        kup = reload();
+        counters.load(Collections.singletonList(kup));
+        assertEquals(13f, kup.getJackpot(), 0.001f);
+        assertEquals(2, kup.getNbParticipants());
+
+        counters.fold(kup);
+        assertEquals(13f, kup.getJackpot(), 0.001f);
+        assertEquals(2, kup.getNbParticipants());
+
+        kup = reload();
+        assertEquals(13f, kup.getJackpot(), 0.001f);
+        assertEquals(2, kup.getNbParticipants());
+        counters.load(Collections.singletonList(kup));
+        assertEquals(13f, kup.getJackpot(), 0.001f);
+    }
+
+    public void testIncrementBeforeFirstRead() {
+        Kup kup = reload();
+        counters.create(kup);
+        counters.add(kup, 5, 1);
+
+        // Incremented before the stripes are loaded: counted once.
+        kup = reload();
+        counters.add(kup, 5, 1);
+        assertEquals(13f, kup.getJackpot(), 0.001f);
+        assertEquals(2, kup.getNbParticipants());
+        counters.add(kup, 5, 1);
+        assertEquals(18f, kup.getJackpot(), 0.001f);
+        assertEquals(3, kup.getNbParticipants());
+    }
+
+}
@@ -14,6 +14,9 @@
 
 package org.test.sofun.core.kup;
 
+import java.util.Calendar;
+
+import org.sofun.core.CoreConstants;
 import org.sofun.core.api.community.Community;
 import org.sofun.core.api.exception.CoreException;
 import org.sofun.core.api.kup.Kup;
@@ -48,6 +51,31 @@ public class TestKupImpl extends SofunCoreTestCase {
         assertEquals("My Kup", k.getName());
     }
     
+    public void testEventDatesWithoutEvents() {
+        Calendar start = Calendar.getInstance();
+        start.add(Calendar.DAY_OF_MONTH, 1);
+        Calendar end = Calendar.getInstance();
+        end.add(Calendar.DAY_OF_MONTH, 2);
+        Kup k = new KupImpl("My Kup", null, start.getTime(), end.getTime());
+
+        Calendar effectiveStart = (Calendar) start.clone();
+        effectiveStart.add(Calendar.SECOND,
+                -CoreConstants.TIME_TO_BET_BEFORE_EVENT_STARTS);
+        Calendar effectiveEnd = (Calendar) end.clone();
+        effectiveEnd.add(Calendar.SECOND,
+                -CoreConstants.TIME_TO_BET_BEFORE_EVENT_STARTS);
+
+        // The specified dates stand for the events and are left untouched.
+        for (int i = 0; i < 2; i++) {
+            k.updateEventDates();
+            assertEquals(start.getTime(), k.getStartDate());
+            assertEquals(end.getTime(), k.getEndDate());
+            assertEquals(effectiveStart.getTime(), k.getEffectiveStartDate());
+            assertEquals(effectiveEnd.getTime(), k.getEffectiveEndDate());
+            assertEquals(effectiveEnd.getTime(), k.getCloseDate());
+        }
+    }
+
     public void testKupPersistence() throws CoreException {
         Community k = new CommunityImpl("My Kup");
         em.persist(k);
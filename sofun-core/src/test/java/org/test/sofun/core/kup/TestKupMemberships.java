@@ -0,0 +1,123 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.test.sofun.core.kup;
+
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupRoles;
+import org.sofun.core.api.member.Member;
+import org.sofun.core.kup.KupImpl;
+import org.sofun.core.kup.KupMemberships;
+import org.sofun.core.kup.KupServiceImpl;
+import org.sofun.core.member.MemberImpl;
+import org.test.sofun.core.testing.SofunCoreTestCase;
+
+/**
+ * Kup memberships TestCase.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class TestKupMemberships extends SofunCoreTestCase {
+
+    private KupMemberships memberships;
+
+    private long kupId;
+
+    private long memberId;
+
+    public TestKupMemberships(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        memberships = new KupMemberships(em);
+        Kup kup = new KupImpl("My Kup");
+        kup.getRankingTable();
+        Member member = new MemberImpl("julien@anguenot.org", null, null);
+        em.persist(member);
+        em.persist(kup);
+        em.flush();
+        kupId = kup.getId();
+        memberId = member.getId();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        memberships = null;
+        super.tearDown();
+    }
+
+    private Kup reload() {
+        em.flush();
+        em.clear();
+        return em.find(KupImpl.class, kupId);
+    }
+
+    public void testJoinTables() {
+        Kup kup = reload();
+        Member member = em.find(MemberImpl.class, memberId);
+
+        assertFalse(memberships.isMember(kup, member));
+        assertTrue(memberships.addMember(kup, member));
+        assertFalse(memberships.addMember(kup, member));
+        assertTrue(memberships.isMember(kup, member));
+
+        assertFalse(memberships.isParticipant(kup, member));
+        assertTrue(memberships.addParticipant(kup, member));
+        assertFalse(memberships.addParticipant(kup, member));
+        assertTrue(memberships.isParticipant(kup, member));
+        assertEquals(1, kup.getNbParticipants());
+
+        kup = reload();
+        assertEquals(1, kup.getNbParticipants());
+        assertEquals(1, kup.getParticipants().size());
+        assertEquals(1, kup.getMembers().size());
+        assertEquals(1, kup.getRankingTable().getEntries().size());
+    }
+
+    public void testLoadedCollections() {
+        Kup kup = reload();
+        Member member = em.find(MemberImpl.class, memberId);
+        kup.getParticipants().size();
+
+        assertTrue(memberships.addParticipant(kup, member));
+        assertFalse(memberships.addParticipant(kup, member));
+        assertEquals(1, kup.getNbParticipants());
+
+        kup = reload();
+        assertEquals(1, kup.getNbParticipants());
+        assertEquals(1, kup.getParticipants().size());
+        assertEquals(1, kup.getRankingTable().getEntries().size());
+    }
+
+    public void testServiceParticipant() {
+        KupServiceImpl kups = new KupServiceImpl(em);
+        Kup kup = reload();
+        Member member = em.find(MemberImpl.class, memberId);
+
+        assertFalse(kups.isParticipant(member, kup));
+        assertTrue(memberships.addParticipant(kup, member));
+
+        // Participants are not loaded: answered by the join table.
+        kup = reload();
+        member = em.find(MemberImpl.class, memberId);
+        assertTrue(kups.isParticipant(member, kup));
+        assertTrue(kups.getCredentials(kup, member).contains(
+                KupRoles.PARTICIPANT));
+    }
+
+}
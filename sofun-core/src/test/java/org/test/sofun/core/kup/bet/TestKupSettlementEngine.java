@@ -0,0 +1,223 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.test.sofun.core.kup.bet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.Query;
+
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupStatus;
+import org.sofun.core.api.kup.KupType;
+import org.sofun.core.api.kup.bet.KupWinningsRepartitionRuleType;
+import org.sofun.core.api.member.Member;
+import org.sofun.core.community.table.MemberRankingTableEntryImpl;
+import org.sofun.core.kup.KupImpl;
+import org.sofun.core.kup.KupMemberships;
+import org.sofun.core.kup.KupServiceImpl;
+import org.sofun.core.kup.bet.KupPayoutImpl;
+import org.sofun.core.kup.bet.KupSettlementEngine;
+import org.sofun.core.member.MemberImpl;
+import org.sofun.core.member.MemberTransactionImpl;
+import org.test.sofun.core.testing.SofunCoreTestCase;
+
+/**
+ * Kup settlement engine TestCase.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ *
+ */
+public class TestKupSettlementEngine extends SofunCoreTestCase {
+
+    private KupSettlementEngine engine;
+
+    private long kupId;
+
+    private final List<Long> memberIds = new ArrayList<Long>();
+
+    public TestKupSettlementEngine(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        Kup kup = new KupImpl("My Kup");
+        kup.setType(KupType.GAMBLING_FR);
+        kup.setStatus(KupStatus.SETTLED);
+        kup.setStake(1);
+        kup.setJackpot(100);
+        kup.setRepartitionRuleType(KupWinningsRepartitionRuleType.TYPE_2);
+        kup.getRankingTable();
+        em.persist(kup);
+        final KupMemberships memberships = new KupMemberships(em);
+        final int[] points = new int[] { 10, 5 };
+        for (int i = 0; i < points.length; i++) {
+            Member member = new MemberImpl("member" + i + "@sofungaming.com",
+                    null, null);
+            member.getMemberCredit();
+            em.persist(member);
+            em.flush();
+            memberIds.add(member.getId());
+            memberships.addParticipant(kup, member);
+            em.flush();
+            Query query = em.createQuery("update "
+                    + MemberRankingTableEntryImpl.class.getSimpleName()
+                    + " e set e.value = :value where e.member.id = :id");
+            query.setParameter("value", points[i]);
+            query.setParameter("id", member.getId());
+            query.executeUpdate();
+        }
+        kupId = kup.getId();
+        commitTransaction();
+        em.clear();
+        beginTransaction();
+
+        engine = new KupSettlementEngine(em, new KupServiceImpl(em));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        engine = null;
+        super.tearDown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<KupPayoutImpl> getPayouts(byte status) {
+        Query query = em.createQuery("from "
+                + KupPayoutImpl.class.getSimpleName()
+                + " p where p.kupId = :kupId and p.status = :status"
+                + " order by p.position");
+        query.setParameter("kupId", kupId);
+        query.setParameter("status", status);
+        return query.getResultList();
+    }
+
+    public void testJournalPayouts() throws Exception {
+        assertTrue(engine.journalPayouts(kupId));
+        em.flush();
+        List<KupPayoutImpl> payouts = getPayouts(KupPayoutImpl.PENDING);
+        assertEquals(2, payouts.size());
+        assertEquals(70f, payouts.get(0).getAmount());
+        assertEquals(30f, payouts.get(1).getAmount());
+        commitTransaction();
+        em.clear();
+        beginTransaction();
+
+        // Journaled once: a second run does not write anything.
+        assertFalse(engine.journalPayouts(kupId));
+        em.flush();
+        assertEquals(2, getPayouts(KupPayoutImpl.PENDING).size());
+    }
+
+    public void testResumePartialApply() throws Exception {
+        assertTrue(engine.journalPayouts(kupId));
+        em.flush();
+
+        // A first batch applied the winnings of the first member only.
+        Query query = em.createQuery("update "
+                + KupPayoutImpl.class.getSimpleName()
+                + " p set p.status = :applied where p.kupId = :kupId"
+                + " and p.position = 1");
+        query.setParameter("applied", KupPayoutImpl.APPLIED);
+        query.setParameter("kupId", kupId);
+        assertEquals(1, query.executeUpdate());
+        commitTransaction();
+        em.clear();
+        beginTransaction();
+
+        // Carries on with the pending payout only.
+        assertFalse(engine.journalPayouts(kupId));
+        assertTrue(engine.getPendingKups().contains(kupId));
+        assertFalse(engine.complete(kupId));
+        List<KupPayoutImpl> pending = getPayouts(KupPayoutImpl.PENDING);
+        assertEquals(1, pending.size());
+        assertEquals(2, pending.get(0).getPosition());
+        assertEquals(1, getPayouts(KupPayoutImpl.APPLIED).size());
+        assertEquals(KupStatus.SETTLED, em.find(KupImpl.class, kupId)
+                .getStatus());
+    }
+
+    public void testApplyRefundsOnce() throws Exception {
+        if (!isPostgreSQL()) {
+            // Journal statements are PostgreSQL specific.
+            return;
+        }
+        final KupServiceImpl kups = new KupServiceImpl(em);
+        kups.cancelKup(em.find(KupImpl.class, kupId));
+        commitTransaction();
+        em.clear();
+        beginTransaction();
+        assertEquals(2, getPayouts(KupPayoutImpl.PENDING).size());
+
+        assertEquals(2, engine.applyPayouts(kupId, 10));
+        commitTransaction();
+        em.clear();
+        beginTransaction();
+
+        // Applied already: neither claimed nor credited again, even once
+        // the Kup got cancelled again.
+        assertEquals(0, engine.applyPayouts(kupId, 10));
+        kups.cancelKup(em.find(KupImpl.class, kupId));
+        assertEquals(0, engine.applyPayouts(kupId, 10));
+        commitTransaction();
+        em.clear();
+        beginTransaction();
+
+        assertTrue(getPayouts(KupPayoutImpl.PENDING).isEmpty());
+        assertEquals(2, getPayouts(KupPayoutImpl.APPLIED).size());
+        for (Long memberId : memberIds) {
+            Member member = em.find(MemberImpl.class, memberId);
+            assertEquals(1f, member.getMemberCredit().getCredit());
+            Query query = em.createQuery("select count(t) from "
+                    + MemberTransactionImpl.class.getSimpleName()
+                    + " t where t.member.id = :id");
+            query.setParameter("id", memberId);
+            assertEquals(1L, ((Number) query.getSingleResult()).longValue());
+        }
+    }
+
+    public void testWinnings() {
+        Map<Integer, Float> repartition = new HashMap<Integer, Float>();
+        repartition.put(1, 50f);
+        repartition.put(2, 30f);
+        repartition.put(3, 20f);
+
+        float[] winnings = KupSettlementEngine.getWinnings(1000f, repartition);
+        assertEquals(3, winnings.length);
+        assertEquals(500f, winnings[0]);
+        assertEquals(300f, winnings[1]);
+        assertEquals(200f, winnings[2]);
+    }
+
+    public void testWinningsRounding() {
+        Map<Integer, Float> repartition = new HashMap<Integer, Float>();
+        repartition.put(1, 100f / 3);
+
+        float[] winnings = KupSettlementEngine.getWinnings(100f, repartition);
+        assertEquals(33.33f, winnings[0], 0.001f);
+    }
+
+    public void testNoWinners() {
+        float[] winnings = KupSettlementEngine.getWinnings(100f,
+                new HashMap<Integer, Float>());
+        assertEquals(0, winnings.length);
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.test.sofun.core.kup.points;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.api.sport.tournament.TournamentGameStatus;
+import org.sofun.core.kup.points.outcome.EventOutcomeCache;
+import org.sofun.core.kup.points.outcome.GameOutcome;
+import org.sofun.core.sport.tournament.TournamentGameImpl;
+
+import junit.framework.TestCase;
+
+/**
+ * Game outcome TestCase.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ *
+ */
+public class TestGameOutcome extends TestCase {
+
+    public TestGameOutcome(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        EventOutcomeCache.close();
+        super.tearDown();
+    }
+
+    private TournamentGame getGame(String uuid, String status) {
+        TournamentGame game = new TournamentGameImpl(uuid);
+        game.setGameStatus(status);
+        Map<String, String> props = new HashMap<String, String>();
+        props.put("GAME_PROP_PLAYERS_UUID_GOALS", "p10866,p56764");
+        props.put("GAME_PROP_TEAM1_NB_TRIES", "3");
+        props.put("scoreFirstEntryId", "636");
+        props.put("scoreSecondEntryId", "463");
+        game.setProperties(props);
+        return game;
+    }
+
+    public void testOutcome() throws CoreException {
+        GameOutcome outcome = new GameOutcome(getGame("g1",
+                TournamentGameStatus.TERMINATED));
+        assertTrue(outcome.hasScored("p10866"));
+        assertFalse(outcome.hasScored("p13227"));
+        assertEquals(3, outcome.getIntProperty("GAME_PROP_TEAM1_NB_TRIES"));
+        assertEquals(3, outcome.getSetsFirstEntry().length);
+        assertEquals(6, outcome.getSetsFirstEntry()[0]);
+        assertEquals(4, outcome.getSetsSecondEntry()[0]);
+        try {
+            outcome.getIntProperty("GAME_PROP_TEAM2_NB_TRIES");
+            fail("Should have raised an exception");
+        } catch (CoreException e) {
+            // expected
+        }
+    }
+
+    public void testMalformedSets() {
+        TournamentGame game = getGame("g1", TournamentGameStatus.TERMINATED);
+        game.getProperties().put("scoreSecondEntryId", "4-3");
+        GameOutcome outcome = new GameOutcome(game);
+        try {
+            outcome.getSetsSecondEntry();
+            fail("Should have raised an exception");
+        } catch (CoreException e) {
+            // expected
+        }
+    }
+
+    public void testCache() {
+        TournamentGame game = getGame("g1", TournamentGameStatus.TERMINATED);
+        // No computation running: nothing is cached.
+        assertNotSame(EventOutcomeCache.getGameOutcome(game),
+                EventOutcomeCache.getGameOutcome(game));
+
+        assertTrue(EventOutcomeCache.open());
+        assertFalse(EventOutcomeCache.open());
+        GameOutcome outcome = EventOutcomeCache.getGameOutcome(game);
+        assertSame(outcome, EventOutcomeCache.getGameOutcome(game));
+        EventOutcomeCache.close();
+
+        // Updated results are read again by the next computation.
+        assertTrue(EventOutcomeCache.open());
+        assertNotSame(outcome, EventOutcomeCache.getGameOutcome(game));
+    }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.test.sofun.core.kup.points;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ejb.SessionContext;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.kup.prediction.KupPredictionPointsRule;
+import org.sofun.core.api.member.Member;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.prediction.tournament.PredictionGameScore;
+import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.kup.KupImpl;
+import org.sofun.core.kup.KupMemberships;
+import org.sofun.core.kup.KupServiceImpl;
+import org.sofun.core.kup.points.KupPointsComputer;
+import org.sofun.core.kup.points.rule.KupPredictionPointsRuleRegistry;
+import org.sofun.core.member.MemberImpl;
+import org.sofun.core.prediction.PredictionImpl;
+import org.sofun.core.prediction.tournament.PredictionGameScoreImpl;
+import org.sofun.core.sport.tournament.TournamentGameImpl;
+import org.test.sofun.core.testing.SofunCoreTestCase;
+
+/**
+ * Kup points computer TestCase.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class TestKupPointsComputer extends SofunCoreTestCase {
+
+    private static final String KUP_NAME = "label_kup_title_test_points";
+
+    private final boolean[] rollbackOnly = new boolean[1];
+
+    private KupPointsComputer computer;
+
+    private long kupId;
+
+    private List<Long> predictionIds;
+
+    public TestKupPointsComputer(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        Kup kup = new KupImpl(KUP_NAME);
+        kup.setModerated(true);
+        kup.getRankingTable();
+        Member member = new MemberImpl("julien@anguenot.org", null, null);
+        em.persist(member);
+        em.persist(kup);
+        em.flush();
+        new KupMemberships(em).addParticipant(kup, member);
+
+        predictionIds = new ArrayList<Long>();
+        for (String uuid : new String[] { "g1", "g2" }) {
+            TournamentGame game = new TournamentGameImpl(uuid);
+            em.persist(game);
+            PredictionGameScore prediction = new PredictionGameScoreImpl();
+            prediction.setType("se");
+            prediction.setMember(member);
+            prediction.setKup(kup);
+            prediction.setTournamentGame(game);
+            em.persist(prediction);
+            em.flush();
+            predictionIds.add(prediction.getId());
+        }
+        kupId = kup.getId();
+        commitTransaction();
+        em.clear();
+        beginTransaction();
+
+        SessionContext context = (SessionContext) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[] { SessionContext.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method,
+                            Object[] args) {
+                        if ("setRollbackOnly".equals(method.getName())) {
+                            rollbackOnly[0] = true;
+                        }
+                        return null;
+                    }
+                });
+        computer = new KupPointsComputer(em, new KupServiceImpl(em), context);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        KupPredictionPointsRuleRegistry.clear();
+        computer = null;
+        super.tearDown();
+    }
+
+    public void testFailingRuleRollsBackTheKup() throws Exception {
+        // Scores the first game and fails on the second one.
+        KupPredictionPointsRuleRegistry.register(KUP_NAME, null,
+                new KupPredictionPointsRule() {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    public int getPointsFor(Kup kup, Prediction prediction,
+                            KupService kups) throws CoreException {
+                        final String uuid = ((PredictionGameScore) prediction)
+                                .getTournamentGame().getUUID();
+                        if ("g2".equals(uuid)) {
+                            throw new CoreException("Missing rules");
+                        }
+                        return 3;
+                    }
+                });
+
+        try {
+            computer.computeKupPoints(kupId, predictionIds);
+            fail("Should have raised an exception");
+        } catch (CoreException e) {
+            // expected
+        }
+        assertTrue(rollbackOnly[0]);
+
+        // What the container does with a rollback only transaction.
+        rollbackTransaction();
+        em.clear();
+        beginTransaction();
+
+        for (Long id : predictionIds) {
+            assertFalse(em.find(PredictionImpl.class, id).isPointsComputed());
+        }
+        Kup kup = em.find(KupImpl.class, kupId);
+        assertEquals(0, kup.getRankingTable().getEntries().iterator().next()
+                .getValue());
+    }
+
+    public void testFailingBatchIsLeftUntouched() throws Exception {
+        KupPredictionPointsRuleRegistry.register(KUP_NAME, null,
+                new KupPredictionPointsRule() {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    public int getPointsFor(Kup kup, Prediction prediction,
+                            KupService kups) throws CoreException {
+                        throw new CoreException("Missing rules");
+                    }
+                });
+
+        try {
+            computer.computeKupPoints(kupId, predictionIds);
+            fail("Should have raised an exception");
+        } catch (CoreException e) {
+            // expected
+        }
+
+        // Nothing settled even before the rollback.
+        for (Long id : predictionIds) {
+            assertFalse(em.find(PredictionImpl.class, id).isPointsComputed());
+        }
+    }
+
+    public void testComputeKupPoints() throws Exception {
+        KupPredictionPointsRuleRegistry.register(KUP_NAME, null,
+                new KupPredictionPointsRule() {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    public int getPointsFor(Kup kup, Prediction prediction,
+                            KupService kups) throws CoreException {
+                        return 3;
+                    }
+                });
+
+        assertEquals(2, computer.computeKupPoints(kupId, predictionIds)
+                .get().intValue());
+        assertFalse(rollbackOnly[0]);
+        for (Long id : predictionIds) {
+            assertTrue(em.find(PredictionImpl.class, id).isPointsComputed());
+        }
+        Kup kup = em.find(KupImpl.class, kupId);
+        assertEquals(6, kup.getRankingTable().getEntries().iterator().next()
+                .getValue());
+    }
+
+}
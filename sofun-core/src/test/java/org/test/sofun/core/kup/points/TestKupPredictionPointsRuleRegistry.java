@@ -0,0 +1,78 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.test.sofun.core.kup.points;
+
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.kup.KupImpl;
+import org.sofun.core.kup.points.rule.GenericRule;
+import org.sofun.core.kup.points.rule.KupPredictionPointsRuleRegistry;
+import org.sofun.core.kup.points.rule.RugbyTop14MatchRule;
+import org.sofun.core.kup.points.rule.SoccerBigGameRule;
+import org.sofun.core.kup.points.rule.SoccerKlubDayRule;
+import org.sofun.core.kup.points.rule.SoccerMatchRule;
+
+import junit.framework.TestCase;
+
+/**
+ * Kup prediction points rules registry TestCase.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ *
+ */
+public class TestKupPredictionPointsRuleRegistry extends TestCase {
+
+    public TestKupPredictionPointsRuleRegistry(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        KupPredictionPointsRuleRegistry.clear();
+        super.tearDown();
+    }
+
+    public void testResolve() {
+        GenericRule resolver = new GenericRule();
+        assertTrue(resolver
+                .resolve("label_kup_title_201213_ligue1_d12_psg_om") instanceof SoccerBigGameRule);
+        assertTrue(resolver
+                .resolve("label_kup_title_201213_premier_league_match_match") instanceof SoccerMatchRule);
+        assertTrue(resolver
+                .resolve("label_kup_title_201213_premier_league_k10_d12") instanceof SoccerKlubDayRule);
+        assertTrue(resolver
+                .resolve("label_kup_title_201213_rugby_top14_match_match") instanceof RugbyTop14MatchRule);
+        assertNull(resolver.resolve("label_kup_title_unknown"));
+        assertNull(resolver.resolve(null));
+    }
+
+    public void testRuleIsCached() throws CoreException {
+        Kup k1 = new KupImpl("label_kup_title_201213_ligue1_match_match");
+        Kup k2 = new KupImpl("label_kup_title_201213_ligue1_match_match");
+        assertSame(KupPredictionPointsRuleRegistry.getRuleFor(k1),
+                KupPredictionPointsRuleRegistry.getRuleFor(k2));
+    }
+
+    public void testMissingRule() {
+        Kup k = new KupImpl("label_kup_title_unknown");
+        try {
+            KupPredictionPointsRuleRegistry.getRuleFor(k);
+            fail("Should have raised an exception");
+        } catch (CoreException e) {
+            // expected
+        }
+    }
+
+}
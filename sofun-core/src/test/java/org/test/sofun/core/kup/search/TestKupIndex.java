@@ -0,0 +1,288 @@
+/*
+ * Copyright (c)  Sofun Gaming SAS.
+ * Copyright (c)  Julien Anguenot <julien@anguenot.org>
+ * Copyright (c)  Julien De Preaumont <juliendepreaumont@gmail.com>
+ * 
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *     Julien Anguenot <julien@anguenot.org> - initial API and implementation
+*/
+
+package org.test.sofun.core.kup.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.sofun.core.api.kup.KupStatus;
+import org.sofun.core.api.kup.KupType;
+import org.sofun.core.api.team.TeamPrivacy;
+import org.sofun.core.kup.search.KupIndex;
+import org.sofun.core.kup.search.KupIndexEntry;
+import org.sofun.core.kup.search.KupIndexQuery;
+import org.sofun.core.kup.search.KupIndexResults;
+import org.sofun.core.kup.search.KupParticipations;
+
+/**
+ * Kup index TestCase.
+ * 
+ * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
+ * 
+ */
+public class TestKupIndex extends TestCase {
+
+    private static final List<Byte> OPENED = Arrays.asList(KupStatus.OPENED);
+
+    private static final List<Byte> ALL_OPENED = Arrays.asList(
+            KupStatus.OPENED, KupStatus.ON_GOING);
+
+    private KupIndex index;
+
+    public TestKupIndex(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        index = new KupIndex();
+    }
+
+    private static KupIndexEntry entry(long id, String type, float stake,
+            byte status, String sport, long start, int participants) {
+        return new KupIndexEntry(id, "kup" + id, type, stake, 0, status,
+                true, TeamPrivacy.PRIVATE, sport, new Date(start), new Date(
+                        start + 1000), participants, 1);
+    }
+
+    private static Map<String, String> params(String... keyValues) {
+        Map<String, String> params = new HashMap<String, String>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            params.put(keyValues[i], keyValues[i + 1]);
+        }
+        return params;
+    }
+
+    private static List<Long> ids(KupIndexResults results) {
+        List<Long> ids = new ArrayList<Long>();
+        for (long id : results.getIds()) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    public void testInvalidParameters() {
+        assertNull(KupIndexQuery.parse(params(), null));
+        assertNull(KupIndexQuery.parse(params("status", "OPENED", "stake", ""),
+                OPENED));
+        assertNull(KupIndexQuery.parse(
+                params("status", "OPENED", "sports", ""), OPENED));
+        assertNull(KupIndexQuery.parse(params("status", "OPENED", "sort", ""),
+                OPENED));
+    }
+
+    public void testFacets() {
+        index.put(entry(1, KupType.FREE, 0, KupStatus.OPENED, "Football", 3,
+                0));
+        index.put(entry(2, KupType.GAMBLING_FR, 0, KupStatus.OPENED,
+                "Football", 2, 0));
+        index.put(entry(3, KupType.GAMBLING_FR, 5, KupStatus.ON_GOING,
+                "Rugby", 1, 0));
+        index.put(entry(4, KupType.GAMBLING_FR, 5, KupStatus.CLOSED,
+                "Rugby", 0, 0));
+
+        KupIndexResults results = index.search(
+                KupIndexQuery.parse(params("status", "OPENED"), OPENED), null,
+                0, 10);
+        assertEquals(2, results.getTotalResults());
+        assertEquals(Arrays.asList(2L, 1L), ids(results));
+
+        results = index.search(KupIndexQuery.parse(
+                params("status", "ALL_OPENED", "stake", "ALL_GAMBLING"),
+                ALL_OPENED), null, 0, 10);
+        assertEquals(Arrays.asList(2L, 3L), ids(results));
+
+        results = index.search(KupIndexQuery.parse(
+                params("status", "ALL_OPENED", "stake", "GAMBLING"),
+                ALL_OPENED), null, 0, 10);
+        assertEquals(Arrays.asList(3L), ids(results));
+
+        results = index.search(KupIndexQuery.parse(
+                params("status", "ALL_OPENED", "sports", "FOOTBALL"),
+                ALL_OPENED), null, 0, 10);
+        assertEquals(Arrays.asList(2L, 1L), ids(results));
+
+        // Status moved: facets follow.
+        index.put(entry(1, KupType.FREE, 0, KupStatus.ON_GOING, "Football",
+                3, 0));
+        results = index.search(
+                KupIndexQuery.parse(params("status", "OPENED"), OPENED), null,
+                0, 10);
+        assertEquals(Arrays.asList(2L), ids(results));
+    }
+
+    public void testRoomKups() {
+        index.put(new KupIndexEntry(1, "room", KupType.FREE, 0, 0,
+                KupStatus.OPENED, false, TeamPrivacy.PUBLIC, null, null, null,
+                0, 0));
+        index.put(entry(2, KupType.FREE, 0, KupStatus.OPENED, "Football", 0,
+                0));
+        KupIndexResults results = index.search(KupIndexQuery.parse(
+                params("status", "OPENED", "withRoomKups", "1"), OPENED),
+                null, 0, 10);
+        assertEquals(Arrays.asList(1L), ids(results));
+    }
+
+    public void testPaging() {
+        for (int i = 1; i <= 25; i++) {
+            index.put(entry(i, KupType.FREE, 0, KupStatus.OPENED, "Football",
+                    100 - i, 0));
+        }
+        final KupIndexQuery query = KupIndexQuery.parse(
+                params("status", "OPENED"), OPENED);
+        KupIndexResults results = index.search(query, null, 20, 10);
+        assertEquals(25, results.getTotalResults());
+        assertEquals(Arrays.asList(5L, 4L, 3L, 2L, 1L), ids(results));
+        results = index.search(query, null, 30, 10);
+        assertEquals(25, results.getTotalResults());
+        assertEquals(0, results.getIds().length);
+    }
+
+    public void testSort() {
+        index.put(new KupIndexEntry(1, "a", KupType.FREE, 0, 100,
+                KupStatus.OPENED, true, null, null, new Date(1), null, 3, 0));
+        index.put(new KupIndexEntry(2, "b", KupType.FREE, 0, 200,
+                KupStatus.OPENED, true, null, null, null, null, 1, 0));
+        index.put(new KupIndexEntry(3, "c", KupType.FREE, 0, 200,
+                KupStatus.OPENED, true, null, null, new Date(2), null, 2, 0));
+
+        // Null start dates last.
+        KupIndexResults results = index.search(
+                KupIndexQuery.parse(params("status", "OPENED"), OPENED), null,
+                0, 10);
+        assertEquals(Arrays.asList(1L, 3L, 2L), ids(results));
+
+        results = index.search(KupIndexQuery.parse(
+                params("status", "OPENED", "sort", "JACKPOT#PARTICIPANTS"),
+                OPENED), null, 0, 10);
+        assertEquals(Arrays.asList(3L, 2L, 1L), ids(results));
+    }
+
+    public void testParticipants() {
+        index.put(entry(1, KupType.FREE, 0, KupStatus.OPENED, "Football", 1,
+                1));
+        index.put(entry(2, KupType.FREE, 0, KupStatus.OPENED, "Football", 2,
+                0));
+        index.addParticipants(1, Arrays.asList(42L));
+
+        final KupIndexQuery query = KupIndexQuery.parse(
+                params("status", "OPENED", "removeValidatedfor", "a@b.c"),
+                OPENED);
+        KupIndexResults results = index.search(query, 42L, 0, 10);
+        assertEquals(1, results.getTotalResults());
+        assertEquals(Arrays.asList(2L), ids(results));
+
+        // Participants of closed Kups are not tracked.
+        final KupIndexQuery closed = KupIndexQuery.parse(
+                params("status", "ALL_CLOSED", "removeValidatedfor", "a@b.c"),
+                Arrays.asList(KupStatus.CLOSED));
+        assertNull(index.search(closed, 42L, 0, 10));
+    }
+
+    public void testIsParticipant() {
+        index.put(entry(1, KupType.FREE, 0, KupStatus.OPENED, "Football", 1,
+                3));
+        index.put(entry(2, KupType.FREE, 0, KupStatus.OPENED, "Football", 2,
+                1));
+        index.addParticipants(1, Arrays.asList(42L, 7L, 42L, 12L));
+        index.addParticipants(1, Arrays.asList(3L, 12L));
+        index.addParticipants(2, Arrays.asList(42L));
+
+        assertEquals(Boolean.TRUE, index.isParticipant(1, 42L));
+        assertEquals(Boolean.TRUE, index.isParticipant(1, 3L));
+        assertEquals(Boolean.TRUE, index.isParticipant(2, 42L));
+        assertEquals(Boolean.FALSE, index.isParticipant(2, 7L));
+        assertEquals(Boolean.FALSE, index.isParticipant(1, 5L));
+        // Unknown Kup
+        assertNull(index.isParticipant(3, 42L));
+
+        // Participations of closed Kups are dropped.
+        index.put(entry(1, KupType.FREE, 0, KupStatus.CLOSED, "Football", 1,
+                3));
+        assertNull(index.isParticipant(1, 42L));
+        assertEquals(Boolean.TRUE, index.isParticipant(2, 42L));
+
+        index.remove(2);
+        assertNull(index.isParticipant(2, 42L));
+    }
+
+    public void testArchived() {
+        index.put(entry(1, KupType.FREE, 0, KupStatus.CLOSED, "Football", 1,
+                1));
+        index.put(entry(2, KupType.FREE, 0, KupStatus.SETTLED, "Football", 2,
+                1));
+        assertEquals(1, index.size());
+
+        // Archived once settled.
+        index.put(entry(1, KupType.FREE, 0, KupStatus.PAID_OUT, "Football", 1,
+                1));
+        assertEquals(0, index.size());
+
+        final KupIndexQuery settled = KupIndexQuery.parse(
+                params("status", "ALL_CLOSED"),
+                Arrays.asList(KupStatus.CLOSED, KupStatus.SETTLED));
+        assertNull(index.search(settled, null, 0, 10));
+        assertNull(index.search(
+                KupIndexQuery.parse(params("status", "ALL"), null), null, 0,
+                10));
+    }
+
+    public void testJoin() {
+        index.put(entry(1, KupType.FREE, 0, KupStatus.OPENED, "Football", 1,
+                2));
+        index.addParticipants(1, Arrays.asList(42L, 7L));
+
+        // Only new participants are counted.
+        index.join(1, Arrays.asList(42L, 3L));
+        assertEquals(3, index.getEntry(1).getNbParticipants());
+        assertEquals(Boolean.TRUE, index.isParticipant(1, 3L));
+
+        // Counted in database meanwhile.
+        index.setNbParticipants(1, 5);
+        assertEquals(5, index.getEntry(1).getNbParticipants());
+        index.setNbParticipants(2, 5);
+        assertNull(index.getEntry(2));
+    }
+
+    public void testParticipations() {
+        KupParticipations participations = new KupParticipations();
+        assertEquals(3,
+                participations.add(10, Arrays.asList(5L, 1L, 3L, 1L)));
+        assertEquals(1, participations.add(10, Arrays.asList(4L, 3L)));
+        participations.add(2, Arrays.asList(3L));
+
+        assertEquals(5, participations.size());
+        assertTrue(Arrays.equals(new long[] { 1, 3, 4, 5 },
+                participations.getMembers(10)));
+        assertTrue(Arrays.equals(new long[] { 2, 10 },
+                participations.getKups(3)));
+        assertTrue(participations.contains(10, 4));
+        assertFalse(participations.contains(2, 4));
+
+        participations.remove(10);
+        assertEquals(1, participations.size());
+        assertEquals(0, participations.getMembers(10).length);
+        assertTrue(Arrays.equals(new long[] { 2 }, participations.getKups(3)));
+        assertEquals(0, participations.getKups(1).length);
+    }
+
+}
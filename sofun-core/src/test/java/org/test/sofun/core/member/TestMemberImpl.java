@@ -150,4 +150,26 @@ public class TestMemberImpl extends SofunCoreTestCase {
 
     }
 
+    public void testFriendIds() throws Exception {
+        MemberImpl m = new MemberImpl("julien@anguenot.org", null, null);
+        assertEquals(0, m.getFriendIds().length);
+
+        MemberImpl f1 = new MemberImpl("f1@anguenot.org", null, null);
+        f1.setId(30);
+        MemberImpl f2 = new MemberImpl("f2@anguenot.org", null, null);
+        f2.setId(10);
+        m.addFriend(f1);
+        m.addFriend(f2);
+
+        long[] ids = m.getFriendIds();
+        assertEquals(2, ids.length);
+        assertEquals(10, ids[0]);
+        assertEquals(30, ids[1]);
+
+        m.removeFriend(f2);
+        ids = m.getFriendIds();
+        assertEquals(1, ids.length);
+        assertEquals(30, ids[0]);
+    }
+
 }
@@ -14,7 +14,27 @@
 
 package org.test.sofun.core.prediction;
 
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Test;
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.Kup;
+import org.sofun.core.api.member.Member;
+import org.sofun.core.api.prediction.Prediction;
+import org.sofun.core.api.prediction.PredictionService;
+import org.sofun.core.api.prediction.tournament.PredictionGameScore;
+import org.sofun.core.api.sport.SportContestant;
+import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.api.sport.tournament.TournamentGameStatus;
+import org.sofun.core.kup.KupImpl;
+import org.sofun.core.kup.KupServiceImpl;
+import org.sofun.core.member.MemberImpl;
+import org.sofun.core.prediction.PredictionServiceImpl;
+import org.sofun.core.sport.tournament.TournamentGameImpl;
 import org.test.sofun.core.testing.SofunCoreTestCase;
 
 /**
@@ -24,13 +44,124 @@ import org.test.sofun.core.testing.SofunCoreTestCase;
  */
 public class TestPredictions extends SofunCoreTestCase {
 
+    private KupServiceImpl kups;
+
+    private PredictionService predictions;
+
+    private Kup kup;
+
+    private Member member;
+
+    private TournamentGame g1;
+
+    private TournamentGame g2;
+
     public TestPredictions(String testName) {
         super(testName);
     }
 
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        predictions = new PredictionServiceImpl(em, new KupServiceImpl(em));
+        kups = new KupServiceImpl(em, predictions);
+
+        kup = new KupImpl("My Kup");
+        kup.getRankingTable();
+        member = new MemberImpl("julien@anguenot.org", null, null);
+        em.persist(member);
+        em.persist(kup);
+
+        Calendar start = Calendar.getInstance();
+        start.add(Calendar.DAY_OF_YEAR, 1);
+        g1 = new TournamentGameImpl("g1");
+        g1.setGameStatus(TournamentGameStatus.SCHEDULED);
+        g1.setStartDate(start.getTime());
+        em.persist(g1);
+        g2 = new TournamentGameImpl("g2");
+        g2.setGameStatus(TournamentGameStatus.SCHEDULED);
+        g2.setStartDate(start.getTime());
+        em.persist(g2);
+        em.flush();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        kups = null;
+        predictions = null;
+        super.tearDown();
+    }
+
+    private Map<TournamentGame, List<Integer>> scores(int team1, int team2) {
+        Map<TournamentGame, List<Integer>> scores = new HashMap<TournamentGame, List<Integer>>();
+        scores.put(g1, Arrays.asList(team1, team2));
+        scores.put(g2, Arrays.asList(team2, team1));
+        return scores;
+    }
+
     @Test
     public void testBasePrediction() {
 
     }
 
+    public void testGamePredictionsUpsert() {
+        List<Prediction> saved = predictions.createGamePredictionsFor(member,
+                kup, "ic", null, "se", scores(1, 0));
+        assertEquals(2, saved.size());
+        assertEquals(2, predictions.getPredictionsFor(kup, member).size());
+
+        // Existing predictions get updated in place.
+        saved = predictions.createGamePredictionsFor(member, kup, "ic",
+                new HashMap<TournamentGame, List<SportContestant>>(), "se",
+                scores(2, 3));
+        assertEquals(2, saved.size());
+        em.flush();
+        em.clear();
+        final List<Prediction> all = predictions.getPredictionsFor(
+                em.find(KupImpl.class, kup.getId()),
+                em.find(MemberImpl.class, member.getId()));
+        assertEquals(2, all.size());
+        for (Prediction prediction : all) {
+            final PredictionGameScore score = (PredictionGameScore) prediction;
+            if ("g1".equals(score.getTournamentGame().getUUID())) {
+                assertEquals(2, score.getScoreTeam1());
+                assertEquals(3, score.getScoreTeam2());
+            } else {
+                assertEquals(3, score.getScoreTeam1());
+                assertEquals(2, score.getScoreTeam2());
+            }
+        }
+    }
+
+    public void testGamePredictionsJoinOnce() {
+        predictions.createGamePredictionsFor(member, kup, "ic", null, "se",
+                scores(1, 0));
+        assertTrue(kups.isParticipant(member, kup));
+        assertEquals(1, kup.getNbParticipants());
+
+        // A grid of updates only does not join again.
+        predictions.createGamePredictionsFor(member, kup, "ic", null, "se",
+                scores(1, 1));
+        em.flush();
+        em.clear();
+        kup = em.find(KupImpl.class, kup.getId());
+        assertEquals(1, kup.getNbParticipants());
+        assertEquals(1, kup.getParticipants().size());
+        assertEquals(1, kup.getMembers().size());
+    }
+
+    public void testGridWithClosedGame() throws Exception {
+        g2.setGameStatus(TournamentGameStatus.ON_GOING);
+        try {
+            kups.addGamePredictions(member, kup, "ic", null, "se",
+                    scores(1, 0));
+            fail("Should have raised an exception");
+        } catch (CoreException e) {
+            // expected
+        }
+        // Nothing recorded, not even the game still opened.
+        assertEquals(0, predictions.getPredictionsFor(kup, member).size());
+        assertFalse(kups.isParticipant(member, kup));
+    }
+
 }
@@ -14,10 +14,16 @@
 
 package org.test.sofun.core.sport;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
 import org.junit.Test;
 import org.sofun.core.api.sport.SportService;
+import org.sofun.core.api.sport.tournament.TournamentGame;
 import org.sofun.core.api.sport.tournament.TournamentGameStatus;
 import org.sofun.core.sport.SportServiceImpl;
+import org.sofun.core.sport.tournament.TournamentGameImpl;
 import org.test.sofun.core.testing.SofunCoreTestCase;
 
 /**
@@ -51,4 +57,21 @@ public class TestSportServiceImpl extends SofunCoreTestCase {
         service.getTournamentGamesByStatus(TournamentGameStatus.TERMINATED);
     }
 
+    @Test
+    public void testTournamentGamesByUUIDs() {
+        em.persist(new TournamentGameImpl("g1"));
+        em.persist(new TournamentGameImpl("g2"));
+        em.persist(new TournamentGameImpl("g3"));
+        em.flush();
+
+        Map<String, TournamentGame> games = service.getTournamentGames(Arrays
+                .asList("g1", "g3", "unknown"));
+        assertEquals(2, games.size());
+        assertEquals("g1", games.get("g1").getUUID());
+        assertEquals("g3", games.get("g3").getUUID());
+
+        assertTrue(service.getTournamentGames(new ArrayList<String>())
+                .isEmpty());
+    }
+
 }
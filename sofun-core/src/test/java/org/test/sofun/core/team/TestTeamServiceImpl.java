@@ -14,15 +14,25 @@
 
 package org.test.sofun.core.team;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.Persistence;
+
 import org.junit.Test;
 import org.sofun.core.api.community.Community;
 import org.sofun.core.api.community.CommunityService;
+import org.sofun.core.api.community.table.MemberRankingTable;
+import org.sofun.core.api.community.table.MemberRankingTableService;
+import org.sofun.core.api.kup.Kup;
 import org.sofun.core.api.member.Member;
 import org.sofun.core.api.member.MemberAccountStatus;
 import org.sofun.core.api.member.MemberAccountType;
 import org.sofun.core.api.team.Team;
 import org.sofun.core.api.team.TeamService;
 import org.sofun.core.community.CommunityServiceImpl;
+import org.sofun.core.community.table.MemberRankingTableServiceImpl;
+import org.sofun.core.kup.KupImpl;
 import org.sofun.core.member.MemberImpl;
 import org.sofun.core.team.TeamImpl;
 import org.sofun.core.team.TeamServiceImpl;
@@ -170,4 +180,109 @@ public class TestTeamServiceImpl extends SofunCoreTestCase {
 
     }
 
+    public void testAddMember() throws Exception {
+
+        final Member m1 = new MemberImpl("juliena@sofungaming.com",
+                MemberAccountStatus.CREATED, MemberAccountType.SIMPLE);
+        em.persist(m1);
+        final Member m2 = new MemberImpl("julienp@sofungaming.com",
+                MemberAccountStatus.CREATED, MemberAccountType.SIMPLE);
+        em.persist(m2);
+
+        Team team = new TeamImpl("Ligue 1");
+        teams.addMember(team, m1);
+        em.persist(team);
+
+        commitTransaction();
+        beginTransaction();
+        em.clear();
+
+        // The new entry is persisted on its own.
+        team = teams.getTeam(team.getId());
+        teams.addMember(team, m2);
+        teams.addMember(team, m2);
+        final MemberRankingTable table = team.getRankingTable();
+        assertFalse(Persistence.getPersistenceUtil().isLoaded(table,
+                "entries"));
+
+        final MemberRankingTableService rankings = new MemberRankingTableServiceImpl(
+                em);
+        assertEquals(2, rankings.countEntries(table.getId()));
+        assertNotNull(rankings.getEntryFor(table.getId(), m2.getId()));
+        assertTrue(team.isMember(m2));
+
+    }
+
+    /**
+     * Creates a team with one Kup and one member participating in both.
+     */
+    private Team createTeamWithKup(Member member) throws Exception {
+        em.persist(member);
+        Kup kup = new KupImpl("Kup");
+        kup.addParticipant(member);
+        Team team = new TeamImpl("Ligue 1");
+        team.addMember(member);
+        team.addKup(kup);
+        em.persist(team);
+        em.flush();
+        return team;
+    }
+
+    public void testApplyKupRankingDeltas() throws Exception {
+
+        final Member m1 = new MemberImpl("juliena@sofungaming.com",
+                MemberAccountStatus.CREATED, MemberAccountType.SIMPLE);
+        final Team team = createTeamWithKup(m1);
+        final Kup kup = team.getKups().iterator().next();
+        final MemberRankingTable table = team.getRankingTable();
+        final long version = table.getVersion();
+
+        Map<Long, Integer> deltas = new HashMap<Long, Integer>();
+        deltas.put(m1.getId(), 5);
+        teams.applyKupRankingDeltas(kup, deltas);
+
+        // The managed table got refreshed.
+        assertEquals(5, table.getEntryForMember(m1).getValue());
+        assertEquals(5, table.getEntriesTotalPoints());
+        assertTrue(table.getVersion() > version);
+        assertEquals(table.getVersion(), table.getChangeLogVersion());
+
+    }
+
+    public void testReconcileRanking() throws Exception {
+
+        final Member m1 = new MemberImpl("juliena@sofungaming.com",
+                MemberAccountStatus.CREATED, MemberAccountType.SIMPLE);
+        final Team team = createTeamWithKup(m1);
+        final Kup kup = team.getKups().iterator().next();
+        final MemberRankingTable table = team.getRankingTable();
+
+        // Kup entry updated behind the team table's back.
+        kup.getRankingTable().getEntryForMember(m1).setValue(10);
+        em.flush();
+        assertEquals(0, table.getEntryForMember(m1).getValue());
+        final long version = table.getVersion();
+
+        assertEquals(1, teams.reconcileRanking(team));
+        assertEquals(10, table.getEntryForMember(m1).getValue());
+        assertEquals(10, table.getEntriesTotalPoints());
+        assertTrue(table.getVersion() > version);
+
+        // Nothing left to fix: the version stays.
+        final long reconciled = table.getVersion();
+        assertEquals(0, teams.reconcileRanking(team));
+        assertEquals(10, table.getEntryForMember(m1).getValue());
+        assertEquals(reconciled, table.getVersion());
+
+        commitTransaction();
+        beginTransaction();
+        em.clear();
+
+        final Team loaded = teams.getTeam(team.getId());
+        assertEquals(10, loaded.getRankingTable().getEntryForMember(m1)
+                .getValue());
+        assertEquals(reconciled, loaded.getRankingTable().getVersion());
+
+    }
+
 }
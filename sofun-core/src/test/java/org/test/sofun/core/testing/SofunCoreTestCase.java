@@ -87,6 +87,18 @@ public abstract class SofunCoreTestCase extends TestCase {
         super.tearDown();
     }
 
+    /**
+     * Is the persistence unit configured against PostgreSQL rather than the
+     * in-memory HSQL database? Native statements relying on PostgreSQL only
+     * get tested then.
+     */
+    protected boolean isPostgreSQL() {
+        final Object dialect = emFactory.getProperties().get(
+                "hibernate.dialect");
+        return dialect != null
+                && dialect.toString().toLowerCase().contains("postgresql");
+    }
+
     protected void beginTransaction() {
         em.getTransaction().begin();
     }
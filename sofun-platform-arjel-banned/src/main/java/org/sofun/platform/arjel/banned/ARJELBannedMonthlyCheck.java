@@ -14,11 +14,14 @@
 
 package org.sofun.platform.arjel.banned;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import javax.ejb.EJB;
 import javax.ejb.Singleton;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.sofun.core.api.local.ClusterCoordinatorLocal;
 import org.sofun.platform.arjel.banned.api.ARJELBannedService;
 import org.sofun.platform.arjel.banned.api.MemberARJELBannedCheck;
 import org.sofun.platform.arjel.banned.api.ejb.ARJELBannedServiceLocal;
@@ -27,6 +30,10 @@ import org.sofun.platform.arjel.banned.api.exception.ARJELBannedException;
 /**
  * ARJEL Banned Players list checks on regular basis
  * 
+ * <p>
+ * 
+ * Runs on a single node of the cluster at a time.
+ * 
  * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
  * 
  */
@@ -36,14 +43,21 @@ public class ARJELBannedMonthlyCheck {
     private static final Log log = LogFactory
             .getLog(ARJELBannedMonthlyCheck.class);
 
+    private static final String LEASE = "arjel.banned.check";
+
     /** Lock in case computing takes more than 5 minutes */
-    private boolean LOCK = false;
+    private final AtomicBoolean LOCK = new AtomicBoolean(false);
 
     @EJB(
             beanName = "ARJELBannedServiceImpl",
             beanInterface = ARJELBannedServiceLocal.class)
     private ARJELBannedService arjel;
 
+    @EJB(
+            beanName = "ClusterCoordinator",
+            beanInterface = ClusterCoordinatorLocal.class)
+    private ClusterCoordinatorLocal cluster;
+
     public ARJELBannedMonthlyCheck() {
     }
 
@@ -51,12 +65,13 @@ public class ARJELBannedMonthlyCheck {
     // @Schedule(minute = "15", hour = "4", persistent = false)
     // @Lock(LockType.READ)
     public void check() {
-        if (LOCK) {
+        if (!LOCK.compareAndSet(false, true)) {
             return;
-        } else {
-            LOCK = true;
         }
         try {
+            if (!cluster.acquire(LEASE)) {
+                return;
+            }
             log.info("Checking players banned status for members that did not"
                     + " get checked during the past 30 days.");
             for (MemberARJELBannedCheck mstatus : arjel.getMembersToVerify()) {
@@ -67,7 +82,7 @@ public class ARJELBannedMonthlyCheck {
             log.error("An error occured while checking ARJEL banned players "
                     + "·list :" + e.getMessage());
         } finally {
-            LOCK = false;
+            LOCK.set(false);
         }
     }
 }
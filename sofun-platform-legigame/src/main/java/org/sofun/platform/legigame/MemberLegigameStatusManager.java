@@ -14,6 +14,8 @@
 
 package org.sofun.platform.legigame;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import javax.ejb.EJB;
 import javax.ejb.Lock;
 import javax.ejb.LockType;
@@ -22,6 +24,7 @@ import javax.ejb.Singleton;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.sofun.core.api.local.ClusterCoordinatorLocal;
 import org.sofun.core.api.member.MemberService;
 import org.sofun.core.api.member.ejb.MemberServiceLocal;
 import org.sofun.platform.legigame.api.LegigameService;
@@ -34,7 +37,7 @@ import org.sofun.platform.legigame.api.exception.LegigameException;
  * <p>
  * 
  * Singleton with timer dealing with member status and legigame on regular
- * basis.
+ * basis. Each sync runs on a single node of the cluster at a time.
  * 
  * @see LegigameService
  * 
@@ -47,11 +50,15 @@ public class MemberLegigameStatusManager {
     private static final Log log = LogFactory
             .getLog(MemberLegigameStatusManager.class);
 
+    private static final String LEASE_SYNC_MEMBERS = "legigame.sync.members";
+
+    private static final String LEASE_SYNC_STATUS = "legigame.sync.status";
+
     /** Lock in case computing takes more than 5 minutes */
-    private boolean LOCK_SYNC_MEMBERS = false;
+    private final AtomicBoolean LOCK_SYNC_MEMBERS = new AtomicBoolean(false);
 
     /** Lock in case computing takes more than 5 minutes */
-    private boolean LOCK_SYNC_STATUS = false;
+    private final AtomicBoolean LOCK_SYNC_STATUS = new AtomicBoolean(false);
 
     /** Member's lookup offset */
     private int offset = 0;
@@ -69,6 +76,11 @@ public class MemberLegigameStatusManager {
             beanInterface = MemberServiceLocal.class)
     private MemberService members;
 
+    @EJB(
+            beanName = "ClusterCoordinator",
+            beanInterface = ClusterCoordinatorLocal.class)
+    private ClusterCoordinatorLocal cluster;
+
     public MemberLegigameStatusManager() {
     }
 
@@ -77,16 +89,19 @@ public class MemberLegigameStatusManager {
         this.legigame = legigame;
     }
 
+    private boolean acquire(String lease) {
+        // No cluster coordinator out of the container.
+        return cluster == null || cluster.acquire(lease);
+    }
+
     @Schedule(minute = "15", hour = "3", persistent = false)
     @Lock(LockType.READ)
     public void syncMembers() {
-        if (LOCK_SYNC_MEMBERS) {
+        if (!LOCK_SYNC_MEMBERS.compareAndSet(false, true)) {
             return;
-        } else {
-            LOCK_SYNC_MEMBERS = true;
         }
         try {
-            if (legigame != null) {
+            if (legigame != null && acquire(LEASE_SYNC_MEMBERS)) {
                 log.debug("Syncing our players with remote Legigame.");
                 legigame.syncMembers(offset, batchSize);
                 if (offset + batchSize >= members.countMembers()) {
@@ -100,20 +115,18 @@ public class MemberLegigameStatusManager {
             log.error("An error occured while syncing with legigame "
                     + "·list :" + e.getMessage());
         } finally {
-            LOCK_SYNC_MEMBERS = false;
+            LOCK_SYNC_MEMBERS.set(false);
         }
     }
 
     @Schedule(minute = "*/59", hour = "*", persistent = false)
     @Lock(LockType.READ)
     public void syncStatus() {
-        if (LOCK_SYNC_STATUS) {
+        if (!LOCK_SYNC_STATUS.compareAndSet(false, true)) {
             return;
-        } else {
-            LOCK_SYNC_STATUS = true;
         }
         try {
-            if (legigame != null) {
+            if (legigame != null && acquire(LEASE_SYNC_STATUS)) {
                 log.debug("Check members status legigame side.");
                 legigame.syncStatus();
             }
@@ -121,7 +134,7 @@ public class MemberLegigameStatusManager {
             log.error("An error occured while syncing with legigame "
                     + "·list :" + e.getMessage());
         } finally {
-            LOCK_SYNC_STATUS = false;
+            LOCK_SYNC_STATUS.set(false);
         }
     }
 }
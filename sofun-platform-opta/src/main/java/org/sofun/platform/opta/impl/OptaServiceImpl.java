@@ -42,7 +42,14 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.commons.net.ftp.FTPFile;
 import org.apache.commons.net.ftp.FTPFileFilter;
 import org.sofun.core.CoreConstants;
+import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.local.KupServiceLocal;
+import org.sofun.core.api.local.SofunMessagingServiceLocal;
 import org.sofun.core.api.local.SportServiceLocal;
+import org.sofun.core.api.messaging.SofunMessagingDestination;
+import org.sofun.core.api.messaging.SofunMessagingService;
+import org.sofun.core.api.messaging.TournamentEventTerminatedMessage;
 import org.sofun.core.api.sport.SportService;
 import org.sofun.platform.opta.api.OptaException;
 import org.sofun.platform.opta.api.OptaProcessedFeed;
@@ -50,6 +57,7 @@ import org.sofun.platform.opta.api.OptaService;
 import org.sofun.platform.opta.api.ejb.OptaServiceLocal;
 import org.sofun.platform.opta.ftp.FTPClientWrapper;
 import org.sofun.platform.opta.ftp.FTPFileFilterImpl;
+import org.sofun.platform.opta.parser.AbstractOptaParser;
 import org.sofun.platform.opta.parser.bb.BB1Parser;
 import org.sofun.platform.opta.parser.bb.BB9Parser;
 import org.sofun.platform.opta.parser.cy.CSFParser;
@@ -96,6 +104,12 @@ public class OptaServiceImpl implements OptaService {
     @EJB(beanName = "SportServiceImpl", beanInterface = SportServiceLocal.class)
     private SportService sports;
 
+    @EJB(beanName = "SofunMessagingServiceImpl", beanInterface = SofunMessagingServiceLocal.class)
+    private SofunMessagingService messaging;
+
+    @EJB(beanName = "KupServiceImpl", beanInterface = KupServiceLocal.class)
+    private KupService kups;
+
     private final SecureRandom randomGenerator = new SecureRandom();
 
     public OptaServiceImpl() {
@@ -203,6 +217,56 @@ public class OptaServiceImpl implements OptaService {
         }
     }
 
+    /**
+     * Notifies the scoring queue about the tournament events a feed just
+     * terminated so that points get computed right away.
+     * 
+     * <p>
+     * 
+     * Messages go through the XA connection factory: they are only delivered
+     * once the feed transaction commits.
+     * 
+     * @param parser: an {@link AbstractOptaParser} instance.
+     */
+    private void notifyTerminated(AbstractOptaParser parser) {
+        if (messaging == null) {
+            // Not running within the container (tests)
+            return;
+        }
+        for (TournamentEventTerminatedMessage event : parser
+                .getTerminatedEvents()) {
+            log.info("Notifying scoring for terminated event=" + event);
+            messaging.sendMessage(event,
+                    SofunMessagingDestination.SOFUN_SCORING);
+        }
+    }
+
+    /**
+     * Refreshes the event dates of the Kups bound to the sport events a feed
+     * just rescheduled, within the feed transaction.
+     * 
+     * @param parser: an {@link AbstractOptaParser} instance.
+     * @throws OptaException
+     */
+    private void refreshKups(AbstractOptaParser parser) throws OptaException {
+        if (kups == null) {
+            // Not running within the container (tests)
+            return;
+        }
+        final List<Object> rescheduled = parser.getRescheduledEvents();
+        if (rescheduled.isEmpty()) {
+            return;
+        }
+        try {
+            final int updated = kups.refreshEventDatesFor(rescheduled);
+            log.info(String.valueOf(rescheduled.size())
+                    + " sport event(s) rescheduled: event dates of "
+                    + String.valueOf(updated) + " kup(s) refreshed");
+        } catch (CoreException e) {
+            throw new OptaException(e.getMessage());
+        }
+    }
+
     @Override
     public RU10Parser ru10Sync(File file) {
         return new RU10Parser(file, sports, em);
@@ -214,18 +278,25 @@ public class OptaServiceImpl implements OptaService {
     }
 
     @Override
-    public RU01Parser ru1Sync(File file) {
-        return new RU01Parser(file, sports, em);
+    public RU01Parser ru1Sync(File file) throws OptaException {
+        final RU01Parser ru1p = new RU01Parser(file, sports, em);
+        refreshKups(ru1p);
+        return ru1p;
     }
 
     @Override
     public RU6Parser ru6Sync(File file) throws OptaException {
-        return new RU6Parser(file, sports, em);
+        final RU6Parser ru6p = new RU6Parser(file, sports, em);
+        notifyTerminated(ru6p);
+        return ru6p;
     }
 
     @Override
     public F01Parser f1Sync(File file) throws OptaException {
-        return new F01Parser(file, sports, em);
+        final F01Parser f1p = new F01Parser(file, sports, em);
+        refreshKups(f1p);
+        notifyTerminated(f1p);
+        return f1p;
 
     }
 
@@ -237,7 +308,10 @@ public class OptaServiceImpl implements OptaService {
 
     @Override
     public F07Parser f7Sync(File file) throws OptaException {
-        return new F07Parser(file, sports, em);
+        final F07Parser f7p = new F07Parser(file, sports, em);
+        refreshKups(f7p);
+        notifyTerminated(f7p);
+        return f7p;
 
     }
 
@@ -810,12 +884,18 @@ public class OptaServiceImpl implements OptaService {
 
     @Override
     public MR1Parser mr1Sync(File file) throws OptaException {
-        return new MR1Parser(file, sports, em);
+        final MR1Parser mr1p = new MR1Parser(file, sports, em);
+        refreshKups(mr1p);
+        notifyTerminated(mr1p);
+        return mr1p;
     }
 
     @Override
     public MR2Parser mr2Sync(File file) throws OptaException {
-        return new MR2Parser(file, sports, em);
+        final MR2Parser mr2p = new MR2Parser(file, sports, em);
+        refreshKups(mr2p);
+        notifyTerminated(mr2p);
+        return mr2p;
     }
 
     @Override
@@ -868,7 +948,9 @@ public class OptaServiceImpl implements OptaService {
         final String fileName = file.getName();
         final String year = fileName.substring("F1_CALENDAR_".length(),
                 "F1_CALENDAR_".length() + 4);
-        return new MR6Parser(file, sports, em, year);
+        final MR6Parser mr6p = new MR6Parser(file, sports, em, year);
+        refreshKups(mr6p);
+        return mr6p;
     }
 
     @Override
@@ -900,17 +982,24 @@ public class OptaServiceImpl implements OptaService {
 
     @Override
     public TAB1Parser tab1Sync(File file) throws OptaException {
-        return new TAB1Parser(file, sports, em);
+        final TAB1Parser tab1p = new TAB1Parser(file, sports, em);
+        refreshKups(tab1p);
+        return tab1p;
     }
 
     @Override
     public TAB2Parser tab2Sync(File file) throws OptaException {
-        return new TAB2Parser(file, sports, em);
+        final TAB2Parser tab2p = new TAB2Parser(file, sports, em);
+        refreshKups(tab2p);
+        return tab2p;
     }
 
     @Override
     public TAB7Parser tab7Sync(File file) throws OptaException {
-        return new TAB7Parser(file, sports, em);
+        final TAB7Parser tab7p = new TAB7Parser(file, sports, em);
+        refreshKups(tab7p);
+        notifyTerminated(tab7p);
+        return tab7p;
     }
 
     @Override
@@ -1106,7 +1195,10 @@ public class OptaServiceImpl implements OptaService {
 
     @Override
     public CY1Parser cy1Sync(File file) throws OptaException {
-        return new CY1Parser(file, sports, em);
+        final CY1Parser cy1p = new CY1Parser(file, sports, em);
+        refreshKups(cy1p);
+        notifyTerminated(cy1p);
+        return cy1p;
     }
 
     @Override
@@ -1409,7 +1501,10 @@ public class OptaServiceImpl implements OptaService {
 
     @Override
     public BB1Parser bb1Sync(File file) throws OptaException {
-        return new BB1Parser(file, sports, em);
+        final BB1Parser bb1p = new BB1Parser(file, sports, em);
+        refreshKups(bb1p);
+        notifyTerminated(bb1p);
+        return bb1p;
     }
 
     @Override
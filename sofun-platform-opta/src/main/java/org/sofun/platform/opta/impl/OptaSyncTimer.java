@@ -14,6 +14,8 @@
 
 package org.sofun.platform.opta.impl;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import javax.ejb.ConcurrencyManagement;
 import javax.ejb.ConcurrencyManagementType;
 import javax.ejb.EJB;
@@ -25,6 +27,7 @@ import javax.ejb.Startup;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.sofun.core.api.local.ClusterCoordinatorLocal;
 import org.sofun.platform.opta.api.OptaException;
 import org.sofun.platform.opta.api.OptaService;
 import org.sofun.platform.opta.api.ejb.OptaServiceLocal;
@@ -43,6 +46,10 @@ import org.sofun.platform.opta.api.ejb.OptaSyncTimerLocal;
  * All business logic shall <b>not</b> be defined within this singleton but
  * within the underlying {@link OptaService} instance.
  * 
+ * <p>
+ * 
+ * Each feed is processed by a single node of the cluster at a time.
+ * 
  * @author <a href="mailto:julien@anguenot.org">Julien Anguenot</a>
  * 
  */
@@ -55,50 +62,73 @@ public class OptaSyncTimer implements OptaSyncTimerLocal {
 
     private static final Log log = LogFactory.getLog(OptaSyncTimer.class);
 
+    private static final String LEASE_F = "opta.f";
+
+    private static final String LEASE_LIVE_F = "opta.live.f";
+
+    private static final String LEASE_RU = "opta.ru";
+
+    private static final String LEASE_LIVE_RU = "opta.live.ru";
+
+    private static final String LEASE_F1 = "opta.f1";
+
+    private static final String LEASE_T = "opta.t";
+
+    private static final String LEASE_LIVE_T = "opta.live.t";
+
+    private static final String LEASE_CY = "opta.cy";
+
+    private static final String LEASE_BB = "opta.bb";
+
     @EJB(beanName = "OptaServiceImpl", beanInterface = OptaServiceLocal.class)
     private OptaService optaService;
 
+    @EJB(beanName = "ClusterCoordinator", beanInterface = ClusterCoordinatorLocal.class)
+    private ClusterCoordinatorLocal cluster;
+
     /* F feeds processing lock */
-    private boolean LOCK_F = false;
+    private final AtomicBoolean LOCK_F = new AtomicBoolean(false);
 
     /* F live feeds processing lock */
-    private boolean LOCK_LIVE_F = false;
+    private final AtomicBoolean LOCK_LIVE_F = new AtomicBoolean(false);
 
     /* RU feeds processing lock */
-    private boolean LOCK_RU = false;
+    private final AtomicBoolean LOCK_RU = new AtomicBoolean(false);
 
     /* RU live feeds processing lock */
-    private boolean LOCK_LIVE_RU = false;
+    private final AtomicBoolean LOCK_LIVE_RU = new AtomicBoolean(false);
 
     /* F1 feeds processing lock */
-    private boolean LOCK_F1 = false;
+    private final AtomicBoolean LOCK_F1 = new AtomicBoolean(false);
 
     /* Tennis feeds processing lock */
-    private boolean LOCK_T = false;
+    private final AtomicBoolean LOCK_T = new AtomicBoolean(false);
 
     /* Tennis live feeds processing lock */
-    private boolean LOCK_LIVE_T = false;
+    private final AtomicBoolean LOCK_LIVE_T = new AtomicBoolean(false);
 
     /* Cycling feeds processing lock */
-    private boolean LOCK_CY = false;
+    private final AtomicBoolean LOCK_CY = new AtomicBoolean(false);
 
     /* Basket feeds processing lock */
-    private boolean LOCK_BB = false;
+    private final AtomicBoolean LOCK_BB = new AtomicBoolean(false);
 
     @Override
     // XXX DISABLED
     // @Schedule(minute = "*/5", hour = "*", persistent = false)
     public void syncF() throws Exception {
-        if (LOCK_F) {
+        if (!LOCK_F.compareAndSet(false, true)) {
             return;
         }
         try {
-            LOCK_F = true;
+            if (!cluster.acquire(LEASE_F)) {
+                return;
+            }
             optaService.syncF();
         } catch (OptaException e) {
             log.error(e.getMessage());
         } finally {
-            LOCK_F = false;
+            LOCK_F.set(false);
         }
     }
 
@@ -106,16 +136,18 @@ public class OptaSyncTimer implements OptaSyncTimerLocal {
     // XXX DISABLED
     // @Schedule(minute = "*/5", hour = "*", persistent = false)
     public void syncFLive() throws Exception {
-        if (LOCK_LIVE_F) {
+        if (!LOCK_LIVE_F.compareAndSet(false, true)) {
             return;
         }
         try {
-            LOCK_LIVE_F = true;
+            if (!cluster.acquire(LEASE_LIVE_F)) {
+                return;
+            }
             optaService.syncFLiveFeeds();
         } catch (OptaException e) {
             log.error(e.getMessage());
         } finally {
-            LOCK_LIVE_F = false;
+            LOCK_LIVE_F.set(false);
         }
     }
 
@@ -123,16 +155,18 @@ public class OptaSyncTimer implements OptaSyncTimerLocal {
     // XXX DISABLED
     // @Schedule(minute = "*/5", hour = "*", persistent = false)
     public void syncRU() throws Exception {
-        if (LOCK_RU) {
+        if (!LOCK_RU.compareAndSet(false, true)) {
             return;
         }
         try {
-            LOCK_RU = true;
+            if (!cluster.acquire(LEASE_RU)) {
+                return;
+            }
             optaService.syncRU();
         } catch (OptaException e) {
             log.error(e.getMessage());
         } finally {
-            LOCK_RU = false;
+            LOCK_RU.set(false);
         }
     }
 
@@ -140,32 +174,36 @@ public class OptaSyncTimer implements OptaSyncTimerLocal {
     // XXX DISABLED
     // @Schedule(minute = "*/5", hour = "*", persistent = false)
     public void syncRULive() throws Exception {
-        if (LOCK_LIVE_RU) {
+        if (!LOCK_LIVE_RU.compareAndSet(false, true)) {
             return;
         }
         try {
-            LOCK_LIVE_RU = true;
+            if (!cluster.acquire(LEASE_LIVE_RU)) {
+                return;
+            }
             optaService.syncRULiveFeeds();
         } catch (OptaException e) {
             log.error(e.getMessage());
         } finally {
-            LOCK_LIVE_RU = false;
+            LOCK_LIVE_RU.set(false);
         }
     }
 
     @Override
     // @Schedule(minute = "*/5", hour = "*", persistent = false)
     public void syncFormula1() throws Exception {
-        if (LOCK_F1) {
+        if (!LOCK_F1.compareAndSet(false, true)) {
             return;
         }
         try {
-            LOCK_F1 = true;
+            if (!cluster.acquire(LEASE_F1)) {
+                return;
+            }
             optaService.syncFormula1();
         } catch (OptaException e) {
             log.error(e.getMessage());
         } finally {
-            LOCK_F1 = false;
+            LOCK_F1.set(false);
         }
     }
 
@@ -173,16 +211,18 @@ public class OptaSyncTimer implements OptaSyncTimerLocal {
     // XXX DISABLED
     // @Schedule(minute = "*/5", hour = "*", persistent = false)
     public void syncTennis() throws Exception {
-        if (LOCK_T) {
+        if (!LOCK_T.compareAndSet(false, true)) {
             return;
         }
         try {
-            LOCK_T = true;
+            if (!cluster.acquire(LEASE_T)) {
+                return;
+            }
             optaService.syncTennis();
         } catch (OptaException e) {
             log.error(e.getMessage());
         } finally {
-            LOCK_T = false;
+            LOCK_T.set(false);
         }
     }
 
@@ -190,16 +230,18 @@ public class OptaSyncTimer implements OptaSyncTimerLocal {
     // XXX DISABLED
     // @Schedule(minute = "*/5", hour = "*", persistent = false)
     public void syncTennisLive() throws Exception {
-        if (LOCK_LIVE_T) {
+        if (!LOCK_LIVE_T.compareAndSet(false, true)) {
             return;
         }
         try {
-            LOCK_LIVE_T = true;
+            if (!cluster.acquire(LEASE_LIVE_T)) {
+                return;
+            }
             optaService.syncTennisLiveFeeds();
         } catch (OptaException e) {
             log.error(e.getMessage());
         } finally {
-            LOCK_LIVE_T = false;
+            LOCK_LIVE_T.set(false);
         }
     }
 
@@ -207,16 +249,18 @@ public class OptaSyncTimer implements OptaSyncTimerLocal {
     // XXX DISABLED
     // @Schedule(minute = "*/5", hour = "*", persistent = false)
     public void syncCycling() throws Exception {
-        if (LOCK_CY) {
+        if (!LOCK_CY.compareAndSet(false, true)) {
             return;
         }
         try {
-            LOCK_CY = true;
+            if (!cluster.acquire(LEASE_CY)) {
+                return;
+            }
             optaService.syncCycling();
         } catch (OptaException e) {
             log.error(e.getMessage());
         } finally {
-            LOCK_CY = false;
+            LOCK_CY.set(false);
         }
     }
 
@@ -224,16 +268,18 @@ public class OptaSyncTimer implements OptaSyncTimerLocal {
     // XXX DISABLED
     // @Schedule(minute = "*/5", hour = "*", persistent = false)
     public void syncBasket() throws Exception {
-        if (LOCK_BB) {
+        if (!LOCK_BB.compareAndSet(false, true)) {
             return;
         }
         try {
-            LOCK_BB = true;
+            if (!cluster.acquire(LEASE_BB)) {
+                return;
+            }
             optaService.syncBasket();
         } catch (OptaException e) {
             log.error(e.getMessage());
         } finally {
-            LOCK_BB = false;
+            LOCK_BB.set(false);
         }
     }
 
@@ -17,6 +17,12 @@ package org.sofun.platform.opta.parser;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
@@ -24,6 +30,11 @@ import javax.xml.parsers.SAXParserFactory;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.sofun.core.api.messaging.TournamentEventTerminatedMessage;
+import org.sofun.core.api.sport.tournament.TournamentGame;
+import org.sofun.core.api.sport.tournament.TournamentRound;
+import org.sofun.core.api.sport.tournament.TournamentSeason;
+import org.sofun.core.api.sport.tournament.TournamentStage;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
@@ -42,6 +53,12 @@ public abstract class AbstractOptaParser extends DefaultHandler {
 
     protected String tempVal;
 
+    /* Events terminated while parsing, keyed by type and uuid. */
+    private final Map<String, TournamentEventTerminatedMessage> terminated = new LinkedHashMap<String, TournamentEventTerminatedMessage>();
+
+    /* Sport events whose start date moved while parsing. */
+    private final List<Object> rescheduled = new ArrayList<Object>();
+
     public AbstractOptaParser() {
         super();
     }
@@ -86,6 +103,107 @@ public abstract class AbstractOptaParser extends DefaultHandler {
         }
     }
 
+    /**
+     * Records that a game has been terminated by this feed.
+     * 
+     * @param game: a {@link TournamentGame} instance.
+     */
+    protected void markGameTerminated(TournamentGame game) {
+        addTerminated(TournamentEventTerminatedMessage.game(game.getUUID()));
+    }
+
+    /**
+     * Records that a round has been terminated by this feed.
+     * 
+     * @param round: a {@link TournamentRound} instance.
+     */
+    protected void markRoundTerminated(TournamentRound round) {
+        addTerminated(TournamentEventTerminatedMessage.round(round.getUUID()));
+    }
+
+    private void addTerminated(TournamentEventTerminatedMessage event) {
+        terminated.put(event.toString(), event);
+    }
+
+    /**
+     * Returns the tournament events this feed terminated.
+     * 
+     * @return a {@link Collection} of {@link TournamentEventTerminatedMessage}
+     */
+    public Collection<TournamentEventTerminatedMessage> getTerminatedEvents() {
+        return terminated.values();
+    }
+
+    private static boolean sameDate(Date d1, Date d2) {
+        if (d1 == null || d2 == null) {
+            return d1 == d2;
+        }
+        return d1.getTime() == d2.getTime();
+    }
+
+    /**
+     * Sets the start date of a game, recording it if it moved.
+     * 
+     * @param game: a {@link TournamentGame} instance.
+     * @param date: the new start {@link Date}.
+     */
+    protected void setStartDate(TournamentGame game, Date date) {
+        if (!sameDate(game.getStartDate(), date)) {
+            game.setStartDate(date);
+            rescheduled.add(game);
+        }
+    }
+
+    /**
+     * Sets the start date of a round, recording it if it moved.
+     * 
+     * @param round: a {@link TournamentRound} instance.
+     * @param date: the new start {@link Date}.
+     */
+    protected void setStartDate(TournamentRound round, Date date) {
+        if (!sameDate(round.getStartDate(), date)) {
+            round.setStartDate(date);
+            rescheduled.add(round);
+        }
+    }
+
+    /**
+     * Sets the start date of a stage, recording it if it moved.
+     * 
+     * @param stage: a {@link TournamentStage} instance.
+     * @param date: the new start {@link Date}.
+     */
+    protected void setStartDate(TournamentStage stage, Date date) {
+        if (!sameDate(stage.getStartDate(), date)) {
+            stage.setStartDate(date);
+            rescheduled.add(stage);
+        }
+    }
+
+    /**
+     * Sets the start date of a season, recording it if it moved.
+     * 
+     * @param season: a {@link TournamentSeason} instance.
+     * @param date: the new start {@link Date}.
+     */
+    protected void setStartDate(TournamentSeason season, Date date) {
+        if (!sameDate(season.getStartDate(), date)) {
+            season.setStartDate(date);
+            rescheduled.add(season);
+        }
+    }
+
+    /**
+     * Returns the sport events whose start date this feed moved.
+     * 
+     * @return a {@link List} of {@link TournamentGame},
+     *         {@link TournamentRound}, {@link TournamentStage} or
+     *         {@link TournamentSeason} instances.
+     */
+    public List<Object> getRescheduledEvents() {
+        return rescheduled;
+    }
+
     @Override
     public void characters(char[] ch, int start, int length)
             throws SAXException {
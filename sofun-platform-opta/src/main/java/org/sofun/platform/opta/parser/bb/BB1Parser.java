@@ -241,6 +241,7 @@ public class BB1Parser extends AbstractOptaParser {
                 if (!TournamentGameStatus.TERMINATED.equals(game
                         .getGameStatus())) {
                     game.setGameStatus(TournamentGameStatus.TERMINATED);
+                    markGameTerminated(game);
                     log.info("Marking game with uuid=" + game.getUUID()
                             + " as TERMINATED");
                 }
@@ -319,7 +320,7 @@ public class BB1Parser extends AbstractOptaParser {
             final String dt = tempVal;
             try {
                 Date date = getDateTZ(dt, "UTC"); // XXX see below for TZ
-                game.setStartDate(date);
+                setStartDate(game, date);
             } catch (Exception e) {
                 log.error("Error parsing date=" + dt + " for game with uuid="
                         + game.getUUID());
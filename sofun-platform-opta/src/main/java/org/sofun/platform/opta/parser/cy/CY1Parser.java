@@ -196,7 +196,7 @@ public class CY1Parser extends AbstractOptaParser {
             }
             Calendar cal = Calendar.getInstance();
             cal.setTime(startDate);
-            tournamentStage.setStartDate(startDate);
+            setStartDate(tournamentStage, startDate);
 
             // Stagte status will be handle by the sports graph manager.
 
@@ -239,7 +239,7 @@ public class CY1Parser extends AbstractOptaParser {
             } catch (ParseException e) {
                 throw new SAXException(e);
             }
-            round.setStartDate(startDate);
+            setStartDate(round, startDate);
 
             if ("0".equals(CES)) {
                 if (!TournamentRoundStatus.SCHEDULED.equals(round.getStatus())) {
@@ -258,6 +258,7 @@ public class CY1Parser extends AbstractOptaParser {
             } else if ("7".equals(CES)) {
                 if (!TournamentRoundStatus.TERMINATED.equals(round.getStatus())) {
                     round.setStatus(TournamentRoundStatus.TERMINATED);
+                    markRoundTerminated(round);
                     log.info("Marking round w/ UUID="
                             + String.valueOf(round.getUUID()) + " as "
                             + TournamentRoundStatus.TERMINATED);
@@ -318,6 +318,7 @@ public class MR1Parser extends AbstractOptaParser {
                         if (!TournamentRoundStatus.TERMINATED.equals(round
                                 .getStatus())) {
                             round.setStatus(TournamentRoundStatus.TERMINATED);
+                            markRoundTerminated(round);
                             log.info("Round with uuid=" + round.getUUID()
                                     + " marked as terminated by Opta");
                         }
@@ -347,7 +348,7 @@ public class MR1Parser extends AbstractOptaParser {
                             } else {
                                 cal.add(Calendar.HOUR, -Integer.valueOf(utc));
                             }
-                            round.setStartDate(cal.getTime());
+                            setStartDate(round, cal.getTime());
                         }
                     }
 
@@ -269,6 +269,7 @@ public class MR2Parser extends AbstractOptaParser {
                     if (!TournamentRoundStatus.TERMINATED.equals(round
                             .getStatus())) {
                         round.setStatus(TournamentRoundStatus.TERMINATED);
+                        markRoundTerminated(round);
                         log.info("Round with uuid=" + round.getUUID()
                                 + " marked as terminated by Opta");
                     }
@@ -294,7 +295,7 @@ public class MR2Parser extends AbstractOptaParser {
                     } else {
                         cal.add(Calendar.HOUR, -Integer.valueOf(utc));
                     }
-                    round.setStartDate(cal.getTime());
+                    setStartDate(round, cal.getTime());
                 }
 
                 if (!end.isEmpty() && !date.isEmpty()) {
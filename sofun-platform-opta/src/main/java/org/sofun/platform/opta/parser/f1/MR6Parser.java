@@ -277,7 +277,7 @@ public class MR6Parser extends AbstractOptaParser {
             } else {
                 cal.add(Calendar.HOUR, -Integer.valueOf(utc));
             }
-            round.setStartDate(cal.getTime());
+            setStartDate(round, cal.getTime());
 
             Date endDate;
             try {
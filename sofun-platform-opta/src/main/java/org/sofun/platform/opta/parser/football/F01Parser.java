@@ -209,6 +209,7 @@ public class F01Parser extends AbstractOptaParser {
                     log.info("Marking game w/ UUID=" + game.getUUID()
                             + " as terminated by Opta");
                     game.setGameStatus(TournamentGameStatus.TERMINATED);
+                    markGameTerminated(game);
                 }
             } else if ("PreMatch".equals(period) || "Postponed".equals(period)) {
                 game.setGameStatus(TournamentGameStatus.SCHEDULED);
@@ -377,7 +378,7 @@ public class F01Parser extends AbstractOptaParser {
                         .getGameStatus()) || game.getStartDate() == null) {
                     gameStartDate = getDateTZ(date, "Europe/London");
                     if (gameStartDate.compareTo(new Date()) > 0) {
-                        game.setStartDate(gameStartDate);
+                        setStartDate(game, gameStartDate);
                     }
                 }
             } catch (ParseException e) {
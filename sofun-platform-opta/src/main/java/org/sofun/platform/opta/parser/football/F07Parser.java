@@ -298,6 +298,7 @@ public class F07Parser extends AbstractOptaParser {
                             log.info("Marking game w/ UUID=" + game.getUUID()
                                     + " as terminated by Opta.");
                             game.setGameStatus(TournamentGameStatus.TERMINATED);
+                            markGameTerminated(game);
                         }
                     }
                 }
@@ -530,7 +531,7 @@ public class F07Parser extends AbstractOptaParser {
                 }
                 if (startDate != null) {
                     if (startDate.compareTo(new Date()) > 0) {
-                        game.setStartDate(startDate);
+                        setStartDate(game, startDate);
                     }
                 }
             }
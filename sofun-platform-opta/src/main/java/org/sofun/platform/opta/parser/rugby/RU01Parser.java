@@ -201,7 +201,7 @@ public class RU01Parser extends AbstractOptaParser {
 
             try {
                 Date date = getDateTZ(dateStr + " " + timeStr, "Europe/London");
-                game.setStartDate(date);
+                setStartDate(game, date);
                 Calendar cal = Calendar.getInstance();
                 cal.setTime(date);
                 Calendar now = Calendar.getInstance();
@@ -270,6 +270,7 @@ public class RU6Parser extends AbstractOptaParser {
                         && !TournamentGameStatus.TERMINATED.equals(game
                                 .getGameStatus())) {
                     game.setGameStatus(TournamentGameStatus.TERMINATED);
+                    markGameTerminated(game);
                     log.info("Game w/ UUID=" + game.getUUID() + " marked as "
                             + TournamentGameStatus.TERMINATED + " by Opta.");
                 } else if (RU6Parser.STATUS_GAME_POSTPONED.equals(gameStatus)
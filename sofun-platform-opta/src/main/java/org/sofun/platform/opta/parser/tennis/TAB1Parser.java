@@ -209,7 +209,7 @@ public class TAB1Parser extends AbstractOptaParser {
             }
             Calendar cal = Calendar.getInstance();
             cal.setTime(startDate);
-            tournamentSeason.setStartDate(startDate);
+            setStartDate(tournamentSeason, startDate);
 
             sdf = new SimpleDateFormat("yyyy-MM-dd");
             Date endDate;
@@ -139,7 +139,7 @@ public class TAB2Parser extends AbstractOptaParser {
             }
             Calendar cal = Calendar.getInstance();
             cal.setTime(startDate);
-            tournamentSeason.setStartDate(startDate);
+            setStartDate(tournamentSeason, startDate);
 
             sdf = new SimpleDateFormat("yyyy-MM-dd");
             Date endDate;
@@ -206,7 +206,7 @@ public class TAB2Parser extends AbstractOptaParser {
             }
             Calendar cal = Calendar.getInstance();
             cal.setTime(startDate);
-            tournamentGame.setStartDate(startDate);
+            setStartDate(tournamentGame, startDate);
 
             Date now = new Date();
             if (now.compareTo(startDate) < 0) {
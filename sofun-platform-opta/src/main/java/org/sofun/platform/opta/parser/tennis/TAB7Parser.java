@@ -141,7 +141,7 @@ public class TAB7Parser extends AbstractOptaParser {
             }
             Calendar cal = Calendar.getInstance();
             cal.setTime(startDate);
-            tournamentGame.setStartDate(startDate);
+            setStartDate(tournamentGame, startDate);
 
             final String status = attributes.getValue("status");
             if ("Not Started".equals(status)) {
@@ -156,6 +156,7 @@ public class TAB7Parser extends AbstractOptaParser {
                         .getGameStatus())) {
                     tournamentGame
                             .setGameStatus(TournamentGameStatus.TERMINATED);
+                    markGameTerminated(tournamentGame);
                     log.info("Marking game with UUID="
                             + tournamentGame.getUUID() + " as TERMINATED");
                 }
@@ -251,6 +252,7 @@ public class TAB7Parser extends AbstractOptaParser {
                             .get(1));
                 }
                 tournamentGame.setGameStatus(TournamentGameStatus.TERMINATED);
+                markGameTerminated(tournamentGame);
             }
 
         } else if (qName.equals("set")) {
@@ -41,22 +41,46 @@ public class ReSTMemberKup extends ReSTKup {
 
     protected long teamUUID;
 
+    /**
+     * @deprecated loads the ranking table of the Kup to find the entry of the
+     *             member: use
+     *             {@link #ReSTMemberKup(Kup, Member, MemberRankingTableEntry, int)}
+     *             with the entry and position resolved through the ranking
+     *             table service.
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @param member: a {@link Member} instance.
+     */
+    @Deprecated
     public ReSTMemberKup(Kup kup, Member member) {
+        this(kup, member, getEntryFor(kup, member));
+    }
+
+    private ReSTMemberKup(Kup kup, Member member,
+            MemberRankingTableEntry entry) {
+        this(kup, member, entry, entry != null ? entry.getPosition() : 0);
+    }
+
+    /**
+     * @param kup: a {@link Kup} instance.
+     * @param member: a {@link Member} instance.
+     * @param entry: the ranking table entry of the member or null.
+     * @param position: the position of the entry (starting at 0).
+     */
+    public ReSTMemberKup(Kup kup, Member member,
+            MemberRankingTableEntry entry, int position) {
         super(kup);
         if (member != null) {
             setMember(new ReSTMember(member));
             if (kup != null) {
-                MemberRankingTableEntry entry = kup.getRankingTable()
-                        .getEntryForMember(member);
-
                 // Entry might be null in case of gambling Kups where player did
                 // record a prediction but did not place bet.
                 if (entry != null) {
                     setPoints(entry.getValue());
-                    setRanking(entry.getPosition() + 1);
+                    setRanking(position + 1);
                     setWinnings(entry.getWinnings());
                 }
-                setTotalParticipants(kup.getParticipants().size());
+                setTotalParticipants(kup.getNbParticipants());
                 setTeamName(kup.getTeam().getName());
                 setTeamUUID(kup.getTeam().getId());
             }
@@ -64,6 +88,13 @@ public class ReSTMemberKup extends ReSTKup {
 
     }
 
+    private static MemberRankingTableEntry getEntryFor(Kup kup, Member member) {
+        if (kup == null || member == null) {
+            return null;
+        }
+        return kup.getRankingTable().getEntryForMember(member);
+    }
+
     public ReSTMember getMember() {
         return member;
     }
@@ -22,10 +22,15 @@ import java.util.ListIterator;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.sofun.core.api.community.table.MemberRankingDelta;
+import org.sofun.core.api.community.table.MemberRankingPage;
 import org.sofun.core.api.community.table.MemberRankingTable;
 import org.sofun.core.api.community.table.MemberRankingTableEntry;
+import org.sofun.core.api.community.table.MemberRankingTableService;
+import org.sofun.core.api.exception.CoreException;
 import org.sofun.core.api.kup.Kup;
 import org.sofun.core.api.kup.KupRankingTable;
+import org.sofun.core.api.member.Member;
 import org.sofun.core.api.team.table.TeamRankingTable;
 import org.sofun.platform.web.rest.api.member.ReSTMember;
 
@@ -56,6 +61,10 @@ public class ReSTMemberRankingTable {
 
     protected long entriesTotalPoints = 0;
 
+    protected long version = 0;
+
+    protected boolean delta = false;
+
     public ReSTMemberRankingTable() {
     }
 
@@ -73,6 +82,168 @@ public class ReSTMemberRankingTable {
         this(coreTable, offset, batchSize, null);
     }
 
+    /**
+     * Builds a ranking table from a page computed by the database.
+     * 
+     * <p>
+     * 
+     * If a member has been requested and stands outside of the first page,
+     * its entry is added on top.
+     * 
+     * @param page: a {@link MemberRankingPage} instance.
+     */
+    public ReSTMemberRankingTable(MemberRankingPage page) {
+
+        this();
+
+        setEntriesTotalPoints(page.getEntriesTotalPoints());
+        setLastUpdated(page.getLastModified());
+        totalMembers = (int) page.getTotalEntries();
+        version = page.getVersion();
+
+        int position = page.getOffset();
+        for (MemberRankingTableEntry entry : page.getEntries()) {
+            position++;
+            ReSTMemberRankingTableEntry rEntry = new ReSTMemberRankingTableEntry(
+                    entry);
+            rEntry.setPosition(position);
+            entries.add(rEntry);
+        }
+
+        final MemberRankingTableEntry memberEntry = page.getMemberEntry();
+        if (memberEntry != null) {
+            memberPosition = page.getMemberPosition() + 1;
+            totalPoints = memberEntry.getValue();
+            if (page.getOffset() == 0 && memberPosition > entries.size()) {
+                ReSTMemberRankingTableEntry rEntry = new ReSTMemberRankingTableEntry(
+                        memberEntry);
+                rEntry.setPosition(memberPosition);
+                entries.add(0, rEntry);
+            }
+        }
+
+    }
+
+    /**
+     * Builds a ranking table holding only the entries changed since the
+     * version known by the client.
+     * 
+     * <p>
+     * 
+     * Clients are expected to merge the entries by position and keep the
+     * returned version for the next poll.
+     * 
+     * @param delta: a complete {@link MemberRankingDelta} instance.
+     */
+    public ReSTMemberRankingTable(MemberRankingDelta delta) {
+
+        this();
+
+        setEntriesTotalPoints(delta.getEntriesTotalPoints());
+        setLastUpdated(delta.getLastModified());
+        totalMembers = (int) delta.getTotalEntries();
+        version = delta.getVersion();
+        this.delta = true;
+
+        for (MemberRankingTableEntry entry : delta.getEntries()) {
+            ReSTMemberRankingTableEntry rEntry = new ReSTMemberRankingTableEntry(
+                    entry);
+            rEntry.setPosition(delta.getPositionFor(entry.getMember()
+                    .getId()) + 1);
+            entries.add(rEntry);
+        }
+
+    }
+
+    /**
+     * Builds the friends ranking of a member.
+     * 
+     * <p>
+     * 
+     * Only the entries of the member and of its friends are loaded, by the
+     * database, so the cost depends on the amount of friends rather than on
+     * the table size. Positions are the positions within the whole table.
+     * 
+     * @param rankings: the {@link MemberRankingTableService}.
+     * @param coreTable: a {@link MemberRankingTable} instance. Its entries
+     *        are not loaded.
+     * @param member: a {@link Member} instance.
+     * @param offset: position of the first friend (starting at 0)
+     * @param batchSize: maximum amount of friends. 0 means all.
+     * @throws CoreException
+     */
+    public ReSTMemberRankingTable(MemberRankingTableService rankings,
+            MemberRankingTable coreTable, Member member, int offset,
+            int batchSize) throws CoreException {
+
+        this();
+
+        final long tableId = coreTable.getId();
+        setEntriesTotalPoints(coreTable.getEntriesTotalPoints());
+        setLastUpdated(coreTable.getLastModified());
+        totalMembers = (int) rankings.countEntries(tableId);
+
+        if (member == null) {
+            return;
+        }
+
+        List<MemberRankingTableEntry> ranked = new ArrayList<MemberRankingTableEntry>(
+                rankings.getEntriesFor(tableId, member.getFriendIds()));
+        List<Integer> positions = new ArrayList<Integer>(ranked.size() + 1);
+        int memberIndex = -1;
+        for (int i = 0; i < ranked.size(); i++) {
+            final MemberRankingTableEntry entry = ranked.get(i);
+            positions.add(rankings.getPositionFor(tableId, entry));
+            if (entry.getMember().getId() == member.getId()) {
+                memberIndex = i;
+            }
+        }
+
+        // Add the member among its friends.
+        final MemberRankingTableEntry memberEntry = rankings.getEntryFor(
+                tableId, member.getId());
+        if (memberEntry != null) {
+            final int position = rankings.getPositionFor(tableId,
+                    memberEntry);
+            if (memberIndex == -1) {
+                memberIndex = 0;
+                while (memberIndex < positions.size()
+                        && positions.get(memberIndex) < position) {
+                    memberIndex++;
+                }
+                ranked.add(memberIndex, memberEntry);
+                positions.add(memberIndex, position);
+            }
+            memberPosition = position + 1;
+            friendsMemberPosition = memberIndex + 1;
+            totalPoints = memberEntry.getValue();
+        }
+        totalFriends = ranked.size();
+
+        if (offset < 0) {
+            offset = 0;
+        }
+        int end = ranked.size();
+        if (batchSize > 0 && offset + batchSize < end) {
+            end = offset + batchSize;
+        }
+        for (int i = offset; i < end; i++) {
+            ReSTMemberRankingTableEntry rEntry = new ReSTMemberRankingTableEntry(
+                    ranked.get(i));
+            rEntry.setPosition(positions.get(i) + 1);
+            entries.add(rEntry);
+        }
+
+        // If current member outside batch: we add it on top.
+        if (offset == 0 && memberEntry != null && memberIndex >= end) {
+            ReSTMemberRankingTableEntry rEntry = new ReSTMemberRankingTableEntry(
+                    memberEntry);
+            rEntry.setPosition(memberPosition);
+            entries.add(0, rEntry);
+        }
+
+    }
+
     public ReSTMemberRankingTable(MemberRankingTable coreTable, int offset,
             int batchSize, ReSTMember member, Boolean friendsOnly,
             List<ReSTMember> filterByMembers) {
@@ -298,4 +469,20 @@ public class ReSTMemberRankingTable {
         this.entriesTotalPoints = entriesTotalPoints;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isDelta() {
+        return delta;
+    }
+
+    public void setDelta(boolean delta) {
+        this.delta = delta;
+    }
+
 }
@@ -21,12 +21,15 @@ import javax.ejb.EJB;
 import org.sofun.core.api.Core;
 import org.sofun.core.api.community.Community;
 import org.sofun.core.api.community.CommunityService;
+import org.sofun.core.api.community.table.MemberRankingTableService;
 import org.sofun.core.api.feed.FeedService;
 import org.sofun.core.api.kup.KupService;
+import org.sofun.core.api.local.CommunityLeaderboardLocal;
 import org.sofun.core.api.local.CommunityServiceLocal;
 import org.sofun.core.api.local.CoreLocal;
 import org.sofun.core.api.local.FeedServiceLocal;
 import org.sofun.core.api.local.KupServiceLocal;
+import org.sofun.core.api.local.MemberRankingTableServiceLocal;
 import org.sofun.core.api.local.NotificationServiceLocal;
 import org.sofun.core.api.local.PredictionServiceLocal;
 import org.sofun.core.api.local.SessionServiceLocal;
@@ -118,6 +121,16 @@ public abstract class AbstractResource {
             beanInterface = ARJELBannedServiceLocal.class)
     private ARJELBannedService arjelService;
 
+    @EJB(
+            beanName = "MemberRankingTableServiceImpl",
+            beanInterface = MemberRankingTableServiceLocal.class)
+    private MemberRankingTableService rankingTableService;
+
+    @EJB(
+            beanName = "CommunityLeaderboard",
+            beanInterface = CommunityLeaderboardLocal.class)
+    private CommunityLeaderboardLocal leaderboard;
+
     protected Core getCore() {
         return core;
     }
@@ -170,6 +183,14 @@ public abstract class AbstractResource {
         return arjelService;
     }
 
+    protected MemberRankingTableService getRankingTableService() {
+        return rankingTableService;
+    }
+
+    protected CommunityLeaderboardLocal getLeaderboard() {
+        return leaderboard;
+    }
+
     protected Tournament getCoreTournament(long id) throws ReSTException {
         Tournament t;
         try {
@@ -15,10 +15,14 @@
 package org.sofun.platform.web.rest.resource.ejb;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
@@ -27,10 +31,13 @@ import javax.ws.rs.core.Response;
 
 import org.sofun.core.CoreConstants;
 import org.sofun.core.api.community.Community;
+import org.sofun.core.api.community.table.MemberRankingPage;
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
+import org.sofun.core.api.exception.CoreException;
 import org.sofun.core.api.kup.Kup;
 import org.sofun.core.api.member.Member;
-import org.sofun.core.api.team.Team;
 import org.sofun.core.api.team.table.TeamRankingTable;
+import org.sofun.core.member.MemberIds;
 import org.sofun.platform.web.rest.api.exception.ReSTException;
 import org.sofun.platform.web.rest.api.exception.ReSTRuntimeException;
 import org.sofun.platform.web.rest.api.feed.ReSTFeed;
@@ -83,11 +90,17 @@ public class CommunityResourceBean extends AbstractResource implements
     public Response getMemberCommunityRankingTable(long communityId,
             String memberEmail, int offset, int batchSize) throws ReSTException {
         Community c = getCoreCommunityById(communityId);
-        return Response
-                .status(202)
-                .entity(new ReSTMemberRankingTable((TeamRankingTable) c
-                        .getDefaultTeam().getRankingTable(), offset, batchSize,
-                        new ReSTMember(getCoreMemberByEmail(memberEmail))))
+        Member member = getCoreMemberByEmail(memberEmail);
+        MemberRankingPage page;
+        try {
+            final long tableId = getRankingTableService()
+                    .getTeamRankingTableId(c.getDefaultTeam().getId());
+            page = getLeaderboard().getPage(tableId, offset, batchSize,
+                    member);
+        } catch (CoreException e) {
+            throw new ReSTException(e.getMessage());
+        }
+        return Response.status(202).entity(new ReSTMemberRankingTable(page))
                 .build();
     }
 
@@ -96,24 +109,140 @@ public class CommunityResourceBean extends AbstractResource implements
             int batchSize) throws ReSTException {
 
         Community c = getCoreCommunityById(communityId);
-        Team team = c.getDefaultTeam();
-        TeamRankingTable table = (TeamRankingTable) team.getRankingTable();
+        MemberRankingPage page;
+        try {
+            final long tableId = getRankingTableService()
+                    .getTeamRankingTableId(c.getDefaultTeam().getId());
+            page = getLeaderboard().getPage(tableId, offset, batchSize,
+                    null);
+        } catch (CoreException e) {
+            throw new ReSTException(e.getMessage());
+        }
 
-        ReSTMemberRankingTable rTable = new ReSTMemberRankingTable(table,
-                offset, batchSize);
+        ReSTMemberRankingTable rTable = new ReSTMemberRankingTable(page);
 
         return Response.status(202).entity(rTable).build();
 
     }
 
+    @Override
+    public Response getCommunityRankingTableAfter(long communityId,
+            long memberId, int batchSize) throws ReSTException {
+
+        Community c = getCoreCommunityById(communityId);
+        MemberRankingPage page;
+        try {
+            final long tableId = getRankingTableService()
+                    .getTeamRankingTableId(c.getDefaultTeam().getId());
+            page = getRankingTableService().getPageAfter(tableId, memberId,
+                    batchSize, null);
+        } catch (CoreException e) {
+            return Response.status(400).entity("Member not ranked").build();
+        }
+
+        return Response.status(202).entity(new ReSTMemberRankingTable(page))
+                .build();
+
+    }
+
     @Override
     public ReSTMemberRankingTable getFriendsCommunityRankingTable(
             long communityId, String memberEmail, int offset, int bachSize)
             throws ReSTException {
-        Community c = getCoreCommunityById(communityId);
-        return new ReSTMemberRankingTable((TeamRankingTable) c.getDefaultTeam()
-                .getRankingTable(), offset, bachSize, new ReSTMember(
-                getCoreMemberByEmail(memberEmail), true), true, null);
+
+        final Community c = getCoreCommunityById(communityId);
+        final Member member = getCoreMemberByEmail(memberEmail);
+        final TeamRankingTable table = (TeamRankingTable) c.getDefaultTeam()
+                .getRankingTable();
+
+        ReSTMemberRankingTable rTable = new ReSTMemberRankingTable();
+        rTable.setLastUpdated(table.getLastModified());
+        rTable.setEntriesTotalPoints(table.getEntriesTotalPoints());
+
+        try {
+
+            final long tableId = table.getId();
+            rTable.setTotalMembers(getLeaderboard().size(tableId));
+
+            // Friends (and the member) ranked by position.
+            final long[] ids = MemberIds.with(member.getFriendIds(),
+                    member.getId());
+            final int[] positions = getLeaderboard().getPositionsFor(tableId,
+                    ids);
+            Map<Integer, Long> ranked = new TreeMap<Integer, Long>();
+            long[] unranked = new long[ids.length];
+            int missing = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (positions[i] >= 0) {
+                    ranked.put(positions[i], ids[i]);
+                } else {
+                    unranked[missing++] = ids[i];
+                }
+            }
+            if (missing > 0) {
+                // Not in the leaderboard (yet): ask the database.
+                for (MemberRankingTableEntry entry : getRankingTableService()
+                        .getEntriesFor(tableId,
+                                Arrays.copyOf(unranked, missing))) {
+                    int position = getRankingTableService().getPositionFor(
+                            tableId, entry);
+                    // Ties with friends already ranked go after them.
+                    while (ranked.containsKey(position)) {
+                        position++;
+                    }
+                    ranked.put(position, entry.getMember().getId());
+                }
+            }
+            rTable.setTotalFriends(ranked.size());
+
+            Map<Long, Integer> slice = new HashMap<Long, Integer>();
+            boolean memberInSlice = false;
+            int i = 0;
+            for (Map.Entry<Integer, Long> each : ranked.entrySet()) {
+                final boolean inSlice = i >= offset
+                        && (bachSize <= 0 || i < offset + bachSize);
+                if (each.getValue() == member.getId()) {
+                    rTable.setMemberPosition(each.getKey() + 1);
+                    rTable.setFriendsMemberPosition(i + 1);
+                    memberInSlice = inSlice;
+                    // If current member outside batch: we add it on top.
+                    if (inSlice || offset == 0) {
+                        slice.put(each.getValue(), each.getKey());
+                    }
+                } else if (inSlice) {
+                    slice.put(each.getValue(), each.getKey());
+                }
+                i++;
+            }
+
+            long[] sliceIds = new long[slice.size()];
+            int j = 0;
+            for (Long id : slice.keySet()) {
+                sliceIds[j++] = id;
+            }
+            List<ReSTMemberRankingTableEntry> entries = new ArrayList<ReSTMemberRankingTableEntry>();
+            for (MemberRankingTableEntry entry : getRankingTableService()
+                    .getEntriesFor(tableId, sliceIds)) {
+                ReSTMemberRankingTableEntry rEntry = new ReSTMemberRankingTableEntry(
+                        entry);
+                rEntry.setPosition(slice.get(entry.getMember().getId()) + 1);
+                if (entry.getMember().getId() == member.getId()) {
+                    rTable.setTotalPoints(entry.getValue());
+                    if (!memberInSlice) {
+                        entries.add(0, rEntry);
+                        continue;
+                    }
+                }
+                entries.add(rEntry);
+            }
+            rTable.setEntries(entries);
+
+        } catch (CoreException e) {
+            throw new ReSTException(e.getMessage());
+        }
+
+        return rTable;
+
     }
 
     protected boolean hasMemberPredictionsFor(Member member, long kupId)
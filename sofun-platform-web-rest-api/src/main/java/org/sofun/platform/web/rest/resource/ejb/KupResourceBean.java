@@ -17,6 +17,7 @@ package org.sofun.platform.web.rest.resource.ejb;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -27,9 +28,11 @@ import javax.ws.rs.core.Response;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.sofun.core.api.community.table.MemberRankingDelta;
+import org.sofun.core.api.community.table.MemberRankingPage;
 import org.sofun.core.api.exception.CoreException;
+import org.sofun.core.api.exception.InvalidPredictionException;
 import org.sofun.core.api.kup.Kup;
-import org.sofun.core.api.kup.KupRankingTable;
 import org.sofun.core.api.kup.KupSearchResults;
 import org.sofun.core.api.member.Member;
 import org.sofun.core.api.prediction.Prediction;
@@ -51,7 +54,6 @@ import org.sofun.platform.web.rest.api.exception.ReSTException;
 import org.sofun.platform.web.rest.api.exception.ReSTRuntimeException;
 import org.sofun.platform.web.rest.api.kup.ReSTKup;
 import org.sofun.platform.web.rest.api.kup.RestKupSearchResults;
-import org.sofun.platform.web.rest.api.member.ReSTMember;
 import org.sofun.platform.web.rest.api.question.ReSTQuestion;
 import org.sofun.platform.web.rest.api.team.ReSTMemberRankingTable;
 import org.sofun.platform.web.rest.api.team.ReSTMemberRankingTableEntry;
@@ -267,13 +269,13 @@ public class KupResourceBean extends AbstractResource implements KupResource {
         // Automatically add member to team when adding a prediction.
         Team t = kup.getTeam();
         if (t.getId() != 740 && (!t.isMember(member) || !t.isAdmin(member))) {
-            t.addMember(member);
+            getTeamService().addMember(t, member);
         }
 
         final Map<String, String> se = JSONUtil
                 .getMapFromJSON(params.get("se"));
+        Map<String, List<Integer>> predictions = new HashMap<String, List<Integer>>();
         if (se != null) {
-            Map<String, List<Integer>> predictions = new HashMap<String, List<Integer>>();
             for (Map.Entry<String, String> entry : se.entrySet()) {
                 final String key = entry.getKey();
                 final int score = Integer.valueOf(entry.getValue());
@@ -297,27 +299,33 @@ public class KupResourceBean extends AbstractResource implements KupResource {
                     gameScore.add(1, score);
                 }
             }
-            for (Map.Entry<String, List<Integer>> prediction : predictions
-                    .entrySet()) {
-                final String uuid = prediction.getKey();
-                List<Integer> score = prediction.getValue();
-                if (score.size() != 2) {
-                    return Response.status(400).entity("Invalid prediction.")
-                            .build();
-                }
-                TournamentGame game = getSportService().getTournamentGame(uuid);
-                try {
-                    getKupService().addPredictionScore("se", member, kup, game,
-                            score);
-                } catch (CoreException e) {
-                    return Response.status(500).entity("Internal error")
-                            .build();
-                }
-            }
         }
 
         final Map<String, String> ic = JSONUtil
                 .getMapFromJSON(params.get("ic"));
+
+        // Resolve all the games of the grid at once.
+        Set<String> gameUUIDs = new HashSet<String>(predictions.keySet());
+        if (ic != null) {
+            gameUUIDs.addAll(ic.keySet());
+        }
+        final Map<String, TournamentGame> games = getSportService()
+                .getTournamentGames(gameUUIDs);
+
+        Map<TournamentGame, List<Integer>> scores = new HashMap<TournamentGame, List<Integer>>();
+        for (Map.Entry<String, List<Integer>> prediction : predictions
+                .entrySet()) {
+            final String uuid = prediction.getKey();
+            List<Integer> score = prediction.getValue();
+            TournamentGame game = games.get(uuid);
+            if (score.size() != 2 || game == null) {
+                return Response.status(400).entity("Invalid prediction.")
+                        .build();
+            }
+            scores.put(game, score);
+        }
+
+        Map<TournamentGame, List<SportContestant>> winners = new HashMap<TournamentGame, List<SportContestant>>();
         if (ic != null) {
             for (Map.Entry<String, String> entry : ic.entrySet()) {
                 final int choice = Integer.valueOf(entry.getValue());
@@ -330,8 +338,11 @@ public class KupResourceBean extends AbstractResource implements KupResource {
                 // 3 : right side winner
                 //
                 String gameUUID = entry.getKey();
-                TournamentGame game = getSportService().getTournamentGame(
-                        gameUUID);
+                TournamentGame game = games.get(gameUUID);
+                if (game == null) {
+                    return Response.status(400).entity("Invalid prediction.")
+                            .build();
+                }
                 SportContestant c1 = game.getContestants().get(0);
                 SportContestant c2 = game.getContestants().get(1);
                 List<SportContestant> prediction = new ArrayList<SportContestant>();
@@ -350,13 +361,20 @@ public class KupResourceBean extends AbstractResource implements KupResource {
                         prediction = null;
                     }
                 }
-                try {
-                    getKupService().addPrediction("ic", member, kup, game,
-                            prediction);
-                } catch (CoreException e) {
-                    return Response.status(500).entity("Internal error")
-                            .build();
-                }
+                winners.put(game, prediction);
+            }
+        }
+
+        if (!scores.isEmpty() || !winners.isEmpty()) {
+            try {
+                getKupService().addGamePredictions(member, kup, "ic", winners,
+                        "se", scores);
+            } catch (InvalidPredictionException e) {
+                // A grid holding a game closed to predictions is a client
+                // error: nothing gets recorded.
+                return Response.status(400).entity(e.getMessage()).build();
+            } catch (CoreException e) {
+                return Response.status(500).entity("Internal error").build();
             }
         }
 
@@ -848,30 +866,19 @@ public class KupResourceBean extends AbstractResource implements KupResource {
         if (kup == null) {
             return Response.status(400).entity("Kup not found").build();
         }
-        KupRankingTable coreTable;
+        MemberRankingPage page;
         try {
-            coreTable = getKupService().getKupRanking(kup, offset, batchSize);
+            final long tableId = getRankingTableService()
+                    .getKupRankingTableId(kupId);
+            page = getRankingTableService().getPage(tableId, offset,
+                    batchSize, null);
         } catch (CoreException e) {
             return Response.status(500).entity("An internal error occured")
                     .build();
         }
 
-        ReSTMemberRankingTable table = new ReSTMemberRankingTable(coreTable,
-                offset, batchSize);
-
-        // Insert tie breaker question here so that client won't have to.
-        if (kup.getQuestionsTiebreaker().size() > 0) {
-            // XXX we only support one (1) right now.
-            QuestionKupTiebreaker q = kup.getQuestionsTiebreaker().get(0);
-            for (ReSTMemberRankingTableEntry entry : table.getEntries()) {
-                final String a = getPredictionService()
-                        .getPredictionQuestionKupTieBreakerFor(
-                                getMemberService().getMember(
-                                        entry.getMember().getEmail()), kup, q)
-                        .getAnswer();
-                entry.setTieBreakerQuestionAnswer(a);
-            }
-        }
+        ReSTMemberRankingTable table = new ReSTMemberRankingTable(page);
+        setTieBreakerQuestionAnswers(kup, table);
 
         return Response.status(202).entity(table).build();
     }
@@ -887,36 +894,104 @@ public class KupResourceBean extends AbstractResource implements KupResource {
         if (member == null) {
             return Response.status(400).entity("Member not found").build();
         }
-        KupRankingTable coreTable;
+        MemberRankingPage page;
+        try {
+            final long tableId = getRankingTableService()
+                    .getKupRankingTableId(kupId);
+            page = getRankingTableService().getPage(tableId, offset,
+                    batchSize, member);
+        } catch (CoreException e) {
+            return Response.status(500).entity("An internal error occured")
+                    .build();
+        }
+
+        ReSTMemberRankingTable table = new ReSTMemberRankingTable(page);
+        setTieBreakerQuestionAnswers(kup, table);
+
+        return Response.status(202).entity(table).build();
+    }
+
+    @Override
+    public Response getKupRankingAfter(long kupId, long memberId, int batchSize)
+            throws ReSTException {
+        final Kup kup = getKupService().getKupById(kupId);
+        if (kup == null) {
+            return Response.status(400).entity("Kup not found").build();
+        }
+        MemberRankingPage page;
         try {
-            coreTable = getKupService().getKupRanking(kup, offset, batchSize);
+            final long tableId = getRankingTableService()
+                    .getKupRankingTableId(kupId);
+            page = getRankingTableService().getPageAfter(tableId, memberId,
+                    batchSize, null);
+        } catch (CoreException e) {
+            return Response.status(400).entity("Member not ranked").build();
+        }
+
+        ReSTMemberRankingTable table = new ReSTMemberRankingTable(page);
+        setTieBreakerQuestionAnswers(kup, table);
+
+        return Response.status(202).entity(table).build();
+    }
+
+    @Override
+    public Response getKupRankingChanges(long kupId, long version,
+            int batchSize) throws ReSTException {
+        final Kup kup = getKupService().getKupById(kupId);
+        if (kup == null) {
+            return Response.status(400).entity("Kup not found").build();
+        }
+        ReSTMemberRankingTable table;
+        try {
+            final long tableId = getRankingTableService()
+                    .getKupRankingTableId(kupId);
+            final MemberRankingDelta delta = getRankingTableService()
+                    .getChangesSince(tableId, version);
+            if (delta.isComplete()) {
+                table = new ReSTMemberRankingTable(delta);
+            } else {
+                // Change log rolled over: client needs a fresh page.
+                table = new ReSTMemberRankingTable(getRankingTableService()
+                        .getPage(tableId, 0, batchSize, null));
+            }
         } catch (CoreException e) {
             return Response.status(500).entity("An internal error occured")
                     .build();
         }
 
-        ReSTMemberRankingTable table = new ReSTMemberRankingTable(coreTable,
-                offset, batchSize, new ReSTMember(member));
+        setTieBreakerQuestionAnswers(kup, table);
 
-        // Insert tie breaker question here so that client won't have to.
+        return Response.status(202).entity(table).build();
+    }
+
+    /**
+     * Insert tie breaker question answers so that client won't have to.
+     * 
+     * @param kup: a {@link Kup} instance.
+     * @param table: a {@link ReSTMemberRankingTable} instance.
+     */
+    private void setTieBreakerQuestionAnswers(Kup kup,
+            ReSTMemberRankingTable table) {
         if (kup.getQuestionsTiebreaker().size() > 0) {
             // XXX we only support one (1) right now.
             QuestionKupTiebreaker q = kup.getQuestionsTiebreaker().get(0);
-            for (ReSTMemberRankingTableEntry entry : table.getEntries()) {
-                Member coreMember = getMemberService().getMember(
-                        entry.getMember().getEmail());
-                PredictionQuestionKupTiebreaker pq = getPredictionService()
-                        .getPredictionQuestionKupTieBreakerFor(coreMember, kup,
-                                q);
-                String a = "0";
-                if (pq != null) {
-                    a = pq.getAnswer();
+            final List<ReSTMemberRankingTableEntry> entries = table
+                    .getEntries();
+            long[] memberIds = new long[entries.size()];
+            for (int i = 0; i < memberIds.length; i++) {
+                memberIds[i] = entries.get(i).getMember().getUuid();
+            }
+            // Answers of the whole page at once.
+            final Map<Long, String> answers = getPredictionService()
+                    .getTiebreakerAnswersFor(kup, q, memberIds);
+            for (ReSTMemberRankingTableEntry entry : entries) {
+                String a = answers.get(entry.getMember().getUuid());
+                if (a == null) {
+                    a = "0";
                 }
                 entry.setTieBreakerQuestionAnswer(a);
             }
         }
-
-        return Response.status(202).entity(table).build();
     }
 
     @Override
@@ -1037,15 +1112,14 @@ public class KupResourceBean extends AbstractResource implements KupResource {
         if (member == null) {
             return Response.status(400).entity("Member not found").build();
         }
-        KupRankingTable coreTable;
+        ReSTMemberRankingTable table;
         try {
-            coreTable = getKupService().getKupRanking(kup, offset, batchSize);
+            table = new ReSTMemberRankingTable(getRankingTableService(),
+                    kup.getRankingTable(), member, offset, batchSize);
         } catch (CoreException e) {
             return Response.status(500).entity("An internal error occured")
                     .build();
         }
-        ReSTMemberRankingTable table = new ReSTMemberRankingTable(coreTable,
-                offset, batchSize, new ReSTMember(member), true, null);
         return Response.status(202).entity(table).build();
     }
 
@@ -43,6 +43,7 @@ import org.sofun.core.CoreConstants;
 import org.sofun.core.CoreUtil;
 import org.sofun.core.api.banking.CurrencyType;
 import org.sofun.core.api.community.Community;
+import org.sofun.core.api.community.table.MemberRankingTableEntry;
 import org.sofun.core.api.exception.CoreException;
 import org.sofun.core.api.feed.FeedEntryType;
 import org.sofun.core.api.kup.Kup;
@@ -1598,14 +1599,28 @@ public class MemberResourceBean extends AbstractResource implements
         }
 
         List<ReSTMemberKup> kups = new ArrayList<ReSTMemberKup>();
-        for (Kup coreKup : coreKups) {
-            final ReSTMemberKup kup = new ReSTMemberKup(coreKup, member);
-            if (kup.getRanking() == 0) {
-                // Entry might be null in case of gambling Kups where player did
-                // record a prediction but did not place bet.
-                continue;
+        try {
+            for (Kup coreKup : coreKups) {
+                // Only the entry of the member is loaded, not the table.
+                final long tableId = getRankingTableService()
+                        .getKupRankingTableId(coreKup.getId());
+                if (tableId == -1) {
+                    continue;
+                }
+                final MemberRankingTableEntry entry = getRankingTableService()
+                        .getEntryFor(tableId, member.getId());
+                if (entry == null) {
+                    // Entry might be null in case of gambling Kups where
+                    // player did record a prediction but did not place bet.
+                    continue;
+                }
+                final int position = getRankingTableService().getPositionFor(
+                        tableId, entry);
+                kups.add(new ReSTMemberKup(coreKup, member, entry, position));
             }
-            kups.add(kup);
+        } catch (CoreException e) {
+            log.error(e.getMessage());
+            return Response.status(500).entity("Internal error...").build();
         }
 
         return Response.status(202).entity(kups).build();
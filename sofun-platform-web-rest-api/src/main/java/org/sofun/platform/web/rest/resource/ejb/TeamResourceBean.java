@@ -144,7 +144,7 @@ public class TeamResourceBean extends AbstractResource implements TeamResource {
                     }
                 }
 
-                t.addMember(m);
+                getTeamService().addMember(t, m);
 
                 // FIXME make this generic and factore out.
                 // Room join based bonus.
@@ -406,7 +406,7 @@ public class TeamResourceBean extends AbstractResource implements TeamResource {
             Member m = getCoreMemberByEmail(params.get("adminEmail"));
 
             team.addAdmin(m);
-            team.addMember(m);
+            getTeamService().addMember(team, m);
 
             c.addTeam(team);
             Team newTeam = getCoreTeamByName(communityId, teamName);
@@ -706,7 +706,7 @@ public class TeamResourceBean extends AbstractResource implements TeamResource {
             return Response.status(400).entity("Kup not found").build();
         }
 
-        if (kup.getParticipants().size() > 0) {
+        if (kup.getNbParticipants() > 0) {
             return Response.status(500)
                     .entity("Impossible to delete a Kup w/ participants")
                     .build();
@@ -51,6 +51,12 @@ public interface CommunityResource extends Serializable {
             @PathParam("memberEmail") String memberEmail, @PathParam("offset") int offset, @PathParam("batchSize") int batchSize)
             throws ReSTException;
 
+    @GET
+    @Path("/{communityId}/ranking/after/{memberId}/{batchSize}/get")
+    @Produces("application/json")
+    Response getCommunityRankingTableAfter(@PathParam("communityId") long communityId, @PathParam("memberId") long memberId, @PathParam("batchSize") int batchSize)
+            throws ReSTException;
+
     @GET
     @Path("/{communityId}/ranking/friends/{memberEmail}/{offset}/{batchSize}")
     @Produces("application/json")
@@ -143,6 +143,20 @@ public interface KupResource extends Serializable {
             @PathParam("email") String email, @PathParam("offset") int offset,
             @PathParam("batchSize") int batchSize) throws ReSTException;
 
+    @GET
+    @Path("/{kupId}/ranking/after/{memberId}/{batchSize}/get")
+    @Produces("application/json")
+    Response getKupRankingAfter(@PathParam("kupId") long kupId,
+            @PathParam("memberId") long memberId,
+            @PathParam("batchSize") int batchSize) throws ReSTException;
+
+    @GET
+    @Path("/{kupId}/ranking/changes/{version}/{batchSize}/get")
+    @Produces("application/json")
+    Response getKupRankingChanges(@PathParam("kupId") long kupId,
+            @PathParam("version") long version,
+            @PathParam("batchSize") int batchSize) throws ReSTException;
+
     @GET
     @Path("/{kupId}/ranking/facebook/member/{email}/{offset}/{batchSize}/get")
     @Produces("application/json")